@@ -0,0 +1,102 @@
+#!/usr/bin/env bash
+#
+# Copyright (C) 2026 Christian Schmitt, Tim Frey
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#      http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+set -euo pipefail
+
+# Fast stdio launcher for druid-mcp-server.
+#
+# Runs the jar built with `mvn -Paot package` from its extracted layout, with the Spring AOT
+# bean definitions and a JDK AOT cache (JDK 25+). The first launch of a jar extracts it and
+# records the cache in a training run that stops right after the context refresh; later
+# launches reuse both. Jars built without -Paot still get the JDK AOT cache.
+#
+# Spring AOT evaluates @ConditionalOnProperty switches at build time, with the stdio profile. The
+# launcher warns when one of them is set at launch, as the setting has no effect then; change it
+# in application-stdio.yaml and rebuild, or run the jar with java -jar.
+#
+# Usage:
+#   scripts/druid-mcp-stdio.sh [server arguments...]
+#
+# Environment:
+#   DRUID_MCP_JAR        jar to run (default: target/druid-mcp-server-*.jar)
+#   DRUID_MCP_CACHE_DIR  where extracted jars and caches are kept (default: ~/.druid-mcp-server/launch)
+#   JAVA_OPTS            additional JVM options
+# Druid settings are passed as usual, e.g. DRUID_ROUTER_URL or --druid.router.url=...
+
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+JAR="${DRUID_MCP_JAR:-}"
+if [[ -z "$JAR" ]]; then
+  for candidate in "$ROOT_DIR"/target/druid-mcp-server-*.jar; do
+    case "$candidate" in
+      *-sources.jar|*-javadoc.jar|*.original) ;;
+      *) JAR="$candidate" ;;
+    esac
+  done
+fi
+if [[ -z "$JAR" || ! -f "$JAR" ]]; then
+  echo "No druid-mcp-server jar found, build it with 'mvn -Paot package' or set DRUID_MCP_JAR" >&2
+  exit 1
+fi
+
+# One extracted layout and cache per jar content
+KEY="$(cksum < "$JAR" | cut -d ' ' -f 1)"
+APP_DIR="${DRUID_MCP_CACHE_DIR:-$HOME/.druid-mcp-server/launch}/$KEY"
+APP_JAR="$APP_DIR/$(basename "$JAR")"
+CACHE="$APP_DIR/app.aot"
+SPRING_AOT_FLAG="$APP_DIR/spring-aot"
+
+# shellcheck disable=SC2206
+JVM_OPTS=(${JAVA_OPTS:-})
+
+if [[ ! -f "$CACHE" ]]; then
+  mkdir -p "$APP_DIR"
+  if [[ ! -f "$APP_JAR" ]]; then
+    "$JAVA" -Djarmode=tools -jar "$JAR" extract --force --destination "$APP_DIR" >&2
+  fi
+  # Training run: start the stdio server up to the context refresh and record the loaded classes
+  train() {
+    "$JAVA" ${JVM_OPTS[@]+"${JVM_OPTS[@]}"} -XX:AOTCacheOutput="$CACHE" "$@" -Dspring.context.exit=onRefresh \
+      -jar "$APP_JAR" < /dev/null > /dev/null 2> "$APP_DIR/training.log"
+  }
+  if train -Dspring.aot.enabled=true; then
+    touch "$SPRING_AOT_FLAG"
+  else
+    echo "Jar is not AOT processed (build with -Paot), recording the JDK AOT cache only" >&2
+    rm -f "$CACHE" "$SPRING_AOT_FLAG"
+    train || { echo "Training run failed, see $APP_DIR/training.log" >&2; rm -f "$CACHE"; }
+  fi
+fi
+
+if [[ -f "$CACHE" ]]; then
+  JVM_OPTS+=(-XX:AOTCache="$CACHE")
+fi
+if [[ -f "$SPRING_AOT_FLAG" ]]; then
+  JVM_OPTS+=(-Dspring.aot.enabled=true)
+  # Beans behind these switches were chosen when the jar was built
+  for property in druid.discovery.enabled druid.change-detection.enabled druid.mcp.resource-subscriptions.enabled \
+      druid.mcp.response-limit.enabled druid.mcp.tool-concurrency.enabled spring.ai.mcp.server.type; do
+    # Environment variables bind with or without the dashes, e.g. DRUID_MCP_RESPONSE_LIMIT_ENABLED
+    env_name="$(tr '.a-z' '_A-Z' <<< "${property//-/}")"
+    dashed_env_name="$(tr '.a-z-' '_A-Z_' <<< "$property")"
+    if [[ -n "${!env_name:-}" || -n "${!dashed_env_name:-}" || " $* " == *" --$property="* || " ${JAVA_OPTS:-} " == *" -D$property="* ]]; then
+      echo "Warning: $property is fixed in the AOT processed jar, the setting is ignored (rebuild with it in application-stdio.yaml or run java -jar)" >&2
+    fi
+  done
+fi
+exec "$JAVA" ${JVM_OPTS[@]+"${JVM_OPTS[@]}"} -jar "$APP_JAR" "$@"
@@ -0,0 +1,95 @@
+#!/usr/bin/env bash
+#
+# Copyright (C) 2026 Christian Schmitt, Tim Frey
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#      http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+set -euo pipefail
+
+# Measures the stdio time-to-first-tools/list: from process start until the answer to
+# `tools/list` arrives, after the `initialize` handshake. This is the latency an IDE sees
+# when it starts a session.
+#
+# Usage:
+#   scripts/startup-benchmark.sh [runs]      # default: 5 runs per mode
+#
+# Modes:
+#   jar       java -jar target/druid-mcp-server-*.jar
+#   launcher  scripts/druid-mcp-stdio.sh (extracted jar, Spring AOT, JDK AOT cache)
+# The launcher's training run happens before the measured runs.
+# Requires GNU date (nanosecond timestamps).
+
+RUNS="${1:-5}"
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+TIMEOUT_SECONDS=120
+
+JAR="${DRUID_MCP_JAR:-}"
+if [[ -z "$JAR" ]]; then
+  for candidate in "$ROOT_DIR"/target/druid-mcp-server-*.jar; do
+    case "$candidate" in
+      *-sources.jar|*-javadoc.jar|*.original) ;;
+      *) JAR="$candidate" ;;
+    esac
+  done
+fi
+if [[ -z "$JAR" || ! -f "$JAR" ]]; then
+  echo "No druid-mcp-server jar found, build it with 'mvn -Paot package' or set DRUID_MCP_JAR" >&2
+  exit 1
+fi
+export DRUID_MCP_JAR="$JAR"
+
+INITIALIZE='{"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2025-06-18","capabilities":{},"clientInfo":{"name":"startup-benchmark","version":"1.0.0"}}}'
+INITIALIZED='{"jsonrpc":"2.0","method":"notifications/initialized"}'
+TOOLS_LIST='{"jsonrpc":"2.0","id":2,"method":"tools/list","params":{}}'
+
+# Prints the milliseconds until the tools/list response of one server start
+measure() {
+  local start line
+  start=$(date +%s%N)
+  coproc SERVER { exec "$@" 2>/dev/null; }
+  printf '%s\n' "$INITIALIZE" >&"${SERVER[1]}"
+  while IFS= read -r -t "$TIMEOUT_SECONDS" line <&"${SERVER[0]}"; do
+    if [[ "$line" == *'"id":1'* ]]; then
+      printf '%s\n%s\n' "$INITIALIZED" "$TOOLS_LIST" >&"${SERVER[1]}"
+    elif [[ "$line" == *'"id":2'* ]]; then
+      echo $(( ($(date +%s%N) - start) / 1000000 ))
+      kill "$SERVER_PID" 2>/dev/null || true
+      wait "$SERVER_PID" 2>/dev/null || true
+      return 0
+    fi
+  done
+  kill "$SERVER_PID" 2>/dev/null || true
+  echo "No tools/list response within ${TIMEOUT_SECONDS}s: $*" >&2
+  return 1
+}
+
+report() {
+  local mode="$1"
+  shift
+  local times=() ms
+  for ((run = 1; run <= RUNS; run++)); do
+    ms=$(measure "$@")
+    times+=("$ms")
+  done
+  printf '%-10s %s\n' "$mode" "$(printf '%s\n' "${times[@]}" | sort -n | awk '
+    { t[NR] = $1; sum += $1 }
+    END { printf "min %5d ms  median %5d ms  mean %5d ms  (%d runs)", t[1], t[int((NR + 1) / 2)], sum / NR, NR }')"
+}
+
+# Warm the launcher cache outside of the measurement
+measure "$ROOT_DIR/scripts/druid-mcp-stdio.sh" > /dev/null
+
+report jar "$JAVA" -jar "$JAR"
+report launcher "$ROOT_DIR/scripts/druid-mcp-stdio.sh"
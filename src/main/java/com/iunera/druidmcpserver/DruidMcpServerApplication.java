@@ -33,11 +33,16 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class DruidMcpServerApplication {
 
     public static void main(String[] args) {
+        // The MCP SDK runs sync tool handlers on Reactor's bounded elastic scheduler (stdio and
+        // WebFlux transports); on virtual threads, blocked Druid calls do not hold platform threads
+        if (System.getProperty("reactor.schedulers.defaultBoundedElasticOnVirtualThreads") == null) {
+            System.setProperty("reactor.schedulers.defaultBoundedElasticOnVirtualThreads", "true");
+        }
         SpringApplication.run(DruidMcpServerApplication.class, args);
     }
 
     @Bean
     public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("druidMetadata");
+        return new ConcurrentMapCacheManager("druidMetadata", "druidSketchColumns");
     }
 }
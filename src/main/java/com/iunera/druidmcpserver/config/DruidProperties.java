@@ -19,12 +19,25 @@ package com.iunera.druidmcpserver.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @ConfigurationProperties(prefix = "druid")
 public class DruidProperties {
 
     private final Router router = new Router();
     private final Coordinator coordinator = new Coordinator();
+    private final Discovery discovery = new Discovery();
+    private final Concurrency concurrency = new Concurrency();
+    private final Retry retry = new Retry();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private final Coalescing coalescing = new Coalescing();
+    private final Compression compression = new Compression();
+    private final ConditionalRequests conditionalRequests = new ConditionalRequests();
+    private final ChangeDetection changeDetection = new ChangeDetection();
     private final Auth auth = new Auth();
     private final Ssl ssl = new Ssl();
     private final Mcp mcp = new Mcp();
@@ -37,6 +50,38 @@ public class DruidProperties {
         return coordinator;
     }
 
+    public Discovery getDiscovery() {
+        return discovery;
+    }
+
+    public Concurrency getConcurrency() {
+        return concurrency;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Coalescing getCoalescing() {
+        return coalescing;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public ConditionalRequests getConditionalRequests() {
+        return conditionalRequests;
+    }
+
+    public ChangeDetection getChangeDetection() {
+        return changeDetection;
+    }
+
     public Auth getAuth() {
         return auth;
     }
@@ -51,6 +96,11 @@ public class DruidProperties {
 
     public static class Router {
         private String url = "http://localhost:8888";
+        private List<String> urls = new ArrayList<>();
+        private String selectionStrategy = "LEAST_OUTSTANDING";
+        private int ejectionFailureThreshold = 3;
+        private long ejectionDurationMs = 30000;
+        private long hedgeDelayMs = 500;
 
         public String getUrl() {
             return url;
@@ -59,6 +109,49 @@ public class DruidProperties {
         public void setUrl(String url) {
             this.url = url;
         }
+
+        /**
+         * All router endpoints to balance across, falling back to the single {@code url}
+         */
+        public List<String> getUrls() {
+            return urls.isEmpty() ? List.of(url) : urls;
+        }
+
+        public void setUrls(List<String> urls) {
+            this.urls = urls;
+        }
+
+        public String getSelectionStrategy() {
+            return selectionStrategy;
+        }
+
+        public void setSelectionStrategy(String selectionStrategy) {
+            this.selectionStrategy = selectionStrategy;
+        }
+
+        public int getEjectionFailureThreshold() {
+            return ejectionFailureThreshold;
+        }
+
+        public void setEjectionFailureThreshold(int ejectionFailureThreshold) {
+            this.ejectionFailureThreshold = ejectionFailureThreshold;
+        }
+
+        public long getEjectionDurationMs() {
+            return ejectionDurationMs;
+        }
+
+        public void setEjectionDurationMs(long ejectionDurationMs) {
+            this.ejectionDurationMs = ejectionDurationMs;
+        }
+
+        public long getHedgeDelayMs() {
+            return hedgeDelayMs;
+        }
+
+        public void setHedgeDelayMs(long hedgeDelayMs) {
+            this.hedgeDelayMs = hedgeDelayMs;
+        }
     }
 
     public static class Coordinator {
@@ -73,6 +166,325 @@ public class DruidProperties {
         }
     }
 
+    /**
+     * Discovery of the leader coordinator, the leader overlord and the brokers, so that
+     * requests can bypass the router
+     */
+    public static class Discovery {
+        private boolean enabled = false;
+        private long refreshIntervalMs = 30000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getRefreshIntervalMs() {
+            return refreshIntervalMs;
+        }
+
+        public void setRefreshIntervalMs(long refreshIntervalMs) {
+            this.refreshIntervalMs = refreshIntervalMs;
+        }
+    }
+
+    /**
+     * Adaptive per service class bulkheads for requests sent to Druid
+     */
+    public static class Concurrency {
+        private boolean enabled = true;
+        private int initialLimit = 16;
+        private int minLimit = 2;
+        private int maxLimit = 64;
+        private int maxQueue = 100;
+        private long queueTimeoutMs = 30000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+
+        public long getQueueTimeoutMs() {
+            return queueTimeoutMs;
+        }
+
+        public void setQueueTimeoutMs(long queueTimeoutMs) {
+            this.queueTimeoutMs = queueTimeoutMs;
+        }
+    }
+
+    /**
+     * Retries of idempotent reads on transient Druid errors
+     */
+    public static class Retry {
+        private boolean enabled = true;
+        private int maxAttempts = 3;
+        private long initialBackoffMs = 100;
+        private long maxBackoffMs = 2000;
+        private long maxRetryAfterMs = 10000;
+        private double budgetRatio = 0.2;
+        private int minRetriesPerSecond = 5;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffMs() {
+            return initialBackoffMs;
+        }
+
+        public void setInitialBackoffMs(long initialBackoffMs) {
+            this.initialBackoffMs = initialBackoffMs;
+        }
+
+        public long getMaxBackoffMs() {
+            return maxBackoffMs;
+        }
+
+        public void setMaxBackoffMs(long maxBackoffMs) {
+            this.maxBackoffMs = maxBackoffMs;
+        }
+
+        public long getMaxRetryAfterMs() {
+            return maxRetryAfterMs;
+        }
+
+        public void setMaxRetryAfterMs(long maxRetryAfterMs) {
+            this.maxRetryAfterMs = maxRetryAfterMs;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public int getMinRetriesPerSecond() {
+            return minRetriesPerSecond;
+        }
+
+        public void setMinRetriesPerSecond(int minRetriesPerSecond) {
+            this.minRetriesPerSecond = minRetriesPerSecond;
+        }
+    }
+
+    /**
+     * Circuit breakers per service class and endpoint
+     */
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        private int failureThreshold = 5;
+        private double failureRateThreshold = 0.5;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private long openDurationMs = 30000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+
+        public long getOpenDurationMs() {
+            return openDurationMs;
+        }
+
+        public void setOpenDurationMs(long openDurationMs) {
+            this.openDurationMs = openDurationMs;
+        }
+    }
+
+    /**
+     * Sharing of identical in-flight reads between concurrent callers
+     */
+    public static class Coalescing {
+        private boolean enabled = true;
+        private int maxBufferBytes = 16 * 1024 * 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxBufferBytes() {
+            return maxBufferBytes;
+        }
+
+        public void setMaxBufferBytes(int maxBufferBytes) {
+            this.maxBufferBytes = maxBufferBytes;
+        }
+    }
+
+    /**
+     * Gzip compression of Druid responses
+     */
+    public static class Compression {
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Revalidation of cached coordinator metadata with ETag / Last-Modified
+     */
+    public static class ConditionalRequests {
+        private boolean enabled = true;
+        private int maxEntries = 256;
+        private long maxBytes = 64L * 1024 * 1024;
+        private int maxEntryBytes = 16 * 1024 * 1024;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public int getMaxEntryBytes() {
+            return maxEntryBytes;
+        }
+
+        public void setMaxEntryBytes(int maxEntryBytes) {
+            this.maxEntryBytes = maxEntryBytes;
+        }
+    }
+
+    /**
+     * Background polling for cluster metadata changes that invalidate local caches
+     */
+    public static class ChangeDetection {
+        private boolean enabled = true;
+        private long intervalMs = 15000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getIntervalMs() {
+            return intervalMs;
+        }
+
+        public void setIntervalMs(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+    }
+
     public static class Auth {
         private String username;
         private String password;
@@ -118,6 +530,13 @@ public class DruidProperties {
     public static class Mcp {
         private final Metrics metrics = new Metrics();
         private final SqlSyntaxCorrection sqlSyntaxCorrection = new SqlSyntaxCorrection();
+        private final NativeQuery nativeQuery = new NativeQuery();
+        private final ResultStore resultStore = new ResultStore();
+        private final Export export = new Export();
+        private final ResourceSubscriptions resourceSubscriptions = new ResourceSubscriptions();
+        private final ResourceCatalog resourceCatalog = new ResourceCatalog();
+        private final ResponseLimit responseLimit = new ResponseLimit();
+        private final ToolConcurrency toolConcurrency = new ToolConcurrency();
 
         public Metrics getMetrics() {
             return metrics;
@@ -127,6 +546,34 @@ public class DruidProperties {
             return sqlSyntaxCorrection;
         }
 
+        public NativeQuery getNativeQuery() {
+            return nativeQuery;
+        }
+
+        public ResultStore getResultStore() {
+            return resultStore;
+        }
+
+        public Export getExport() {
+            return export;
+        }
+
+        public ResourceSubscriptions getResourceSubscriptions() {
+            return resourceSubscriptions;
+        }
+
+        public ResourceCatalog getResourceCatalog() {
+            return resourceCatalog;
+        }
+
+        public ResponseLimit getResponseLimit() {
+            return responseLimit;
+        }
+
+        public ToolConcurrency getToolConcurrency() {
+            return toolConcurrency;
+        }
+
         public static class Metrics {
             private boolean enabled = true;
 
@@ -142,6 +589,9 @@ public class DruidProperties {
         public static class SqlSyntaxCorrection {
             private boolean enabled = true;
             private long cacheTtlMs = 300000; // 5 minutes
+            private boolean snapshotEnabled = false;
+            private boolean warmupEnabled = true;
+            private String snapshotPath = System.getProperty("user.home") + "/.druid-mcp-server/schema-snapshot.bin";
 
             public boolean isEnabled() {
                 return enabled;
@@ -158,6 +608,295 @@ public class DruidProperties {
             public void setCacheTtlMs(long cacheTtlMs) {
                 this.cacheTtlMs = cacheTtlMs;
             }
+
+            public boolean isSnapshotEnabled() {
+                return snapshotEnabled;
+            }
+
+            public void setSnapshotEnabled(boolean snapshotEnabled) {
+                this.snapshotEnabled = snapshotEnabled;
+            }
+
+            public boolean isWarmupEnabled() {
+                return warmupEnabled;
+            }
+
+            public void setWarmupEnabled(boolean warmupEnabled) {
+                this.warmupEnabled = warmupEnabled;
+            }
+
+            public String getSnapshotPath() {
+                return snapshotPath;
+            }
+
+            public void setSnapshotPath(String snapshotPath) {
+                this.snapshotPath = snapshotPath;
+            }
+        }
+
+        public static class NativeQuery {
+            // Additional named native query templates (name -> template JSON), overriding built-ins of the same name
+            private Map<String, String> templates = new LinkedHashMap<>();
+
+            public Map<String, String> getTemplates() {
+                return templates;
+            }
+
+            public void setTemplates(Map<String, String> templates) {
+                this.templates = templates;
+            }
+        }
+
+        public static class ResultStore {
+            private String directory = System.getProperty("java.io.tmpdir") + "/druid-mcp-server/results";
+            private long maxBytes = 512L * 1024 * 1024; // 512 MB
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public long getMaxBytes() {
+                return maxBytes;
+            }
+
+            public void setMaxBytes(long maxBytes) {
+                this.maxBytes = maxBytes;
+            }
+        }
+
+        public static class Export {
+            private String directory = System.getProperty("user.home") + "/druid-mcp-exports";
+            private int bufferSize = 64 * 1024;
+            private int maxConcurrent = 2;
+            private int maxFinishedJobs = 100;
+            private long finishedJobTtlMs = 3600000; // 1 hour
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public int getBufferSize() {
+                return bufferSize;
+            }
+
+            public void setBufferSize(int bufferSize) {
+                this.bufferSize = bufferSize;
+            }
+
+            public int getMaxConcurrent() {
+                return maxConcurrent;
+            }
+
+            public void setMaxConcurrent(int maxConcurrent) {
+                this.maxConcurrent = maxConcurrent;
+            }
+
+            public int getMaxFinishedJobs() {
+                return maxFinishedJobs;
+            }
+
+            public void setMaxFinishedJobs(int maxFinishedJobs) {
+                this.maxFinishedJobs = maxFinishedJobs;
+            }
+
+            public long getFinishedJobTtlMs() {
+                return finishedJobTtlMs;
+            }
+
+            public void setFinishedJobTtlMs(long finishedJobTtlMs) {
+                this.finishedJobTtlMs = finishedJobTtlMs;
+            }
+        }
+
+        public static class ResourceSubscriptions {
+            private boolean enabled = true;
+            private int maxWatched = 500;
+            private long resyncIntervalMs = 300000; // 5 minutes
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxWatched() {
+                return maxWatched;
+            }
+
+            public void setMaxWatched(int maxWatched) {
+                this.maxWatched = maxWatched;
+            }
+
+            public long getResyncIntervalMs() {
+                return resyncIntervalMs;
+            }
+
+            public void setResyncIntervalMs(long resyncIntervalMs) {
+                this.resyncIntervalMs = resyncIntervalMs;
+            }
+        }
+
+        public static class ResourceCatalog {
+            private long maxAgeMs = 60000; // 1 minute
+            private int pageSize = 100;
+            private int maxPageSize = 1000;
+
+            public long getMaxAgeMs() {
+                return maxAgeMs;
+            }
+
+            public void setMaxAgeMs(long maxAgeMs) {
+                this.maxAgeMs = maxAgeMs;
+            }
+
+            public int getPageSize() {
+                return pageSize;
+            }
+
+            public void setPageSize(int pageSize) {
+                this.pageSize = pageSize;
+            }
+
+            public int getMaxPageSize() {
+                return maxPageSize;
+            }
+
+            public void setMaxPageSize(int maxPageSize) {
+                this.maxPageSize = maxPageSize;
+            }
+        }
+
+        public static class ResponseLimit {
+            private boolean enabled = true;
+            private int maxBytes = 262144; // 256 KiB
+            private long maxHeldBytes = 67108864; // 64 MiB
+            private long heldTtlMs = 900000; // 15 minutes
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxBytes() {
+                return maxBytes;
+            }
+
+            public void setMaxBytes(int maxBytes) {
+                this.maxBytes = maxBytes;
+            }
+
+            public long getMaxHeldBytes() {
+                return maxHeldBytes;
+            }
+
+            public void setMaxHeldBytes(long maxHeldBytes) {
+                this.maxHeldBytes = maxHeldBytes;
+            }
+
+            public long getHeldTtlMs() {
+                return heldTtlMs;
+            }
+
+            public void setHeldTtlMs(long heldTtlMs) {
+                this.heldTtlMs = heldTtlMs;
+            }
+        }
+
+        /**
+         * Concurrency caps per MCP tool; tools without an entry in {@code tools} use the defaults
+         */
+        public static class ToolConcurrency {
+            private boolean enabled = true;
+            private int maxConcurrent = 32;
+            private int maxQueue = 100;
+            private long queueTimeoutMs = 30000;
+            private Map<String, ToolLimit> tools = new LinkedHashMap<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxConcurrent() {
+                return maxConcurrent;
+            }
+
+            public void setMaxConcurrent(int maxConcurrent) {
+                this.maxConcurrent = maxConcurrent;
+            }
+
+            public int getMaxQueue() {
+                return maxQueue;
+            }
+
+            public void setMaxQueue(int maxQueue) {
+                this.maxQueue = maxQueue;
+            }
+
+            public long getQueueTimeoutMs() {
+                return queueTimeoutMs;
+            }
+
+            public void setQueueTimeoutMs(long queueTimeoutMs) {
+                this.queueTimeoutMs = queueTimeoutMs;
+            }
+
+            public Map<String, ToolLimit> getTools() {
+                return tools;
+            }
+
+            public void setTools(Map<String, ToolLimit> tools) {
+                this.tools = tools;
+            }
+        }
+
+        /**
+         * Overrides for one tool; unset values fall back to the {@link ToolConcurrency} defaults
+         */
+        public static class ToolLimit {
+            private Integer maxConcurrent;
+            private Integer maxQueue;
+            private Long queueTimeoutMs;
+
+            public Integer getMaxConcurrent() {
+                return maxConcurrent;
+            }
+
+            public void setMaxConcurrent(Integer maxConcurrent) {
+                this.maxConcurrent = maxConcurrent;
+            }
+
+            public Integer getMaxQueue() {
+                return maxQueue;
+            }
+
+            public void setMaxQueue(Integer maxQueue) {
+                this.maxQueue = maxQueue;
+            }
+
+            public Long getQueueTimeoutMs() {
+                return queueTimeoutMs;
+            }
+
+            public void setQueueTimeoutMs(Long queueTimeoutMs) {
+                this.queueTimeoutMs = queueTimeoutMs;
+            }
         }
     }
 }
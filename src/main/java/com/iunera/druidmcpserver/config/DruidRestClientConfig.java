@@ -16,8 +16,26 @@
 
 package com.iunera.druidmcpserver.config;
 
+import com.iunera.druidmcpserver.config.http.CircuitBreakerInterceptor;
+import com.iunera.druidmcpserver.config.http.CircuitBreakerRegistry;
+import com.iunera.druidmcpserver.config.http.CompressionInterceptor;
+import com.iunera.druidmcpserver.config.http.ConcurrencyLimitInterceptor;
+import com.iunera.druidmcpserver.config.http.ConcurrencyLimiterRegistry;
+import com.iunera.druidmcpserver.config.http.ConditionalRequestCache;
+import com.iunera.druidmcpserver.config.http.ConditionalRequestInterceptor;
+import com.iunera.druidmcpserver.config.http.EndpointPool;
+import com.iunera.druidmcpserver.config.http.LoadBalancingInterceptor;
+import com.iunera.druidmcpserver.config.http.RequestCoalescer;
+import com.iunera.druidmcpserver.config.http.RequestCoalescingInterceptor;
+import com.iunera.druidmcpserver.config.http.RetryInterceptor;
+import com.iunera.druidmcpserver.config.http.RetryPolicy;
+import com.iunera.druidmcpserver.config.http.ServiceEndpointRegistry;
+import com.iunera.druidmcpserver.config.http.ServiceRoutingInterceptor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
 import javax.net.ssl.SSLContext;
@@ -27,35 +45,115 @@ import java.net.http.HttpClient;
 import java.security.cert.X509Certificate;
 import java.time.Duration;
 import java.util.Base64;
+import java.util.List;
 
 @Configuration
 public class DruidRestClientConfig {
 
     private final DruidProperties druidProperties;
-
-    public DruidRestClientConfig(DruidProperties druidProperties) {
+    private final ConcurrencyLimiterRegistry concurrencyLimiterRegistry;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RequestCoalescer requestCoalescer;
+    private final ConditionalRequestCache conditionalRequestCache;
+
+    public DruidRestClientConfig(DruidProperties druidProperties,
+                                 ConcurrencyLimiterRegistry concurrencyLimiterRegistry,
+                                 RetryPolicy retryPolicy,
+                                 CircuitBreakerRegistry circuitBreakerRegistry,
+                                 RequestCoalescer requestCoalescer,
+                                 ConditionalRequestCache conditionalRequestCache) {
         this.druidProperties = druidProperties;
+        this.concurrencyLimiterRegistry = concurrencyLimiterRegistry;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.requestCoalescer = requestCoalescer;
+        this.conditionalRequestCache = conditionalRequestCache;
     }
 
     public RestClient createRestClient(String baseUrl) {
+        ClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(createHttpClient());
+        RestClient.Builder builder = RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory);
+
+        builder = addInterceptors(builder);
+        // Single endpoint, the endpoint interceptors simply run last
+        for (ClientHttpRequestInterceptor interceptor : endpointInterceptors(requestFactory)) {
+            builder = builder.requestInterceptor(interceptor);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a RestClient whose requests are spread over all endpoints of the given pool.
+     * Request URIs are built against the first endpoint and rewritten per request. When a
+     * registry is given and discovery is enabled, requests for the coordinator, overlord and
+     * brokers go to the discovered services directly.
+     */
+    public RestClient createRestClient(EndpointPool endpointPool, ServiceEndpointRegistry serviceEndpointRegistry) {
+        ClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(createHttpClient());
         RestClient.Builder builder = RestClient.builder()
-                .baseUrl(baseUrl);
+                .baseUrl(endpointPool.getEndpoints().getFirst().getBaseUrl())
+                .requestFactory(requestFactory);
+
+        builder = addInterceptors(builder);
+        List<ClientHttpRequestInterceptor> endpointInterceptors = endpointInterceptors(requestFactory);
 
-        // Configure HTTP client for SSL settings
-        if (druidProperties.getSsl().isEnabled() || druidProperties.getSsl().isSkipVerification()) {
-            HttpClient httpClient = createHttpClient();
-            builder = builder.requestFactory(new org.springframework.http.client.JdkClientHttpRequestFactory(httpClient));
+        if (serviceEndpointRegistry != null && druidProperties.getDiscovery().isEnabled()) {
+            builder = builder.requestInterceptor(new ServiceRoutingInterceptor(serviceEndpointRegistry, requestFactory, endpointInterceptors));
         }
 
+        // Must stay last, it executes the requests against the selected endpoint
+        return builder.requestInterceptor(new LoadBalancingInterceptor(endpointPool, requestFactory, endpointInterceptors)).build();
+    }
+
+    /**
+     * Authentication, resilience and transfer interceptors, outermost first: identical reads are
+     * coalesced before anything else, a retry waits for a new bulkhead slot and re-enters the
+     * endpoint interceptors, and responses are decompressed before any other interceptor reads them
+     */
+    private RestClient.Builder addInterceptors(RestClient.Builder builder) {
         // Add basic authentication if credentials are provided
-        if (druidProperties.getAuth().getUsername() != null && druidProperties.getAuth().getPassword() != null) {
+        if (hasCredentials()) {
             builder = builder.requestInterceptor(createBasicAuthInterceptor());
         }
 
-        return builder.build();
+        if (druidProperties.getCoalescing().isEnabled()) {
+            builder = builder.requestInterceptor(new RequestCoalescingInterceptor(requestCoalescer));
+        }
+
+        if (druidProperties.getConditionalRequests().isEnabled()) {
+            builder = builder.requestInterceptor(new ConditionalRequestInterceptor(conditionalRequestCache, druidProperties.getConditionalRequests()));
+        }
+
+        if (druidProperties.getRetry().isEnabled()) {
+            builder = builder.requestInterceptor(new RetryInterceptor(retryPolicy));
+        }
+
+        if (druidProperties.getConcurrency().isEnabled()) {
+            builder = builder.requestInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimiterRegistry));
+        }
+
+        if (druidProperties.getCompression().isEnabled()) {
+            builder = builder.requestInterceptor(new CompressionInterceptor());
+        }
+
+        return builder;
+    }
+
+    /**
+     * Interceptors that must see the endpoint a request is actually sent to, i.e. the URI after
+     * service routing and load balancing
+     */
+    private List<ClientHttpRequestInterceptor> endpointInterceptors(ClientHttpRequestFactory requestFactory) {
+        if (!druidProperties.getCircuitBreaker().isEnabled()) {
+            return List.of();
+        }
+        return List.of(new CircuitBreakerInterceptor(circuitBreakerRegistry, requestFactory, this::addBasicAuth));
     }
 
-    private HttpClient createHttpClient() {
+    HttpClient createHttpClient() {
         HttpClient.Builder httpClientBuilder = HttpClient.newBuilder()
                 .connectTimeout(Duration.ofSeconds(30));
 
@@ -88,15 +186,26 @@ public class DruidRestClientConfig {
         return httpClientBuilder.build();
     }
 
+    private boolean hasCredentials() {
+        return druidProperties.getAuth().getUsername() != null && druidProperties.getAuth().getPassword() != null;
+    }
+
     private ClientHttpRequestInterceptor createBasicAuthInterceptor() {
         return (request, body, execution) -> {
-            String auth = druidProperties.getAuth().getUsername() + ":" + druidProperties.getAuth().getPassword();
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
-            request.getHeaders().add("Authorization", "Basic " + encodedAuth);
+            addBasicAuth(request.getHeaders());
             return execution.execute(request, body);
         };
     }
 
+    void addBasicAuth(HttpHeaders headers) {
+        if (!hasCredentials()) {
+            return;
+        }
+        String auth = druidProperties.getAuth().getUsername() + ":" + druidProperties.getAuth().getPassword();
+        String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
+        headers.add("Authorization", "Basic " + encodedAuth);
+    }
+
     public String getDruidRouterUrl() {
         return druidProperties.getRouter().getUrl();
     }
@@ -16,6 +16,8 @@
 
 package com.iunera.druidmcpserver.config;
 
+import com.iunera.druidmcpserver.config.http.EndpointPool;
+import com.iunera.druidmcpserver.config.http.ServiceEndpointRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestClient;
@@ -25,14 +27,29 @@ public class DruidRouterRestClientConfig {
 
     private final DruidRestClientConfig restClientConfig;
     private final DruidProperties druidProperties;
+    private final ServiceEndpointRegistry serviceEndpointRegistry;
 
-    public DruidRouterRestClientConfig(DruidRestClientConfig restClientConfig, DruidProperties druidProperties) {
+    public DruidRouterRestClientConfig(DruidRestClientConfig restClientConfig,
+                                       DruidProperties druidProperties,
+                                       ServiceEndpointRegistry serviceEndpointRegistry) {
         this.restClientConfig = restClientConfig;
         this.druidProperties = druidProperties;
+        this.serviceEndpointRegistry = serviceEndpointRegistry;
+    }
+
+    @Bean
+    public EndpointPool druidRouterEndpointPool() {
+        DruidProperties.Router router = druidProperties.getRouter();
+        return new EndpointPool("router",
+                router.getUrls(),
+                EndpointPool.SelectionStrategy.of(router.getSelectionStrategy()),
+                router.getEjectionFailureThreshold(),
+                router.getEjectionDurationMs(),
+                router.getHedgeDelayMs());
     }
 
     @Bean("druidRouterRestClient")
     public RestClient druidRouterRestClient() {
-        return restClientConfig.createRestClient(druidProperties.getRouter().getUrl());
+        return restClientConfig.createRestClient(druidRouterEndpointPool(), serviceEndpointRegistry);
     }
 }
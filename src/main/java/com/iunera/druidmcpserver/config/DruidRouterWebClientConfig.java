@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config;
+
+import com.iunera.druidmcpserver.config.http.EndpointPool;
+import com.iunera.druidmcpserver.config.http.LoadBalancingExchangeFilter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Non-blocking client for the router endpoints, used by the async query tools when the server
+ * runs as an async MCP server (the webflux build). Requests are spread over the router pool like
+ * those of the RestClient; retries, bulkheads and circuit breakers are not applied.
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.web.reactive.function.client.WebClient")
+@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+public class DruidRouterWebClientConfig {
+
+    private final DruidRestClientConfig restClientConfig;
+    private final EndpointPool druidRouterEndpointPool;
+
+    public DruidRouterWebClientConfig(DruidRestClientConfig restClientConfig,
+                                      @Qualifier("druidRouterEndpointPool") EndpointPool druidRouterEndpointPool) {
+        this.restClientConfig = restClientConfig;
+        this.druidRouterEndpointPool = druidRouterEndpointPool;
+    }
+
+    @Bean("druidRouterWebClient")
+    public WebClient druidRouterWebClient(WebClient.Builder webClientBuilder) {
+        return webClientBuilder
+                .baseUrl(druidRouterEndpointPool.getEndpoints().getFirst().getBaseUrl())
+                .clientConnector(new JdkClientHttpConnector(restClientConfig.createHttpClient()))
+                .defaultRequest(request -> request.headers(restClientConfig::addBasicAuth))
+                .filter(new LoadBalancingExchangeFilter(druidRouterEndpointPool))
+                .build();
+    }
+}
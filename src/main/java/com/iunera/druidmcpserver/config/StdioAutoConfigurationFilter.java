@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config;
+
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Skips web server and security auto-configurations when the application runs without a web
+ * server (the {@code stdio} profile sets {@code spring.main.web-application-type: none}). They
+ * would back off anyway, but evaluating and loading them is a noticeable part of every stdio
+ * startup. Registered in {@code META-INF/spring.factories}.
+ */
+public class StdioAutoConfigurationFilter implements AutoConfigurationImportFilter, EnvironmentAware {
+
+    private static final List<String> SERVER_PACKAGE_SEGMENTS = List.of(
+            ".security.", ".servlet.", ".webmvc.", ".webflux.", ".tomcat.");
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public boolean[] match(String[] autoConfigurationClasses, AutoConfigurationMetadata autoConfigurationMetadata) {
+        boolean withoutWebServer = "none".equalsIgnoreCase(environment.getProperty("spring.main.web-application-type", ""));
+        boolean[] matches = new boolean[autoConfigurationClasses.length];
+        for (int i = 0; i < autoConfigurationClasses.length; i++) {
+            matches[i] = !withoutWebServer || !isServerInfrastructure(autoConfigurationClasses[i]);
+        }
+        return matches;
+    }
+
+    static boolean isServerInfrastructure(String autoConfigurationClass) {
+        if (autoConfigurationClass == null) {
+            return false;
+        }
+        for (String segment : SERVER_PACKAGE_SEGMENTS) {
+            if (autoConfigurationClass.contains(segment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bulkhead whose concurrency limit adapts to the observed latency with a gradient algorithm:
+ * the limit shrinks when the short-term round trip time rises above the long-term baseline
+ * (requests start queueing inside Druid) and grows by roughly {@code sqrt(limit)} while latency
+ * stays flat. Overload responses and I/O errors back the limit off multiplicatively.
+ * Requests above the limit wait in a bounded queue for at most the queue timeout.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_RTT_ALPHA = 0.5;
+    private static final double LONG_RTT_ALPHA = 0.01;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final ServiceClass serviceClass;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotAvailable = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double shortRttNanos;
+    private double longRttNanos;
+    private long acquired;
+    private long rejected;
+    private long timedOut;
+    private long dropped;
+
+    public AdaptiveConcurrencyLimiter(ServiceClass serviceClass, int initialLimit, int minLimit, int maxLimit,
+                                      int maxQueue, long queueTimeoutMs) {
+        this.serviceClass = serviceClass;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, queueTimeoutMs));
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot, waiting in the queue when the limit is reached
+     */
+    public Permit acquire() throws BulkheadFullException, InterruptedIOException {
+        lock.lock();
+        try {
+            if (inFlight >= (int) limit) {
+                if (queued >= maxQueue) {
+                    rejected++;
+                    throw new BulkheadFullException(String.format(
+                            "Too many concurrent Druid %s requests: %d in flight, %d queued",
+                            serviceClass.getDisplayName(), inFlight, queued));
+                }
+                queued++;
+                try {
+                    long remaining = queueTimeoutNanos;
+                    while (inFlight >= (int) limit) {
+                        if (remaining <= 0) {
+                            timedOut++;
+                            throw new BulkheadFullException(String.format(
+                                    "Timed out after %d ms waiting for a Druid %s request slot (limit %d)",
+                                    TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos), serviceClass.getDisplayName(), (int) limit));
+                        }
+                        remaining = slotAvailable.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for a Druid " + serviceClass.getDisplayName() + " request slot");
+                } finally {
+                    queued--;
+                }
+            }
+            inFlight++;
+            acquired++;
+            return new Permit(System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void complete(long rttNanos, boolean overloaded) {
+        lock.lock();
+        try {
+            int inFlightAtSample = inFlight;
+            inFlight--;
+            updateLimit(rttNanos, inFlightAtSample, overloaded);
+            // The limit may have grown by more than one slot
+            slotAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateLimit(long rttNanos, int inFlightAtSample, boolean overloaded) {
+        if (overloaded) {
+            dropped++;
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            return;
+        }
+
+        shortRttNanos = shortRttNanos == 0 ? rttNanos : SHORT_RTT_ALPHA * rttNanos + (1 - SHORT_RTT_ALPHA) * shortRttNanos;
+        longRttNanos = longRttNanos == 0 ? rttNanos : LONG_RTT_ALPHA * rttNanos + (1 - LONG_RTT_ALPHA) * longRttNanos;
+        // Let the baseline follow quickly when latency improves a lot
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        // Only a well utilised limit says something about the capacity of Druid
+        if (inFlightAtSample < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    public ServiceClass getServiceClass() {
+        return serviceClass;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("serviceClass", serviceClass.name());
+            stats.put("limit", (int) limit);
+            stats.put("minLimit", minLimit);
+            stats.put("maxLimit", maxLimit);
+            stats.put("inFlight", inFlight);
+            stats.put("queueDepth", queued);
+            stats.put("maxQueue", maxQueue);
+            stats.put("acquired", acquired);
+            stats.put("rejected", rejected);
+            stats.put("queueTimeouts", timedOut);
+            stats.put("overloadResponses", dropped);
+            stats.put("shortRttMs", Math.round(shortRttNanos / 10_000.0) / 100.0);
+            stats.put("longRttMs", Math.round(longRttNanos / 10_000.0) / 100.0);
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A slot held for one request, released exactly once when its response arrived or it failed
+     */
+    public class Permit {
+
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * @param overloaded whether Druid signalled overload (429/503/504, timeouts, I/O errors)
+         */
+        public void release(boolean overloaded) {
+            release(System.nanoTime() - startNanos, overloaded);
+        }
+
+        void release(long rttNanos, boolean overloaded) {
+            if (released.compareAndSet(false, true)) {
+                complete(rttNanos, overloaded);
+            }
+        }
+    }
+}
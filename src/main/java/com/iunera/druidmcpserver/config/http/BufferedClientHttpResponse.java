@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+
+/**
+ * Response held in memory, so that it can be handed out more than once. {@link #copy()} returns
+ * an independent response with its own headers for every caller.
+ */
+final class BufferedClientHttpResponse implements ClientHttpResponse {
+
+    private final HttpStatusCode statusCode;
+    private final String statusText;
+    private final HttpHeaders headers;
+    private final byte[] content;
+
+    BufferedClientHttpResponse(HttpStatusCode statusCode, String statusText, HttpHeaders headers, byte[] content) {
+        this.statusCode = statusCode;
+        this.statusText = statusText;
+        this.headers = new HttpHeaders();
+        this.headers.putAll(headers);
+        this.content = content;
+    }
+
+    /**
+     * Reads the body into memory and closes the response, unless the body is larger than
+     * {@code maxBytes}. A larger response is returned as a stream that starts with the bytes
+     * read so far and continues with the rest of the original body.
+     */
+    static ClientHttpResponse read(ClientHttpResponse response, int maxBytes) throws IOException {
+        byte[] prefix;
+        InputStream body;
+        try {
+            body = response.getBody();
+            prefix = body.readNBytes(maxBytes + 1);
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+        if (prefix.length > maxBytes) {
+            return new ClientHttpResponseWrapper(response,
+                    new SequenceInputStream(new ByteArrayInputStream(prefix), body), response.getHeaders());
+        }
+        try {
+            return new BufferedClientHttpResponse(response.getStatusCode(), response.getStatusText(), response.getHeaders(), prefix);
+        } finally {
+            response.close();
+        }
+    }
+
+    int size() {
+        return content.length;
+    }
+
+    BufferedClientHttpResponse copy() {
+        return new BufferedClientHttpResponse(statusCode, statusText, headers, content);
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public String getStatusText() {
+        return statusText;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public InputStream getBody() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for one service class at one endpoint. Opens after a number of consecutive
+ * failures or when the failure rate over a sliding window of recent calls is too high, then fails
+ * requests fast. After the open period a background probe moves it to half-open; a successful
+ * probe closes it, a failed probe opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final ServiceClass serviceClass;
+    private final String baseUrl;
+    private final DruidProperties.CircuitBreaker config;
+    private final Consumer<CircuitBreaker> onOpen;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+    private int consecutiveFailures;
+    private State state = State.CLOSED;
+    private long openUntilNanos;
+    private String lastFailure;
+    private long opened;
+    private long rejected;
+    private long probes;
+
+    CircuitBreaker(ServiceClass serviceClass, String baseUrl, DruidProperties.CircuitBreaker config,
+                   Consumer<CircuitBreaker> onOpen, LongSupplier nanoClock) {
+        this.serviceClass = serviceClass;
+        this.baseUrl = baseUrl;
+        this.config = config;
+        this.onOpen = onOpen;
+        this.nanoClock = nanoClock;
+        this.window = new boolean[Math.max(1, config.getSlidingWindowSize())];
+    }
+
+    public ServiceClass getServiceClass() {
+        return serviceClass;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Fails fast unless the breaker is closed
+     */
+    public synchronized void acquirePermission() throws CircuitBreakerOpenException {
+        if (state == State.CLOSED) {
+            return;
+        }
+        rejected++;
+        long retryInMs = Math.max(0, TimeUnit.NANOSECONDS.toMillis(openUntilNanos - nanoClock.getAsLong()));
+        throw new CircuitBreakerOpenException(String.format(
+                "Druid %s at %s is unavailable, failing fast (circuit %s after: %s). Next probe in %d ms",
+                serviceClass.getDisplayName(), baseUrl, state == State.OPEN ? "open" : "half-open, probing",
+                lastFailure, retryInMs));
+    }
+
+    public void onSuccess() {
+        synchronized (this) {
+            record(false);
+            consecutiveFailures = 0;
+        }
+    }
+
+    public void onFailure(String reason) {
+        boolean justOpened;
+        synchronized (this) {
+            record(true);
+            consecutiveFailures++;
+            lastFailure = reason;
+            justOpened = state == State.CLOSED
+                    && (consecutiveFailures >= config.getFailureThreshold()
+                    || windowCalls >= config.getMinimumCalls() && windowFailures >= config.getFailureRateThreshold() * windowCalls);
+            if (justOpened) {
+                open();
+            }
+        }
+        if (justOpened) {
+            onOpen.accept(this);
+        }
+    }
+
+    /**
+     * Moves an open breaker to half-open for a background probe; false if it is not open
+     */
+    synchronized boolean startProbe() {
+        if (state != State.OPEN) {
+            return false;
+        }
+        state = State.HALF_OPEN;
+        probes++;
+        return true;
+    }
+
+    synchronized void probeSucceeded() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        resetWindow();
+    }
+
+    void probeFailed(String reason) {
+        synchronized (this) {
+            lastFailure = reason;
+            open();
+        }
+        onOpen.accept(this);
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntilNanos = nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(config.getOpenDurationMs());
+        opened++;
+        resetWindow();
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("serviceClass", serviceClass.name());
+        stats.put("endpoint", baseUrl);
+        stats.put("state", state.name());
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("recentCalls", windowCalls);
+        stats.put("recentFailures", windowFailures);
+        if (lastFailure != null) {
+            stats.put("lastFailure", lastFailure);
+        }
+        stats.put("timesOpened", opened);
+        stats.put("rejectedFastFail", rejected);
+        stats.put("probes", probes);
+        return stats;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.function.Consumer;
+
+/**
+ * Guards requests with the {@link CircuitBreaker} of their service class at the endpoint in the
+ * request URI. For pooled clients it runs as an endpoint interceptor of
+ * {@link LoadBalancingInterceptor}, so every endpoint has its own breaker and its own probes.
+ * 502/503/504 responses and I/O errors count as failures. Fast-failed and locally rejected
+ * requests (bulkhead full) do not count. While a circuit is open, requests fail immediately with a
+ * {@link CircuitBreakerOpenException} instead of waiting for the connect timeout.
+ */
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+
+    private final CircuitBreakerRegistry registry;
+    private final ClientHttpRequestFactory requestFactory;
+    private final Consumer<HttpHeaders> authentication;
+
+    /**
+     * @param requestFactory factory used for the background probes
+     * @param authentication adds credentials to the probe requests
+     */
+    public CircuitBreakerInterceptor(CircuitBreakerRegistry registry, ClientHttpRequestFactory requestFactory,
+                                     Consumer<HttpHeaders> authentication) {
+        this.registry = registry;
+        this.requestFactory = requestFactory;
+        this.authentication = authentication;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        ServiceClass serviceClass = ServiceClass.forPath(request.getURI().getRawPath());
+        if (serviceClass == null) {
+            return execution.execute(request, body);
+        }
+
+        URI uri = request.getURI();
+        String baseUrl = uri.getScheme() + "://" + uri.getRawAuthority();
+        CircuitBreaker breaker = registry.get(serviceClass, baseUrl, () -> probe(baseUrl + serviceClass.getProbePath()));
+        breaker.acquirePermission();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            int status = response.getStatusCode().value();
+            if (isFailure(status)) {
+                breaker.onFailure("HTTP " + status);
+            } else {
+                breaker.onSuccess();
+            }
+            return response;
+        } catch (BulkheadFullException | CircuitBreakerOpenException e) {
+            throw e;
+        } catch (IOException e) {
+            breaker.onFailure(e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : ""));
+            throw e;
+        }
+    }
+
+    private String probe(String url) {
+        try {
+            ClientHttpRequest probe = requestFactory.createRequest(URI.create(url), HttpMethod.GET);
+            authentication.accept(probe.getHeaders());
+            try (ClientHttpResponse response = probe.execute()) {
+                int status = response.getStatusCode().value();
+                return isFailure(status) ? "probe returned HTTP " + status : null;
+            }
+        } catch (IOException e) {
+            return "probe failed: " + e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+        }
+    }
+
+    private static boolean isFailure(int status) {
+        return status == 502 || status == 503 || status == 504;
+    }
+}
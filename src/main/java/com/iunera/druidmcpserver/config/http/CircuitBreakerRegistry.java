@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breakers per service class and endpoint, and the scheduler of their background
+ * half-open probes
+ */
+@Component
+public class CircuitBreakerRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerRegistry.class);
+
+    /**
+     * Checks whether an endpoint recovered; returns null when it did, or the reason it did not
+     */
+    @FunctionalInterface
+    public interface Probe {
+        String run();
+    }
+
+    private record Entry(CircuitBreaker breaker, Probe probe) {
+    }
+
+    private final DruidProperties.CircuitBreaker config;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> breakers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "druid-circuit-breaker-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CircuitBreakerRegistry(DruidProperties druidProperties) {
+        this(druidProperties.getCircuitBreaker(), System::nanoTime);
+    }
+
+    CircuitBreakerRegistry(DruidProperties.CircuitBreaker config, LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+    }
+
+    public CircuitBreaker get(ServiceClass serviceClass, String baseUrl, Probe probe) {
+        return breakers.computeIfAbsent(serviceClass.name() + "@" + baseUrl, key -> new Entry(
+                new CircuitBreaker(serviceClass, baseUrl, config, this::scheduleProbe, nanoClock), probe)).breaker();
+    }
+
+    public List<CircuitBreaker> getBreakers() {
+        List<CircuitBreaker> result = new ArrayList<>();
+        breakers.values().forEach(entry -> result.add(entry.breaker()));
+        return result;
+    }
+
+    private void scheduleProbe(CircuitBreaker breaker) {
+        logger.warn("Circuit for Druid {} at {} opened, probing again in {} ms",
+                breaker.getServiceClass().getDisplayName(), breaker.getBaseUrl(), config.getOpenDurationMs());
+        if (!scheduler.isShutdown()) {
+            // Probes may block up to the connect timeout, so they run on their own virtual thread
+            scheduler.schedule(() -> Thread.ofVirtual().start(() -> probe(breaker)),
+                    config.getOpenDurationMs(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void probe(CircuitBreaker breaker) {
+        if (!breaker.startProbe()) {
+            return;
+        }
+        Entry entry = breakers.get(breaker.getServiceClass().name() + "@" + breaker.getBaseUrl());
+        String failure;
+        try {
+            failure = entry.probe().run();
+        } catch (RuntimeException e) {
+            failure = e.getMessage();
+        }
+        if (failure == null) {
+            breaker.probeSucceeded();
+            logger.info("Circuit for Druid {} at {} closed after a successful probe",
+                    breaker.getServiceClass().getDisplayName(), breaker.getBaseUrl());
+        } else {
+            breaker.probeFailed(failure);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
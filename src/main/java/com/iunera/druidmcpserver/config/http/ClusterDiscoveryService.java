@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import com.iunera.druidmcpserver.config.DruidRestClientConfig;
+import com.iunera.druidmcpserver.datamanagement.query.SqlParameter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Discovers the leader coordinator, the leader overlord and the brokers through the router and
+ * publishes them to {@link ServiceEndpointRegistry}. Refreshes periodically and right after a
+ * direct endpoint turned out to be stale, e.g. because leadership moved.
+ */
+@Component
+@ConditionalOnProperty(prefix = "druid.discovery", name = "enabled", havingValue = "true")
+public class ClusterDiscoveryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterDiscoveryService.class);
+
+    private static final String BROKERS_QUERY =
+            "SELECT \"host\", \"plaintext_port\", \"tls_port\" FROM sys.servers WHERE \"server_type\" = ?";
+
+    private final ServiceEndpointRegistry registry;
+    private final DruidProperties druidProperties;
+    private final RestClient routerClient;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public ClusterDiscoveryService(ServiceEndpointRegistry registry,
+                                   DruidProperties druidProperties,
+                                   DruidRestClientConfig restClientConfig,
+                                   @Qualifier("druidRouterEndpointPool") EndpointPool routerEndpointPool) {
+        this.registry = registry;
+        this.druidProperties = druidProperties;
+        // Discovery always goes through the router, never through the endpoints it discovers
+        this.routerClient = restClientConfig.createRestClient(routerEndpointPool, null);
+    }
+
+    @PostConstruct
+    void registerInvalidationListener() {
+        registry.setInvalidationListener(() -> Thread.ofVirtual().start(this::refresh));
+    }
+
+    @Scheduled(fixedDelayString = "${druid.discovery.refresh-interval-ms:30000}")
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            registry.update(DruidService.COORDINATOR, discoverLeader("/druid/coordinator/v1/leader"));
+            registry.update(DruidService.OVERLORD, discoverLeader("/druid/indexer/v1/leader"));
+            registry.update(DruidService.BROKER, discoverBrokers());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    private List<String> discoverLeader(String path) {
+        try {
+            String leader = routerClient.get()
+                    .uri(path)
+                    .retrieve()
+                    .body(String.class);
+            return leader == null || leader.isBlank() ? List.of() : List.of(leader.trim());
+        } catch (RestClientException e) {
+            logger.debug("Leader discovery via {} failed: {}", path, e.getMessage());
+            return List.of();
+        }
+    }
+
+    List<String> discoverBrokers() {
+        try {
+            JsonNode servers = routerClient.post()
+                    .uri("/druid/v2/sql")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of(
+                            "query", BROKERS_QUERY,
+                            "resultFormat", "object",
+                            "parameters", List.of(SqlParameter.varchar("broker"))))
+                    .retrieve()
+                    .body(JsonNode.class);
+            return brokerUrls(servers, druidProperties.getSsl().isEnabled());
+        } catch (RestClientException e) {
+            logger.debug("Broker discovery via sys.servers failed: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    static List<String> brokerUrls(JsonNode servers, boolean tls) {
+        List<String> urls = new ArrayList<>();
+        if (servers == null || !servers.isArray()) {
+            return urls;
+        }
+        for (JsonNode server : servers) {
+            String host = server.path("host").asText();
+            long plaintextPort = server.path("plaintext_port").asLong();
+            long tlsPort = server.path("tls_port").asLong();
+            if (host.isEmpty()) {
+                continue;
+            }
+            if (tls && tlsPort > 0) {
+                urls.add("https://" + host + ":" + tlsPort);
+            } else if (plaintextPort > 0) {
+                urls.add("http://" + host + ":" + plaintextPort);
+            }
+        }
+        return urls;
+    }
+}
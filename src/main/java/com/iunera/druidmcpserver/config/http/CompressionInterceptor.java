@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Asks Druid for gzip compressed responses and decompresses them while they are read, so large
+ * metadata responses are never held in memory in either form. The JDK HTTP client does not
+ * handle content encodings itself.
+ */
+public class CompressionInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String GZIP = "gzip";
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING) == null) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, GZIP);
+        }
+
+        ClientHttpResponse response = execution.execute(request, body);
+        String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || !GZIP.equalsIgnoreCase(encoding.trim())) {
+            return response;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        return new ClientHttpResponseWrapper(response, new LazyGzipInputStream(response), headers);
+    }
+
+    /**
+     * Opens the gzip stream on first read; responses without a body (HEAD, 204, 304) may still
+     * carry the encoding header
+     */
+    private static final class LazyGzipInputStream extends InputStream {
+
+        private final ClientHttpResponse response;
+        private InputStream delegate;
+
+        private LazyGzipInputStream(ClientHttpResponse response) {
+            this.response = response;
+        }
+
+        private InputStream delegate() throws IOException {
+            if (delegate == null) {
+                PushbackInputStream raw = new PushbackInputStream(response.getBody());
+                int first = raw.read();
+                if (first == -1) {
+                    delegate = InputStream.nullInputStream();
+                } else {
+                    raw.unread(first);
+                    delegate = new GZIPInputStream(raw, 8192);
+                }
+            }
+            return delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return delegate().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return delegate().read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (delegate != null) {
+                delegate.close();
+            } else {
+                response.getBody().close();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Admits requests through the bulkhead of their {@link ServiceClass}. Runs before routing and
+ * load balancing, so failover and hedged attempts share the slot of the original request.
+ * The slot is held until the response headers arrive.
+ */
+public class ConcurrencyLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ConcurrencyLimiterRegistry registry;
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        ServiceClass serviceClass = ServiceClass.forPath(request.getURI().getRawPath());
+        if (serviceClass == null) {
+            return execution.execute(request, body);
+        }
+
+        AdaptiveConcurrencyLimiter.Permit permit = registry.get(serviceClass).acquire();
+        boolean overloaded = true;
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            int status = response.getStatusCode().value();
+            overloaded = status == 429 || status == 503 || status == 504;
+            return response;
+        } finally {
+            permit.release(overloaded);
+        }
+    }
+}
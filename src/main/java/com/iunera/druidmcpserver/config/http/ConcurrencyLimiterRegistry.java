@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One {@link AdaptiveConcurrencyLimiter} per {@link ServiceClass}, shared by all Druid RestClients
+ */
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final Map<ServiceClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(ServiceClass.class);
+
+    public ConcurrencyLimiterRegistry(DruidProperties druidProperties) {
+        DruidProperties.Concurrency concurrency = druidProperties.getConcurrency();
+        for (ServiceClass serviceClass : ServiceClass.values()) {
+            limiters.put(serviceClass, new AdaptiveConcurrencyLimiter(serviceClass,
+                    concurrency.getInitialLimit(),
+                    concurrency.getMinLimit(),
+                    concurrency.getMaxLimit(),
+                    concurrency.getMaxQueue(),
+                    concurrency.getQueueTimeoutMs()));
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter get(ServiceClass serviceClass) {
+        return limiters.get(serviceClass);
+    }
+
+    public List<AdaptiveConcurrencyLimiter> getLimiters() {
+        return new ArrayList<>(limiters.values());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Coordinator metadata responses that carry an {@code ETag} or {@code Last-Modified} validator,
+ * kept so that the next request for the same URI can be sent as a conditional request. Evicts
+ * least recently used entries beyond {@code max-entries} or {@code max-bytes}.
+ */
+@Component
+public class ConditionalRequestCache {
+
+    private final DruidProperties.ConditionalRequests config;
+    private final LinkedHashMap<String, BufferedClientHttpResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private long notModified;
+    private long modified;
+    private long bytesSaved;
+
+    public ConditionalRequestCache(DruidProperties druidProperties) {
+        this.config = druidProperties.getConditionalRequests();
+    }
+
+    synchronized BufferedClientHttpResponse get(String uri) {
+        return entries.get(uri);
+    }
+
+    synchronized void put(String uri, BufferedClientHttpResponse response) {
+        if (response.size() > config.getMaxBytes()) {
+            return;
+        }
+        remove(uri);
+        entries.put(uri, response);
+        totalBytes += response.size();
+        modified++;
+        Iterator<BufferedClientHttpResponse> eldest = entries.values().iterator();
+        while (entries.size() > config.getMaxEntries() || totalBytes > config.getMaxBytes()) {
+            totalBytes -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+
+    synchronized void remove(String uri) {
+        BufferedClientHttpResponse removed = entries.remove(uri);
+        if (removed != null) {
+            totalBytes -= removed.size();
+        }
+    }
+
+    synchronized void onNotModified(BufferedClientHttpResponse response) {
+        notModified++;
+        bytesSaved += response.size();
+    }
+
+    /**
+     * Drops all validators, called after metadata was changed through this server
+     */
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("bytes", totalBytes);
+        stats.put("notModified", notModified);
+        stats.put("modified", modified);
+        stats.put("bytesSaved", bytesSaved);
+        return stats;
+    }
+}
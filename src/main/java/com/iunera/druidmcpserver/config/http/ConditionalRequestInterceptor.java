@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Revalidates coordinator metadata GET requests. When the last response for a URI carried an
+ * {@code ETag} or {@code Last-Modified} header, the request is sent with {@code If-None-Match} /
+ * {@code If-Modified-Since}, and a {@code 304 Not Modified} answer is turned back into the
+ * cached response. Responses without validators are streamed through unchanged. A successful
+ * coordinator write clears the cache.
+ */
+public class ConditionalRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ConditionalRequestCache cache;
+    private final DruidProperties.ConditionalRequests config;
+
+    public ConditionalRequestInterceptor(ConditionalRequestCache cache, DruidProperties.ConditionalRequests config) {
+        this.cache = cache;
+        this.config = config;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (ServiceClass.forPath(request.getURI().getRawPath()) != ServiceClass.COORDINATOR_METADATA) {
+            return execution.execute(request, body);
+        }
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (response.getStatusCode().is2xxSuccessful()) {
+                // A write through this server may change any cached view of the metadata
+                cache.clear();
+            }
+            return response;
+        }
+
+        String uri = request.getURI().toString();
+        BufferedClientHttpResponse cached = cache.get(uri);
+        if (cached != null) {
+            String etag = cached.getHeaders().getFirst(HttpHeaders.ETAG);
+            String lastModified = cached.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+            if (etag != null) {
+                request.getHeaders().set(HttpHeaders.IF_NONE_MATCH, etag);
+            }
+            if (lastModified != null) {
+                request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+        }
+
+        ClientHttpResponse response = execution.execute(request, body);
+        int status = response.getStatusCode().value();
+        if (status == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            response.close();
+            cache.onNotModified(cached);
+            return cached.copy();
+        }
+        if (status != HttpStatus.OK.value()) {
+            return response;
+        }
+        if (response.getHeaders().getFirst(HttpHeaders.ETAG) == null
+                && response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED) == null) {
+            if (cached != null) {
+                cache.remove(uri);
+            }
+            return response;
+        }
+
+        ClientHttpResponse read = BufferedClientHttpResponse.read(response, config.getMaxEntryBytes());
+        if (read instanceof BufferedClientHttpResponse buffered) {
+            cache.put(uri, buffered);
+            return buffered.copy();
+        }
+        cache.remove(uri);
+        return read;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+/**
+ * Druid services that own a part of the API behind the router, keyed by path prefix
+ */
+public enum DruidService {
+
+    COORDINATOR("/druid/coordinator/", "/druid-ext/basic-security/"),
+    OVERLORD("/druid/indexer/"),
+    BROKER("/druid/v2/");
+
+    private final String[] pathPrefixes;
+
+    DruidService(String... pathPrefixes) {
+        this.pathPrefixes = pathPrefixes;
+    }
+
+    /**
+     * The service that serves the given request path, or null for router-only paths
+     * such as {@code /status}
+     */
+    public static DruidService forPath(String path) {
+        if (path == null) {
+            return null;
+        }
+        if ("/druid/v2".equals(path)) {
+            return BROKER;
+        }
+        for (DruidService service : values()) {
+            for (String prefix : service.pathPrefixes) {
+                if (path.startsWith(prefix)) {
+                    return service;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A single Druid endpoint (base URL) inside an {@link EndpointPool} together with its live load
+ * and health statistics: outstanding requests, EWMA latency, failure counters and ejection state.
+ */
+public class Endpoint {
+
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final String baseUrl;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong ejections = new AtomicLong();
+    private int consecutiveFailures;
+    private double ewmaLatencyNanos;
+    private long ejectedUntilNanos;
+    private boolean ejected;
+
+    Endpoint(String baseUrl) {
+        this.baseUrl = normalize(baseUrl);
+    }
+
+    static String normalize(String baseUrl) {
+        String trimmed = baseUrl.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public synchronized double getEwmaLatencyNanos() {
+        return ewmaLatencyNanos;
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+        requests.incrementAndGet();
+    }
+
+    void end() {
+        outstanding.decrementAndGet();
+    }
+
+    void hedged() {
+        hedges.incrementAndGet();
+    }
+
+    synchronized void recordSuccess(long latencyNanos) {
+        consecutiveFailures = 0;
+        ejected = false;
+        ewmaLatencyNanos = ewmaLatencyNanos == 0 ? latencyNanos : EWMA_ALPHA * latencyNanos + (1 - EWMA_ALPHA) * ewmaLatencyNanos;
+    }
+
+    /**
+     * Records a failure and returns true when it caused the endpoint to be ejected
+     */
+    synchronized boolean recordFailure(int failureThreshold, long ejectionNanos, long nowNanos) {
+        failures.incrementAndGet();
+        consecutiveFailures++;
+        // A passive retry after the ejection period that fails again ejects immediately
+        boolean probing = ejected && nowNanos - ejectedUntilNanos >= 0;
+        if (consecutiveFailures >= failureThreshold || probing) {
+            consecutiveFailures = 0;
+            ejected = true;
+            ejectedUntilNanos = nowNanos + ejectionNanos;
+            ejections.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    synchronized boolean isAvailable(long nowNanos) {
+        return !ejected || nowNanos - ejectedUntilNanos >= 0;
+    }
+
+    synchronized long getEjectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    synchronized Map<String, Object> toMap(long nowNanos) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("url", baseUrl);
+        boolean available = isAvailable(nowNanos);
+        stats.put("state", !ejected ? "HEALTHY" : available ? "PROBING" : "EJECTED");
+        if (!available) {
+            stats.put("ejectedForMs", TimeUnit.NANOSECONDS.toMillis(ejectedUntilNanos - nowNanos));
+        }
+        stats.put("outstanding", outstanding.get());
+        stats.put("ewmaLatencyMs", Math.round(ewmaLatencyNanos / 10_000.0) / 100.0);
+        stats.put("requests", requests.get());
+        stats.put("failures", failures.get());
+        stats.put("consecutiveFailures", consecutiveFailures);
+        stats.put("ejections", ejections.get());
+        stats.put("hedgedRequests", hedges.get());
+        return stats;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A set of interchangeable Druid endpoints (e.g. several routers) with load-aware selection.
+ * Endpoints that fail repeatedly are ejected for a while and passively retried by the next
+ * request once the ejection period has passed.
+ */
+public class EndpointPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(EndpointPool.class);
+
+    public enum SelectionStrategy {
+        /**
+         * Fewest requests in flight, ties broken by EWMA latency
+         */
+        LEAST_OUTSTANDING,
+        /**
+         * Lowest EWMA latency weighted by the requests in flight
+         */
+        EWMA;
+
+        public static SelectionStrategy of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown endpoint selection strategy '" + value + "', expected LEAST_OUTSTANDING or EWMA");
+            }
+        }
+    }
+
+    private final String name;
+    private final List<Endpoint> endpoints;
+    private final SelectionStrategy strategy;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final long hedgeDelayMs;
+    private final LongSupplier nanoClock;
+
+    public EndpointPool(String name, List<String> urls, SelectionStrategy strategy,
+                        int failureThreshold, long ejectionMs, long hedgeDelayMs) {
+        this(name, urls, strategy, failureThreshold, ejectionMs, hedgeDelayMs, System::nanoTime);
+    }
+
+    EndpointPool(String name, List<String> urls, SelectionStrategy strategy,
+                 int failureThreshold, long ejectionMs, long hedgeDelayMs, LongSupplier nanoClock) {
+        this.name = name;
+        this.endpoints = urls.stream().map(Endpoint::normalize).filter(url -> !url.isEmpty()).distinct().map(Endpoint::new).toList();
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("Endpoint pool '" + name + "' needs at least one URL");
+        }
+        this.strategy = strategy;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ejectionMs));
+        this.hedgeDelayMs = hedgeDelayMs;
+        this.nanoClock = nanoClock;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public int size() {
+        return endpoints.size();
+    }
+
+    /**
+     * Delay after which an idempotent request is hedged to a second endpoint, or a non-positive
+     * value when hedging is disabled
+     */
+    public long getHedgeDelayMs() {
+        return hedgeDelayMs;
+    }
+
+    /**
+     * Chooses the least loaded available endpoint that is not excluded. When every remaining
+     * endpoint is ejected, the one whose ejection ends first is returned so requests are never
+     * refused outright. Returns null once all endpoints are excluded.
+     */
+    public Endpoint select(Collection<Endpoint> excluded) {
+        long now = nanoClock.getAsLong();
+        int offset = ThreadLocalRandom.current().nextInt(endpoints.size());
+        Endpoint best = null;
+        Endpoint soonestEjected = null;
+        for (int i = 0; i < endpoints.size(); i++) {
+            Endpoint candidate = endpoints.get((offset + i) % endpoints.size());
+            if (excluded.contains(candidate)) {
+                continue;
+            }
+            if (!candidate.isAvailable(now)) {
+                if (soonestEjected == null || candidate.getEjectedUntilNanos() - soonestEjected.getEjectedUntilNanos() < 0) {
+                    soonestEjected = candidate;
+                }
+                continue;
+            }
+            if (best == null || isLessLoaded(candidate, best)) {
+                best = candidate;
+            }
+        }
+        return best != null ? best : soonestEjected;
+    }
+
+    private boolean isLessLoaded(Endpoint candidate, Endpoint current) {
+        if (strategy == SelectionStrategy.EWMA) {
+            return candidate.getEwmaLatencyNanos() * (candidate.getOutstanding() + 1)
+                    < current.getEwmaLatencyNanos() * (current.getOutstanding() + 1);
+        }
+        if (candidate.getOutstanding() != current.getOutstanding()) {
+            return candidate.getOutstanding() < current.getOutstanding();
+        }
+        return candidate.getEwmaLatencyNanos() < current.getEwmaLatencyNanos();
+    }
+
+    /**
+     * Whether at least one endpoint is currently not ejected
+     */
+    public boolean hasAvailableEndpoint() {
+        long now = nanoClock.getAsLong();
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.isAvailable(now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rewrites a request URI built against any endpoint of this pool to the given target endpoint,
+     * or returns null when the URI does not belong to this pool
+     */
+    public URI rewrite(URI uri, Endpoint target) {
+        String value = uri.toString();
+        for (Endpoint endpoint : endpoints) {
+            if (value.startsWith(endpoint.getBaseUrl())) {
+                return URI.create(target.getBaseUrl() + value.substring(endpoint.getBaseUrl().length()));
+            }
+        }
+        return null;
+    }
+
+    public void recordSuccess(Endpoint endpoint, long latencyNanos) {
+        endpoint.recordSuccess(latencyNanos);
+    }
+
+    public void recordFailure(Endpoint endpoint) {
+        if (endpoint.recordFailure(failureThreshold, ejectionNanos, nanoClock.getAsLong())) {
+            logger.warn("Ejecting {} endpoint {} for {} ms after repeated failures",
+                    name, endpoint.getBaseUrl(), TimeUnit.NANOSECONDS.toMillis(ejectionNanos));
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        long now = nanoClock.getAsLong();
+        List<Map<String, Object>> endpointStats = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            endpointStats.add(endpoint.toMap(now));
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("selectionStrategy", strategy.name());
+        stats.put("hedgeDelayMs", hedgeDelayMs);
+        stats.put("endpoints", endpointStats);
+        return stats;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reactive counterpart of {@link LoadBalancingInterceptor} for WebClient requests. Each request
+ * goes to the least loaded available endpoint of the pool. Idempotent requests (GET, HEAD) fail
+ * over on I/O errors and 5xx responses, other requests only when the connection could not be
+ * established. A request counts as outstanding on its endpoint until its response headers
+ * arrive; requests are not hedged.
+ */
+public class LoadBalancingExchangeFilter implements ExchangeFilterFunction {
+
+    private final EndpointPool pool;
+
+    public LoadBalancingExchangeFilter(EndpointPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (pool.rewrite(request.url(), pool.getEndpoints().getFirst()) == null) {
+            // Absolute URL outside of this pool
+            return next.exchange(request);
+        }
+        boolean idempotent = HttpMethod.GET.equals(request.method()) || HttpMethod.HEAD.equals(request.method());
+        return send(request, next, idempotent, ConcurrentHashMap.newKeySet());
+    }
+
+    private Mono<ClientResponse> send(ClientRequest request, ExchangeFunction next, boolean idempotent, Set<Endpoint> tried) {
+        return Mono.defer(() -> {
+            Endpoint endpoint = pool.select(tried);
+            tried.add(endpoint);
+            ClientRequest target = ClientRequest.from(request).url(pool.rewrite(request.url(), endpoint)).build();
+            long start = System.nanoTime();
+            endpoint.begin();
+            return next.exchange(target)
+                    .doOnNext(response -> {
+                        if (response.statusCode().is5xxServerError()) {
+                            pool.recordFailure(endpoint);
+                        } else {
+                            pool.recordSuccess(endpoint, System.nanoTime() - start);
+                        }
+                    })
+                    .doOnError(e -> pool.recordFailure(endpoint))
+                    .doFinally(signal -> endpoint.end());
+        }).flatMap(response -> {
+            if (idempotent && response.statusCode().is5xxServerError() && tried.size() < pool.size()) {
+                return response.releaseBody().then(send(request, next, true, tried));
+            }
+            return Mono.just(response);
+        }).onErrorResume(e -> e instanceof WebClientRequestException && (idempotent || notSent(e))
+                        && tried.size() < pool.size(),
+                e -> send(request, next, idempotent, tried));
+    }
+
+    private static boolean notSent(Throwable e) {
+        return e.getCause() instanceof IOException cause && LoadBalancingInterceptor.notSent(cause);
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads requests across the endpoints of an {@link EndpointPool}. Must be the last interceptor
+ * of a RestClient because it executes the (possibly repeated) requests itself.
+ * <p>
+ * Idempotent requests (GET, HEAD) fail over to the next endpoint on I/O errors and 5xx responses,
+ * and are hedged to a second endpoint when the first has not answered within the pool's hedge
+ * delay; the slower response is discarded. Other requests only fail over when the connection
+ * could not be established, i.e. the request never reached Druid. A request counts as outstanding
+ * on its endpoint until the response is closed, so the time spent streaming large bodies is
+ * part of the endpoint's load.
+ * <p>
+ * Endpoint interceptors (e.g. the circuit breaker) run around every attempt and see the request
+ * URI rewritten to the selected endpoint. An attempt they reject with a
+ * {@link CircuitBreakerOpenException} never reached Druid and fails over like a refused connection.
+ */
+public class LoadBalancingInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Executor HEDGE_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final EndpointPool pool;
+    private final ClientHttpRequestFactory requestFactory;
+    private final List<ClientHttpRequestInterceptor> endpointInterceptors;
+
+    public LoadBalancingInterceptor(EndpointPool pool, ClientHttpRequestFactory requestFactory) {
+        this(pool, requestFactory, List.of());
+    }
+
+    /**
+     * @param endpointInterceptors interceptors run around each attempt, outermost first
+     */
+    public LoadBalancingInterceptor(EndpointPool pool, ClientHttpRequestFactory requestFactory,
+                                    List<ClientHttpRequestInterceptor> endpointInterceptors) {
+        this.pool = pool;
+        this.requestFactory = requestFactory;
+        this.endpointInterceptors = List.copyOf(endpointInterceptors);
+    }
+
+    public EndpointPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (pool.rewrite(request.getURI(), pool.getEndpoints().getFirst()) == null) {
+            // Absolute URL outside of this pool
+            return execution.execute(request, body);
+        }
+
+        boolean idempotent = HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod());
+        boolean hedging = idempotent && pool.getHedgeDelayMs() > 0;
+        Set<Endpoint> tried = ConcurrentHashMap.newKeySet();
+        IOException lastFailure = null;
+
+        Endpoint endpoint;
+        while ((endpoint = pool.select(tried)) != null) {
+            tried.add(endpoint);
+            try {
+                ClientHttpResponse response = hedging && tried.size() < pool.size()
+                        ? executeHedged(request, body, endpoint, tried)
+                        : send(request, body, endpoint);
+                if (idempotent && response.getStatusCode().is5xxServerError() && tried.size() < pool.size()) {
+                    response.close();
+                    continue;
+                }
+                return response;
+            } catch (IOException e) {
+                if (!idempotent && !notSent(e)) {
+                    throw e;
+                }
+                lastFailure = e;
+            }
+        }
+        throw lastFailure;
+    }
+
+    private ClientHttpResponse executeHedged(HttpRequest request, byte[] body, Endpoint primary, Set<Endpoint> tried) throws IOException {
+        CompletableFuture<ClientHttpResponse> first = sendAsync(request, body, primary);
+        try {
+            return first.get(pool.getHedgeDelayMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Primary is slow, hedge below
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            discard(first);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + primary.getBaseUrl());
+        }
+
+        Endpoint secondary = pool.select(tried);
+        if (secondary == null) {
+            return await(first);
+        }
+        tried.add(secondary);
+        secondary.hedged();
+        CompletableFuture<ClientHttpResponse> second = sendAsync(request, body, secondary);
+
+        // First successful response wins, the other one is closed when it arrives
+        CompletableFuture<ClientHttpResponse> winner = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        for (CompletableFuture<ClientHttpResponse> attempt : List.of(first, second)) {
+            attempt.whenComplete((response, failure) -> {
+                if (failure == null) {
+                    if (!winner.complete(response)) {
+                        closeQuietly(response);
+                    }
+                } else if (failed.incrementAndGet() == 2) {
+                    winner.completeExceptionally(failure);
+                }
+            });
+        }
+        return await(winner);
+    }
+
+    private CompletableFuture<ClientHttpResponse> sendAsync(HttpRequest request, byte[] body, Endpoint endpoint) {
+        CompletableFuture<ClientHttpResponse> future = new CompletableFuture<>();
+        HEDGE_EXECUTOR.execute(() -> {
+            try {
+                ClientHttpResponse response = send(request, body, endpoint);
+                if (!future.complete(response)) {
+                    closeQuietly(response);
+                }
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * True when the request was rejected before it reached Druid, so any request may fail over
+     */
+    static boolean notSent(IOException e) {
+        return e instanceof ConnectException || e instanceof CircuitBreakerOpenException;
+    }
+
+    private ClientHttpResponse send(HttpRequest request, byte[] body, Endpoint endpoint) throws IOException {
+        URI uri = pool.rewrite(request.getURI(), endpoint);
+        HttpRequest target = new HttpRequestWrapper(request) {
+            @Override
+            public URI getURI() {
+                return uri;
+            }
+        };
+
+        endpoint.begin();
+        long start = System.nanoTime();
+        ClientHttpResponse response = null;
+        try {
+            response = new EndpointExecution().execute(target, body);
+            if (response.getStatusCode().is5xxServerError()) {
+                pool.recordFailure(endpoint);
+            } else {
+                pool.recordSuccess(endpoint, System.nanoTime() - start);
+            }
+            // The request stays outstanding while its body is streamed
+            return new EndpointResponse(response, endpoint);
+        } catch (CircuitBreakerOpenException e) {
+            // Rejected locally, the endpoint's own breaker already tracks its health
+            endpoint.end();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            pool.recordFailure(endpoint);
+            if (response != null) {
+                response.close();
+            }
+            endpoint.end();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the endpoint interceptors, then executes the request against the endpoint
+     */
+    private final class EndpointExecution implements ClientHttpRequestExecution {
+
+        private int next;
+
+        @Override
+        public ClientHttpResponse execute(HttpRequest request, byte[] body) throws IOException {
+            if (next < endpointInterceptors.size()) {
+                return endpointInterceptors.get(next++).intercept(request, body, this);
+            }
+            ClientHttpRequest outgoing = requestFactory.createRequest(request.getURI(), request.getMethod());
+            outgoing.getHeaders().putAll(request.getHeaders());
+            if (body.length > 0) {
+                outgoing.getBody().write(body);
+            }
+            return outgoing.execute();
+        }
+    }
+
+    private static ClientHttpResponse await(CompletableFuture<ClientHttpResponse> future) throws IOException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            discard(future);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a hedged response");
+        }
+    }
+
+    private static void discard(CompletableFuture<ClientHttpResponse> future) {
+        if (!future.cancel(false)) {
+            future.thenAccept(LoadBalancingInterceptor::closeQuietly);
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        return new IOException(cause);
+    }
+
+    /**
+     * Response that ends the endpoint's outstanding request once it is closed
+     */
+    private static final class EndpointResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Endpoint endpoint;
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        EndpointResponse(ClientHttpResponse delegate, Endpoint endpoint) {
+            this.delegate = delegate;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (ended.compareAndSet(false, true)) {
+                    endpoint.end();
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(ClientHttpResponse response) {
+        try {
+            response.close();
+        } catch (RuntimeException ignored) {
+            // Losing hedged response, nothing to do
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Singleflight for reads sent to Druid, shared by all {@link RequestCoalescingInterceptor}s.
+ * <p>
+ * The first caller of a request executes it and buffers the response; callers that ask for the
+ * same request while it is in flight wait for that response and get their own copy of it, or the
+ * same error. Nothing is kept once the call completed, so later callers always see fresh data.
+ * Responses larger than {@code max-buffer-bytes} are streamed to the first caller only, and the
+ * waiting callers then execute the request themselves.
+ */
+@Component
+public class RequestCoalescer {
+
+    /**
+     * Identity of a request: method, full URI, content negotiation and body
+     */
+    public record Key(String method, String uri, String accept, String body) {
+    }
+
+    @FunctionalInterface
+    public interface Call {
+        ClientHttpResponse execute() throws IOException;
+    }
+
+    private final DruidProperties.Coalescing config;
+    private final Map<Key, CompletableFuture<BufferedClientHttpResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong tooLargeToShare = new AtomicLong();
+
+    public RequestCoalescer(DruidProperties druidProperties) {
+        this.config = druidProperties.getCoalescing();
+    }
+
+    public ClientHttpResponse execute(Key key, Call call) throws IOException {
+        CompletableFuture<BufferedClientHttpResponse> created = new CompletableFuture<>();
+        CompletableFuture<BufferedClientHttpResponse> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            BufferedClientHttpResponse shared = await(existing);
+            if (shared != null) {
+                coalesced.incrementAndGet();
+                return shared.copy();
+            }
+            executed.incrementAndGet();
+            return call.execute();
+        }
+
+        executed.incrementAndGet();
+        try {
+            ClientHttpResponse response = BufferedClientHttpResponse.read(call.execute(), config.getMaxBufferBytes());
+            if (response instanceof BufferedClientHttpResponse buffered) {
+                complete(key, created, buffered);
+                return buffered.copy();
+            }
+            tooLargeToShare.incrementAndGet();
+            complete(key, created, null);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void complete(Key key, CompletableFuture<BufferedClientHttpResponse> future, BufferedClientHttpResponse response) {
+        // Removed first so that callers arriving after completion start a new request
+        inFlight.remove(key, future);
+        future.complete(response);
+    }
+
+    private static BufferedClientHttpResponse await(CompletableFuture<BufferedClientHttpResponse> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an identical in-flight request");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("executed", executed.get());
+        stats.put("callsSaved", coalesced.get());
+        stats.put("tooLargeToShare", tooLargeToShare.get());
+        return stats;
+    }
+}
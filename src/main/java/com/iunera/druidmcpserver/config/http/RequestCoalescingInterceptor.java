@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lets concurrent identical reads (GET and HEAD requests, SQL and native queries) share one call
+ * to Druid. Streaming requests opt out with the {@link #SKIP_ATTRIBUTE} request attribute, since
+ * sharing them would buffer the whole result.
+ */
+public class RequestCoalescingInterceptor implements ClientHttpRequestInterceptor {
+
+    public static final String SKIP_ATTRIBUTE = RequestCoalescingInterceptor.class.getName() + ".skip";
+
+    private final RequestCoalescer coalescer;
+
+    public RequestCoalescingInterceptor(RequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!RetryInterceptor.isIdempotentRead(request) || Boolean.TRUE.equals(request.getAttributes().get(SKIP_ATTRIBUTE))) {
+            return execution.execute(request, body);
+        }
+
+        RequestCoalescer.Key key = new RequestCoalescer.Key(
+                request.getMethod().name(),
+                request.getURI().toString(),
+                request.getHeaders().getFirst(HttpHeaders.ACCEPT),
+                new String(body, StandardCharsets.UTF_8));
+        return coalescer.execute(key, () -> execution.execute(request, body));
+    }
+}
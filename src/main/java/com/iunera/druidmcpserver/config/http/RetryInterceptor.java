@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+
+/**
+ * Retries idempotent reads that failed transiently: 429/502/503/504 responses, 500 responses
+ * caused by {@code QueryCapacityExceededException}, and I/O errors. Uses exponential backoff
+ * with full jitter, honours {@code Retry-After} and stops when the shared {@link RetryPolicy}
+ * budget is exhausted. Runs before the bulkheads so every attempt waits for its own slot.
+ * <p>
+ * Idempotent reads are GET/HEAD requests plus SQL and native queries posted to
+ * {@code /druid/v2/sql} and {@code /druid/v2}, which cannot modify data.
+ */
+public class RetryInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 502, 503, 504);
+    private static final Set<String> READ_ONLY_QUERY_PATHS = Set.of("/druid/v2", "/druid/v2/", "/druid/v2/sql", "/druid/v2/sql/");
+    // Druid error bodies are small, a larger 500 body is not a capacity error
+    private static final int MAX_ERROR_BODY_BYTES = 64 * 1024;
+
+    private final RetryPolicy policy;
+
+    public RetryInterceptor(RetryPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!isIdempotentRead(request)) {
+            return execution.execute(request, body);
+        }
+
+        policy.onRequest();
+        for (int attempt = 1; ; attempt++) {
+            boolean lastAttempt = attempt >= policy.getMaxAttempts();
+            long retryAfterMs = -1;
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                int status = response.getStatusCode().value();
+                String cause = RETRYABLE_STATUSES.contains(status) ? String.valueOf(status) : null;
+                if (status == 500) {
+                    // Read the error into memory so its body can be inspected and still returned
+                    response = BufferedClientHttpResponse.read(response, MAX_ERROR_BODY_BYTES);
+                    if (response instanceof BufferedClientHttpResponse buffered
+                            && isCapacityExceeded(buffered.getBody().readAllBytes())) {
+                        cause = "QueryCapacityExceededException";
+                    }
+                }
+
+                if (cause == null) {
+                    if (attempt > 1) {
+                        policy.onRecovered();
+                    }
+                    return response;
+                }
+                if (lastAttempt) {
+                    policy.onExhausted();
+                    return response;
+                }
+                retryAfterMs = parseRetryAfterMs(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+                if (retryAfterMs > policy.getMaxRetryAfterMs() || !policy.tryAcquireRetry(cause)) {
+                    return response;
+                }
+                response.close();
+            } catch (BulkheadFullException | CircuitBreakerOpenException e) {
+                // Rejected locally without reaching Druid, retrying would only add load
+                throw e;
+            } catch (IOException e) {
+                if (lastAttempt) {
+                    policy.onExhausted();
+                    throw e;
+                }
+                if (!policy.tryAcquireRetry(e.getClass().getSimpleName())) {
+                    throw e;
+                }
+            }
+            sleep(retryAfterMs >= 0 ? retryAfterMs : policy.backoffMs(attempt - 1));
+        }
+    }
+
+    static boolean isIdempotentRead(HttpRequest request) {
+        HttpMethod method = request.getMethod();
+        if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)) {
+            return true;
+        }
+        return HttpMethod.POST.equals(method) && READ_ONLY_QUERY_PATHS.contains(request.getURI().getRawPath());
+    }
+
+    private static boolean isCapacityExceeded(byte[] content) {
+        String error = new String(content, StandardCharsets.UTF_8);
+        return error.contains("QueryCapacityExceededException") || error.contains("CAPACITY_EXCEEDED");
+    }
+
+    /**
+     * Parses a {@code Retry-After} header given in seconds or as an HTTP date, or returns -1
+     */
+    static long parseRetryAfterMs(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+            } catch (DateTimeParseException ignored) {
+                return -1;
+            }
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off before a retry");
+        }
+    }
+}
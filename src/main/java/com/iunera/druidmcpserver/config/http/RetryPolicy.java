@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Backoff, retry budget and retry counters shared by all {@link RetryInterceptor}s.
+ * <p>
+ * The budget is a token bucket: every original request deposits {@code budget-ratio} tokens and
+ * every retry withdraws one, on top of a small per-second reserve. While the cluster is healthy
+ * retries are always possible; when most requests fail, retries are capped at roughly that ratio
+ * of the traffic instead of multiplying the load on a struggling cluster.
+ */
+@Component
+public class RetryPolicy {
+
+    private static final double MAX_BALANCE = 100;
+
+    private final DruidProperties.Retry config;
+    private final LongSupplier nanoClock;
+
+    private double balance;
+    private double reserve;
+    private long lastRefillNanos;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong budgetDenied = new AtomicLong();
+    private final Map<String, AtomicLong> retriesByCause = new ConcurrentHashMap<>();
+
+    public RetryPolicy(DruidProperties druidProperties) {
+        this(druidProperties.getRetry(), System::nanoTime);
+    }
+
+    RetryPolicy(DruidProperties.Retry config, LongSupplier nanoClock) {
+        this.config = config;
+        this.nanoClock = nanoClock;
+        this.lastRefillNanos = nanoClock.getAsLong();
+        this.reserve = config.getMinRetriesPerSecond();
+    }
+
+    public int getMaxAttempts() {
+        return Math.max(1, config.getMaxAttempts());
+    }
+
+    public long getMaxRetryAfterMs() {
+        return config.getMaxRetryAfterMs();
+    }
+
+    /**
+     * Exponential backoff with full jitter: uniformly random between zero and
+     * {@code min(max-backoff, initial-backoff * 2^retry)}
+     */
+    public long backoffMs(int retry) {
+        long ceiling = Math.min(config.getMaxBackoffMs(), config.getInitialBackoffMs() << Math.min(retry, 30));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    synchronized void onRequest() {
+        requests.incrementAndGet();
+        balance = Math.min(MAX_BALANCE, balance + config.getBudgetRatio());
+    }
+
+    /**
+     * Withdraws a retry from the budget, or returns false when it is exhausted
+     */
+    synchronized boolean tryAcquireRetry(String cause) {
+        long now = nanoClock.getAsLong();
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        lastRefillNanos = now;
+        reserve = Math.min(config.getMinRetriesPerSecond(), reserve + elapsedSeconds * config.getMinRetriesPerSecond());
+
+        if (balance >= 1) {
+            balance -= 1;
+        } else if (reserve >= 1) {
+            reserve -= 1;
+        } else {
+            budgetDenied.incrementAndGet();
+            return false;
+        }
+        retries.incrementAndGet();
+        retriesByCause.computeIfAbsent(cause, key -> new AtomicLong()).incrementAndGet();
+        return true;
+    }
+
+    void onRecovered() {
+        recovered.incrementAndGet();
+    }
+
+    void onExhausted() {
+        exhausted.incrementAndGet();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxAttempts", getMaxAttempts());
+        stats.put("requests", requests.get());
+        stats.put("retries", retries.get());
+        stats.put("recoveredByRetry", recovered.get());
+        stats.put("attemptsExhausted", exhausted.get());
+        stats.put("deniedByBudget", budgetDenied.get());
+        Map<String, Long> causes = new LinkedHashMap<>();
+        retriesByCause.forEach((cause, count) -> causes.put(cause, count.get()));
+        stats.put("retriesByCause", causes);
+        synchronized (this) {
+            stats.put("budgetTokens", Math.round((balance + reserve) * 100) / 100.0);
+        }
+        return stats;
+    }
+}
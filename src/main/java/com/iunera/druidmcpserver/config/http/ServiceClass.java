@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+/**
+ * Classes of Druid requests that get their own bulkhead, so that heavy traffic of one class
+ * (e.g. full datasource metadata) cannot starve another (e.g. interactive SQL)
+ */
+public enum ServiceClass {
+
+    BROKER_SQL("broker SQL", "/druid/v2", "/druid/v2/datasources"),
+    COORDINATOR_METADATA("coordinator metadata", "/druid/coordinator/", "/druid/coordinator/v1/leader"),
+    OVERLORD_TASKS("overlord tasks", "/druid/indexer/", "/druid/indexer/v1/leader"),
+    BASIC_SECURITY("basic-security", "/druid-ext/basic-security/", "/druid-ext/basic-security/authentication/loadStatus");
+
+    private final String displayName;
+    private final String pathPrefix;
+    private final String probePath;
+
+    ServiceClass(String displayName, String pathPrefix, String probePath) {
+        this.displayName = displayName;
+        this.pathPrefix = pathPrefix;
+        this.probePath = probePath;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Cheap GET request answered by the owning service, used to probe an open circuit
+     */
+    public String getProbePath() {
+        return probePath;
+    }
+
+    /**
+     * The class of the given request path, or null for unbounded paths such as {@code /status}
+     */
+    public static ServiceClass forPath(String path) {
+        if (path == null) {
+            return null;
+        }
+        if (path.equals("/druid/v2") || path.startsWith("/druid/v2/")) {
+            return BROKER_SQL;
+        }
+        for (ServiceClass serviceClass : values()) {
+            if (serviceClass != BROKER_SQL && path.startsWith(serviceClass.pathPrefix)) {
+                return serviceClass;
+            }
+        }
+        return null;
+    }
+}
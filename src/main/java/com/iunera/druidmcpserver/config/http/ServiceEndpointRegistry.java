@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Directly reachable endpoints of the Druid services discovered by {@link ClusterDiscoveryService}.
+ * Services without a known endpoint, or whose endpoints are all ejected, are reached through the
+ * router as before.
+ */
+@Component
+public class ServiceEndpointRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceEndpointRegistry.class);
+
+    private final DruidProperties druidProperties;
+    private final Map<DruidService, EndpointPool> pools = new EnumMap<>(DruidService.class);
+    private volatile Runnable invalidationListener = () -> {
+    };
+
+    public ServiceEndpointRegistry(DruidProperties druidProperties) {
+        this.druidProperties = druidProperties;
+    }
+
+    /**
+     * The pool to send requests for the given service to directly, or null to use the router
+     */
+    public synchronized EndpointPool route(DruidService service) {
+        EndpointPool pool = pools.get(service);
+        return pool != null && pool.hasAvailableEndpoint() ? pool : null;
+    }
+
+    /**
+     * Replaces the endpoints of a service. The existing pool, and with it the collected
+     * statistics, is kept when the set of URLs did not change.
+     */
+    public synchronized void update(DruidService service, List<String> urls) {
+        if (urls == null || urls.isEmpty()) {
+            if (pools.remove(service) != null) {
+                logger.info("No direct {} endpoint known, using the router", service);
+            }
+            return;
+        }
+        EndpointPool current = pools.get(service);
+        Set<String> normalized = urls.stream().map(Endpoint::normalize).collect(Collectors.toSet());
+        if (current != null && normalized.equals(current.getEndpoints().stream().map(Endpoint::getBaseUrl).collect(Collectors.toSet()))) {
+            return;
+        }
+        DruidProperties.Router router = druidProperties.getRouter();
+        pools.put(service, new EndpointPool(service.name().toLowerCase(),
+                urls,
+                EndpointPool.SelectionStrategy.of(router.getSelectionStrategy()),
+                router.getEjectionFailureThreshold(),
+                router.getEjectionDurationMs(),
+                router.getHedgeDelayMs()));
+        logger.info("Routing {} requests directly to {}", service, urls);
+    }
+
+    /**
+     * Drops the endpoints of a service after they turned out to be stale (e.g. a former leader)
+     * and asks for a new discovery round
+     */
+    public void invalidate(DruidService service) {
+        synchronized (this) {
+            if (pools.remove(service) == null) {
+                return;
+            }
+        }
+        logger.info("Direct {} endpoint is stale, using the router until it is rediscovered", service);
+        invalidationListener.run();
+    }
+
+    public void setInvalidationListener(Runnable invalidationListener) {
+        this.invalidationListener = invalidationListener;
+    }
+
+    public synchronized List<EndpointPool> getPools() {
+        return new ArrayList<>(pools.values());
+    }
+}
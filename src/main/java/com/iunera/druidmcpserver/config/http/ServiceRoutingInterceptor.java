@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends router requests straight to the service that owns the path (leader coordinator, leader
+ * overlord or a broker) when {@link ServiceEndpointRegistry} knows a reachable endpoint for it,
+ * saving the router proxy hop. Falls back to the router when the direct endpoint cannot be reached
+ * or redirects because it is no longer the leader. Must run before {@link LoadBalancingInterceptor}.
+ */
+public class ServiceRoutingInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ServiceEndpointRegistry registry;
+    private final ClientHttpRequestFactory requestFactory;
+    private final List<ClientHttpRequestInterceptor> endpointInterceptors;
+    // One balancer per service, replaced together with the service's pool
+    private final Map<DruidService, LoadBalancingInterceptor> balancers = new ConcurrentHashMap<>();
+
+    public ServiceRoutingInterceptor(ServiceEndpointRegistry registry, ClientHttpRequestFactory requestFactory) {
+        this(registry, requestFactory, List.of());
+    }
+
+    /**
+     * @param endpointInterceptors run around each attempt against a discovered endpoint, see
+     *                             {@link LoadBalancingInterceptor}
+     */
+    public ServiceRoutingInterceptor(ServiceEndpointRegistry registry, ClientHttpRequestFactory requestFactory,
+                                     List<ClientHttpRequestInterceptor> endpointInterceptors) {
+        this.registry = registry;
+        this.requestFactory = requestFactory;
+        this.endpointInterceptors = endpointInterceptors;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        DruidService service = DruidService.forPath(request.getURI().getRawPath());
+        EndpointPool pool = service == null ? null : registry.route(service);
+        if (pool == null) {
+            return execution.execute(request, body);
+        }
+
+        URI uri = request.getURI();
+        URI direct = URI.create(pool.getEndpoints().getFirst().getBaseUrl() + uri.getRawPath()
+                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : ""));
+        HttpRequest directRequest = new HttpRequestWrapper(request) {
+            @Override
+            public URI getURI() {
+                return direct;
+            }
+        };
+
+        boolean idempotent = HttpMethod.GET.equals(request.getMethod()) || HttpMethod.HEAD.equals(request.getMethod());
+        try {
+            ClientHttpResponse response = balancer(service, pool).intercept(directRequest, body, execution);
+            if (response.getStatusCode().is3xxRedirection()) {
+                // A former leader redirects to the current one without executing the request
+                response.close();
+                registry.invalidate(service);
+                return execution.execute(request, body);
+            }
+            return response;
+        } catch (IOException e) {
+            if (!idempotent && !LoadBalancingInterceptor.notSent(e)) {
+                throw e;
+            }
+            if (!pool.hasAvailableEndpoint()) {
+                registry.invalidate(service);
+            }
+            return execution.execute(request, body);
+        }
+    }
+
+    private LoadBalancingInterceptor balancer(DruidService service, EndpointPool pool) {
+        LoadBalancingInterceptor balancer = balancers.get(service);
+        if (balancer == null || balancer.getPool() != pool) {
+            balancer = new LoadBalancingInterceptor(pool, requestFactory, endpointInterceptors);
+            balancers.put(service, balancer);
+        }
+        return balancer;
+    }
+}
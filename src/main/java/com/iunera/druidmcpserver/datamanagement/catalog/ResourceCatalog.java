@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.catalog;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import com.iunera.druidmcpserver.datamanagement.datasource.DatasourceRepository;
+import com.iunera.druidmcpserver.datamanagement.lookup.LookupRepository;
+import com.iunera.druidmcpserver.datamanagement.segments.SegmentRepository;
+import com.iunera.druidmcpserver.monitoring.changes.ClusterChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import tools.jackson.databind.JsonNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * In-memory catalog of the datasources, segments and lookups behind the MCP resources. Each
+ * kind is loaded with one Druid call on first use and then kept as a hash map for reads by key,
+ * plus a sorted key array for cursor pagination. A kind is reloaded when the change poller
+ * reports a change affecting it, or at the latest after {@code max-age-ms}.
+ */
+@Component
+public class ResourceCatalog {
+
+    public enum Kind {
+        DATASOURCE("datasource://"),
+        SEGMENT("segment://"),
+        LOOKUP("lookup://");
+
+        private final String uriPrefix;
+
+        Kind(String uriPrefix) {
+            this.uriPrefix = uriPrefix;
+        }
+
+        public String uriPrefix() {
+            return uriPrefix;
+        }
+    }
+
+    public record Page(List<String> keys, String nextCursor, int total) {
+    }
+
+    private record Snapshot(Map<String, JsonNode> entries, String[] keys, long loadedAt) {
+    }
+
+    private final DruidProperties.Mcp.ResourceCatalog config;
+    private final LongSupplier clock;
+    private final Map<Kind, Supplier<Map<String, JsonNode>>> loaders = new EnumMap<>(Kind.class);
+    private final Map<Kind, Snapshot> snapshots = new EnumMap<>(Kind.class);
+    private final Map<Kind, Object> locks = new EnumMap<>(Kind.class);
+
+    public ResourceCatalog(DatasourceRepository datasourceRepository,
+                           SegmentRepository segmentRepository,
+                           LookupRepository lookupRepository,
+                           DruidProperties druidProperties) {
+        this(druidProperties, System::currentTimeMillis,
+                () -> datasources(datasourceRepository.getAllDatasources()),
+                () -> segments(segmentRepository.getSegmentIndex()),
+                () -> lookups(lookupRepository.getAllLookups()));
+    }
+
+    ResourceCatalog(DruidProperties druidProperties, LongSupplier clock,
+                    Supplier<Map<String, JsonNode>> datasourceLoader,
+                    Supplier<Map<String, JsonNode>> segmentLoader,
+                    Supplier<Map<String, JsonNode>> lookupLoader) {
+        this.config = druidProperties.getMcp().getResourceCatalog();
+        this.clock = clock;
+        loaders.put(Kind.DATASOURCE, datasourceLoader);
+        loaders.put(Kind.SEGMENT, segmentLoader);
+        loaders.put(Kind.LOOKUP, lookupLoader);
+        for (Kind kind : Kind.values()) {
+            locks.put(kind, new Object());
+        }
+    }
+
+    public Optional<JsonNode> getDatasource(String name) throws RestClientException {
+        return get(Kind.DATASOURCE, name);
+    }
+
+    public Optional<JsonNode> getSegment(String segmentId) throws RestClientException {
+        return get(Kind.SEGMENT, segmentId);
+    }
+
+    /**
+     * Lookups are keyed as {@code tier/lookupName}
+     */
+    public Optional<JsonNode> getLookup(String tier, String lookupName) throws RestClientException {
+        return get(Kind.LOOKUP, tier + "/" + lookupName);
+    }
+
+    public Optional<JsonNode> get(Kind kind, String key) throws RestClientException {
+        return Optional.ofNullable(snapshot(kind).entries().get(key));
+    }
+
+    /**
+     * Returns the keys following the cursor in sorted order. The cursor encodes the last key of
+     * the previous page, so paging stays consistent when the catalog is reloaded in between.
+     */
+    public Page list(Kind kind, String cursor, Integer limit) throws RestClientException {
+        String[] keys = snapshot(kind).keys();
+        int pageSize = Math.clamp(limit != null && limit > 0 ? limit : config.getPageSize(), 1, Math.max(1, config.getMaxPageSize()));
+
+        int start = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            int position = Arrays.binarySearch(keys, decodeCursor(cursor));
+            start = position >= 0 ? position + 1 : -position - 1;
+        }
+        int end = Math.min(keys.length, start + pageSize);
+        String nextCursor = end < keys.length ? encodeCursor(keys[end - 1]) : null;
+        return new Page(List.of(Arrays.copyOfRange(keys, start, end)), nextCursor, keys.length);
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onSegmentsChanged(ClusterChangeEvent.SegmentsChanged event) {
+        invalidate(Kind.DATASOURCE);
+        invalidate(Kind.SEGMENT);
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onLookupsChanged(ClusterChangeEvent.LookupsChanged event) {
+        invalidate(Kind.LOOKUP);
+    }
+
+    public void invalidate(Kind kind) {
+        synchronized (locks.get(kind)) {
+            snapshots.remove(kind);
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new HashMap<>();
+        for (Kind kind : Kind.values()) {
+            synchronized (locks.get(kind)) {
+                Snapshot snapshot = snapshots.get(kind);
+                stats.put(kind.name().toLowerCase(), snapshot == null ? 0 : snapshot.keys().length);
+            }
+        }
+        return stats;
+    }
+
+    private Snapshot snapshot(Kind kind) {
+        synchronized (locks.get(kind)) {
+            Snapshot snapshot = snapshots.get(kind);
+            long now = clock.getAsLong();
+            if (snapshot == null || now - snapshot.loadedAt() >= config.getMaxAgeMs()) {
+                Map<String, JsonNode> entries = loaders.get(kind).get();
+                String[] keys = entries.keySet().toArray(String[]::new);
+                Arrays.sort(keys);
+                snapshot = new Snapshot(entries, keys, now);
+                snapshots.put(kind, snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    static Map<String, JsonNode> datasources(JsonNode rows) {
+        Map<String, JsonNode> entries = new HashMap<>();
+        if (rows != null && rows.isArray()) {
+            for (int i = 0; i < rows.size(); i++) {
+                JsonNode row = rows.get(i);
+                entries.put(row.has("TABLE_NAME") ? row.get("TABLE_NAME").asText() : "datasource_" + i, row);
+            }
+        }
+        return entries;
+    }
+
+    static Map<String, JsonNode> segments(JsonNode rows) {
+        Map<String, JsonNode> entries = new HashMap<>();
+        if (rows != null && rows.isArray()) {
+            for (int i = 0; i < rows.size(); i++) {
+                JsonNode row = rows.get(i);
+                entries.put(row.has("segment_id") ? row.get("segment_id").asText() : "segment_" + i, row);
+            }
+        }
+        return entries;
+    }
+
+    static Map<String, JsonNode> lookups(JsonNode config) {
+        Map<String, JsonNode> entries = new HashMap<>();
+        if (config != null && config.isObject()) {
+            for (Map.Entry<String, JsonNode> tier : config.properties()) {
+                if (tier.getValue().isObject()) {
+                    for (Map.Entry<String, JsonNode> lookup : tier.getValue().properties()) {
+                        entries.put(tier.getKey() + "/" + lookup.getKey(), lookup.getValue());
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    static String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor '" + cursor + "'");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.catalog;
+
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.ai.mcp.annotation.McpToolParam;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class ResourceCatalogTools {
+
+    private final ResourceCatalog resourceCatalog;
+    private final ObjectMapper objectMapper;
+
+    public ResourceCatalogTools(ResourceCatalog resourceCatalog,
+                                ObjectMapper objectMapper) {
+        this.resourceCatalog = resourceCatalog;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * List resource URIs page by page
+     */
+    @McpTool(
+            description = "List the URIs of datasource://, segment:// or lookup:// resources page by page, for clusters with thousands of entries. Parameters: type (String: datasource, segment or lookup), [cursor] (String, optional) the nextCursor of the previous page, [limit] (Integer, optional) page size. Returns resources and nextCursor, which is absent on the last page.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public String listResources(
+            @McpToolParam(description = "Resource type: datasource, segment or lookup") String type,
+            @McpToolParam(description = "Cursor returned as nextCursor by the previous call (optional)", required = false) String cursor,
+            @McpToolParam(description = "Maximum number of resources per page (optional)", required = false) Integer limit
+    ) {
+        ResourceCatalog.Kind kind;
+        try {
+            kind = ResourceCatalog.Kind.valueOf(type == null ? "" : type.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return String.format("Error: Unknown resource type '%s'. Expected one of: datasource, segment, lookup", type);
+        }
+
+        try {
+            ResourceCatalog.Page page = resourceCatalog.list(kind, cursor, limit);
+            String detailsPrefix = kind.name().toLowerCase() + "-details://";
+
+            List<Map<String, Object>> resources = new ArrayList<>(page.keys().size());
+            for (String key : page.keys()) {
+                Map<String, Object> resource = new LinkedHashMap<>();
+                resource.put("uri", kind.uriPrefix() + key);
+                resource.put("name", key);
+                resource.put("detailsUri", detailsPrefix + key);
+                resources.add(resource);
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("type", kind.name().toLowerCase());
+            result.put("total", page.total());
+            result.put("resources", resources);
+            if (page.nextCursor() != null) {
+                result.put("nextCursor", page.nextCursor());
+            }
+            return objectMapper.writeValueAsString(result);
+        } catch (IllegalArgumentException e) {
+            return String.format("Error: %s", e.getMessage());
+        } catch (RestClientException e) {
+            return String.format("Error listing %s resources: %s", kind.name().toLowerCase(), e.getMessage());
+        } catch (Exception e) {
+            return String.format("Failed to process resource listing: %s", e.getMessage());
+        }
+    }
+}
@@ -16,7 +16,9 @@
 
 package com.iunera.druidmcpserver.datamanagement.compaction;
 
+import com.iunera.druidmcpserver.usage.responses.JsonProjection;
 import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.client.RestClient;
@@ -28,9 +30,12 @@ import java.util.Map;
 public class CompactionConfigRepository {
 
     private final RestClient druidRouterRestClient;
+    private final ObjectMapper objectMapper;
 
-    public CompactionConfigRepository(@Qualifier("druidRouterRestClient") RestClient druidRouterRestClient) {
+    public CompactionConfigRepository(@Qualifier("druidRouterRestClient") RestClient druidRouterRestClient,
+                 ObjectMapper objectMapper) {
         this.druidRouterRestClient = druidRouterRestClient;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -106,6 +111,24 @@ public class CompactionConfigRepository {
                 .body(JsonNode.class);
     }
 
+    /**
+     * Get compaction status for all datasources, projected while the response is read
+     */
+    public String getCompactionStatus(JsonProjection projection) throws RestClientException {
+        return projection.read(objectMapper, druidRouterRestClient
+                .get()
+                .uri("/druid/coordinator/v1/compaction/status"));
+    }
+
+    /**
+     * Get compaction status for a specific datasource, projected while the response is read
+     */
+    public String getCompactionStatusForDatasource(String datasourceName, JsonProjection projection) throws RestClientException {
+        return projection.read(objectMapper, druidRouterRestClient
+                .get()
+                .uri("/druid/coordinator/v1/compaction/status/{datasourceName}", datasourceName));
+    }
+
     /**
      * Get compaction status for a specific datasource
      */
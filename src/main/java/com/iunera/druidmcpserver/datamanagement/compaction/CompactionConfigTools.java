@@ -16,6 +16,8 @@
 
 package com.iunera.druidmcpserver.datamanagement.compaction;
 
+import com.iunera.druidmcpserver.usage.responses.JsonProjection;
+import com.iunera.druidmcpserver.usage.responses.ProjectsFields;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import org.springframework.ai.mcp.annotation.McpTool;
@@ -41,12 +43,13 @@ public class CompactionConfigTools {
      * Get compaction configuration
      */
     @McpTool(
-            description = "View compaction configuration or configuration change history for datasources. Parameters: [datasource] (String, optional), and [includeHistory] (Boolean, optional) to retrieve configuration history.",
+            description = "View compaction configuration or configuration change history for datasources. Parameters: [datasource] (String, optional), and [includeHistory] (Boolean, optional) to retrieve configuration history. Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
     public String getCompactionConfig(
             @McpToolParam(description = "Name of the datasource (optional)", required = false) String datasource,
-            @McpToolParam(description = "Whether to retrieve configuration change history (optional)", required = false) Boolean includeHistory
+            @McpToolParam(description = "Whether to retrieve configuration change history (optional)", required = false) Boolean includeHistory,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         try {
             if (datasource != null && !datasource.trim().isEmpty()) {
@@ -70,17 +73,26 @@ public class CompactionConfigTools {
      * Get compaction status
      */
     @McpTool(
-            description = "Retrieve the current status of compaction runs and progress. Parameters: [datasource] (String, optional).",
+            description = "Retrieve the current status of compaction runs and progress. Parameters: [datasource] (String, optional). Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
+    @ProjectsFields
     public String getCompactionStatus(
-            @McpToolParam(description = "Name of the datasource to filter by (optional)", required = false) String datasource
+            @McpToolParam(description = "Name of the datasource to filter by (optional)", required = false) String datasource,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         try {
+            JsonProjection projection = JsonProjection.parse(fields);
             if (datasource != null && !datasource.trim().isEmpty()) {
+                if (projection != null) {
+                    return compactionConfigRepository.getCompactionStatusForDatasource(datasource, projection);
+                }
                 JsonNode result = compactionConfigRepository.getCompactionStatusForDatasource(datasource);
                 return objectMapper.writeValueAsString(result);
             }
+            if (projection != null) {
+                return compactionConfigRepository.getCompactionStatus(projection);
+            }
             JsonNode result = compactionConfigRepository.getCompactionStatus();
             return objectMapper.writeValueAsString(result);
         } catch (RestClientException e) {
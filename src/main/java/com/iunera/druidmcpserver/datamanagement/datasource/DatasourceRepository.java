@@ -16,6 +16,8 @@
 
 package com.iunera.druidmcpserver.datamanagement.datasource;
 
+import com.iunera.druidmcpserver.datamanagement.query.SqlParameter;
+import com.iunera.druidmcpserver.usage.responses.ResponseShape;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -30,6 +32,8 @@ import java.util.Map;
 @Repository
 public class DatasourceRepository {
 
+    private static final String DRUID_SCHEMA = "druid";
+
     private final RestClient druidRouterRestClient;
     private final ObjectMapper objectMapper;
 
@@ -43,19 +47,30 @@ public class DatasourceRepository {
      * Get all datasources from Druid information schema
      */
     public JsonNode getAllDatasources() throws RestClientException {
-        String sql = "SELECT * FROM \"INFORMATION_SCHEMA\".\"TABLES\" WHERE \"TABLE_SCHEMA\" = 'druid'";
+        return allDatasources().retrieve().body(JsonNode.class);
+    }
+
+    /**
+     * Get all datasources from Druid information schema, projected or summarized while the
+     * response is read
+     */
+    public String getAllDatasources(ResponseShape shape) throws RestClientException {
+        return shape.read(objectMapper, allDatasources());
+    }
+
+    private RestClient.RequestHeadersSpec<?> allDatasources() {
+        String sql = "SELECT * FROM \"INFORMATION_SCHEMA\".\"TABLES\" WHERE \"TABLE_SCHEMA\" = ?";
 
         Map<String, Object> query = new HashMap<>();
         query.put("query", sql);
         query.put("resultFormat", "object");
+        query.put("parameters", List.of(SqlParameter.varchar(DRUID_SCHEMA)));
 
         return druidRouterRestClient
                 .post()
                 .uri("/druid/v2/sql")
                 .header("Content-Type", "application/json")
-                .body(query)
-                .retrieve()
-                .body(JsonNode.class);
+                .body(query);
     }
 
     /**
@@ -64,12 +79,13 @@ public class DatasourceRepository {
     public JsonNode getColumnsForDatasource(String datasourceName) throws Exception {
         String columnsSql = "SELECT COLUMN_NAME, DATA_TYPE, IS_NULLABLE, COLUMN_DEFAULT " +
                 "FROM \"INFORMATION_SCHEMA\".\"COLUMNS\" " +
-                "WHERE \"TABLE_SCHEMA\" = 'druid' AND \"TABLE_NAME\" = '" + datasourceName + "' " +
+                "WHERE \"TABLE_SCHEMA\" = ? AND \"TABLE_NAME\" = ? " +
                 "ORDER BY ORDINAL_POSITION";
 
         Map<String, Object> columnsQuery = new HashMap<>();
         columnsQuery.put("query", columnsSql);
         columnsQuery.put("resultFormat", "object");
+        columnsQuery.put("parameters", List.of(SqlParameter.varchar(DRUID_SCHEMA), SqlParameter.varchar(datasourceName)));
 
         return druidRouterRestClient
                 .post()
@@ -16,6 +16,7 @@
 
 package com.iunera.druidmcpserver.datamanagement.datasource;
 
+import com.iunera.druidmcpserver.datamanagement.catalog.ResourceCatalog;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.spec.McpSchema.ReadResourceRequest;
@@ -32,11 +33,14 @@ import java.util.Map;
 public class DatasourceResources {
 
     private final DatasourceRepository datasourceRepository;
+    private final ResourceCatalog resourceCatalog;
     private final ObjectMapper objectMapper;
 
     public DatasourceResources(DatasourceRepository datasourceRepository,
+                               ResourceCatalog resourceCatalog,
                                ObjectMapper objectMapper) {
         this.datasourceRepository = datasourceRepository;
+        this.resourceCatalog = resourceCatalog;
         this.objectMapper = objectMapper;
     }
 
@@ -46,20 +50,7 @@ public class DatasourceResources {
     @McpResource(uri = "datasource://{datasourcename}", name = "Datasource", description = "Provides basic information for a specific Druid datasource")
     public ReadResourceResult getDatasource(ReadResourceRequest request, String datasourcename) {
         try {
-            JsonNode allDatasources = datasourceRepository.getAllDatasources();
-
-            // Find the specific datasource
-            JsonNode targetDatasource = null;
-            for (int i = 0; i < allDatasources.size(); i++) {
-                JsonNode datasource = allDatasources.get(i);
-                String datasourceName = datasource.has("TABLE_NAME") ?
-                        datasource.get("TABLE_NAME").asText() : "datasource_" + i;
-
-                if (datasourceName.equals(datasourcename)) {
-                    targetDatasource = datasource;
-                    break;
-                }
-            }
+            JsonNode targetDatasource = resourceCatalog.getDatasource(datasourcename).orElse(null);
 
             if (targetDatasource == null) {
                 String errorMessage = String.format("Datasource '%s' not found", datasourcename);
@@ -84,20 +75,7 @@ public class DatasourceResources {
     @McpResource(uri = "datasource-details://{datasourcename}", name = "Datasource Details", description = "Provides detailed information for a specific Druid datasource including column information")
     public ReadResourceResult getDatasourceDetails(String datasourcename) {
         try {
-            JsonNode allDatasources = datasourceRepository.getAllDatasources();
-
-            // Find the specific datasource
-            JsonNode targetDatasource = null;
-            for (int i = 0; i < allDatasources.size(); i++) {
-                JsonNode datasource = allDatasources.get(i);
-                String datasourceName = datasource.has("TABLE_NAME") ?
-                        datasource.get("TABLE_NAME").asText() : "datasource_" + i;
-
-                if (datasourceName.equals(datasourcename)) {
-                    targetDatasource = datasource;
-                    break;
-                }
-            }
+            JsonNode targetDatasource = resourceCatalog.getDatasource(datasourcename).orElse(null);
 
             if (targetDatasource == null) {
                 String errorMessage = String.format("Datasource '%s' not found", datasourcename);
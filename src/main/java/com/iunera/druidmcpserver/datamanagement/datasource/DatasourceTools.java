@@ -23,6 +23,10 @@ import org.springframework.ai.mcp.annotation.McpToolParam;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import com.iunera.druidmcpserver.datamanagement.segments.SegmentRepository;
+import com.iunera.druidmcpserver.usage.responses.JsonProjection;
+import com.iunera.druidmcpserver.usage.responses.JsonShapeSummarizer;
+import com.iunera.druidmcpserver.usage.responses.ProjectsFields;
+import com.iunera.druidmcpserver.usage.responses.ResponseShape;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -47,17 +51,27 @@ public class DatasourceTools {
      * Get datasources (list all or show details for specific)
      */
     @McpTool(
-            description = "List all available Apache Druid datasources or get detailed information for a specific datasource. Parameters: [datasourceName] (String, optional) to fetch details for a single datasource, and [detailed] (Boolean, optional) to include schema and column specifications.",
+            description = "List all available Apache Druid datasources or get detailed information for a specific datasource. Parameters: [datasourceName] (String, optional) to fetch details for a single datasource, and [detailed] (Boolean, optional) to include schema and column specifications. Use [summarize] (Boolean, optional) to get counts, distinct values, min/max and examples per field instead of the full list. Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
+    @ProjectsFields
     public String getDatasources(
             @McpToolParam(description = "Name of the datasource to get details for (optional)", required = false) String datasourceName,
-            @McpToolParam(description = "Whether to include detailed columns and data types (optional)", required = false) Boolean detailed
+            @McpToolParam(description = "Whether to include detailed columns and data types (optional)", required = false) Boolean detailed,
+            @McpToolParam(description = JsonShapeSummarizer.SUMMARIZE_DESCRIPTION, required = false) Boolean summarize,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         try {
+            ResponseShape shape = ResponseShape.of(fields, summarize);
+            boolean listing = datasourceName == null || datasourceName.trim().isEmpty();
+            if (listing && !Boolean.TRUE.equals(detailed) && shape != null && shape.summarize()) {
+                // Summarizes the information schema rows while they are read instead of the names
+                return datasourceRepository.getAllDatasources(shape);
+            }
+
             JsonNode result = datasourceRepository.getAllDatasources();
 
-            if (datasourceName == null || datasourceName.trim().isEmpty()) {
+            if (listing) {
                 if (detailed != null && detailed) {
                     List<Map<String, Object>> detailedList = new ArrayList<>();
                     for (int i = 0; i < result.size(); i++) {
@@ -66,7 +80,7 @@ public class DatasourceTools {
                                 datasource.get("TABLE_NAME").asText() : "datasource_" + i;
                         detailedList.add(datasourceRepository.buildDatasourceInfo(datasource, currentName));
                     }
-                    return objectMapper.writeValueAsString(detailedList);
+                    return shaped(shape, objectMapper.writeValueAsString(detailedList));
                 } else {
                     List<String> datasourceNames = new ArrayList<>();
                     for (int i = 0; i < result.size(); i++) {
@@ -75,7 +89,7 @@ public class DatasourceTools {
                                 datasource.get("TABLE_NAME").asText() : "datasource_" + i;
                         datasourceNames.add(name);
                     }
-                    return objectMapper.writeValueAsString(datasourceNames);
+                    return shaped(shape, objectMapper.writeValueAsString(datasourceNames));
                 }
             }
 
@@ -87,7 +101,7 @@ public class DatasourceTools {
 
                 if (currentName.equals(datasourceName)) {
                     Map<String, Object> datasourceInfo = datasourceRepository.buildDatasourceInfo(datasource, datasourceName);
-                    return objectMapper.writeValueAsString(datasourceInfo);
+                    return shaped(shape, objectMapper.writeValueAsString(datasourceInfo));
                 }
             }
 
@@ -154,4 +168,8 @@ public class DatasourceTools {
             return String.format("Failed to process action '%s' request on datasource '%s': %s", action, datasource, e.getMessage());
         }
     }
+
+    private String shaped(ResponseShape shape, String json) {
+        return shape != null ? shape.apply(objectMapper, json) : json;
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.export;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State and progress of a running or finished export.
+ */
+public class ExportJob {
+
+    public enum State {
+        RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    private final String id;
+    private final String source;
+    private final Path file;
+    private final ExportFormat format;
+    private final Instant startedAt = Instant.now();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    ExportJob(String id, String source, Path file, ExportFormat format) {
+        this.id = id;
+        this.source = source;
+        this.file = file;
+        this.format = format;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    /**
+     * When the export succeeded, failed or was cancelled; null while it is running
+     */
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    void addRow(long lineBytes) {
+        rowsWritten.incrementAndGet();
+        bytesRead.addAndGet(lineBytes);
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    void succeed() {
+        finish(State.SUCCEEDED, null);
+    }
+
+    void fail(String error) {
+        finish(State.FAILED, error);
+    }
+
+    boolean cancel() {
+        if (state != State.RUNNING) {
+            return false;
+        }
+        finish(State.CANCELLED, null);
+        Future<?> running = future;
+        if (running != null) {
+            running.cancel(true);
+        }
+        return true;
+    }
+
+    boolean isCancelled() {
+        return state == State.CANCELLED;
+    }
+
+    private synchronized void finish(State finalState, String message) {
+        if (state == State.RUNNING) {
+            state = finalState;
+            error = message;
+            finishedAt = Instant.now();
+        }
+    }
+
+    /**
+     * Progress snapshot for tool responses, including the average row rate.
+     */
+    public Map<String, Object> toMap() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long elapsedMillis = Math.max(1, end.toEpochMilli() - startedAt.toEpochMilli());
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("exportId", id);
+        map.put("state", state.name());
+        map.put("source", source);
+        map.put("file", file.toString());
+        map.put("format", format.name());
+        map.put("rowsWritten", rowsWritten.get());
+        map.put("bytesRead", bytesRead.get());
+        map.put("rowsPerSecond", rowsWritten.get() * 1000 / elapsedMillis);
+        map.put("startedAt", startedAt.toString());
+        if (finishedAt != null) {
+            map.put("finishedAt", finishedAt.toString());
+        }
+        if (error != null) {
+            map.put("error", error);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.export;
+
+import com.iunera.druidmcpserver.datamanagement.query.SqlParameter;
+import com.iunera.druidmcpserver.datamanagement.query.SqlSyntaxCorrectionService;
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.ai.mcp.annotation.McpToolParam;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class ExportTools {
+
+    private final ResultExportService resultExportService;
+    private final SqlSyntaxCorrectionService sqlSyntaxCorrectionService;
+    private final ObjectMapper objectMapper;
+
+    public ExportTools(ResultExportService resultExportService,
+                       SqlSyntaxCorrectionService sqlSyntaxCorrectionService,
+                       ObjectMapper objectMapper) {
+        this.resultExportService = resultExportService;
+        this.sqlSyntaxCorrectionService = sqlSyntaxCorrectionService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Export the result of a SQL query to a local file
+     */
+    @McpTool(
+            description = "Export the full result of a SQL query to a CSV or NDJSON file in the server's export directory. Rows are streamed from Druid with constant memory, so this works for very large results. The export runs in the background; poll 'getExportStatus' with the returned exportId for progress.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = false, idempotentHint = false, destructiveHint = false)
+    )
+    public String exportQueryResult(
+            @McpToolParam(description = "SQL query to execute (required)", required = true) String sqlQuery,
+            @McpToolParam(description = "Name of the export file without directories; the extension is added if missing (required)", required = true) String fileName,
+            @McpToolParam(description = "File format: CSV, NDJSON, default CSV (optional)", required = false) String format,
+            @McpToolParam(description = "JSON array of values bound to the ? placeholders in order (optional)", required = false) String parametersJson
+    ) {
+        if (sqlQuery == null || sqlQuery.isBlank()) {
+            return "Error: [sqlQuery] parameter is required";
+        }
+        String correctedQuery = sqlSyntaxCorrectionService.correctQuerySyntax(sqlQuery);
+        try {
+            List<SqlParameter> parameters = parametersJson != null && !parametersJson.isBlank()
+                    ? SqlParameter.fromJson(objectMapper.readTree(parametersJson))
+                    : List.of();
+            ExportJob job = resultExportService.exportSqlQuery(correctedQuery, parameters, fileName, ExportFormat.of(format));
+            return objectMapper.writeValueAsString(job.toMap());
+        } catch (IllegalArgumentException e) {
+            return String.format("Error: %s", e.getMessage());
+        } catch (Exception e) {
+            return String.format("Failed to start export of query '%s' (corrected: '%s'): %s", sqlQuery, correctedQuery, e.getMessage());
+        }
+    }
+
+    /**
+     * Export the result of a completed multi-stage query to a local file
+     */
+    @McpTool(
+            description = "Export the result pages of a completed multi-stage (MSQ) SELECT query to a CSV or NDJSON file in the server's export directory, streamed with constant memory. The export runs in the background; poll 'getExportStatus' with the returned exportId for progress.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = false, idempotentHint = false, destructiveHint = false)
+    )
+    public String exportMultiStageQueryResult(
+            @McpToolParam(description = "Multi-stage query ID / task ID (required)", required = true) String queryId,
+            @McpToolParam(description = "Name of the export file without directories; the extension is added if missing (required)", required = true) String fileName,
+            @McpToolParam(description = "File format: CSV, NDJSON, default CSV (optional)", required = false) String format
+    ) {
+        if (queryId == null || queryId.isBlank()) {
+            return "Error: [queryId] parameter is required";
+        }
+        try {
+            ExportJob job = resultExportService.exportSqlStatement(queryId, fileName, ExportFormat.of(format));
+            return objectMapper.writeValueAsString(job.toMap());
+        } catch (IllegalArgumentException e) {
+            return String.format("Error: %s", e.getMessage());
+        } catch (RestClientException e) {
+            return String.format("Error retrieving query '%s' for export: %s", queryId, e.getMessage());
+        } catch (Exception e) {
+            return String.format("Failed to start export of query '%s': %s", queryId, e.getMessage());
+        }
+    }
+
+    /**
+     * Get export progress
+     */
+    @McpTool(
+            description = "Get the state and progress (rows written, bytes read, rows per second) of an export, or of all exports if no exportId is given.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public String getExportStatus(
+            @McpToolParam(description = "Export ID returned by an export tool (optional)", required = false) String exportId
+    ) {
+        try {
+            if (exportId == null || exportId.isBlank()) {
+                List<Map<String, Object>> exports = resultExportService.listJobs().stream().map(ExportJob::toMap).toList();
+                return objectMapper.writeValueAsString(exports);
+            }
+            return resultExportService.getJob(exportId)
+                    .map(job -> objectMapper.writeValueAsString(job.toMap()))
+                    .orElse(String.format("Error: Unknown export '%s'", exportId));
+        } catch (Exception e) {
+            return String.format("Failed to get export status: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Cancel a running export
+     */
+    @McpTool(
+            description = "Cancel a running export. The partially written file is removed.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = false, idempotentHint = true, destructiveHint = false)
+    )
+    public String cancelExport(
+            @McpToolParam(description = "Export ID (required)", required = true) String exportId
+    ) {
+        return resultExportService.cancel(exportId)
+                ? String.format("Export '%s' cancelled", exportId)
+                : String.format("Error: Export '%s' is unknown or no longer running", exportId);
+    }
+}
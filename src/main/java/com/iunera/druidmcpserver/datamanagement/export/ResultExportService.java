@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.export;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import com.iunera.druidmcpserver.datamanagement.query.QueryRepository;
+import com.iunera.druidmcpserver.datamanagement.query.SqlParameter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams large SQL and multi-stage query results to CSV or NDJSON files under the configured
+ * export directory.
+ * <p>
+ * Results are requested in Druid's "arrayLines" format and processed one line at a time through
+ * fixed-size read and write buffers, so memory use does not grow with the result size. The blocking
+ * reads let TCP flow control throttle the broker to the disk write rate. Exports run in the
+ * background and report progress through {@link ExportJob}. Files are written to a ".part" file
+ * and moved into place once complete. Finished jobs are kept for {@code finished-job-ttl-ms}, and
+ * at most {@code max-finished-jobs} of them, so status lookups work for a while after an export.
+ */
+@Service
+public class ResultExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultExportService.class);
+    private static final long PROGRESS_LOG_INTERVAL = 1_000_000;
+
+    private final QueryRepository queryRepository;
+    private final DruidProperties druidProperties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    public ResultExportService(QueryRepository queryRepository,
+                               DruidProperties druidProperties,
+                               ObjectMapper objectMapper) {
+        this.queryRepository = queryRepository;
+        this.druidProperties = druidProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void initialize() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, druidProperties.getMcp().getExport().getMaxConcurrent()), runnable -> {
+            Thread thread = new Thread(runnable, "druid-export-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(ExportJob::cancel);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start exporting the result of a SQL query.
+     */
+    public ExportJob exportSqlQuery(String sqlQuery, List<SqlParameter> parameters, String fileName, ExportFormat format) throws IOException {
+        Path target = resolveTarget(fileName, format);
+        ExportJob job = new ExportJob(newId(), "sql", target, format);
+        submit(job, () -> queryRepository.streamSqlQuery(sqlQuery, parameters, body -> {
+            writeRows(job, body, null);
+            return null;
+        }));
+        return job;
+    }
+
+    /**
+     * Start exporting the result pages of a completed SQL statement, such as a multi-stage query.
+     * The statement is checked synchronously, so an unfinished or unknown query fails right away.
+     */
+    public ExportJob exportSqlStatement(String queryId, String fileName, ExportFormat format) throws IOException {
+        JsonNode statement = queryRepository.getSqlStatement(queryId);
+        String state = statement == null ? null : statement.path("state").asText();
+        if (!"SUCCESS".equals(state)) {
+            throw new IllegalArgumentException(String.format("Query '%s' has no results to export (state: %s)", queryId, state));
+        }
+        List<String> columns = new ArrayList<>();
+        for (JsonNode column : statement.path("schema")) {
+            columns.add(column.path("name").asText());
+        }
+
+        Path target = resolveTarget(fileName, format);
+        ExportJob job = new ExportJob(newId(), "statement:" + queryId, target, format);
+        submit(job, () -> queryRepository.streamSqlStatementResults(queryId, body -> {
+            writeRows(job, body, columns);
+            return null;
+        }));
+        return job;
+    }
+
+    public Optional<ExportJob> getJob(String exportId) {
+        return Optional.ofNullable(jobs.get(exportId));
+    }
+
+    public List<ExportJob> listJobs() {
+        evictFinishedJobs();
+        return List.copyOf(jobs.values());
+    }
+
+    public boolean cancel(String exportId) {
+        ExportJob job = jobs.get(exportId);
+        return job != null && job.cancel();
+    }
+
+    /**
+     * Write arrayLines rows to the job's file. Without explicit columns, the first line is the header.
+     */
+    void writeRows(ExportJob job, InputStream body, List<String> columns) throws IOException {
+        int bufferSize = druidProperties.getMcp().getExport().getBufferSize();
+        Path partFile = partFile(job.getFile());
+        boolean completed = false;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), bufferSize);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(partFile,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), StandardCharsets.UTF_8), bufferSize)) {
+            RowWriter rowWriter = null;
+            if (columns != null) {
+                rowWriter = newRowWriter(job.getFormat(), columns, writer);
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (job.isCancelled() || Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Export cancelled");
+                }
+                if (line.isEmpty()) {
+                    // arrayLines terminates the result with an empty line
+                    continue;
+                }
+                JsonNode row = objectMapper.readTree(line);
+                if (rowWriter == null) {
+                    List<String> header = new ArrayList<>();
+                    row.forEach(name -> header.add(name.asText()));
+                    rowWriter = newRowWriter(job.getFormat(), header, writer);
+                    continue;
+                }
+                rowWriter.write(row);
+                job.addRow(utf8Length(line) + 1);
+                if (job.getRowsWritten() % PROGRESS_LOG_INTERVAL == 0) {
+                    log.info("Export {} wrote {} rows", job.getId(), job.getRowsWritten());
+                }
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(partFile);
+            }
+        }
+        Files.move(partFile, job.getFile(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Resolve a plain file name inside the export directory, adding the format's extension if missing.
+     */
+    Path resolveTarget(String fileName, ExportFormat format) throws IOException {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("[fileName] parameter is required");
+        }
+        String name = fileName.trim();
+        if (name.contains("/") || name.contains("\\") || name.startsWith(".")) {
+            throw new IllegalArgumentException(String.format("Invalid file name '%s'. Use a plain file name without directories", fileName));
+        }
+        if (!name.toLowerCase(Locale.ROOT).endsWith("." + format.getExtension())) {
+            name = name + "." + format.getExtension();
+        }
+
+        Path directory = Path.of(druidProperties.getMcp().getExport().getDirectory()).toAbsolutePath().normalize();
+        Files.createDirectories(directory);
+        Path target = directory.resolve(name);
+        boolean inUse = jobs.values().stream()
+                .anyMatch(job -> job.getState() == ExportJob.State.RUNNING && job.getFile().equals(target));
+        if (Files.exists(target) || inUse) {
+            throw new IllegalArgumentException(String.format("Export file '%s' already exists", target));
+        }
+        return target;
+    }
+
+    /**
+     * Drop finished jobs past their TTL, then the oldest finished jobs above the cap. Running jobs are kept.
+     */
+    void evictFinishedJobs() {
+        DruidProperties.Mcp.Export config = druidProperties.getMcp().getExport();
+        Instant expiry = Instant.now().minusMillis(config.getFinishedJobTtlMs());
+        List<ExportJob> finished = new ArrayList<>();
+        for (ExportJob job : jobs.values()) {
+            Instant finishedAt = job.getFinishedAt();
+            if (finishedAt == null) {
+                continue;
+            }
+            if (finishedAt.isBefore(expiry)) {
+                jobs.remove(job.getId(), job);
+            } else {
+                finished.add(job);
+            }
+        }
+        int excess = finished.size() - Math.max(0, config.getMaxFinishedJobs());
+        if (excess > 0) {
+            finished.sort(Comparator.comparing(ExportJob::getFinishedAt));
+            finished.subList(0, excess).forEach(job -> jobs.remove(job.getId(), job));
+        }
+    }
+
+    private void submit(ExportJob job, ExportTask task) {
+        evictFinishedJobs();
+        jobs.put(job.getId(), job);
+        job.setFuture(executor.submit(() -> {
+            if (job.isCancelled()) {
+                return;
+            }
+            try {
+                task.run();
+                job.succeed();
+                log.info("Export {} finished with {} rows in {}", job.getId(), job.getRowsWritten(), job.getFile());
+            } catch (Exception e) {
+                job.fail(e.getMessage());
+                log.warn("Export {} failed after {} rows: {}", job.getId(), job.getRowsWritten(), e.getMessage());
+            }
+        }));
+    }
+
+    private RowWriter newRowWriter(ExportFormat format, List<String> columns, Writer writer) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(writer, columns.stream().map(ResultExportService::csvField).toList());
+            return row -> {
+                List<String> fields = new ArrayList<>(row.size());
+                row.forEach(value -> fields.add(value.isNull() ? "" : csvField(value.isValueNode() ? value.asText() : value.toString())));
+                writeCsvLine(writer, fields);
+            };
+        }
+
+        List<String> keys = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            keys.add(objectMapper.writeValueAsString(column) + ":");
+        }
+        return row -> {
+            writer.write('{');
+            for (int i = 0; i < keys.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(keys.get(i));
+                JsonNode value = row.get(i);
+                writer.write(value == null ? "null" : value.toString());
+            }
+            writer.write("}\n");
+        };
+    }
+
+    private static void writeCsvLine(Writer writer, List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(fields.get(i));
+        }
+        writer.write('\n');
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Encoded size of a line in bytes, without encoding it
+     */
+    static long utf8Length(String line) {
+        long bytes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < line.length() && Character.isLowSurrogate(line.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static Path partFile(Path target) {
+        return target.resolveSibling(target.getFileName() + ".part");
+    }
+
+    private static String newId() {
+        return "export-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @FunctionalInterface
+    private interface ExportTask {
+        void run() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(JsonNode row) throws IOException;
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.iunera.druidmcpserver.datamanagement.lookup;
 
+import com.iunera.druidmcpserver.datamanagement.catalog.ResourceCatalog;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.spec.McpSchema.ReadResourceRequest;
@@ -32,12 +33,12 @@ import java.util.Map;
 @Service
 public class LookupResources {
 
-    private final LookupRepository lookupRepository;
+    private final ResourceCatalog resourceCatalog;
     private final ObjectMapper objectMapper;
 
-    public LookupResources(LookupRepository lookupRepository,
+    public LookupResources(ResourceCatalog resourceCatalog,
                            ObjectMapper objectMapper) {
-        this.lookupRepository = lookupRepository;
+        this.resourceCatalog = resourceCatalog;
         this.objectMapper = objectMapper;
     }
 
@@ -47,8 +48,6 @@ public class LookupResources {
     @McpResource(uri = "lookup://{lookupid}", name = "Lookup", description = "Provides basic information for a specific Druid lookup")
     public ReadResourceResult getLookup(ReadResourceRequest request, String lookupid) {
         try {
-            JsonNode allLookups = lookupRepository.getAllLookups();
-
             // Parse lookupid as "tier/lookupname"
             String[] parts = lookupid.split("/", 2);
             if (parts.length != 2) {
@@ -59,14 +58,7 @@ public class LookupResources {
             String tierName = parts[0];
             String lookupName = parts[1];
 
-            // Find the specific lookup
-            JsonNode targetLookup = null;
-            if (allLookups.isObject() && allLookups.has(tierName)) {
-                JsonNode tierLookups = allLookups.get(tierName);
-                if (tierLookups.isObject() && tierLookups.has(lookupName)) {
-                    targetLookup = tierLookups.get(lookupName);
-                }
-            }
+            JsonNode targetLookup = resourceCatalog.getLookup(tierName, lookupName).orElse(null);
 
             if (targetLookup == null) {
                 String errorMessage = String.format("Lookup '%s' not found in tier '%s'", lookupName, tierName);
@@ -91,8 +83,6 @@ public class LookupResources {
     @McpResource(uri = "lookup-details://{lookupid}", name = "Lookup Details", description = "Provides detailed information for a specific Druid lookup including configuration details")
     public ReadResourceResult getLookupDetails(String lookupid) {
         try {
-            JsonNode allLookups = lookupRepository.getAllLookups();
-
             // Parse lookupid as "tier/lookupname"
             String[] parts = lookupid.split("/", 2);
             if (parts.length != 2) {
@@ -103,14 +93,7 @@ public class LookupResources {
             String tierName = parts[0];
             String lookupName = parts[1];
 
-            // Find the specific lookup
-            JsonNode targetLookup = null;
-            if (allLookups.isObject() && allLookups.has(tierName)) {
-                JsonNode tierLookups = allLookups.get(tierName);
-                if (tierLookups.isObject() && tierLookups.has(lookupName)) {
-                    targetLookup = tierLookups.get(lookupName);
-                }
-            }
+            JsonNode targetLookup = resourceCatalog.getLookup(tierName, lookupName).orElse(null);
 
             if (targetLookup == null) {
                 String errorMessage = String.format("Lookup '%s' not found in tier '%s'", lookupName, tierName);
@@ -16,6 +16,7 @@
 
 package com.iunera.druidmcpserver.datamanagement.lookup;
 
+import com.iunera.druidmcpserver.usage.responses.JsonProjection;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import org.springframework.ai.mcp.annotation.McpTool;
@@ -41,13 +42,14 @@ public class LookupTools {
      * Get lookups configuration or status
      */
     @McpTool(
-            description = "Get configuration or status of lookups for all or a specific tier. Parameters: [tier] (String, optional), [lookupName] (String, optional) to fetch a specific lookup, and [includeStatus] (Boolean, optional) to fetch lookup propagation status instead of configuration.",
+            description = "Get configuration or status of lookups for all or a specific tier. Parameters: [tier] (String, optional), [lookupName] (String, optional) to fetch a specific lookup, and [includeStatus] (Boolean, optional) to fetch lookup propagation status instead of configuration. Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
     public String getLookups(
             @McpToolParam(description = "Name of the lookup tier (optional)", required = false) String tier,
             @McpToolParam(description = "Name of the lookup (optional)", required = false) String lookupName,
-            @McpToolParam(description = "Whether to fetch lookup propagation status instead of configuration (optional)", required = false) Boolean includeStatus
+            @McpToolParam(description = "Whether to fetch lookup propagation status instead of configuration (optional)", required = false) Boolean includeStatus,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         try {
             if (includeStatus != null && includeStatus) {
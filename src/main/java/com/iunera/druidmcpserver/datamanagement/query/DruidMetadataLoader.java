@@ -16,15 +16,21 @@
 
 package com.iunera.druidmcpserver.datamanagement.query;
 
+import com.iunera.druidmcpserver.config.DruidProperties;
+import com.iunera.druidmcpserver.monitoring.changes.ClusterChangeEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.context.event.EventListener;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 import org.springframework.beans.factory.annotation.Qualifier;
 import tools.jackson.databind.JsonNode;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,15 +38,37 @@ import org.slf4j.LoggerFactory;
 public class DruidMetadataLoader {
 
     private static final Logger log = LoggerFactory.getLogger(DruidMetadataLoader.class);
+    private static final String DRUID_SCHEMA = "druid";
+    private static final String METADATA_CACHE = "druidMetadata";
     private final RestClient druidRouterRestClient;
+    private final SchemaSnapshotStore schemaSnapshotStore;
+    private final CacheManager cacheManager;
+    private final boolean warmupEnabled;
+
+    // The persisted snapshot is read on the first schema lookup, not at startup
+    private final AtomicBoolean firstLookup = new AtomicBoolean(true);
+    private volatile String snapshotSignature;
 
-    public DruidMetadataLoader(@Qualifier("druidRouterRestClient") RestClient druidRouterRestClient) {
+    public DruidMetadataLoader(@Qualifier("druidRouterRestClient") RestClient druidRouterRestClient,
+                               SchemaSnapshotStore schemaSnapshotStore,
+                               CacheManager cacheManager,
+                               DruidProperties druidProperties) {
         this.druidRouterRestClient = druidRouterRestClient;
+        this.schemaSnapshotStore = schemaSnapshotStore;
+        this.cacheManager = cacheManager;
+        this.warmupEnabled = druidProperties.getMcp().getSqlSyntaxCorrection().isWarmupEnabled();
     }
 
+    /**
+     * Warm up the schema cache once the application is ready, so the first query does not wait
+     * for it. Disabled in the stdio profile, where the schema is loaded on first use instead.
+     */
     @Async
     @EventListener(ApplicationReadyEvent.class)
     public void warmupCache() {
+        if (!warmupEnabled) {
+            return;
+        }
         try {
             fetchSchemaMetadata();
         } catch (Exception e) {
@@ -49,17 +77,106 @@ public class DruidMetadataLoader {
     }
 
     /**
-     * Fetch active Druid tables and columns from INFORMATION_SCHEMA.COLUMNS.
-     * Annotated with @Cacheable to cache the result.
+     * A persisted snapshot that was not served yet is outdated once published segments changed
      */
-    @Cacheable(value = "druidMetadata")
+    @EventListener
+    public void onSegmentsChanged(ClusterChangeEvent.SegmentsChanged event) {
+        firstLookup.set(false);
+    }
+
+    /**
+     * Fetch active Druid tables and columns from INFORMATION_SCHEMA.COLUMNS, cached in the
+     * druidMetadata cache. The first lookup is answered from the persisted snapshot when there
+     * is one. The snapshot is put into the cache itself (not via @Cacheable, which would store
+     * the return value afterwards) before it is revalidated in the background, so a refreshed
+     * schema is never overwritten by the outdated snapshot.
+     */
+    @SuppressWarnings("unchecked")
     public Map<String, Set<String>> fetchSchemaMetadata() {
+        Cache cache = cacheManager.getCache(METADATA_CACHE);
+        Cache.ValueWrapper cached = cache != null ? cache.get(SimpleKey.EMPTY) : null;
+        if (cached != null && cached.get() != null) {
+            return (Map<String, Set<String>>) cached.get();
+        }
+
+        if (firstLookup.compareAndSet(true, false)) {
+            Optional<SchemaSnapshotStore.SchemaSnapshot> snapshot = schemaSnapshotStore.load();
+            if (snapshot.isPresent()) {
+                snapshotSignature = snapshot.get().signature();
+                log.info("Serving schema metadata for {} tables from local snapshot", snapshot.get().tables().size());
+                if (cache != null) {
+                    cache.put(SimpleKey.EMPTY, snapshot.get().tables());
+                }
+                Map<String, Set<String>> snapshotTables = snapshot.get().tables();
+                Thread.ofVirtual().name("schema-snapshot-revalidation").start(() -> revalidateSnapshot(snapshotTables));
+                return snapshot.get().tables();
+            }
+        }
+
+        Map<String, Set<String>> metadata = loadSchemaMetadata();
+        if (cache != null) {
+            cache.put(SimpleKey.EMPTY, metadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * Revalidate the served snapshot. A cheap query for the column count of each table comes
+     * first; only when it differs from the snapshot, the full column list is fetched and compared
+     * by its signature, and replaces the cached schema if it changed. Renamed or retyped columns
+     * that keep the column counts are picked up by the next regular schema reload.
+     */
+    void revalidateSnapshot(Map<String, Set<String>> snapshotTables) {
+        try {
+            Map<String, Integer> columnCounts = fetchColumnCounts();
+            if (columnCounts == null) {
+                log.warn("Schema snapshot revalidation failed, serving the snapshot until the schema is reloaded");
+                return;
+            }
+            Map<String, Integer> snapshotColumnCounts = new HashMap<>();
+            snapshotTables.forEach((table, columns) -> snapshotColumnCounts.put(table, columns.size()));
+            if (columnCounts.equals(snapshotColumnCounts)) {
+                log.info("Schema snapshot is up to date");
+                return;
+            }
+
+            Map<String, Map<String, String>> columnTypes = fetchColumnTypes();
+            if (columnTypes == null) {
+                log.warn("Schema snapshot revalidation failed, serving the snapshot until the schema is reloaded");
+                return;
+            }
+            if (SchemaSnapshotStore.signature(columnTypes).equals(snapshotSignature)) {
+                log.info("Schema snapshot is up to date");
+                return;
+            }
+            log.info("Schema changed since the last snapshot, refreshing");
+            Map<String, Set<String>> metadata = storeSchemaMetadata(columnTypes);
+            Cache cache = cacheManager.getCache(METADATA_CACHE);
+            if (!metadata.isEmpty() && cache != null) {
+                cache.put(SimpleKey.EMPTY, metadata);
+            }
+        } catch (Exception e) {
+            log.warn("Schema snapshot revalidation failed: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Set<String>> loadSchemaMetadata() {
         log.info("Fetching Druid schema metadata from INFORMATION_SCHEMA.COLUMNS");
-        
-        String sql = "SELECT TABLE_NAME, COLUMN_NAME FROM \"INFORMATION_SCHEMA\".\"COLUMNS\" WHERE \"TABLE_SCHEMA\" = 'druid'";
+        Map<String, Map<String, String>> columnTypes = fetchColumnTypes();
+        return columnTypes != null ? storeSchemaMetadata(columnTypes) : Collections.emptyMap();
+    }
+
+    /**
+     * Fetch the number of columns of each Druid table, one row per table instead of one per column.
+     * Result maps table name to column count; null if the broker could not be queried.
+     */
+    private Map<String, Integer> fetchColumnCounts() {
+        String sql = "SELECT TABLE_NAME, COUNT(*) AS COLUMN_COUNT FROM \"INFORMATION_SCHEMA\".\"COLUMNS\" " +
+                "WHERE \"TABLE_SCHEMA\" = ? GROUP BY TABLE_NAME";
         Map<String, Object> query = new HashMap<>();
         query.put("query", sql);
         query.put("resultFormat", "object");
+        query.put("parameters", List.of(SqlParameter.varchar(DRUID_SCHEMA)));
 
         try {
             JsonNode result = druidRouterRestClient
@@ -70,20 +187,109 @@ public class DruidMetadataLoader {
                     .retrieve()
                     .body(JsonNode.class);
 
-            Map<String, Set<String>> metadata = new HashMap<>();
+            Map<String, Integer> columnCounts = new HashMap<>();
+            if (result != null && result.isArray()) {
+                for (JsonNode node : result) {
+                    if (node.has("TABLE_NAME")) {
+                        columnCounts.put(node.get("TABLE_NAME").asText(), node.path("COLUMN_COUNT").asInt());
+                    }
+                }
+            }
+            return columnCounts;
+        } catch (Exception e) {
+            log.warn("Failed to fetch Druid column counts for schema snapshot revalidation: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Fetch the column names and data types of all Druid tables from INFORMATION_SCHEMA.COLUMNS.
+     * Result maps table name to column name to data type; null if the broker could not be queried.
+     */
+    private Map<String, Map<String, String>> fetchColumnTypes() {
+        String sql = "SELECT TABLE_NAME, COLUMN_NAME, DATA_TYPE FROM \"INFORMATION_SCHEMA\".\"COLUMNS\" WHERE \"TABLE_SCHEMA\" = ?";
+        Map<String, Object> query = new HashMap<>();
+        query.put("query", sql);
+        query.put("resultFormat", "object");
+        query.put("parameters", List.of(SqlParameter.varchar(DRUID_SCHEMA)));
+
+        try {
+            JsonNode result = druidRouterRestClient
+                    .post()
+                    .uri("/druid/v2/sql")
+                    .header("Content-Type", "application/json")
+                    .body(query)
+                    .retrieve()
+                    .body(JsonNode.class);
+
+            Map<String, Map<String, String>> columnTypes = new HashMap<>();
             if (result != null && result.isArray()) {
                 for (JsonNode node : result) {
                     String tableName = node.has("TABLE_NAME") ? node.get("TABLE_NAME").asText() : null;
                     String columnName = node.has("COLUMN_NAME") ? node.get("COLUMN_NAME").asText() : null;
+                    String dataType = node.has("DATA_TYPE") ? node.get("DATA_TYPE").asText() : "";
                     if (tableName != null && columnName != null) {
-                        metadata.computeIfAbsent(tableName, k -> new HashSet<>()).add(columnName);
+                        columnTypes.computeIfAbsent(tableName, k -> new HashMap<>()).put(columnName, dataType);
                     }
                 }
             }
-            log.info("Successfully fetched schema metadata for {} tables", metadata.size());
-            return metadata;
+            return columnTypes;
         } catch (Exception e) {
             log.warn("Failed to fetch Druid schema metadata for syntax correction: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Map<String, Set<String>> storeSchemaMetadata(Map<String, Map<String, String>> columnTypes) {
+        Map<String, Set<String>> metadata = new HashMap<>();
+        columnTypes.forEach((table, columns) -> metadata.put(table, new HashSet<>(columns.keySet())));
+        log.info("Successfully fetched schema metadata for {} tables", metadata.size());
+        String signature = SchemaSnapshotStore.signature(columnTypes);
+        schemaSnapshotStore.save(metadata, signature);
+        snapshotSignature = signature;
+        return metadata;
+    }
+
+    /**
+     * Fetch sketch (COMPLEX) columns per table from INFORMATION_SCHEMA.COLUMNS.
+     * Only complex columns are selected, so this stays cheap even on wide datasources.
+     * Result maps table name to column name to data type, e.g. "COMPLEX<HLLSketch>".
+     */
+    @Cacheable(value = "druidSketchColumns")
+    public Map<String, Map<String, String>> fetchSketchColumns() {
+        log.info("Fetching Druid sketch columns from INFORMATION_SCHEMA.COLUMNS");
+
+        String sql = "SELECT TABLE_NAME, COLUMN_NAME, DATA_TYPE FROM \"INFORMATION_SCHEMA\".\"COLUMNS\" " +
+                "WHERE \"TABLE_SCHEMA\" = ? AND \"DATA_TYPE\" LIKE ?";
+        Map<String, Object> query = new HashMap<>();
+        query.put("query", sql);
+        query.put("resultFormat", "object");
+        query.put("parameters", List.of(SqlParameter.varchar(DRUID_SCHEMA), SqlParameter.varchar("COMPLEX%")));
+
+        try {
+            JsonNode result = druidRouterRestClient
+                    .post()
+                    .uri("/druid/v2/sql")
+                    .header("Content-Type", "application/json")
+                    .body(query)
+                    .retrieve()
+                    .body(JsonNode.class);
+
+            Map<String, Map<String, String>> sketchColumns = new HashMap<>();
+            if (result != null && result.isArray()) {
+                for (JsonNode node : result) {
+                    String tableName = node.has("TABLE_NAME") ? node.get("TABLE_NAME").asText() : null;
+                    String columnName = node.has("COLUMN_NAME") ? node.get("COLUMN_NAME").asText() : null;
+                    String dataType = node.has("DATA_TYPE") ? node.get("DATA_TYPE").asText() : null;
+                    if (tableName != null && columnName != null && dataType != null) {
+                        sketchColumns.computeIfAbsent(tableName, k -> new HashMap<>()).put(columnName, dataType);
+                    }
+                }
+            }
+            log.info("Successfully fetched sketch columns for {} tables", sketchColumns.size());
+            return sketchColumns;
+        } catch (Exception e) {
+            log.warn("Failed to fetch Druid sketch columns for approximate rewrites: {}", e.getMessage());
             return Collections.emptyMap();
         }
     }
@@ -26,9 +26,19 @@ import org.springframework.web.client.RestClientException;
 
 import java.util.Map;
 
+/**
+ * Blocking multi-stage query tools; an async MCP server registers {@link ReactiveMsqQueryTools}
+ * instead
+ */
 @Component
+@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
 public class MsqQueryTools {
 
+    static final String QUERY_MULTI_STAGE_DESCRIPTION = "Execute a multi-stage SQL query against Druid datasources as a task. This is suitable for complex queries, large datasets, and INSERT/REPLACE operations. Provide the SQL query as a parameter.";
+    static final String QUERY_MULTI_STAGE_WITH_CONTEXT_DESCRIPTION = "Execute a multi-stage SQL query with custom context parameters. Provide the SQL query and context as JSON string. Context can include maxNumTasks, taskAssignment, finalizeAggregations, groupByEnableMultiValueUnnesting, etc.";
+    static final String TASK_STATUS_DESCRIPTION = "Get the status of a multi-stage query task. Provide the task ID as a parameter.";
+    static final String CANCEL_TASK_DESCRIPTION = "Cancel a running multi-stage query task. Provide the task ID as a parameter.";
+
     private final QueryRepository queryRepository;
     private final TasksRepository tasksRepository;
     private final SqlSyntaxCorrectionService sqlSyntaxCorrectionService;
@@ -48,7 +58,7 @@ public class MsqQueryTools {
      * Execute a multi-stage Druid SQL query as a task
      */
     @McpTool(
-            description = "Execute a multi-stage SQL query against Druid datasources as a task. This is suitable for complex queries, large datasets, and INSERT/REPLACE operations. Provide the SQL query as a parameter.",
+            description = QUERY_MULTI_STAGE_DESCRIPTION,
             annotations = @McpTool.McpAnnotations(readOnlyHint = false, idempotentHint = false, destructiveHint = false)
     )
     public String queryDruidMultiStage(String sqlQuery) {
@@ -67,7 +77,7 @@ public class MsqQueryTools {
      * Execute a multi-stage Druid SQL query with custom context parameters
      */
     @McpTool(
-            description = "Execute a multi-stage SQL query with custom context parameters. Provide the SQL query and context as JSON string. Context can include maxNumTasks, taskAssignment, finalizeAggregations, groupByEnableMultiValueUnnesting, etc.",
+            description = QUERY_MULTI_STAGE_WITH_CONTEXT_DESCRIPTION,
             annotations = @McpTool.McpAnnotations(readOnlyHint = false, idempotentHint = false, destructiveHint = false)
     )
     public String queryDruidMultiStageWithContext(String sqlQuery, String contextJson) {
@@ -94,7 +104,7 @@ public class MsqQueryTools {
      * Get status of a multi-stage query task
      */
     @McpTool(
-            description = "Get the status of a multi-stage query task. Provide the task ID as a parameter.",
+            description = TASK_STATUS_DESCRIPTION,
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
     public String getMultiStageQueryTaskStatus(String taskId) {
@@ -112,7 +122,7 @@ public class MsqQueryTools {
      * Cancel a multi-stage query task
      */
     @McpTool(
-            description = "Cancel a running multi-stage query task. Provide the task ID as a parameter.",
+            description = CANCEL_TASK_DESCRIPTION,
             annotations = @McpTool.McpAnnotations(readOnlyHint = false, idempotentHint = true, destructiveHint = false)
     )
     public String cancelMultiStageQueryTask(String taskId) {
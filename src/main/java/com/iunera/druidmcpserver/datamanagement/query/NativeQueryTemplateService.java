@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Named, parameterized templates for native Druid queries.
+ * Templates are JSON documents whose string values may contain {{name}} or {{name:default}} placeholders.
+ * A placeholder that makes up a whole string value is bound with the typed parameter value (number, list, object),
+ * placeholders embedded in a longer string are substituted as text (e.g. "{{start}}/{{end}}").
+ */
+@Service
+public class NativeQueryTemplateService {
+
+    private static final Pattern WHOLE_PLACEHOLDER = Pattern.compile("^\\{\\{(\\w+)(?::(.*))?}}$", Pattern.DOTALL);
+    private static final Pattern EMBEDDED_PLACEHOLDER = Pattern.compile("\\{\\{(\\w+)(?::(.*?))?}}");
+
+    private static final Map<String, String> BUILT_IN_TEMPLATES = new LinkedHashMap<>();
+
+    static {
+        BUILT_IN_TEMPLATES.put("timeseries", """
+                {
+                  "queryType": "timeseries",
+                  "dataSource": "{{datasource}}",
+                  "intervals": ["{{interval}}"],
+                  "granularity": "{{granularity:hour}}",
+                  "filter": "{{filter:null}}",
+                  "aggregations": "{{aggregations:[{\\"type\\": \\"count\\", \\"name\\": \\"count\\"}]}}",
+                  "context": {"skipEmptyBuckets": "{{skipEmptyBuckets:true}}"}
+                }
+                """);
+        BUILT_IN_TEMPLATES.put("topN", """
+                {
+                  "queryType": "topN",
+                  "dataSource": "{{datasource}}",
+                  "intervals": ["{{interval}}"],
+                  "granularity": "{{granularity:all}}",
+                  "dimension": "{{dimension}}",
+                  "metric": "{{metric:count}}",
+                  "threshold": "{{threshold:10}}",
+                  "filter": "{{filter:null}}",
+                  "aggregations": "{{aggregations:[{\\"type\\": \\"count\\", \\"name\\": \\"count\\"}]}}"
+                }
+                """);
+        BUILT_IN_TEMPLATES.put("groupBy", """
+                {
+                  "queryType": "groupBy",
+                  "dataSource": "{{datasource}}",
+                  "intervals": ["{{interval}}"],
+                  "granularity": "{{granularity:all}}",
+                  "dimensions": "{{dimensions}}",
+                  "filter": "{{filter:null}}",
+                  "aggregations": "{{aggregations:[{\\"type\\": \\"count\\", \\"name\\": \\"count\\"}]}}",
+                  "limitSpec": {
+                    "type": "default",
+                    "limit": "{{limit:100}}",
+                    "columns": [{"dimension": "{{orderBy:count}}", "direction": "descending"}]
+                  }
+                }
+                """);
+    }
+
+    private final DruidProperties druidProperties;
+    private final ObjectMapper objectMapper;
+
+    public NativeQueryTemplateService(DruidProperties druidProperties, ObjectMapper objectMapper) {
+        this.druidProperties = druidProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * All available templates by name; configured templates override built-ins of the same name.
+     */
+    public Map<String, String> getTemplates() {
+        Map<String, String> templates = new LinkedHashMap<>(BUILT_IN_TEMPLATES);
+        Map<String, String> configured = druidProperties.getMcp().getNativeQuery().getTemplates();
+        if (configured != null) {
+            templates.putAll(configured);
+        }
+        return templates;
+    }
+
+    /**
+     * Bind the parameters into the named template and return the native query body.
+     * Entries bound to null (e.g. an omitted optional filter) are dropped from the query.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> bindTemplate(String templateName, Map<String, Object> parameters) {
+        String template = getTemplates().get(templateName);
+        if (template == null) {
+            throw new IllegalArgumentException(String.format("Unknown native query template '%s'. Available templates: %s",
+                    templateName, String.join(", ", getTemplates().keySet())));
+        }
+
+        Object bound = bind(objectMapper.readValue(template, Object.class), parameters != null ? parameters : Map.of());
+        if (!(bound instanceof Map)) {
+            throw new IllegalArgumentException(String.format("Native query template '%s' must be a JSON object", templateName));
+        }
+        return (Map<String, Object>) bound;
+    }
+
+    private Object bind(Object node, Map<String, Object> parameters) {
+        if (node instanceof Map<?, ?> map) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                Object value = bind(entry.getValue(), parameters);
+                if (value != null) {
+                    result.put(String.valueOf(entry.getKey()), value);
+                }
+            }
+            return result;
+        }
+        if (node instanceof List<?> list) {
+            List<Object> result = new ArrayList<>();
+            for (Object item : list) {
+                result.add(bind(item, parameters));
+            }
+            return result;
+        }
+        if (node instanceof String text) {
+            return bindText(text, parameters);
+        }
+        return node;
+    }
+
+    private Object bindText(String text, Map<String, Object> parameters) {
+        Matcher whole = WHOLE_PLACEHOLDER.matcher(text);
+        if (whole.matches()) {
+            return resolve(whole.group(1), whole.group(2), parameters, true);
+        }
+
+        Matcher embedded = EMBEDDED_PLACEHOLDER.matcher(text);
+        StringBuilder sb = new StringBuilder();
+        while (embedded.find()) {
+            Object value = resolve(embedded.group(1), embedded.group(2), parameters, false);
+            embedded.appendReplacement(sb, Matcher.quoteReplacement(String.valueOf(value)));
+        }
+        embedded.appendTail(sb);
+        return sb.toString();
+    }
+
+    private Object resolve(String name, String defaultValue, Map<String, Object> parameters, boolean typed) {
+        Object value = parameters.get(name);
+        if (value != null) {
+            return value;
+        }
+        if (defaultValue != null) {
+            return typed ? parseDefault(defaultValue) : defaultValue;
+        }
+        throw new IllegalArgumentException(String.format("Missing required template parameter '%s'", name));
+    }
+
+    /**
+     * Defaults are parsed as JSON where possible (10, true, null, [...]) and otherwise used as plain text (hour, count).
+     */
+    private Object parseDefault(String defaultValue) {
+        try {
+            return objectMapper.readValue(defaultValue, Object.class);
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+}
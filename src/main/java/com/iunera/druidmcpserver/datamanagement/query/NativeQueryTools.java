@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.ai.mcp.annotation.McpToolParam;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class NativeQueryTools {
+
+    private final QueryRepository queryRepository;
+    private final NativeQueryTemplateService nativeQueryTemplateService;
+    private final ObjectMapper objectMapper;
+
+    public NativeQueryTools(QueryRepository queryRepository,
+                            NativeQueryTemplateService nativeQueryTemplateService,
+                            ObjectMapper objectMapper) {
+        this.queryRepository = queryRepository;
+        this.nativeQueryTemplateService = nativeQueryTemplateService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Execute a native Druid query from a named template or raw native query JSON
+     */
+    @McpTool(
+            description = "Execute a native Druid JSON query (timeseries, topN, groupBy) without SQL planning on the broker. Prefer this for repetitive monitoring queries. Parameters: [datasource] (String, required), [templateName] (String, optional) name of a template from getNativeQueryTemplates, [parametersJson] (String, optional) JSON object with template parameter values such as {\"interval\": \"2025-01-01/2025-01-02\", \"dimension\": \"page\"}, and [queryJson] (String, optional) a raw native query used instead of a template.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public String queryDruidNative(
+            @McpToolParam(description = "Name of the datasource to query (required)", required = true) String datasource,
+            @McpToolParam(description = "Name of the native query template: timeseries, topN, groupBy or a configured template (optional)", required = false) String templateName,
+            @McpToolParam(description = "JSON object with template parameter values (optional)", required = false) String parametersJson,
+            @McpToolParam(description = "Raw native query JSON, used instead of a template (optional)", required = false) String queryJson
+    ) {
+        if (datasource == null || datasource.trim().isEmpty()) {
+            return "Error: [datasource] parameter is required";
+        }
+        try {
+            Map<String, Object> nativeQuery;
+            if (queryJson != null && !queryJson.trim().isEmpty()) {
+                nativeQuery = objectMapper.readValue(queryJson, Map.class);
+            } else if (templateName != null && !templateName.trim().isEmpty()) {
+                Map<String, Object> parameters = new HashMap<>();
+                if (parametersJson != null && !parametersJson.trim().isEmpty()) {
+                    parameters.putAll(objectMapper.readValue(parametersJson, Map.class));
+                }
+                parameters.put("datasource", datasource);
+                nativeQuery = nativeQueryTemplateService.bindTemplate(templateName, parameters);
+            } else {
+                return "Error: either [templateName] or [queryJson] parameter is required";
+            }
+            // Configured templates may hard-code or parameterize the dataSource, so bound templates are checked too
+            String error = ensureDatasource(nativeQuery, datasource);
+            if (error != null) {
+                return error;
+            }
+
+            JsonNode result = queryRepository.executeNativeQuery(nativeQuery);
+            return objectMapper.writeValueAsString(result);
+        } catch (IllegalArgumentException e) {
+            return String.format("Error: %s", e.getMessage());
+        } catch (RestClientException e) {
+            return String.format("Error executing native query on datasource '%s': %s", datasource, e.getMessage());
+        } catch (Exception e) {
+            return String.format("Failed to process native query response for datasource '%s': %s", datasource, e.getMessage());
+        }
+    }
+
+    /**
+     * List the available native query templates
+     */
+    @McpTool(
+            description = "List the named native query templates available to queryDruidNative. Each template shows its placeholders together with their defaults.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public String getNativeQueryTemplates() {
+        try {
+            Map<String, Object> templates = new LinkedHashMap<>();
+            for (Map.Entry<String, String> template : nativeQueryTemplateService.getTemplates().entrySet()) {
+                templates.put(template.getKey(), objectMapper.readValue(template.getValue(), Object.class));
+            }
+            return objectMapper.writeValueAsString(templates);
+        } catch (Exception e) {
+            return String.format("Failed to process native query templates: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Only table datasources matching the [datasource] parameter are allowed, so that datasource limits apply to raw queries and templates.
+     */
+    private String ensureDatasource(Map<String, Object> nativeQuery, String datasource) {
+        Object querySource = nativeQuery.get("dataSource");
+        if (querySource == null) {
+            nativeQuery.put("dataSource", datasource);
+            return null;
+        }
+
+        String tableName = null;
+        if (querySource instanceof String name) {
+            tableName = name;
+        } else if (querySource instanceof Map<?, ?> source && "table".equals(source.get("type"))) {
+            tableName = String.valueOf(source.get("name"));
+        }
+
+        if (tableName == null) {
+            return "Error: only table dataSources are supported for native queries";
+        }
+        if (!tableName.equals(datasource)) {
+            return String.format("Error: dataSource '%s' of the native query does not match [datasource] '%s'", tableName, datasource);
+        }
+        return null;
+    }
+}
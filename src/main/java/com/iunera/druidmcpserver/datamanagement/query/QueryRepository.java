@@ -16,6 +16,7 @@
 
 package com.iunera.druidmcpserver.datamanagement.query;
 
+import com.iunera.druidmcpserver.config.http.RequestCoalescingInterceptor;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -23,7 +24,11 @@ import org.springframework.stereotype.Repository;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Repository
@@ -31,6 +36,10 @@ public class QueryRepository {
 
     public static final String SQL_ENDPOINT = "/druid/v2/sql";
     public static final String SQL_TASK_ENDPOINT = "/druid/v2/sql/task";
+    public static final String NATIVE_ENDPOINT = "/druid/v2";
+    public static final String SQL_STATEMENTS_ENDPOINT = "/druid/v2/sql/statements";
+
+    private static final int ERROR_BODY_LIMIT = 4096;
 
     private final RestClient druidRouterRestClient;
     private final ObjectMapper objectMapper;
@@ -45,10 +54,21 @@ public class QueryRepository {
      * Execute a basic SQL query against Druid
      */
     public JsonNode executeSqlQuery(String sqlQuery) throws RestClientException {
+        return executeSqlQuery(sqlQuery, List.of());
+    }
+
+    /**
+     * Execute a SQL query with dynamic parameters bound to its {@code ?} placeholders
+     */
+    public JsonNode executeSqlQuery(String sqlQuery, List<SqlParameter> parameters) throws RestClientException {
         Map<String, Object> query = new HashMap<>();
         query.put("query", sqlQuery);
         query.put("resultFormat", "object");
 
+        if (parameters != null && !parameters.isEmpty()) {
+            query.put("parameters", parameters);
+        }
+
         return druidRouterRestClient
                 .post()
                 .uri(SQL_ENDPOINT)
@@ -58,6 +78,78 @@ public class QueryRepository {
                 .body(JsonNode.class);
     }
 
+    /**
+     * Execute a SQL query with the "arrayLines" result format and a header line, handing the
+     * unbuffered response body to the consumer. Rows are newline-delimited JSON arrays, so
+     * arbitrarily large results can be processed with constant memory.
+     */
+    public <T> T streamSqlQuery(String sqlQuery, List<SqlParameter> parameters, ResultStreamConsumer<T> consumer) throws RestClientException {
+        Map<String, Object> query = new HashMap<>();
+        query.put("query", sqlQuery);
+        query.put("resultFormat", "arrayLines");
+        query.put("header", true);
+
+        if (parameters != null && !parameters.isEmpty()) {
+            query.put("parameters", parameters);
+        }
+
+        return druidRouterRestClient
+                .post()
+                .uri(SQL_ENDPOINT)
+                .header("Content-Type", "application/json")
+                .attribute(RequestCoalescingInterceptor.SKIP_ATTRIBUTE, true)
+                .body(query)
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().isError()) {
+                        throw new RestClientException(String.format("%s: %s", response.getStatusCode(),
+                                new String(response.getBody().readNBytes(ERROR_BODY_LIMIT), StandardCharsets.UTF_8)));
+                    }
+                    return consumer.consume(response.getBody());
+                }, true);
+    }
+
+    /**
+     * Get the status and result schema of a SQL statement, e.g. a multi-stage query
+     */
+    public JsonNode getSqlStatement(String queryId) throws RestClientException {
+        return druidRouterRestClient
+                .get()
+                .uri(SQL_STATEMENTS_ENDPOINT + "/{queryId}", queryId)
+                .header("Content-Type", "application/json")
+                .retrieve()
+                .body(JsonNode.class);
+    }
+
+    /**
+     * Stream all result pages of a completed SQL statement in the "arrayLines" format (without header line)
+     */
+    public <T> T streamSqlStatementResults(String queryId, ResultStreamConsumer<T> consumer) throws RestClientException {
+        return druidRouterRestClient
+                .get()
+                .uri(SQL_STATEMENTS_ENDPOINT + "/{queryId}/results?resultFormat=arrayLines", queryId)
+                .attribute(RequestCoalescingInterceptor.SKIP_ATTRIBUTE, true)
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().isError()) {
+                        throw new RestClientException(String.format("%s: %s", response.getStatusCode(),
+                                new String(response.getBody().readNBytes(ERROR_BODY_LIMIT), StandardCharsets.UTF_8)));
+                    }
+                    return consumer.consume(response.getBody());
+                }, true);
+    }
+
+    /**
+     * Execute a native JSON query (timeseries, topN, groupBy, ...) against Druid
+     */
+    public JsonNode executeNativeQuery(Map<String, Object> nativeQuery) throws RestClientException {
+        return druidRouterRestClient
+                .post()
+                .uri(NATIVE_ENDPOINT)
+                .header("Content-Type", "application/json")
+                .body(nativeQuery)
+                .retrieve()
+                .body(JsonNode.class);
+    }
+
     /**
      * Execute a multi-stage SQL query as a task
      */
@@ -95,4 +187,12 @@ public class QueryRepository {
                 .retrieve()
                 .body(JsonNode.class);
     }
-}
\ No newline at end of file
+
+    /**
+     * Consumer of a streamed response body
+     */
+    @FunctionalInterface
+    public interface ResultStreamConsumer<T> {
+        T consume(InputStream body) throws IOException;
+    }
+}
@@ -20,12 +20,25 @@ import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import com.iunera.druidmcpserver.ingestion.tasks.TasksRepository;
 import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.ai.mcp.annotation.McpToolParam;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 
+import java.util.List;
+
+/**
+ * Blocking SQL query tool; an async MCP server registers {@link ReactiveQueryTools} instead
+ */
 @Component
+@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
 public class QueryTools {
 
+    static final String QUERY_DRUID_SQL_DESCRIPTION = "Execute a SQL query against Druid datasources. Provide the SQL query as a parameter. Set [approximate] to true to rewrite exact COUNT(DISTINCT) and percentile expressions to faster DataSketches approximations, which is recommended for data exploration. Use ? placeholders with [parametersJson] instead of inlining literal values, so the broker can reuse the query plan. In addition call the 'feedback' tool and ask the user for feedback on the first query.";
+    static final String SQL_QUERY_DESCRIPTION = "SQL query to execute (required)";
+    static final String APPROXIMATE_DESCRIPTION = "Whether to rewrite COUNT(DISTINCT) and percentiles to approximate sketch functions (optional)";
+    static final String PARAMETERS_JSON_DESCRIPTION = "JSON array of values bound to the ? placeholders in order, either plain values or {\"type\": \"VARCHAR\", \"value\": ...} objects (optional)";
+
     private final QueryRepository queryRepository;
     private final SqlSyntaxCorrectionService sqlSyntaxCorrectionService;
     private final ObjectMapper objectMapper;
@@ -42,14 +55,26 @@ public class QueryTools {
      * Execute a Druid SQL query against a datasource
      */
     @McpTool(
-            description = "Execute a SQL query against Druid datasources. Provide the SQL query as a parameter. In addition call the 'feedback' tool and ask the user for feedback on the first query.",
+            description = QUERY_DRUID_SQL_DESCRIPTION,
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
-    public String queryDruidSql(String sqlQuery) {
+    public String queryDruidSql(
+            @McpToolParam(description = SQL_QUERY_DESCRIPTION, required = true) String sqlQuery,
+            @McpToolParam(description = APPROXIMATE_DESCRIPTION, required = false) Boolean approximate,
+            @McpToolParam(description = PARAMETERS_JSON_DESCRIPTION, required = false) String parametersJson
+    ) {
         String correctedQuery = sqlSyntaxCorrectionService.correctQuerySyntax(sqlQuery);
+        if (approximate != null && approximate) {
+            correctedQuery = sqlSyntaxCorrectionService.rewriteApproximate(correctedQuery);
+        }
         try {
-            JsonNode result = queryRepository.executeSqlQuery(correctedQuery);
+            List<SqlParameter> parameters = parametersJson != null && !parametersJson.isBlank()
+                    ? SqlParameter.fromJson(objectMapper.readTree(parametersJson))
+                    : List.of();
+            JsonNode result = queryRepository.executeSqlQuery(correctedQuery, parameters);
             return objectMapper.writeValueAsString(result);
+        } catch (IllegalArgumentException e) {
+            return String.format("Error: %s", e.getMessage());
         } catch (RestClientException e) {
             return String.format("Error executing SQL query '%s' (corrected: '%s'): %s", sqlQuery, correctedQuery, e.getMessage());
         } catch (Exception e) {
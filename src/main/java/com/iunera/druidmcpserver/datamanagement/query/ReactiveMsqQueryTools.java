@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+
+/**
+ * Async variant of {@link MsqQueryTools} for an async MCP server (the webflux build). Tasks are
+ * submitted, polled and cancelled with the non-blocking {@link ReactiveQueryRepository}; the
+ * syntax correction runs off the event loop like in {@link ReactiveQueryTools}.
+ */
+@Component
+@ConditionalOnClass(name = "org.springframework.web.reactive.function.client.WebClient")
+@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+public class ReactiveMsqQueryTools {
+
+    private final ReactiveQueryRepository reactiveQueryRepository;
+    private final SqlSyntaxCorrectionService sqlSyntaxCorrectionService;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveMsqQueryTools(ReactiveQueryRepository reactiveQueryRepository,
+                                 SqlSyntaxCorrectionService sqlSyntaxCorrectionService,
+                                 ObjectMapper objectMapper) {
+        this.reactiveQueryRepository = reactiveQueryRepository;
+        this.sqlSyntaxCorrectionService = sqlSyntaxCorrectionService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Execute a multi-stage Druid SQL query as a task
+     */
+    @McpTool(
+            name = "queryDruidMultiStage",
+            description = MsqQueryTools.QUERY_MULTI_STAGE_DESCRIPTION,
+            annotations = @McpTool.McpAnnotations(readOnlyHint = false, idempotentHint = false, destructiveHint = false)
+    )
+    public Mono<String> queryDruidMultiStage(String sqlQuery) {
+        return ReactiveQueryTools.corrected(() -> sqlSyntaxCorrectionService.correctQuerySyntax(sqlQuery))
+                .flatMap(correctedQuery -> respond(reactiveQueryRepository.executeMultiStageSqlQuery(correctedQuery, null),
+                        String.format("executing multi-stage SQL query '%s' (corrected: '%s')", sqlQuery, correctedQuery),
+                        String.format("process multi-stage query response for '%s' (corrected: '%s')", sqlQuery, correctedQuery)));
+    }
+
+    /**
+     * Execute a multi-stage Druid SQL query with custom context parameters
+     */
+    @McpTool(
+            name = "queryDruidMultiStageWithContext",
+            description = MsqQueryTools.QUERY_MULTI_STAGE_WITH_CONTEXT_DESCRIPTION,
+            annotations = @McpTool.McpAnnotations(readOnlyHint = false, idempotentHint = false, destructiveHint = false)
+    )
+    public Mono<String> queryDruidMultiStageWithContext(String sqlQuery, String contextJson) {
+        return ReactiveQueryTools.corrected(() -> sqlSyntaxCorrectionService.correctQuerySyntax(sqlQuery))
+                .flatMap(correctedQuery -> executeMultiStageWithContext(sqlQuery, correctedQuery, contextJson));
+    }
+
+    private Mono<String> executeMultiStageWithContext(String sqlQuery, String correctedQuery, String contextJson) {
+        String failure = String.format("process multi-stage query with context response for '%s' (corrected: '%s')", sqlQuery, correctedQuery);
+        Map<String, Object> context = null;
+        try {
+            // Parse context JSON if provided
+            if (contextJson != null && !contextJson.trim().isEmpty()) {
+                context = objectMapper.readValue(contextJson,
+                        objectMapper.getTypeFactory().constructMapType(Map.class, String.class, Object.class));
+            }
+        } catch (Exception e) {
+            return Mono.just(String.format("Failed to %s: %s", failure, e.getMessage()));
+        }
+        return respond(reactiveQueryRepository.executeMultiStageSqlQuery(correctedQuery, context),
+                String.format("executing multi-stage SQL query with context '%s' (corrected: '%s')", sqlQuery, correctedQuery),
+                failure);
+    }
+
+    /**
+     * Get status of a multi-stage query task
+     */
+    @McpTool(
+            name = "getMultiStageQueryTaskStatus",
+            description = MsqQueryTools.TASK_STATUS_DESCRIPTION,
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public Mono<String> getMultiStageQueryTaskStatus(String taskId) {
+        return respond(reactiveQueryRepository.getTaskStatus(taskId),
+                String.format("retrieving task status for task ID '%s'", taskId),
+                String.format("process task status response for task ID '%s'", taskId));
+    }
+
+    /**
+     * Cancel a multi-stage query task
+     */
+    @McpTool(
+            name = "cancelMultiStageQueryTask",
+            description = MsqQueryTools.CANCEL_TASK_DESCRIPTION,
+            annotations = @McpTool.McpAnnotations(readOnlyHint = false, idempotentHint = true, destructiveHint = false)
+    )
+    public Mono<String> cancelMultiStageQueryTask(String taskId) {
+        return respond(reactiveQueryRepository.killTask(taskId),
+                String.format("cancelling task with ID '%s'", taskId),
+                String.format("process task cancellation response for task ID '%s'", taskId));
+    }
+
+    /**
+     * Serializes the result, or returns the same error messages as the blocking tools
+     */
+    private Mono<String> respond(Mono<JsonNode> result, String action, String processing) {
+        return result
+                .map(objectMapper::writeValueAsString)
+                .onErrorResume(RestClientException.class, e -> Mono.just(String.format("Error %s: %s", action, e.getMessage())))
+                .onErrorResume(e -> Mono.just(String.format("Failed to %s: %s", processing, e.getMessage())));
+    }
+}
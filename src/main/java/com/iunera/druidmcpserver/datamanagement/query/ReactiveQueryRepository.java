@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.JsonNode;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking variant of the {@link QueryRepository} SQL and multi-stage query calls for the
+ * async query tools. No thread waits while Druid executes a query. Error responses fail with a
+ * {@link RestClientException} carrying the Druid error, like the blocking calls.
+ */
+@Repository
+@ConditionalOnClass(name = "org.springframework.web.reactive.function.client.WebClient")
+@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+public class ReactiveQueryRepository {
+
+    private static final int ERROR_BODY_LIMIT = 4096;
+
+    private final WebClient druidRouterWebClient;
+
+    public ReactiveQueryRepository(@Qualifier("druidRouterWebClient") WebClient druidRouterWebClient) {
+        this.druidRouterWebClient = druidRouterWebClient;
+    }
+
+    /**
+     * Execute a SQL query with dynamic parameters bound to its {@code ?} placeholders
+     */
+    public Mono<JsonNode> executeSqlQuery(String sqlQuery, List<SqlParameter> parameters) {
+        Map<String, Object> query = new HashMap<>();
+        query.put("query", sqlQuery);
+        query.put("resultFormat", "object");
+
+        if (parameters != null && !parameters.isEmpty()) {
+            query.put("parameters", parameters);
+        }
+
+        return post(QueryRepository.SQL_ENDPOINT, query);
+    }
+
+    /**
+     * Execute a multi-stage SQL query as a task, with optional context parameters
+     */
+    public Mono<JsonNode> executeMultiStageSqlQuery(String sqlQuery, Map<String, Object> context) {
+        Map<String, Object> query = new HashMap<>();
+        query.put("query", sqlQuery);
+        query.put("resultFormat", "object");
+
+        if (context != null && !context.isEmpty()) {
+            query.put("context", context);
+        }
+
+        return post(QueryRepository.SQL_TASK_ENDPOINT, query);
+    }
+
+    /**
+     * Get the status of a task, e.g. a multi-stage query task
+     */
+    public Mono<JsonNode> getTaskStatus(String taskId) {
+        return druidRouterWebClient
+                .get()
+                .uri("/druid/indexer/v1/task/{taskId}/status", taskId)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ReactiveQueryRepository::error)
+                .bodyToMono(JsonNode.class);
+    }
+
+    /**
+     * Shut down a task, e.g. a multi-stage query task
+     */
+    public Mono<JsonNode> killTask(String taskId) {
+        return druidRouterWebClient
+                .post()
+                .uri("/druid/indexer/v1/task/{taskId}/shutdown", taskId)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ReactiveQueryRepository::error)
+                .bodyToMono(JsonNode.class);
+    }
+
+    private Mono<JsonNode> post(String uri, Map<String, Object> query) {
+        return druidRouterWebClient
+                .post()
+                .uri(uri)
+                .header("Content-Type", "application/json")
+                .bodyValue(query)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ReactiveQueryRepository::error)
+                .bodyToMono(JsonNode.class);
+    }
+
+    private static Mono<RestClientException> error(ClientResponse response) {
+        return response.bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .map(body -> new RestClientException(String.format("%s: %s", response.statusCode(),
+                        body.length() > ERROR_BODY_LIMIT ? body.substring(0, ERROR_BODY_LIMIT) : body)));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.ai.mcp.annotation.McpToolParam;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Async variant of {@link QueryTools} for an async MCP server (the webflux build). The query is
+ * sent with the non-blocking {@link ReactiveQueryRepository}, so no thread is held while Druid
+ * executes it. The syntax correction may load the schema metadata with blocking calls on a cache
+ * miss, so it runs on the bounded elastic scheduler, never on the event loop.
+ */
+@Component
+@ConditionalOnClass(name = "org.springframework.web.reactive.function.client.WebClient")
+@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+public class ReactiveQueryTools {
+
+    private final ReactiveQueryRepository reactiveQueryRepository;
+    private final SqlSyntaxCorrectionService sqlSyntaxCorrectionService;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveQueryTools(ReactiveQueryRepository reactiveQueryRepository,
+                              SqlSyntaxCorrectionService sqlSyntaxCorrectionService,
+                              ObjectMapper objectMapper) {
+        this.reactiveQueryRepository = reactiveQueryRepository;
+        this.sqlSyntaxCorrectionService = sqlSyntaxCorrectionService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Execute a Druid SQL query against a datasource
+     */
+    @McpTool(
+            name = "queryDruidSql",
+            description = QueryTools.QUERY_DRUID_SQL_DESCRIPTION,
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public Mono<String> queryDruidSql(
+            @McpToolParam(description = QueryTools.SQL_QUERY_DESCRIPTION, required = true) String sqlQuery,
+            @McpToolParam(description = QueryTools.APPROXIMATE_DESCRIPTION, required = false) Boolean approximate,
+            @McpToolParam(description = QueryTools.PARAMETERS_JSON_DESCRIPTION, required = false) String parametersJson
+    ) {
+        return corrected(() -> approximate != null && approximate
+                ? sqlSyntaxCorrectionService.rewriteApproximate(sqlSyntaxCorrectionService.correctQuerySyntax(sqlQuery))
+                : sqlSyntaxCorrectionService.correctQuerySyntax(sqlQuery))
+                .flatMap(correctedQuery -> executeSqlQuery(sqlQuery, correctedQuery, parametersJson));
+    }
+
+    private Mono<String> executeSqlQuery(String sqlQuery, String correctedQuery, String parametersJson) {
+        List<SqlParameter> parameters;
+        try {
+            parameters = parametersJson != null && !parametersJson.isBlank()
+                    ? SqlParameter.fromJson(objectMapper.readTree(parametersJson))
+                    : List.of();
+        } catch (IllegalArgumentException e) {
+            return Mono.just(String.format("Error: %s", e.getMessage()));
+        } catch (Exception e) {
+            return Mono.just(String.format("Failed to process query response for '%s' (corrected: '%s'): %s", sqlQuery, correctedQuery, e.getMessage()));
+        }
+        return reactiveQueryRepository.executeSqlQuery(correctedQuery, parameters)
+                .map(objectMapper::writeValueAsString)
+                .onErrorResume(RestClientException.class, e -> Mono.just(String.format(
+                        "Error executing SQL query '%s' (corrected: '%s'): %s", sqlQuery, correctedQuery, e.getMessage())))
+                .onErrorResume(e -> Mono.just(String.format(
+                        "Failed to process query response for '%s' (corrected: '%s'): %s", sqlQuery, correctedQuery, e.getMessage())));
+    }
+
+    /**
+     * Runs a syntax correction on the bounded elastic scheduler; it may fetch schema metadata
+     * with the blocking RestClient
+     */
+    static Mono<String> corrected(Callable<String> correction) {
+        return Mono.fromCallable(correction).subscribeOn(Schedulers.boundedElastic());
+    }
+}
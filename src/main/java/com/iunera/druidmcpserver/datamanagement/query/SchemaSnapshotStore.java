@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Persists the last Druid schema metadata to a compact local file so that short-lived
+ * (stdio) server processes can serve syntax correction from the first query.
+ * <p>
+ * File layout: magic, format version, router URL, schema signature, then per table its
+ * name and column names. Strings are length-prefixed UTF-8. The file is memory-mapped on load
+ * and written atomically via a temporary file.
+ */
+@Component
+public class SchemaSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaSnapshotStore.class);
+    private static final int MAGIC = 0x444D5353; // "DMSS"
+    private static final int VERSION = 2;
+
+    private final DruidProperties druidProperties;
+
+    public SchemaSnapshotStore(DruidProperties druidProperties) {
+        this.druidProperties = druidProperties;
+    }
+
+    public boolean isEnabled() {
+        return druidProperties.getMcp().getSqlSyntaxCorrection().isSnapshotEnabled();
+    }
+
+    /**
+     * Load the persisted snapshot if it exists and was taken from the configured router.
+     */
+    public Optional<SchemaSnapshot> load() {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        Path path = snapshotPath();
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.warn("Ignoring schema snapshot {} with unknown format", path);
+                return Optional.empty();
+            }
+
+            String routerUrl = readString(buffer);
+            if (!routerUrl.equals(druidProperties.getRouter().getUrl())) {
+                log.info("Ignoring schema snapshot {} taken from a different router ({})", path, routerUrl);
+                return Optional.empty();
+            }
+
+            String signature = readString(buffer);
+            int tableCount = buffer.getInt();
+            Map<String, Set<String>> tables = new HashMap<>(tableCount * 2);
+            for (int i = 0; i < tableCount; i++) {
+                String tableName = readString(buffer);
+                int columnCount = buffer.getInt();
+                Set<String> columns = new HashSet<>(columnCount * 2);
+                for (int j = 0; j < columnCount; j++) {
+                    columns.add(readString(buffer));
+                }
+                tables.put(tableName, columns);
+            }
+            return Optional.of(new SchemaSnapshot(signature, tables));
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            log.warn("Failed to read schema snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Persist the given schema metadata with its {@link #signature}, replacing any previous snapshot.
+     */
+    public void save(Map<String, Set<String>> tables, String signature) {
+        if (!isEnabled() || tables == null || tables.isEmpty()) {
+            return;
+        }
+        Path path = snapshotPath();
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeString(out, druidProperties.getRouter().getUrl());
+                writeString(out, signature);
+                out.writeInt(tables.size());
+                for (Map.Entry<String, Set<String>> table : tables.entrySet()) {
+                    writeString(out, table.getKey());
+                    out.writeInt(table.getValue().size());
+                    for (String column : table.getValue()) {
+                        writeString(out, column);
+                    }
+                }
+            }
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Persisted schema snapshot for {} tables to {}", tables.size(), path);
+        } catch (IOException e) {
+            log.warn("Failed to persist schema snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Signature of a schema (table name to column name to data type): a hash over the sorted
+     * table, column and type triples, so that renamed or retyped columns change it too.
+     */
+    public static String signature(Map<String, Map<String, String>> columnTypes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, Map<String, String>> table : new TreeMap<>(columnTypes).entrySet()) {
+                for (Map.Entry<String, String> column : new TreeMap<>(table.getValue()).entrySet()) {
+                    digest.update((table.getKey() + "\t" + column.getKey() + "\t" + column.getValue() + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Path snapshotPath() {
+        return Path.of(druidProperties.getMcp().getSqlSyntaxCorrection().getSnapshotPath());
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Persisted schema metadata (table name to column names) with its signature.
+     */
+    public record SchemaSnapshot(String signature, Map<String, Set<String>> tables) {
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A typed Druid SQL dynamic parameter, bound to a {@code ?} placeholder in the
+ * {@code parameters} array of a /druid/v2/sql request. Keeping values out of the
+ * SQL text avoids injection and lets the broker reuse the plan across values.
+ */
+public record SqlParameter(String type, Object value) {
+
+    public static SqlParameter varchar(String value) {
+        return new SqlParameter("VARCHAR", value);
+    }
+
+    public static SqlParameter bigint(long value) {
+        return new SqlParameter("BIGINT", value);
+    }
+
+    /**
+     * Parse a JSON array of parameters. Elements may be typed objects
+     * ({@code {"type":"VARCHAR","value":"wikipedia"}}) or plain JSON values,
+     * whose SQL type is inferred from the JSON type.
+     */
+    public static List<SqlParameter> fromJson(JsonNode array) {
+        if (array == null || array.isNull()) {
+            return List.of();
+        }
+        if (!array.isArray()) {
+            throw new IllegalArgumentException("SQL parameters must be a JSON array");
+        }
+
+        List<SqlParameter> parameters = new ArrayList<>();
+        for (JsonNode element : array) {
+            if (element.isObject()) {
+                JsonNode type = element.get("type");
+                if (type == null || !type.isValueNode() || !element.has("value")) {
+                    throw new IllegalArgumentException("Typed SQL parameter must have a string 'type' and a 'value': " + element);
+                }
+                parameters.add(new SqlParameter(type.asText(), toValue(element.get("value"))));
+            } else {
+                parameters.add(infer(element));
+            }
+        }
+        return parameters;
+    }
+
+    private static SqlParameter infer(JsonNode element) {
+        if (element.isIntegralNumber()) {
+            return new SqlParameter("BIGINT", element.longValue());
+        }
+        if (element.isNumber()) {
+            return new SqlParameter("DOUBLE", element.doubleValue());
+        }
+        if (element.isBoolean()) {
+            return new SqlParameter("BOOLEAN", element.booleanValue());
+        }
+        if (element.isValueNode() && !element.isNull()) {
+            return varchar(element.asText());
+        }
+        throw new IllegalArgumentException("Unsupported SQL parameter value: " + element);
+    }
+
+    private static Object toValue(JsonNode value) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (value.isIntegralNumber()) {
+            return value.longValue();
+        }
+        if (value.isNumber()) {
+            return value.doubleValue();
+        }
+        if (value.isBoolean()) {
+            return value.booleanValue();
+        }
+        return value.asText();
+    }
+}
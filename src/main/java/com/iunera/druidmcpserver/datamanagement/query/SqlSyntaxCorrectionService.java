@@ -17,7 +17,9 @@
 package com.iunera.druidmcpserver.datamanagement.query;
 
 import com.iunera.druidmcpserver.config.DruidProperties;
+import com.iunera.druidmcpserver.monitoring.changes.ClusterChangeEvent;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import java.util.*;
@@ -43,6 +45,15 @@ public class SqlSyntaxCorrectionService {
         "then", "else", "end", "cast", "coalesce"
     );
 
+    // Naming conventions used to find a pre-aggregated sketch column for a raw column (e.g. user -> user_hll)
+    private static final List<String> SKETCH_COLUMN_SUFFIXES = List.of("_hll", "_theta", "_sketch", "_quantiles");
+    private static final List<String> SKETCH_COLUMN_PREFIXES = List.of("hll_", "theta_", "sketch_", "quantiles_");
+
+    private static final Pattern COUNT_DISTINCT_PATTERN = Pattern.compile("(?i)\\bCOUNT\\s*\\(\\s*DISTINCT\\s+");
+    private static final Pattern PERCENTILE_PATTERN = Pattern.compile("(?i)\\bPERCENTILE_(?:CONT|DISC)\\s*\\(");
+    private static final Pattern WITHIN_GROUP_PATTERN = Pattern.compile("(?i)\\s*WITHIN\\s+GROUP\\s*\\(\\s*ORDER\\s+BY\\s+");
+    private static final Pattern APPROX_QUANTILE_PATTERN = Pattern.compile("(?i)\\bAPPROX_QUANTILE\\s*\\(");
+
     public SqlSyntaxCorrectionService(DruidMetadataLoader metadataLoader,
                                       DruidProperties druidProperties) {
         this.metadataLoader = metadataLoader;
@@ -92,6 +103,261 @@ public class SqlSyntaxCorrectionService {
         }
     }
 
+    /**
+     * Rewrite exact distinct counts and percentiles to their DataSketches approximations.
+     * COUNT(DISTINCT x) becomes APPROX_COUNT_DISTINCT_DS_HLL(x), while PERCENTILE_CONT(p) WITHIN GROUP (ORDER BY x)
+     * and APPROX_QUANTILE(x, p) become APPROX_QUANTILE_DS(x, p). When a referenced datasource has a matching
+     * sketch column (the column itself, or e.g. x_hll / x_theta / x_quantiles), the sketch column is aggregated instead.
+     *
+     * Example: "SELECT COUNT(DISTINCT \"user\") FROM \"wikipedia\"" -> "SELECT APPROX_COUNT_DISTINCT_DS_HLL(\"user\") FROM \"wikipedia\""
+     */
+    public String rewriteApproximate(String sqlQuery) {
+        if (sqlQuery == null || sqlQuery.trim().isEmpty()) {
+            return sqlQuery;
+        }
+
+        try {
+            // Literals, comments and quoted identifiers are protected the same way as for syntax correction
+            PlaceholderContext placeholderContext = extractPlaceholders(sqlQuery);
+            String processedSql = placeholderContext.getProcessedSql();
+            Map<String, SketchColumn> sketchColumns = findReferencedSketchColumns(processedSql, placeholderContext);
+
+            processedSql = rewriteCountDistinct(processedSql, placeholderContext, sketchColumns);
+            processedSql = rewritePercentiles(processedSql, placeholderContext, sketchColumns);
+            processedSql = rewriteApproxQuantile(processedSql, placeholderContext, sketchColumns);
+
+            return restorePlaceholders(processedSql, placeholderContext);
+        } catch (Exception e) {
+            log.error("Error occurred during approximate query rewrite, falling back to original query: {}", e.getMessage(), e);
+            return sqlQuery;
+        }
+    }
+
+    /**
+     * Collect the sketch columns of all datasources referenced by the query, keyed by lower-cased column name.
+     */
+    private Map<String, SketchColumn> findReferencedSketchColumns(String processedSql, PlaceholderContext context) {
+        Map<String, Map<String, String>> allSketchColumns = metadataLoader.fetchSketchColumns();
+        Map<String, SketchColumn> referenced = new HashMap<>();
+        if (allSketchColumns == null || allSketchColumns.isEmpty()) {
+            return referenced;
+        }
+
+        String boundaryChars = "[\\s\\(\\),;=\\!<>\\+\\*/]";
+        for (Map.Entry<String, Map<String, String>> table : allSketchColumns.entrySet()) {
+            String quotedTable = "\"" + table.getKey().replace("\"", "\"\"") + "\"";
+            boolean isReferenced = context.getQuotedIdentifiers().contains(quotedTable) ||
+                    Pattern.compile("(?i)(?<=^|" + boundaryChars + ")" + Pattern.quote(table.getKey()) + "(?=$|" + boundaryChars + ")")
+                            .matcher(processedSql).find();
+            if (isReferenced) {
+                for (Map.Entry<String, String> column : table.getValue().entrySet()) {
+                    referenced.put(column.getKey().toLowerCase(), new SketchColumn(column.getKey(), column.getValue()));
+                }
+            }
+        }
+        return referenced;
+    }
+
+    /**
+     * Rewrite COUNT(DISTINCT x) to APPROX_COUNT_DISTINCT_DS_HLL(x), or to the THETA variant for theta sketch columns.
+     * Multi-column distinct counts have no sketch equivalent and are left untouched.
+     */
+    private String rewriteCountDistinct(String sql, PlaceholderContext context, Map<String, SketchColumn> sketchColumns) {
+        StringBuilder sb = new StringBuilder();
+        int position = 0;
+        Matcher matcher = COUNT_DISTINCT_PATTERN.matcher(sql);
+
+        while (matcher.find(position)) {
+            int open = sql.indexOf('(', matcher.start());
+            int close = findClosingParenthesis(sql, open);
+            if (close < 0) {
+                break;
+            }
+            sb.append(sql, position, matcher.start());
+
+            String argument = sql.substring(matcher.end(), close).trim();
+            if (argument.isEmpty() || splitTopLevelArguments(argument).size() > 1) {
+                sb.append(sql, matcher.start(), close + 1);
+            } else {
+                SketchColumn sketch = resolveSketchColumn(argument, context, sketchColumns, "hll", "theta");
+                if (sketch == null) {
+                    sb.append("APPROX_COUNT_DISTINCT_DS_HLL(").append(argument).append(")");
+                } else {
+                    String function = sketch.dataType().toLowerCase().contains("theta") ?
+                            "APPROX_COUNT_DISTINCT_DS_THETA(" : "APPROX_COUNT_DISTINCT_DS_HLL(";
+                    sb.append(function).append(sketch.quotedName()).append(")");
+                }
+            }
+            position = close + 1;
+        }
+        sb.append(sql.substring(position));
+        return sb.toString();
+    }
+
+    /**
+     * Rewrite PERCENTILE_CONT(p) / PERCENTILE_DISC(p) WITHIN GROUP (ORDER BY x) to APPROX_QUANTILE_DS(x, p).
+     * Descending orderings invert the fraction and are left untouched.
+     */
+    private String rewritePercentiles(String sql, PlaceholderContext context, Map<String, SketchColumn> sketchColumns) {
+        StringBuilder sb = new StringBuilder();
+        int position = 0;
+        Matcher matcher = PERCENTILE_PATTERN.matcher(sql);
+
+        while (matcher.find(position)) {
+            int open = matcher.end() - 1;
+            int close = findClosingParenthesis(sql, open);
+            if (close < 0) {
+                break;
+            }
+
+            Matcher withinGroup = WITHIN_GROUP_PATTERN.matcher(sql);
+            withinGroup.region(close + 1, sql.length());
+            int groupClose = withinGroup.lookingAt() ? findClosingParenthesis(sql, sql.indexOf('(', close + 1)) : -1;
+            if (groupClose < 0) {
+                sb.append(sql, position, close + 1);
+                position = close + 1;
+                continue;
+            }
+
+            String orderBy = sql.substring(withinGroup.end(), groupClose).trim();
+            if (orderBy.matches("(?is).*\\s+DESC")) {
+                sb.append(sql, position, groupClose + 1);
+            } else {
+                String expression = orderBy.replaceAll("(?i)\\s+ASC$", "");
+                String fraction = sql.substring(open + 1, close).trim();
+                sb.append(sql, position, matcher.start())
+                        .append("APPROX_QUANTILE_DS(")
+                        .append(quantileArgument(expression, context, sketchColumns))
+                        .append(", ").append(fraction).append(")");
+            }
+            position = groupClose + 1;
+        }
+        sb.append(sql.substring(position));
+        return sb.toString();
+    }
+
+    /**
+     * Rewrite the deprecated approximate-histogram APPROX_QUANTILE(x, p[, resolution]) to APPROX_QUANTILE_DS(x, p).
+     */
+    private String rewriteApproxQuantile(String sql, PlaceholderContext context, Map<String, SketchColumn> sketchColumns) {
+        StringBuilder sb = new StringBuilder();
+        int position = 0;
+        Matcher matcher = APPROX_QUANTILE_PATTERN.matcher(sql);
+
+        while (matcher.find(position)) {
+            int open = matcher.end() - 1;
+            int close = findClosingParenthesis(sql, open);
+            if (close < 0) {
+                break;
+            }
+            sb.append(sql, position, matcher.start());
+
+            List<String> arguments = splitTopLevelArguments(sql.substring(open + 1, close));
+            if (arguments.size() < 2) {
+                sb.append(sql, matcher.start(), close + 1);
+            } else {
+                sb.append("APPROX_QUANTILE_DS(")
+                        .append(quantileArgument(arguments.get(0).trim(), context, sketchColumns))
+                        .append(", ").append(arguments.get(1).trim()).append(")");
+            }
+            position = close + 1;
+        }
+        sb.append(sql.substring(position));
+        return sb.toString();
+    }
+
+    private String quantileArgument(String expression, PlaceholderContext context, Map<String, SketchColumn> sketchColumns) {
+        SketchColumn sketch = resolveSketchColumn(expression, context, sketchColumns, "quantiles");
+        return sketch != null ? sketch.quotedName() : expression;
+    }
+
+    /**
+     * Resolve a plain or quoted column reference to a sketch column whose data type contains one of the given kinds.
+     * The column itself is preferred; otherwise conventional sketch column names derived from it are tried.
+     */
+    private SketchColumn resolveSketchColumn(String argument, PlaceholderContext context,
+                                             Map<String, SketchColumn> sketchColumns, String... kinds) {
+        if (sketchColumns.isEmpty()) {
+            return null;
+        }
+
+        String restored = restorePlaceholders(argument, context).trim();
+        String columnName;
+        if (restored.matches("\"(?:\"\"|[^\"])*\"")) {
+            columnName = restored.substring(1, restored.length() - 1).replace("\"\"", "\"");
+        } else if (restored.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            columnName = restored;
+        } else {
+            return null; // Expressions cannot be mapped to a sketch column
+        }
+
+        List<String> candidates = new ArrayList<>();
+        candidates.add(columnName.toLowerCase());
+        for (String suffix : SKETCH_COLUMN_SUFFIXES) {
+            candidates.add(columnName.toLowerCase() + suffix);
+        }
+        for (String prefix : SKETCH_COLUMN_PREFIXES) {
+            candidates.add(prefix + columnName.toLowerCase());
+        }
+
+        for (String candidate : candidates) {
+            SketchColumn sketch = sketchColumns.get(candidate);
+            if (sketch != null) {
+                String dataType = sketch.dataType().toLowerCase();
+                for (String kind : kinds) {
+                    if (dataType.contains(kind)) {
+                        return sketch;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the index of the parenthesis closing the one at the given index, or -1 if unbalanced.
+     */
+    private int findClosingParenthesis(String sql, int open) {
+        if (open < 0) {
+            return -1;
+        }
+        int depth = 0;
+        for (int i = open; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Split a function argument list on commas that are not nested in parentheses.
+     */
+    private List<String> splitTopLevelArguments(String arguments) {
+        List<String> result = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < arguments.length(); i++) {
+            char c = arguments.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                result.add(arguments.substring(start, i));
+                start = i + 1;
+            }
+        }
+        result.add(arguments.substring(start));
+        return result;
+    }
+
     /**
      * Strip trailing semicolon from the SQL query.
      * Example: "SELECT * FROM potsdam-V8;" -> "SELECT * FROM potsdam-V8"
@@ -242,11 +508,29 @@ public class SqlSyntaxCorrectionService {
      * Periodically evict schema metadata cache using configuration setting for TTL.
      */
     @Scheduled(fixedRateString = "${druid.mcp.sql-syntax-correction.cache-ttl-ms:300000}")
-    @CacheEvict(value = "druidMetadata", allEntries = true)
+    @CacheEvict(value = {"druidMetadata", "druidSketchColumns"}, allEntries = true)
     public void evictMetadataCache() {
         log.info("Evicting Druid schema metadata cache");
     }
 
+    /**
+     * Evict schema metadata cache as soon as published segments changed, since new segments may add tables or columns.
+     */
+    @EventListener
+    @CacheEvict(value = {"druidMetadata", "druidSketchColumns"}, allEntries = true)
+    public void onSegmentsChanged(ClusterChangeEvent.SegmentsChanged event) {
+        log.info("Evicting Druid schema metadata cache after segment changes in {}", event.datasources());
+    }
+
+    /**
+     * Sketch column of a referenced datasource together with its Druid data type (e.g. COMPLEX<HLLSketch>).
+     */
+    private record SketchColumn(String name, String dataType) {
+        String quotedName() {
+            return "\"" + name.replace("\"", "\"\"") + "\"";
+        }
+    }
+
     /**
      * Inner class to keep track of protected SQL elements and the processed query string.
      */
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.results;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A column of a stored result copied into primitive arrays for in-process processing.
+ * STRING and JSON columns stay dictionary-encoded: rows hold int ids into the dictionary,
+ * and {@code ranks} gives the sort position of each dictionary entry. Rows with equal values
+ * always hold the same id, so ids can be compared and grouped directly.
+ */
+final class ColumnVector {
+
+    final String name;
+    final StoredResult.ColumnType type;
+    final boolean[] nulls;
+    final long[] longs;
+    final double[] doubles;
+    final int[] ids;
+    final String[] dictionary;
+    final int[] ranks;
+
+    private ColumnVector(String name, StoredResult.ColumnType type, boolean[] nulls, long[] longs, double[] doubles,
+                         int[] ids, String[] dictionary, int[] ranks) {
+        this.name = name;
+        this.type = type;
+        this.nulls = nulls;
+        this.longs = longs;
+        this.doubles = doubles;
+        this.ids = ids;
+        this.dictionary = dictionary;
+        this.ranks = ranks;
+    }
+
+    static ColumnVector load(StoredResult result, int column) {
+        int rowCount = result.getRowCount();
+        StoredResult.ColumnType type = result.getColumnType(column);
+        boolean[] nulls = new boolean[rowCount];
+        long[] longs = null;
+        double[] doubles = null;
+        int[] ids = null;
+        String[] dictionary = null;
+        int[] ranks = null;
+
+        IntStream.range(0, rowCount).parallel().forEach(row -> nulls[row] = result.isNull(column, row));
+        switch (type) {
+            case LONG -> {
+                long[] values = new long[rowCount];
+                IntStream.range(0, rowCount).parallel().forEach(row -> values[row] = result.getLong(column, row));
+                longs = values;
+            }
+            case DOUBLE -> {
+                double[] values = new double[rowCount];
+                IntStream.range(0, rowCount).parallel().forEach(row -> values[row] = result.getDouble(column, row));
+                doubles = values;
+            }
+            case STRING, JSON -> {
+                String[] entries = new String[result.getDictionarySize(column)];
+                Arrays.setAll(entries, id -> result.getDictionaryEntry(column, id));
+                Integer[] order = IntStream.range(0, entries.length).boxed().toArray(Integer[]::new);
+                Arrays.sort(order, (a, b) -> entries[a].compareTo(entries[b]));
+                ranks = new int[entries.length];
+                // Entries repeat when the column was stored with an entry per row; equal entries map to the first one
+                int[] canonical = new int[entries.length];
+                boolean repeated = false;
+                for (int rank = 0; rank < order.length; rank++) {
+                    int id = order[rank];
+                    ranks[id] = rank;
+                    boolean equalToPrevious = rank > 0 && entries[id].equals(entries[order[rank - 1]]);
+                    canonical[id] = equalToPrevious ? canonical[order[rank - 1]] : id;
+                    repeated |= equalToPrevious;
+                }
+                int[] values = new int[rowCount];
+                boolean remap = repeated;
+                IntStream.range(0, rowCount).parallel().forEach(row -> {
+                    int id = result.getDictionaryId(column, row);
+                    values[row] = remap ? canonical[id] : id;
+                });
+                ids = values;
+                dictionary = entries;
+            }
+        }
+        return new ColumnVector(result.getColumnNames().get(column), type, nulls, longs, doubles, ids, dictionary, ranks);
+    }
+
+    boolean isNumeric() {
+        return type == StoredResult.ColumnType.LONG || type == StoredResult.ColumnType.DOUBLE;
+    }
+
+    double asDouble(int row) {
+        return type == StoredResult.ColumnType.LONG ? longs[row] : doubles[row];
+    }
+
+    Object value(int row) {
+        if (nulls[row]) {
+            return null;
+        }
+        return switch (type) {
+            case LONG -> longs[row];
+            case DOUBLE -> doubles[row];
+            case STRING, JSON -> dictionary[ids[row]];
+        };
+    }
+
+    /**
+     * Compare two rows of this column, nulls first.
+     */
+    int compare(int a, int b) {
+        if (nulls[a] || nulls[b]) {
+            return Boolean.compare(!nulls[a], !nulls[b]);
+        }
+        return switch (type) {
+            case LONG -> Long.compare(longs[a], longs[b]);
+            case DOUBLE -> Double.compare(doubles[a], doubles[b]);
+            case STRING, JSON -> Integer.compare(ranks[ids[a]], ranks[ids[b]]);
+        };
+    }
+
+    /**
+     * Group key component of a row: the value itself for LONG, its bits for DOUBLE, the dictionary id otherwise.
+     */
+    long keyPart(int row) {
+        return switch (type) {
+            case LONG -> longs[row];
+            case DOUBLE -> Double.doubleToLongBits(doubles[row]);
+            case STRING, JSON -> ids[row];
+        };
+    }
+
+    Object decodeKeyPart(long part) {
+        return switch (type) {
+            case LONG -> part;
+            case DOUBLE -> Double.longBitsToDouble(part);
+            case STRING, JSON -> dictionary[(int) part];
+        };
+    }
+}
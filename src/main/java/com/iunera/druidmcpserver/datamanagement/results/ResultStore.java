@@ -0,0 +1,284 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.results;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Local store of query results, spilled to disk in the {@link StoredResult} columnar format.
+ * Rows are written through a {@link StoredResultWriter} as they are read, so a streamed result
+ * is never held in memory as a whole.
+ * <p>
+ * Results are addressed by a handle and indexed by a query key, so an identical query can be
+ * served without re-executing it on Druid. The store is bounded by total file size and evicts
+ * the least recently used results first. Handles are only valid for the lifetime of the process.
+ */
+@Component
+public class ResultStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultStore.class);
+    private static final String FILE_SUFFIX = ".dres";
+    private static final String SPILL_SUFFIX = ".spill";
+
+    private final DruidProperties druidProperties;
+    private final ObjectMapper objectMapper;
+
+    // Access-ordered, so iteration starts with the least recently used result
+    private final LinkedHashMap<String, StoredResult> results = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> handlesByQueryKey = new HashMap<>();
+    private long totalBytes;
+
+    public ResultStore(DruidProperties druidProperties, ObjectMapper objectMapper) {
+        this.druidProperties = druidProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void initialize() {
+        Path directory = directory();
+        try {
+            Files.createDirectories(directory);
+            // Handles do not survive restarts, remove files left over by a previous process
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, "*{" + FILE_SUFFIX + "," + SPILL_SUFFIX + "}")) {
+                for (Path file : stale) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to prepare result store directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    synchronized void clear() {
+        results.values().forEach(this::deleteFile);
+        results.clear();
+        handlesByQueryKey.clear();
+        totalBytes = 0;
+    }
+
+    /**
+     * Store a result streamed in Druid's "arrayLines" format with a header line, one row at a time.
+     */
+    public StoredResult storeArrayLines(String queryKey, InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String header = nextLine(reader);
+        List<String> columns = new ArrayList<>();
+        if (header != null) {
+            objectMapper.readTree(header).forEach(name -> columns.add(name.asText()));
+        }
+        return store(queryKey, columns, writer -> {
+            String line;
+            while ((line = nextLine(reader)) != null) {
+                writer.addRow(objectMapper.readTree(line));
+            }
+        });
+    }
+
+    /**
+     * Store a result streamed in Druid's "arrayLines" format without header line, such as the
+     * result pages of a SQL statement, with the given column names.
+     */
+    public StoredResult storeArrayLines(String queryKey, List<String> columns, InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return store(queryKey, columns, writer -> {
+            String line;
+            while ((line = nextLine(reader)) != null) {
+                writer.addRow(objectMapper.readTree(line));
+            }
+        });
+    }
+
+    /**
+     * Store rows in Druid's "object" result format (a JSON array of objects).
+     * Columns are taken from the field names in first-seen order.
+     */
+    public StoredResult storeObjectRows(String queryKey, JsonNode rows) throws IOException {
+        Set<String> columnNames = new LinkedHashSet<>();
+        if (rows != null && rows.isArray()) {
+            for (JsonNode row : rows) {
+                row.properties().forEach(property -> columnNames.add(property.getKey()));
+            }
+        }
+        return store(queryKey, List.copyOf(columnNames), writer -> addRows(writer, rows));
+    }
+
+    /**
+     * Store rows in array format (a JSON array of arrays) with the given column names,
+     * as returned in multi-stage query reports.
+     */
+    public StoredResult storeArrayRows(String queryKey, List<String> columns, JsonNode rows) throws IOException {
+        return store(queryKey, columns, writer -> addRows(writer, rows));
+    }
+
+    public synchronized Optional<StoredResult> get(String handle) {
+        return Optional.ofNullable(results.get(handle));
+    }
+
+    public synchronized Optional<StoredResult> findByQueryKey(String queryKey) {
+        String handle = handlesByQueryKey.get(queryKey);
+        return handle != null ? Optional.ofNullable(results.get(handle)) : Optional.empty();
+    }
+
+    /**
+     * Stored results, least recently used first.
+     */
+    public synchronized List<StoredResult> list() {
+        return List.copyOf(results.values());
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized boolean remove(String handle) {
+        StoredResult removed = results.remove(handle);
+        if (removed == null) {
+            return false;
+        }
+        unregister(removed);
+        return true;
+    }
+
+    /**
+     * Key identifying a query and its bindings, used to find a previously stored result.
+     */
+    public static String queryKey(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private StoredResult store(String queryKey, List<String> columns, RowSource rows) throws IOException {
+        String handle = "result-" + UUID.randomUUID().toString().substring(0, 8);
+        Path path = directory().resolve(handle + FILE_SUFFIX);
+        Files.createDirectories(path.getParent());
+        long maxBytes = druidProperties.getMcp().getResultStore().getMaxBytes();
+
+        StoredResult result;
+        try (StoredResultWriter writer = new StoredResultWriter(path, columns, maxBytes)) {
+            rows.writeTo(writer);
+            writer.finish();
+            result = StoredResult.open(handle, queryKey, path);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+
+        if (result.getSizeBytes() > maxBytes) {
+            deleteFile(result);
+            throw new IllegalArgumentException(String.format("Result of %d bytes exceeds the result store limit of %d bytes",
+                    result.getSizeBytes(), maxBytes));
+        }
+
+        register(result, maxBytes);
+        return result;
+    }
+
+    private synchronized void register(StoredResult result, long maxBytes) {
+        String previous = handlesByQueryKey.get(result.getQueryKey());
+        if (previous != null) {
+            remove(previous);
+        }
+        results.put(result.getHandle(), result);
+        handlesByQueryKey.put(result.getQueryKey(), result.getHandle());
+        totalBytes += result.getSizeBytes();
+
+        Iterator<StoredResult> leastRecentlyUsed = results.values().iterator();
+        while (totalBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+            StoredResult candidate = leastRecentlyUsed.next();
+            if (candidate == result) {
+                continue;
+            }
+            leastRecentlyUsed.remove();
+            unregister(candidate);
+            log.debug("Evicted result {} ({} bytes)", candidate.getHandle(), candidate.getSizeBytes());
+        }
+    }
+
+    private void unregister(StoredResult result) {
+        handlesByQueryKey.remove(result.getQueryKey(), result.getHandle());
+        totalBytes -= result.getSizeBytes();
+        deleteFile(result);
+    }
+
+    private void deleteFile(StoredResult result) {
+        result.close();
+        try {
+            Files.deleteIfExists(result.getPath());
+        } catch (IOException e) {
+            log.warn("Failed to delete result file {}: {}", result.getPath(), e.getMessage());
+        }
+    }
+
+    private Path directory() {
+        return Path.of(druidProperties.getMcp().getResultStore().getDirectory());
+    }
+
+    private static void addRows(StoredResultWriter writer, JsonNode rows) throws IOException {
+        if (rows != null && rows.isArray()) {
+            for (JsonNode row : rows) {
+                writer.addRow(row);
+            }
+        }
+    }
+
+    /**
+     * Next non-empty line; arrayLines terminates the result with an empty line
+     */
+    private static String nextLine(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isEmpty()) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        void writeTo(StoredResultWriter writer) throws IOException;
+    }
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.results;
+
+import com.iunera.druidmcpserver.datamanagement.query.QueryRepository;
+import com.iunera.druidmcpserver.datamanagement.query.SqlParameter;
+import com.iunera.druidmcpserver.datamanagement.query.SqlSyntaxCorrectionService;
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.ai.mcp.annotation.McpToolParam;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.*;
+
+@Component
+public class ResultStoreTools {
+
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 10000;
+
+    private final ResultStore resultStore;
+    private final ResultWorkspace resultWorkspace;
+    private final QueryRepository queryRepository;
+    private final SqlSyntaxCorrectionService sqlSyntaxCorrectionService;
+    private final ObjectMapper objectMapper;
+
+    public ResultStoreTools(ResultStore resultStore,
+                            ResultWorkspace resultWorkspace,
+                            QueryRepository queryRepository,
+                            SqlSyntaxCorrectionService sqlSyntaxCorrectionService,
+                            ObjectMapper objectMapper) {
+        this.resultStore = resultStore;
+        this.resultWorkspace = resultWorkspace;
+        this.queryRepository = queryRepository;
+        this.sqlSyntaxCorrectionService = sqlSyntaxCorrectionService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Execute a SQL query and spill its result to the local result store
+     */
+    @McpTool(
+            description = "Execute a SQL query and store its full result on local disk instead of returning all rows. Returns a result handle with row count and columns; read row ranges and columns with 'readQueryResult' without re-running the query. An identical query (same SQL and parameters) reuses the stored result unless [refresh] is true.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public String storeQueryResult(
+            @McpToolParam(description = "SQL query to execute (required)", required = true) String sqlQuery,
+            @McpToolParam(description = "JSON array of values bound to the ? placeholders in order (optional)", required = false) String parametersJson,
+            @McpToolParam(description = "Re-execute the query even if a stored result exists (optional)", required = false) Boolean refresh
+    ) {
+        String correctedQuery = sqlSyntaxCorrectionService.correctQuerySyntax(sqlQuery);
+        try {
+            List<SqlParameter> parameters = parametersJson != null && !parametersJson.isBlank()
+                    ? SqlParameter.fromJson(objectMapper.readTree(parametersJson))
+                    : List.of();
+            // Keyed on the parsed parameters, so formatting differences of the JSON do not matter
+            String queryKey = ResultStore.queryKey("sql", correctedQuery, parameters.toString());
+            if (refresh == null || !refresh) {
+                Optional<StoredResult> cached = resultStore.findByQueryKey(queryKey);
+                if (cached.isPresent()) {
+                    return objectMapper.writeValueAsString(summarize(cached.get(), true));
+                }
+            }
+
+            StoredResult result = queryRepository.streamSqlQuery(correctedQuery, parameters,
+                    body -> resultStore.storeArrayLines(queryKey, body));
+            return objectMapper.writeValueAsString(summarize(result, false));
+        } catch (IllegalArgumentException e) {
+            return String.format("Error: %s", e.getMessage());
+        } catch (RestClientException e) {
+            return String.format("Error executing SQL query '%s' (corrected: '%s'): %s", sqlQuery, correctedQuery, e.getMessage());
+        } catch (Exception e) {
+            return String.format("Failed to store query result for '%s' (corrected: '%s'): %s", sqlQuery, correctedQuery, e.getMessage());
+        }
+    }
+
+    /**
+     * Spill the result of a completed multi-stage query task to the local result store
+     */
+    @McpTool(
+            description = "Store the result of a completed multi-stage (MSQ) SELECT query task on local disk. All result pages are read from the SQL statements API, so large results are stored completely. Returns a result handle; read row ranges with 'readQueryResult'.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public String storeMultiStageQueryResult(
+            @McpToolParam(description = "Multi-stage query task ID (required)", required = true) String taskId
+    ) {
+        if (taskId == null || taskId.isBlank()) {
+            return "Error: [taskId] parameter is required";
+        }
+        try {
+            String queryKey = ResultStore.queryKey("msq", taskId);
+            Optional<StoredResult> cached = resultStore.findByQueryKey(queryKey);
+            if (cached.isPresent()) {
+                return objectMapper.writeValueAsString(summarize(cached.get(), true));
+            }
+
+            // The task report only carries a truncated sample of the rows, the statement results are complete
+            JsonNode statement = queryRepository.getSqlStatement(taskId);
+            String state = statement == null ? null : statement.path("state").asText();
+            if (!"SUCCESS".equals(state)) {
+                return String.format("Error: Query '%s' has no results to store (state: %s). Only completed SELECT queries have results.", taskId, state);
+            }
+
+            List<String> columns = new ArrayList<>();
+            for (JsonNode column : statement.path("schema")) {
+                columns.add(column.path("name").asText());
+            }
+            StoredResult result = queryRepository.streamSqlStatementResults(taskId,
+                    body -> resultStore.storeArrayLines(queryKey, columns, body));
+            return objectMapper.writeValueAsString(summarize(result, false));
+        } catch (IllegalArgumentException e) {
+            return String.format("Error: %s", e.getMessage());
+        } catch (RestClientException e) {
+            return String.format("Error retrieving query results for task ID '%s': %s", taskId, e.getMessage());
+        } catch (Exception e) {
+            return String.format("Failed to store multi-stage query result for task ID '%s': %s", taskId, e.getMessage());
+        }
+    }
+
+    /**
+     * Read a row range of a stored result
+     */
+    @McpTool(
+            description = "Read a range of rows from a stored query result, optionally restricted to some columns. Reads from local disk and does not re-execute the query on Druid.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public String readQueryResult(
+            @McpToolParam(description = "Result handle returned by 'storeQueryResult' or 'storeMultiStageQueryResult' (required)", required = true) String handle,
+            @McpToolParam(description = "Index of the first row to return, default 0 (optional)", required = false) Integer offset,
+            @McpToolParam(description = "Maximum number of rows to return, default 100 (optional)", required = false) Integer limit,
+            @McpToolParam(description = "Comma-separated column names to return, default all columns (optional)", required = false) String columns
+    ) {
+        try {
+            StoredResult result = resultStore.get(handle)
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown result handle '%s'", handle)));
+
+            int from = Math.max(0, offset != null ? offset : 0);
+            int count = Math.min(MAX_LIMIT, Math.max(0, limit != null ? limit : DEFAULT_LIMIT));
+            int to = (int) Math.min(result.getRowCount(), (long) from + count);
+            int[] selected = selectColumns(result, columns);
+
+            List<Map<String, Object>> rows = new ArrayList<>(Math.max(0, to - from));
+            for (int row = from; row < to; row++) {
+                Map<String, Object> values = new LinkedHashMap<>();
+                for (int column : selected) {
+                    values.put(result.getColumnNames().get(column), readValue(result, column, row));
+                }
+                rows.add(values);
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("handle", result.getHandle());
+            response.put("totalRows", result.getRowCount());
+            response.put("offset", from);
+            response.put("rowCount", rows.size());
+            response.put("hasMore", to < result.getRowCount());
+            response.put("rows", rows);
+            return objectMapper.writeValueAsString(response);
+        } catch (IllegalArgumentException e) {
+            return String.format("Error: %s", e.getMessage());
+        } catch (Exception e) {
+            return String.format("Failed to read stored result '%s': %s", handle, e.getMessage());
+        }
+    }
+
+    /**
+     * Filter, group, sort and limit a stored result in process
+     */
+    @McpTool(
+            description = "Filter, group, aggregate, sort and take the top N rows of a stored query result locally, without another Druid query. Use it for follow-ups on a result from 'storeQueryResult', e.g. re-sorting, filtering or re-aggregating the same rows.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public String transformQueryResult(
+            @McpToolParam(description = "Result handle returned by 'storeQueryResult' or 'storeMultiStageQueryResult' (required)", required = true) String handle,
+            @McpToolParam(description = "JSON array of filters combined with AND, e.g. [{\"column\": \"channel\", \"op\": \"=\", \"value\": \"#en.wikipedia\"}]. Operators: =, !=, >, >=, <, <=, in, contains, isNull, notNull (optional)", required = false) String filtersJson,
+            @McpToolParam(description = "Comma-separated group-by columns (optional)", required = false) String groupBy,
+            @McpToolParam(description = "Comma-separated aggregations: count(*), count(col), sum(col), min(col), max(col), avg(col), each optionally followed by 'as name' (optional)", required = false) String aggregations,
+            @McpToolParam(description = "Comma-separated sort columns, each optionally followed by asc or desc (optional)", required = false) String orderBy,
+            @McpToolParam(description = "Maximum number of rows to return, default 100 (optional)", required = false) Integer limit
+    ) {
+        try {
+            StoredResult result = resultStore.get(handle)
+                    .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown result handle '%s'", handle)));
+
+            WorkspaceQuery query = new WorkspaceQuery(
+                    WorkspaceQuery.parseFilters(filtersJson != null && !filtersJson.isBlank() ? objectMapper.readTree(filtersJson) : null),
+                    WorkspaceQuery.splitList(groupBy),
+                    WorkspaceQuery.parseAggregations(aggregations),
+                    WorkspaceQuery.parseOrderBy(orderBy),
+                    Math.min(MAX_LIMIT, Math.max(0, limit != null ? limit : DEFAULT_LIMIT)));
+            ResultWorkspace.WorkspaceResult output = resultWorkspace.execute(result, query);
+
+            List<Map<String, Object>> rows = new ArrayList<>(output.rows().size());
+            for (Object[] values : output.rows()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int column = 0; column < values.length; column++) {
+                    Object value = values[column];
+                    if (value != null && output.types().get(column) == StoredResult.ColumnType.JSON) {
+                        value = objectMapper.readTree((String) value);
+                    }
+                    row.put(output.columns().get(column), value);
+                }
+                rows.add(row);
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("handle", result.getHandle());
+            response.put("totalRows", result.getRowCount());
+            response.put("matchedRows", output.matchedRows());
+            response.put("rowCount", rows.size());
+            response.put("rows", rows);
+            return objectMapper.writeValueAsString(response);
+        } catch (IllegalArgumentException e) {
+            return String.format("Error: %s", e.getMessage());
+        } catch (Exception e) {
+            return String.format("Failed to transform stored result '%s': %s", handle, e.getMessage());
+        }
+    }
+
+    /**
+     * List stored results
+     */
+    @McpTool(
+            description = "List the query results stored on local disk with their handles, row counts, columns and sizes.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public String listQueryResults() {
+        try {
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (StoredResult result : resultStore.list()) {
+                results.add(summarize(result, true));
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("results", results);
+            response.put("totalBytes", resultStore.getTotalBytes());
+            return objectMapper.writeValueAsString(response);
+        } catch (Exception e) {
+            return String.format("Failed to list stored results: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Remove a stored result
+     */
+    @McpTool(
+            description = "Remove a stored query result from local disk.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = false, idempotentHint = true, destructiveHint = false)
+    )
+    public String dropQueryResult(
+            @McpToolParam(description = "Result handle (required)", required = true) String handle
+    ) {
+        boolean removed = resultStore.remove(handle);
+        return removed
+                ? String.format("Stored result '%s' removed", handle)
+                : String.format("Error: Unknown result handle '%s'", handle);
+    }
+
+    private Map<String, Object> summarize(StoredResult result, boolean cached) {
+        List<Map<String, Object>> columns = new ArrayList<>();
+        for (int column = 0; column < result.getColumnCount(); column++) {
+            columns.add(Map.of("name", result.getColumnNames().get(column), "type", result.getColumnType(column).name()));
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("handle", result.getHandle());
+        summary.put("cached", cached);
+        summary.put("rowCount", result.getRowCount());
+        summary.put("columns", columns);
+        summary.put("sizeBytes", result.getSizeBytes());
+        summary.put("createdAt", result.getCreatedAt().toString());
+        return summary;
+    }
+
+    private int[] selectColumns(StoredResult result, String columns) {
+        if (columns == null || columns.isBlank()) {
+            int[] all = new int[result.getColumnCount()];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        return Arrays.stream(columns.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .mapToInt(name -> {
+                    int index = result.columnIndex(name);
+                    if (index < 0) {
+                        throw new IllegalArgumentException(String.format("Unknown column '%s'. Available columns: %s", name, result.getColumnNames()));
+                    }
+                    return index;
+                })
+                .toArray();
+    }
+
+    private Object readValue(StoredResult result, int column, int row) {
+        Object value = result.getValue(column, row);
+        if (value != null && result.getColumnType(column) == StoredResult.ColumnType.JSON) {
+            return objectMapper.readTree((String) value);
+        }
+        return value;
+    }
+}
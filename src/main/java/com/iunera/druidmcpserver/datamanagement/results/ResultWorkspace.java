@@ -0,0 +1,482 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.results;
+
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * In-process columnar engine for follow-up filtering, grouping, sorting and top-N over a stored
+ * result, so that trivial re-aggregations do not need another broker round trip.
+ * <p>
+ * Only filter, sort, group and aggregation columns are loaded into primitive vectors. String
+ * predicates are evaluated once per dictionary entry. Filtering and grouping run in parallel over
+ * row chunks, and partial groups are merged at the end. A plain selection keeps its top N rows in a
+ * bounded heap of row ids and reads the values of the returned rows only.
+ */
+@Component
+public class ResultWorkspace {
+
+    private static final int MIN_ROWS_PER_CHUNK = 4096;
+
+    /**
+     * Outcome of a workspace query: output column names and types, the rows, and the number of rows passing the filters.
+     */
+    public record WorkspaceResult(List<String> columns, List<StoredResult.ColumnType> types, List<Object[]> rows,
+                                  int matchedRows) {
+    }
+
+    public WorkspaceResult execute(StoredResult result, WorkspaceQuery query) {
+        Map<String, ColumnVector> vectors = new HashMap<>();
+        int[] selection = filter(result, query.filters(), vectors);
+
+        if (query.groupBy().isEmpty() && query.aggregations().isEmpty()) {
+            return select(result, query, selection, vectors);
+        }
+        return aggregate(result, query, selection, vectors);
+    }
+
+    private int[] filter(StoredResult result, List<WorkspaceQuery.Filter> filters, Map<String, ColumnVector> vectors) {
+        IntStream rows = IntStream.range(0, result.getRowCount()).parallel();
+        if (filters.isEmpty()) {
+            return rows.toArray();
+        }
+        List<IntPredicate> predicates = new ArrayList<>();
+        for (WorkspaceQuery.Filter filter : filters) {
+            predicates.add(compile(filter, vector(result, filter.column(), vectors)));
+        }
+        IntPredicate combined = predicates.stream().reduce(IntPredicate::and).orElse(row -> true);
+        return rows.filter(combined).toArray();
+    }
+
+    private IntPredicate compile(WorkspaceQuery.Filter filter, ColumnVector vector) {
+        boolean[] nulls = vector.nulls;
+        return switch (filter.operator()) {
+            case IS_NULL -> row -> nulls[row];
+            case NOT_NULL -> row -> !nulls[row];
+            default -> {
+                if (vector.isNumeric()) {
+                    yield compileNumeric(filter, vector);
+                }
+                // Evaluate the predicate once per distinct value, rows only look up their dictionary id
+                boolean[] matches = new boolean[vector.dictionary.length];
+                for (int id = 0; id < matches.length; id++) {
+                    matches[id] = matchesText(filter, vector.dictionary[id]);
+                }
+                int[] ids = vector.ids;
+                yield row -> !nulls[row] && matches[ids[row]];
+            }
+        };
+    }
+
+    private IntPredicate compileNumeric(WorkspaceQuery.Filter filter, ColumnVector vector) {
+        boolean[] nulls = vector.nulls;
+        if (filter.operator() == WorkspaceQuery.Operator.IN) {
+            Set<Double> values = new HashSet<>();
+            for (JsonNode value : filter.value()) {
+                values.add(toDouble(filter, value));
+            }
+            return row -> !nulls[row] && values.contains(vector.asDouble(row));
+        }
+        if (filter.operator() == WorkspaceQuery.Operator.CONTAINS) {
+            throw new IllegalArgumentException(String.format("Operator 'contains' is not supported on numeric column '%s'", filter.column()));
+        }
+        double target = toDouble(filter, filter.value());
+        WorkspaceQuery.Operator operator = filter.operator();
+        return row -> !nulls[row] && compare(Double.compare(vector.asDouble(row), target), operator);
+    }
+
+    private boolean matchesText(WorkspaceQuery.Filter filter, String text) {
+        return switch (filter.operator()) {
+            case IN -> {
+                for (JsonNode value : filter.value()) {
+                    if (text.equals(value.asText())) {
+                        yield true;
+                    }
+                }
+                yield false;
+            }
+            case CONTAINS -> text.contains(filter.value().asText());
+            default -> compare(text.compareTo(filter.value().asText()), filter.operator());
+        };
+    }
+
+    private static boolean compare(int comparison, WorkspaceQuery.Operator operator) {
+        return switch (operator) {
+            case EQ -> comparison == 0;
+            case NE -> comparison != 0;
+            case GT -> comparison > 0;
+            case GE -> comparison >= 0;
+            case LT -> comparison < 0;
+            case LE -> comparison <= 0;
+            default -> false;
+        };
+    }
+
+    private static double toDouble(WorkspaceQuery.Filter filter, JsonNode value) {
+        if (value.isNumber()) {
+            return value.doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.asText());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Filter value '%s' on numeric column '%s' is not a number", value.asText(), filter.column()));
+        }
+    }
+
+    private WorkspaceResult select(StoredResult result, WorkspaceQuery query, int[] selection, Map<String, ColumnVector> vectors) {
+        int[] rows;
+        if (query.orderBy().isEmpty()) {
+            rows = Arrays.copyOf(selection, Math.min(selection.length, query.limit()));
+        } else {
+            List<ColumnVector> keys = new ArrayList<>();
+            for (WorkspaceQuery.Ordering ordering : query.orderBy()) {
+                keys.add(vector(result, ordering.column(), vectors));
+            }
+            RowComparator comparator = (a, b) -> {
+                for (int i = 0; i < keys.size(); i++) {
+                    int comparison = keys.get(i).compare(a, b);
+                    if (comparison != 0) {
+                        return query.orderBy().get(i).descending() ? -comparison : comparison;
+                    }
+                }
+                return Integer.compare(a, b);
+            };
+            rows = topN(selection, query.limit(), comparator);
+        }
+
+        // Only the returned rows are read, straight from the stored result
+        int columnCount = result.getColumnCount();
+        List<Object[]> output = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            Object[] values = new Object[columnCount];
+            for (int column = 0; column < columnCount; column++) {
+                values[column] = result.getValue(column, row);
+            }
+            output.add(values);
+        }
+
+        List<StoredResult.ColumnType> types = new ArrayList<>(columnCount);
+        for (int column = 0; column < columnCount; column++) {
+            types.add(result.getColumnType(column));
+        }
+        return new WorkspaceResult(result.getColumnNames(), types, output, selection.length);
+    }
+
+    /**
+     * The first {@code limit} rows in comparator order, using a bounded max-heap over the row ids
+     * whose root is the last row kept so far. Sorting the heap in place yields the rows in order.
+     */
+    static int[] topN(int[] rows, int limit, RowComparator comparator) {
+        int size = Math.min(rows.length, Math.max(0, limit));
+        int[] heap = new int[size];
+        if (size == 0) {
+            return heap;
+        }
+        int count = 0;
+        for (int row : rows) {
+            if (count < size) {
+                heap[count] = row;
+                siftUp(heap, count++, comparator);
+            } else if (comparator.compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(heap, 0, size, comparator);
+            }
+        }
+        for (int end = size - 1; end > 0; end--) {
+            int last = heap[end];
+            heap[end] = heap[0];
+            heap[0] = last;
+            siftDown(heap, 0, end, comparator);
+        }
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, int index, RowComparator comparator) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (comparator.compare(row, heap[parent]) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    private static void siftDown(int[] heap, int index, int size, RowComparator comparator) {
+        int row = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && comparator.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(heap[child], row) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private WorkspaceResult aggregate(StoredResult result, WorkspaceQuery query, int[] selection, Map<String, ColumnVector> vectors) {
+        List<ColumnVector> keyColumns = new ArrayList<>();
+        for (String column : query.groupBy()) {
+            keyColumns.add(vector(result, column, vectors));
+        }
+        if (keyColumns.size() > 63) {
+            throw new IllegalArgumentException("At most 63 group-by columns are supported");
+        }
+        List<ColumnVector> aggregationColumns = new ArrayList<>();
+        for (WorkspaceQuery.Aggregation aggregation : query.aggregations()) {
+            ColumnVector vector = aggregation.column() == null ? null : vector(result, aggregation.column(), vectors);
+            if (vector != null && !vector.isNumeric() && aggregation.function() != WorkspaceQuery.Function.COUNT) {
+                throw new IllegalArgumentException(String.format("Aggregation '%s' requires a numeric column, but '%s' is %s",
+                        aggregation.name(), aggregation.column(), vector.type));
+            }
+            aggregationColumns.add(vector);
+        }
+
+        int chunkSize = Math.max(MIN_ROWS_PER_CHUNK, selection.length / (Runtime.getRuntime().availableProcessors() * 4) + 1);
+        int chunks = (selection.length + chunkSize - 1) / chunkSize;
+        Map<GroupKey, Accumulator[]> groups = IntStream.range(0, Math.max(1, chunks)).parallel()
+                .mapToObj(chunk -> {
+                    Map<GroupKey, Accumulator[]> partial = new HashMap<>();
+                    int end = Math.min(selection.length, (chunk + 1) * chunkSize);
+                    for (int i = chunk * chunkSize; i < end; i++) {
+                        int row = selection[i];
+                        Accumulator[] accumulators = partial.computeIfAbsent(GroupKey.of(keyColumns, row),
+                                key -> newAccumulators(aggregationColumns));
+                        for (int a = 0; a < accumulators.length; a++) {
+                            accumulators[a].add(aggregationColumns.get(a), row);
+                        }
+                    }
+                    return partial;
+                })
+                .reduce(ResultWorkspace::merge)
+                .orElseGet(HashMap::new);
+
+        // A global aggregation over zero rows still yields one row, as in SQL
+        if (groups.isEmpty() && keyColumns.isEmpty()) {
+            groups.put(new GroupKey(new long[]{0L}), newAccumulators(aggregationColumns));
+        }
+
+        List<String> columns = new ArrayList<>(query.groupBy());
+        List<StoredResult.ColumnType> types = new ArrayList<>();
+        keyColumns.forEach(vector -> types.add(vector.type));
+        for (int a = 0; a < query.aggregations().size(); a++) {
+            WorkspaceQuery.Aggregation aggregation = query.aggregations().get(a);
+            columns.add(aggregation.name());
+            types.add(outputType(aggregation, aggregationColumns.get(a)));
+        }
+
+        List<Object[]> rows = new ArrayList<>(groups.size());
+        for (Map.Entry<GroupKey, Accumulator[]> group : groups.entrySet()) {
+            Object[] values = new Object[columns.size()];
+            long[] parts = group.getKey().parts();
+            long nullMask = parts[parts.length - 1];
+            for (int k = 0; k < keyColumns.size(); k++) {
+                values[k] = (nullMask & (1L << k)) != 0 ? null : keyColumns.get(k).decodeKeyPart(parts[k]);
+            }
+            Accumulator[] accumulators = group.getValue();
+            for (int a = 0; a < accumulators.length; a++) {
+                values[keyColumns.size() + a] = accumulators[a].result(query.aggregations().get(a).function(), types.get(keyColumns.size() + a));
+            }
+            rows.add(values);
+        }
+
+        rows.sort(outputComparator(columns, query.orderBy()));
+        if (rows.size() > query.limit()) {
+            rows = new ArrayList<>(rows.subList(0, query.limit()));
+        }
+        return new WorkspaceResult(columns, types, rows, selection.length);
+    }
+
+    private static Map<GroupKey, Accumulator[]> merge(Map<GroupKey, Accumulator[]> left, Map<GroupKey, Accumulator[]> right) {
+        Map<GroupKey, Accumulator[]> target = left.size() >= right.size() ? left : right;
+        Map<GroupKey, Accumulator[]> source = target == left ? right : left;
+        source.forEach((key, accumulators) -> target.merge(key, accumulators, (a, b) -> {
+            for (int i = 0; i < a.length; i++) {
+                a[i].merge(b[i]);
+            }
+            return a;
+        }));
+        return target;
+    }
+
+    private static Accumulator[] newAccumulators(List<ColumnVector> aggregationColumns) {
+        Accumulator[] accumulators = new Accumulator[aggregationColumns.size()];
+        for (int i = 0; i < accumulators.length; i++) {
+            accumulators[i] = new Accumulator();
+        }
+        return accumulators;
+    }
+
+    private static StoredResult.ColumnType outputType(WorkspaceQuery.Aggregation aggregation, ColumnVector vector) {
+        return switch (aggregation.function()) {
+            case COUNT -> StoredResult.ColumnType.LONG;
+            case AVG -> StoredResult.ColumnType.DOUBLE;
+            case SUM, MIN, MAX -> vector.type;
+        };
+    }
+
+    private static Comparator<Object[]> outputComparator(List<String> columns, List<WorkspaceQuery.Ordering> orderBy) {
+        Comparator<Object[]> comparator = (a, b) -> 0;
+        for (WorkspaceQuery.Ordering ordering : orderBy) {
+            int index = columns.indexOf(ordering.column());
+            if (index < 0) {
+                throw new IllegalArgumentException(String.format("Cannot order by '%s'. Available columns: %s", ordering.column(), columns));
+            }
+            Comparator<Object[]> byColumn = (a, b) -> compareValues(a[index], b[index]);
+            comparator = comparator.thenComparing(ordering.descending() ? byColumn.reversed() : byColumn);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return Boolean.compare(a != null, b != null);
+        }
+        if (a instanceof Number x && b instanceof Number y) {
+            return Double.compare(x.doubleValue(), y.doubleValue());
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    private ColumnVector vector(StoredResult result, String column, Map<String, ColumnVector> vectors) {
+        return vectors.computeIfAbsent(column, name -> {
+            int index = result.columnIndex(name);
+            if (index < 0) {
+                throw new IllegalArgumentException(String.format("Unknown column '%s'. Available columns: %s", name, result.getColumnNames()));
+            }
+            return ColumnVector.load(result, index);
+        });
+    }
+
+    /**
+     * Order of two rows by their row ids
+     */
+    @FunctionalInterface
+    interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Group key: one part per group-by column plus a trailing null mask.
+     */
+    private record GroupKey(long[] parts) {
+
+        static GroupKey of(List<ColumnVector> columns, int row) {
+            long[] parts = new long[columns.size() + 1];
+            long nullMask = 0;
+            for (int i = 0; i < columns.size(); i++) {
+                ColumnVector column = columns.get(i);
+                if (column.nulls[row]) {
+                    nullMask |= 1L << i;
+                } else {
+                    parts[i] = column.keyPart(row);
+                }
+            }
+            parts[columns.size()] = nullMask;
+            return new GroupKey(parts);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof GroupKey key && Arrays.equals(parts, key.parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(parts);
+        }
+    }
+
+    /**
+     * Running state of one aggregation within one group; null values are skipped except for count(*).
+     */
+    private static final class Accumulator {
+        private long count;
+        private double sum;
+        private long longSum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private long longMin = Long.MAX_VALUE;
+        private long longMax = Long.MIN_VALUE;
+
+        void add(ColumnVector column, int row) {
+            if (column == null) {
+                count++;
+                return;
+            }
+            if (column.nulls[row]) {
+                return;
+            }
+            count++;
+            if (column.isNumeric()) {
+                double value = column.asDouble(row);
+                sum += value;
+                if (column.type == StoredResult.ColumnType.LONG) {
+                    long longValue = column.longs[row];
+                    longSum += longValue;
+                    longMin = Math.min(longMin, longValue);
+                    longMax = Math.max(longMax, longValue);
+                }
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+
+        void merge(Accumulator other) {
+            count += other.count;
+            sum += other.sum;
+            longSum += other.longSum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            longMin = Math.min(longMin, other.longMin);
+            longMax = Math.max(longMax, other.longMax);
+        }
+
+        Object result(WorkspaceQuery.Function function, StoredResult.ColumnType type) {
+            if (function == WorkspaceQuery.Function.COUNT) {
+                return count;
+            }
+            if (count == 0) {
+                return null;
+            }
+            boolean isLong = type == StoredResult.ColumnType.LONG;
+            return switch (function) {
+                case SUM -> isLong ? (Object) longSum : (Object) sum;
+                case MIN -> isLong ? (Object) longMin : (Object) min;
+                case MAX -> isLong ? (Object) longMax : (Object) max;
+                case AVG -> sum / count;
+                case COUNT -> count;
+            };
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.results;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A query result stored on disk in a compact columnar format and read through a memory-mapped buffer.
+ * <p>
+ * File layout: magic, format version, row count, column count, then per column its name, type
+ * and block offset. Each column block starts with a null bitmap, followed by 8-byte values for
+ * LONG/DOUBLE columns, or by a dictionary and 4-byte dictionary ids for STRING/JSON columns. A
+ * dictionary is its entry count, an offset table with one more entry than the dictionary, and
+ * the concatenated UTF-8 entries. Entries are decoded from the mapping when they are read, so
+ * opening a result only reads its header, and the heap does not grow with its cardinality.
+ * Entries are distinct unless the column had too many distinct values to deduplicate them within
+ * the writer's memory bound; then each row has an entry of its own.
+ * <p>
+ * All reads use absolute positions, so a stored result can be read concurrently. The mapping
+ * belongs to a shared {@link Arena} and is released by {@link #close()}; reads of a closed
+ * result fail with an {@link IllegalStateException}.
+ */
+public final class StoredResult implements AutoCloseable {
+
+    static final int MAGIC = 0x44524553; // "DRES"
+    static final int VERSION = 2;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    public enum ColumnType {
+        LONG, DOUBLE, STRING, JSON
+    }
+
+    private final String handle;
+    private final String queryKey;
+    private final Path path;
+    private final long sizeBytes;
+    private final Instant createdAt;
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final int rowCount;
+    private final List<String> columnNames;
+    private final ColumnType[] columnTypes;
+    private final int[] nullOffsets;
+    private final int[] dataOffsets;
+    private final int[] dictionarySizes;
+    private final int[] entryOffsets;
+    private final int[] entryData;
+
+    private StoredResult(String handle, String queryKey, Path path, long sizeBytes, Arena arena, MemorySegment segment,
+                         int rowCount, List<String> columnNames, ColumnType[] columnTypes,
+                         int[] nullOffsets, int[] dataOffsets, int[] dictionarySizes, int[] entryOffsets, int[] entryData) {
+        this.handle = handle;
+        this.queryKey = queryKey;
+        this.path = path;
+        this.sizeBytes = sizeBytes;
+        this.createdAt = Instant.now();
+        this.arena = arena;
+        this.segment = segment;
+        this.rowCount = rowCount;
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        this.nullOffsets = nullOffsets;
+        this.dataOffsets = dataOffsets;
+        this.dictionarySizes = dictionarySizes;
+        this.entryOffsets = entryOffsets;
+        this.entryData = entryData;
+    }
+
+    /**
+     * Memory-map a result file and decode its header; dictionaries are only located.
+     */
+    static StoredResult open(String handle, String queryKey, Path path) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Result file " + path + " exceeds the maximum mappable size");
+            }
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            ByteBuffer header = segment.asByteBuffer();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Result file " + path + " has an unknown format");
+            }
+
+            int rowCount = header.getInt();
+            int columnCount = header.getInt();
+            String[] names = new String[columnCount];
+            ColumnType[] types = new ColumnType[columnCount];
+            int[] nullOffsets = new int[columnCount];
+            int[] dataOffsets = new int[columnCount];
+            int[] dictionarySizes = new int[columnCount];
+            int[] entryOffsets = new int[columnCount];
+            int[] entryData = new int[columnCount];
+            int bitmapLength = (rowCount + 7) / 8;
+
+            for (int i = 0; i < columnCount; i++) {
+                names[i] = readString(header);
+                types[i] = ColumnType.values()[header.get()];
+                nullOffsets[i] = (int) header.getLong();
+            }
+
+            for (int i = 0; i < columnCount; i++) {
+                long dataOffset = nullOffsets[i] + (long) bitmapLength;
+                if (types[i] == ColumnType.STRING || types[i] == ColumnType.JSON) {
+                    int dictionarySize = segment.get(INT, dataOffset);
+                    long dataStart = dataOffset + Integer.BYTES + (dictionarySize + 1L) * Integer.BYTES;
+                    if (dictionarySize < 0 || dataStart > size) {
+                        throw new IllegalArgumentException("Corrupt dictionary size " + dictionarySize);
+                    }
+                    dictionarySizes[i] = dictionarySize;
+                    entryOffsets[i] = (int) dataOffset + Integer.BYTES;
+                    entryData[i] = (int) dataStart;
+                    dataOffset = entryData[i] + (long) segment.get(INT, entryOffsets[i] + (long) dictionarySize * Integer.BYTES);
+                }
+                if (dataOffset > size) {
+                    throw new IllegalArgumentException("Corrupt column offset " + dataOffset);
+                }
+                dataOffsets[i] = (int) dataOffset;
+            }
+
+            return new StoredResult(handle, queryKey, path, size, arena, segment, rowCount, List.of(names), types,
+                    nullOffsets, dataOffsets, dictionarySizes, entryOffsets, entryData);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            arena.close();
+            throw new IOException("Result file " + path + " is corrupt", e);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Unmap the result file, so that it can be deleted right away, also on Windows.
+     */
+    @Override
+    public void close() {
+        try {
+            arena.close();
+        } catch (IllegalStateException e) {
+            // Already closed
+        }
+    }
+
+    public String getHandle() {
+        return handle;
+    }
+
+    public String getQueryKey() {
+        return queryKey;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    public int columnIndex(String columnName) {
+        return columnNames.indexOf(columnName);
+    }
+
+    public ColumnType getColumnType(int column) {
+        return columnTypes[column];
+    }
+
+    public boolean isNull(int column, int row) {
+        return (segment.get(ValueLayout.JAVA_BYTE, nullOffsets[column] + (row >>> 3)) & (1 << (row & 7))) != 0;
+    }
+
+    public long getLong(int column, int row) {
+        return segment.get(LONG, dataOffsets[column] + (long) row * Long.BYTES);
+    }
+
+    public double getDouble(int column, int row) {
+        return segment.get(DOUBLE, dataOffsets[column] + (long) row * Double.BYTES);
+    }
+
+    /**
+     * Dictionary id of a STRING/JSON value; ids are assigned in first-seen order.
+     */
+    public int getDictionaryId(int column, int row) {
+        return segment.get(INT, dataOffsets[column] + (long) row * Integer.BYTES);
+    }
+
+    public int getDictionarySize(int column) {
+        return dictionarySizes[column];
+    }
+
+    /**
+     * Dictionary entry of a STRING/JSON column, decoded from the mapped file.
+     */
+    public String getDictionaryEntry(int column, int id) {
+        long offset = entryOffsets[column] + (long) id * Integer.BYTES;
+        int start = segment.get(INT, offset);
+        int end = segment.get(INT, offset + Integer.BYTES);
+        byte[] bytes = segment.asSlice(entryData[column] + (long) start, end - start).toArray(ValueLayout.JAVA_BYTE);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public String getString(int column, int row) {
+        return getDictionaryEntry(column, getDictionaryId(column, row));
+    }
+
+    /**
+     * Boxed value of a cell: Long, Double or String; JSON cells are returned as their JSON text.
+     */
+    public Object getValue(int column, int row) {
+        if (isNull(column, row)) {
+            return null;
+        }
+        return switch (columnTypes[column]) {
+            case LONG -> getLong(column, row);
+            case DOUBLE -> getDouble(column, row);
+            case STRING, JSON -> getString(column, row);
+        };
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.results;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.JsonNodeType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link StoredResult} file one row at a time.
+ * <p>
+ * While rows arrive, each cell is appended to a spill file of its column, together with the
+ * statistics that decide the column type. {@link #finish()} then encodes the column blocks one
+ * after the other from these spill files and patches their offsets into the header. Memory use is
+ * bounded by the null bitmaps and the dictionary of a single column, not by the result size. The
+ * dictionary itself is capped at an estimated {@code maxDictionaryBytes}; a column with more
+ * distinct values is written without deduplication, with one dictionary entry per row.
+ */
+final class StoredResultWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    static final long DEFAULT_MAX_DICTIONARY_BYTES = 32L * 1024 * 1024;
+    // Estimated heap use of a dictionary entry besides its characters: map node, boxed id and String
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final byte NULL_CELL = 0;
+    private static final byte LONG_CELL = 1;
+    private static final byte DOUBLE_CELL = 2;
+    private static final byte TEXT_CELL = 3;
+    private static final byte JSON_CELL = 4;
+
+    private final Path path;
+    private final List<String> columns;
+    private final long maxBytes;
+    private final long maxDictionaryBytes;
+    private final ColumnSpill[] spills;
+    private int rowCount;
+
+    StoredResultWriter(Path path, List<String> columns, long maxBytes) throws IOException {
+        this(path, columns, maxBytes, DEFAULT_MAX_DICTIONARY_BYTES);
+    }
+
+    StoredResultWriter(Path path, List<String> columns, long maxBytes, long maxDictionaryBytes) throws IOException {
+        this.path = path;
+        this.columns = columns;
+        this.maxBytes = maxBytes;
+        this.maxDictionaryBytes = maxDictionaryBytes;
+        this.spills = new ColumnSpill[columns.size()];
+        try {
+            for (int column = 0; column < spills.length; column++) {
+                spills[column] = new ColumnSpill(Files.createTempFile(path.getParent(), path.getFileName() + "." + column + ".", ".spill"));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Append a row, either a JSON array in column order or a JSON object keyed by column name.
+     */
+    void addRow(JsonNode row) throws IOException {
+        // Every cell takes at least 4 bytes in the file, so larger results are rejected before they are spilled
+        if ((long) (rowCount + 1) * spills.length * Integer.BYTES > maxBytes) {
+            throw new IllegalArgumentException(String.format("Result exceeds the result store limit of %d bytes after %d rows",
+                    maxBytes, rowCount));
+        }
+        boolean byPosition = row.isArray();
+        for (int column = 0; column < spills.length; column++) {
+            spills[column].write(rowCount, byPosition ? row.get(column) : row.get(columns.get(column)));
+        }
+        rowCount++;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Encode the spilled columns into the result file.
+     */
+    void finish() throws IOException {
+        StoredResult.ColumnType[] types = new StoredResult.ColumnType[spills.length];
+        byte[][] names = new byte[spills.length][];
+        long[] offsetPositions = new long[spills.length];
+        long position = 4L * Integer.BYTES;
+        for (int column = 0; column < spills.length; column++) {
+            spills[column].out.close();
+            types[column] = spills[column].type();
+            names[column] = columns.get(column).getBytes(StandardCharsets.UTF_8);
+            offsetPositions[column] = position + Integer.BYTES + names[column].length + 1;
+            position = offsetPositions[column] + Long.BYTES;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            // Not closed, closing the stream would close the channel before the offsets are patched
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            out.writeInt(StoredResult.MAGIC);
+            out.writeInt(StoredResult.VERSION);
+            out.writeInt(rowCount);
+            out.writeInt(spills.length);
+            for (int column = 0; column < spills.length; column++) {
+                out.writeInt(names[column].length);
+                out.write(names[column]);
+                out.writeByte(types[column].ordinal());
+                out.writeLong(0L);
+            }
+
+            long offset = position;
+            ByteBuffer offsetBuffer = ByteBuffer.allocate(Long.BYTES);
+            for (int column = 0; column < spills.length; column++) {
+                long blockSize = spills[column].writeBlock(out, types[column], rowCount, maxDictionaryBytes);
+                out.flush();
+                offsetBuffer.clear();
+                channel.write(offsetBuffer.putLong(offset).flip(), offsetPositions[column]);
+                offset += blockSize;
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Delete the spill files; the result file itself is left to the caller.
+     */
+    @Override
+    public void close() {
+        for (ColumnSpill spill : spills) {
+            if (spill != null) {
+                spill.delete();
+            }
+        }
+    }
+
+    private static final class ColumnSpill {
+
+        private final Path file;
+        private final DataOutputStream out;
+        private final BitSet nulls = new BitSet();
+        private boolean any;
+        private boolean allLong = true;
+        private boolean allNumber = true;
+        private boolean allText = true;
+
+        ColumnSpill(Path file) throws IOException {
+            this.file = file;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+        }
+
+        void write(int row, JsonNode value) throws IOException {
+            if (value == null || value.isNull()) {
+                nulls.set(row);
+                out.writeByte(NULL_CELL);
+                return;
+            }
+            any = true;
+            if (value.isIntegralNumber() && value.canConvertToLong()) {
+                allText = false;
+                out.writeByte(LONG_CELL);
+                out.writeLong(value.longValue());
+            } else if (value.isNumber()) {
+                allLong = false;
+                allText = false;
+                out.writeByte(DOUBLE_CELL);
+                out.writeDouble(value.doubleValue());
+                writeText(value.toString());
+            } else if (value.getNodeType() == JsonNodeType.STRING) {
+                allLong = false;
+                allNumber = false;
+                out.writeByte(TEXT_CELL);
+                writeText(value.asText());
+            } else {
+                allLong = false;
+                allNumber = false;
+                allText = false;
+                out.writeByte(JSON_CELL);
+                writeText(value.toString());
+            }
+        }
+
+        StoredResult.ColumnType type() {
+            if (!any || allText) {
+                return StoredResult.ColumnType.STRING;
+            }
+            if (allLong) {
+                return StoredResult.ColumnType.LONG;
+            }
+            return allNumber ? StoredResult.ColumnType.DOUBLE : StoredResult.ColumnType.JSON;
+        }
+
+        /**
+         * Write the column block (null bitmap, then values or dictionary and ids) and return its size.
+         */
+        long writeBlock(DataOutputStream target, StoredResult.ColumnType type, int rowCount, long maxDictionaryBytes) throws IOException {
+            byte[] nullBitmap = new byte[(rowCount + 7) / 8];
+            byte[] setBits = nulls.toByteArray();
+            System.arraycopy(setBits, 0, nullBitmap, 0, setBits.length);
+            target.write(nullBitmap);
+
+            switch (type) {
+                case LONG -> {
+                    try (DataInputStream in = open()) {
+                        for (int row = 0; row < rowCount; row++) {
+                            target.writeLong(in.readByte() == NULL_CELL ? 0L : in.readLong());
+                        }
+                    }
+                    return nullBitmap.length + (long) rowCount * Long.BYTES;
+                }
+                case DOUBLE -> {
+                    try (DataInputStream in = open()) {
+                        for (int row = 0; row < rowCount; row++) {
+                            byte tag = in.readByte();
+                            double value = 0d;
+                            if (tag == LONG_CELL) {
+                                value = in.readLong();
+                            } else if (tag == DOUBLE_CELL) {
+                                value = in.readDouble();
+                                in.skipNBytes(in.readInt());
+                            }
+                            target.writeDouble(value);
+                        }
+                    }
+                    return nullBitmap.length + (long) rowCount * Double.BYTES;
+                }
+                default -> {
+                    boolean json = type == StoredResult.ColumnType.JSON;
+                    Map<String, Integer> dictionary = distinctValues(json, rowCount, maxDictionaryBytes);
+                    long size = nullBitmap.length + (long) rowCount * Integer.BYTES;
+                    if (dictionary != null) {
+                        size += writeDictionary(target, dictionary);
+                        try (DataInputStream in = open()) {
+                            for (int row = 0; row < rowCount; row++) {
+                                String text = readText(in, json);
+                                target.writeInt(text == null ? 0 : dictionary.get(text));
+                            }
+                        }
+                    } else {
+                        size += writeEntriesPerRow(target, json, rowCount);
+                        for (int row = 0; row < rowCount; row++) {
+                            target.writeInt(row);
+                        }
+                    }
+                    return size;
+                }
+            }
+        }
+
+        /**
+         * Distinct values of the column in first-seen order with their ids, or null once their
+         * estimated heap size exceeds the limit
+         */
+        private Map<String, Integer> distinctValues(boolean json, int rowCount, long maxDictionaryBytes) throws IOException {
+            Map<String, Integer> dictionary = new LinkedHashMap<>();
+            long estimatedBytes = 0;
+            try (DataInputStream in = open()) {
+                for (int row = 0; row < rowCount; row++) {
+                    String text = readText(in, json);
+                    if (text != null && dictionary.putIfAbsent(text, dictionary.size()) == null) {
+                        estimatedBytes += ENTRY_OVERHEAD + 2L * text.length();
+                        if (estimatedBytes > maxDictionaryBytes) {
+                            return null;
+                        }
+                    }
+                }
+            }
+            return dictionary;
+        }
+
+        /**
+         * Write entry count, offset table and entries of a dictionary, and return their size
+         */
+        private static long writeDictionary(DataOutputStream target, Map<String, Integer> dictionary) throws IOException {
+            target.writeInt(dictionary.size());
+            long offset = 0;
+            target.writeInt(0);
+            for (String entry : dictionary.keySet()) {
+                offset += entry.getBytes(StandardCharsets.UTF_8).length;
+                target.writeInt(checkedOffset(offset));
+            }
+            for (String entry : dictionary.keySet()) {
+                target.write(entry.getBytes(StandardCharsets.UTF_8));
+            }
+            return (dictionary.size() + 2L) * Integer.BYTES + offset;
+        }
+
+        /**
+         * Write one dictionary entry per row (empty for null cells) without deduplication, and return their size
+         */
+        private long writeEntriesPerRow(DataOutputStream target, boolean json, int rowCount) throws IOException {
+            target.writeInt(rowCount);
+            long offset = 0;
+            target.writeInt(0);
+            try (DataInputStream in = open()) {
+                for (int row = 0; row < rowCount; row++) {
+                    String text = readText(in, json);
+                    offset += text == null ? 0 : text.getBytes(StandardCharsets.UTF_8).length;
+                    target.writeInt(checkedOffset(offset));
+                }
+            }
+            try (DataInputStream in = open()) {
+                for (int row = 0; row < rowCount; row++) {
+                    String text = readText(in, json);
+                    if (text != null) {
+                        target.write(text.getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+            return (rowCount + 2L) * Integer.BYTES + offset;
+        }
+
+        private static int checkedOffset(long offset) {
+            if (offset > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Result exceeds the maximum size of a result file");
+            }
+            return (int) offset;
+        }
+
+        /**
+         * Text of the next cell as stored in a STRING or JSON column, null for a null cell
+         */
+        private static String readText(DataInputStream in, boolean json) throws IOException {
+            byte tag = in.readByte();
+            return switch (tag) {
+                case NULL_CELL -> null;
+                case LONG_CELL -> Long.toString(in.readLong());
+                case DOUBLE_CELL -> {
+                    in.readDouble();
+                    yield readString(in);
+                }
+                case TEXT_CELL -> json ? quote(readString(in)) : readString(in);
+                default -> readString(in);
+            };
+        }
+
+        private void writeText(String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private static String readString(DataInputStream in) throws IOException {
+            return new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+        }
+
+        private DataInputStream open() throws IOException {
+            return new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+        }
+
+        private void delete() {
+            try {
+                out.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Spill files are also removed with the stale result files on the next start
+            }
+        }
+    }
+
+    /**
+     * JSON string literal of a text value, for text cells in a JSON column
+     */
+    static String quote(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                case '\b' -> sb.append("\\b");
+                case '\f' -> sb.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.results;
+
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Post-processing request over a stored result: filters (combined with AND), optional grouping
+ * with aggregations, ordering and a row limit.
+ */
+public record WorkspaceQuery(List<Filter> filters,
+                             List<String> groupBy,
+                             List<Aggregation> aggregations,
+                             List<Ordering> orderBy,
+                             int limit) {
+
+    private static final Pattern AGGREGATION_PATTERN = Pattern.compile(
+            "(?i)^(count|sum|min|max|avg)\\s*\\(\\s*(\\*|[^)]+?)\\s*\\)(?:\\s+as\\s+(\\w+))?$");
+
+    public enum Operator {
+        EQ("="), NE("!="), GT(">"), GE(">="), LT("<"), LE("<="), IN("in"), CONTAINS("contains"),
+        IS_NULL("isNull"), NOT_NULL("notNull");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        static Operator of(String symbol) {
+            for (Operator operator : values()) {
+                if (operator.symbol.equalsIgnoreCase(symbol) || operator.name().equalsIgnoreCase(symbol)) {
+                    return operator;
+                }
+            }
+            throw new IllegalArgumentException(String.format("Unknown filter operator '%s'", symbol));
+        }
+    }
+
+    public enum Function {
+        COUNT, SUM, MIN, MAX, AVG
+    }
+
+    public record Filter(String column, Operator operator, JsonNode value) {
+    }
+
+    /**
+     * Aggregation over a column; a null column means count(*).
+     */
+    public record Aggregation(Function function, String column, String name) {
+    }
+
+    public record Ordering(String column, boolean descending) {
+    }
+
+    /**
+     * Parse filters from a JSON array like {@code [{"column": "page", "op": "=", "value": "Main_Page"}]}.
+     */
+    public static List<Filter> parseFilters(JsonNode filters) {
+        List<Filter> parsed = new ArrayList<>();
+        if (filters == null || filters.isNull()) {
+            return parsed;
+        }
+        if (!filters.isArray()) {
+            throw new IllegalArgumentException("Filters must be a JSON array");
+        }
+        for (JsonNode filter : filters) {
+            if (!filter.hasNonNull("column")) {
+                throw new IllegalArgumentException("Filter is missing 'column': " + filter);
+            }
+            Operator operator = Operator.of(filter.hasNonNull("op") ? filter.get("op").asText() : "=");
+            JsonNode value = filter.get("value");
+            if (operator != Operator.IS_NULL && operator != Operator.NOT_NULL && (value == null || value.isNull())) {
+                throw new IllegalArgumentException("Filter is missing 'value': " + filter);
+            }
+            if (operator == Operator.IN && !value.isArray()) {
+                throw new IllegalArgumentException("Filter operator 'in' requires an array value: " + filter);
+            }
+            parsed.add(new Filter(filter.get("column").asText(), operator, value));
+        }
+        return parsed;
+    }
+
+    /**
+     * Parse a comma-separated list such as {@code count(*), sum(edits) as total}.
+     */
+    public static List<Aggregation> parseAggregations(String aggregations) {
+        List<Aggregation> parsed = new ArrayList<>();
+        for (String expression : splitList(aggregations)) {
+            Matcher matcher = AGGREGATION_PATTERN.matcher(expression);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException(String.format("Invalid aggregation '%s'. Expected e.g. count(*), sum(column) as name", expression));
+            }
+            Function function = Function.valueOf(matcher.group(1).toUpperCase(Locale.ROOT));
+            String column = "*".equals(matcher.group(2)) ? null : matcher.group(2);
+            if (column == null && function != Function.COUNT) {
+                throw new IllegalArgumentException(String.format("Aggregation '%s' requires a column", expression));
+            }
+            String name = matcher.group(3) != null
+                    ? matcher.group(3)
+                    : column == null ? "count" : function.name().toLowerCase(Locale.ROOT) + "_" + column;
+            parsed.add(new Aggregation(function, column, name));
+        }
+        return parsed;
+    }
+
+    /**
+     * Parse a comma-separated list such as {@code total desc, page}.
+     */
+    public static List<Ordering> parseOrderBy(String orderBy) {
+        List<Ordering> parsed = new ArrayList<>();
+        for (String expression : splitList(orderBy)) {
+            String[] parts = expression.split("\\s+");
+            boolean descending = parts.length > 1 && "desc".equalsIgnoreCase(parts[parts.length - 1]);
+            boolean hasDirection = parts.length > 1 && (descending || "asc".equalsIgnoreCase(parts[parts.length - 1]));
+            String column = hasDirection ? expression.substring(0, expression.lastIndexOf(parts[parts.length - 1])).trim() : expression;
+            parsed.add(new Ordering(column, descending));
+        }
+        return parsed;
+    }
+
+    public static List<String> splitList(String list) {
+        List<String> parts = new ArrayList<>();
+        if (list == null || list.isBlank()) {
+            return parts;
+        }
+        for (String part : list.split(",")) {
+            if (!part.isBlank()) {
+                parts.add(part.trim());
+            }
+        }
+        return parts;
+    }
+}
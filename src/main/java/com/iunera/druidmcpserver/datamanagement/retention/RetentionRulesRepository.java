@@ -83,4 +83,16 @@ public class RetentionRulesRepository {
                 .retrieve()
                 .body(JsonNode.class);
     }
+
+    /**
+     * Get the most recent retention rule changes across all datasources
+     */
+    public JsonNode getLatestRetentionRuleHistory(int count) throws RestClientException {
+        return druidRouterRestClient
+                .get()
+                .uri("/druid/coordinator/v1/rules/history?count={count}", count)
+                .header("Content-Type", "application/json")
+                .retrieve()
+                .body(JsonNode.class);
+    }
 }
@@ -16,6 +16,7 @@
 
 package com.iunera.druidmcpserver.datamanagement.retention;
 
+import com.iunera.druidmcpserver.usage.responses.JsonProjection;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import org.springframework.ai.mcp.annotation.McpTool;
@@ -42,12 +43,13 @@ public class RetentionRulesTools {
      * Retrieve retention rules or change history.
      */
     @McpTool(
-            description = "Retrieve retention rules or audit history for a specific datasource or all datasources. Parameters: [datasource] (String, optional) to filter by a specific datasource, and [includeHistory] (Boolean, optional) to fetch change history instead of current rules.",
+            description = "Retrieve retention rules or audit history for a specific datasource or all datasources. Parameters: [datasource] (String, optional) to filter by a specific datasource, and [includeHistory] (Boolean, optional) to fetch change history instead of current rules. Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
     public String getRetentionRules(
             @McpToolParam(description = "Name of the datasource (optional/required for history)", required = false) String datasource,
-            @McpToolParam(description = "Whether to fetch change history instead of current rules (optional)", required = false) Boolean includeHistory
+            @McpToolParam(description = "Whether to fetch change history instead of current rules (optional)", required = false) Boolean includeHistory,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         try {
             if (includeHistory != null && includeHistory) {
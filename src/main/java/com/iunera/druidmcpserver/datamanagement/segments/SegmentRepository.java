@@ -16,59 +16,81 @@
 
 package com.iunera.druidmcpserver.datamanagement.segments;
 
+import com.iunera.druidmcpserver.datamanagement.query.SqlParameter;
+import com.iunera.druidmcpserver.usage.responses.ResponseShape;
 import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Repository
 public class SegmentRepository {
 
+    private static final long SEGMENT_METADATA_LIMIT = 100;
+
     private final RestClient druidRouterRestClient;
+    private final ObjectMapper objectMapper;
 
-    public SegmentRepository(@Qualifier("druidRouterRestClient") RestClient druidRouterRestClient) {
+    public SegmentRepository(@Qualifier("druidRouterRestClient") RestClient druidRouterRestClient,
+                             ObjectMapper objectMapper) {
         this.druidRouterRestClient = druidRouterRestClient;
-
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Get all segments for all datasources
      */
     public JsonNode getAllSegments() throws RestClientException {
+        return allSegments().retrieve().body(JsonNode.class);
+    }
+
+    /**
+     * Get all segments for all datasources, projected or summarized while the response is read
+     */
+    public String getAllSegments(ResponseShape shape) throws RestClientException {
+        return shape.read(objectMapper, allSegments());
+    }
+
+    private RestClient.RequestHeadersSpec<?> allSegments() {
         return druidRouterRestClient
                 .get()
                 .uri("/druid/coordinator/v1/datasources?full")
-                .header("Content-Type", "application/json")
-                .retrieve()
-                .body(JsonNode.class);
+                .header("Content-Type", "application/json");
     }
 
     /**
      * Get segments for a specific datasource
      */
     public JsonNode getSegmentsForDatasource(String datasourceName) throws RestClientException {
+        return segmentsForDatasource(datasourceName, false).retrieve().body(JsonNode.class);
+    }
+
+    /**
+     * Get segments for a specific datasource, optionally with full details, projected or
+     * summarized while the response is read
+     */
+    public String getSegmentsForDatasource(String datasourceName, boolean detailed, ResponseShape shape) throws RestClientException {
+        return shape.read(objectMapper, segmentsForDatasource(datasourceName, detailed));
+    }
+
+    private RestClient.RequestHeadersSpec<?> segmentsForDatasource(String datasourceName, boolean detailed) {
         return druidRouterRestClient
                 .get()
-                .uri("/druid/coordinator/v1/datasources/{datasourceName}/segments", datasourceName)
-                .header("Content-Type", "application/json")
-                .retrieve()
-                .body(JsonNode.class);
+                .uri("/druid/coordinator/v1/datasources/{datasourceName}/segments" + (detailed ? "?full" : ""), datasourceName)
+                .header("Content-Type", "application/json");
     }
 
     /**
      * Get segments for a specific datasource with full details
      */
     public JsonNode getSegmentsForDatasourceWithDetails(String datasourceName) throws RestClientException {
-        return druidRouterRestClient
-                .get()
-                .uri("/druid/coordinator/v1/datasources/{datasourceName}/segments?full", datasourceName)
-                .header("Content-Type", "application/json")
-                .retrieve()
-                .body(JsonNode.class);
+        return segmentsForDatasource(datasourceName, true).retrieve().body(JsonNode.class);
     }
 
     /**
@@ -123,7 +145,40 @@ public class SegmentRepository {
      * Get segment metadata using SQL query
      */
     public JsonNode getSegmentMetadata() throws RestClientException {
-        String sql = "SELECT * FROM sys.segments ORDER BY datasource, \"start\", \"end\" LIMIT 100";
+        return segmentMetadata(null).retrieve().body(JsonNode.class);
+    }
+
+    /**
+     * Get segment metadata of all datasources, or of one when a name is given, projected or
+     * summarized while the response is read
+     */
+    public String getSegmentMetadata(String datasourceName, ResponseShape shape) throws RestClientException {
+        return shape.read(objectMapper, segmentMetadata(datasourceName));
+    }
+
+    private RestClient.RequestHeadersSpec<?> segmentMetadata(String datasourceName) {
+        Map<String, Object> query = new HashMap<>();
+        if (datasourceName == null) {
+            query.put("query", "SELECT * FROM sys.segments ORDER BY datasource, \"start\", \"end\" LIMIT ?");
+            query.put("parameters", List.of(SqlParameter.bigint(SEGMENT_METADATA_LIMIT)));
+        } else {
+            query.put("query", "SELECT * FROM sys.segments WHERE datasource = ? ORDER BY \"start\", \"end\"");
+            query.put("parameters", List.of(SqlParameter.varchar(datasourceName)));
+        }
+        query.put("resultFormat", "object");
+
+        return druidRouterRestClient
+                .post()
+                .uri("/druid/v2/sql")
+                .header("Content-Type", "application/json")
+                .body(query);
+    }
+
+    /**
+     * Get the id and datasource of every segment, the index behind the segment resources
+     */
+    public JsonNode getSegmentIndex() throws RestClientException {
+        String sql = "SELECT segment_id, datasource FROM sys.segments ORDER BY datasource, segment_id";
 
         Map<String, Object> query = new HashMap<>();
         query.put("query", sql);
@@ -139,14 +194,15 @@ public class SegmentRepository {
     }
 
     /**
-     * Get segment metadata for a specific datasource using SQL
+     * Get segment metadata for a specific segment using SQL
      */
-    public JsonNode getSegmentMetadataForDatasource(String datasourceName) throws RestClientException {
-        String sql = "SELECT * FROM sys.segments WHERE datasource = '" + datasourceName + "' ORDER BY \"start\", \"end\"";
+    public JsonNode getSegmentMetadataById(String segmentId) throws RestClientException {
+        String sql = "SELECT * FROM sys.segments WHERE segment_id = ?";
 
         Map<String, Object> query = new HashMap<>();
         query.put("query", sql);
         query.put("resultFormat", "object");
+        query.put("parameters", List.of(SqlParameter.varchar(segmentId)));
 
         return druidRouterRestClient
                 .post()
@@ -157,6 +213,13 @@ public class SegmentRepository {
                 .body(JsonNode.class);
     }
 
+    /**
+     * Get segment metadata for a specific datasource using SQL
+     */
+    public JsonNode getSegmentMetadataForDatasource(String datasourceName) throws RestClientException {
+        return segmentMetadata(datasourceName).retrieve().body(JsonNode.class);
+    }
+
     /**
      * Get load queue status
      */
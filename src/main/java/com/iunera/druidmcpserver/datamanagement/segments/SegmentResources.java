@@ -16,6 +16,7 @@
 
 package com.iunera.druidmcpserver.datamanagement.segments;
 
+import com.iunera.druidmcpserver.datamanagement.catalog.ResourceCatalog;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.spec.McpSchema.ReadResourceRequest;
@@ -32,11 +33,14 @@ import java.util.Map;
 @Service
 public class SegmentResources {
 
+    private final ResourceCatalog resourceCatalog;
     private final SegmentRepository segmentRepository;
     private final ObjectMapper objectMapper;
 
-    public SegmentResources(SegmentRepository segmentRepository,
+    public SegmentResources(ResourceCatalog resourceCatalog,
+                            SegmentRepository segmentRepository,
                             ObjectMapper objectMapper) {
+        this.resourceCatalog = resourceCatalog;
         this.segmentRepository = segmentRepository;
         this.objectMapper = objectMapper;
     }
@@ -47,22 +51,7 @@ public class SegmentResources {
     @McpResource(uri = "segment://{segmentid}", name = "Segment", description = "Provides basic information for a specific Druid segment")
     public ReadResourceResult getSegment(ReadResourceRequest request, String segmentid) {
         try {
-            JsonNode allSegments = segmentRepository.getSegmentMetadata();
-
-            // Find the specific segment
-            JsonNode targetSegment = null;
-            if (allSegments.isArray()) {
-                for (int i = 0; i < allSegments.size(); i++) {
-                    JsonNode segment = allSegments.get(i);
-                    String currentSegmentId = segment.has("segment_id") ?
-                            segment.get("segment_id").asText() : "segment_" + i;
-
-                    if (currentSegmentId.equals(segmentid)) {
-                        targetSegment = segment;
-                        break;
-                    }
-                }
-            }
+            JsonNode targetSegment = findSegment(segmentid);
 
             if (targetSegment == null) {
                 String errorMessage = String.format("Segment '%s' not found", segmentid);
@@ -87,30 +76,14 @@ public class SegmentResources {
     @McpResource(uri = "segment-details://{segmentid}", name = "Segment Details", description = "Provides detailed information for a specific Druid segment including metadata details")
     public ReadResourceResult getSegmentDetails(String segmentid) {
         try {
-            JsonNode allSegments = segmentRepository.getSegmentMetadata();
-
-            // Find the specific segment
-            JsonNode targetSegment = null;
-            String datasourceName = "unknown_datasource";
-            if (allSegments.isArray()) {
-                for (int i = 0; i < allSegments.size(); i++) {
-                    JsonNode segment = allSegments.get(i);
-                    String currentSegmentId = segment.has("segment_id") ?
-                            segment.get("segment_id").asText() : "segment_" + i;
-
-                    if (currentSegmentId.equals(segmentid)) {
-                        targetSegment = segment;
-                        datasourceName = segment.has("datasource") ?
-                                segment.get("datasource").asText() : "unknown_datasource";
-                        break;
-                    }
-                }
-            }
+            JsonNode targetSegment = findSegment(segmentid);
 
             if (targetSegment == null) {
                 String errorMessage = String.format("Segment '%s' not found", segmentid);
                 return new ReadResourceResult(List.of(new TextResourceContents("segment-details://" + segmentid, "text/plain", errorMessage)));
             }
+            String datasourceName = targetSegment.has("datasource") ?
+                    targetSegment.get("datasource").asText() : "unknown_datasource";
 
             // Get detailed information for this segment
             Map<String, Object> segmentInfo = buildSegmentInfo(targetSegment, datasourceName, segmentid);
@@ -127,6 +100,18 @@ public class SegmentResources {
         }
     }
 
+    /**
+     * The catalog only indexes segment ids, the full sys.segments row is read for known segments
+     */
+    private JsonNode findSegment(String segmentId) throws RestClientException {
+        JsonNode indexed = resourceCatalog.getSegment(segmentId).orElse(null);
+        if (indexed == null) {
+            return null;
+        }
+        JsonNode rows = segmentRepository.getSegmentMetadataById(segmentId);
+        return rows != null && rows.isArray() && !rows.isEmpty() ? rows.get(0) : indexed;
+    }
+
     /**
      * Build segment information from the segment data
      */
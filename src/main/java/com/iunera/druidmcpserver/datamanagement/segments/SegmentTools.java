@@ -16,6 +16,10 @@
 
 package com.iunera.druidmcpserver.datamanagement.segments;
 
+import com.iunera.druidmcpserver.usage.responses.JsonProjection;
+import com.iunera.druidmcpserver.usage.responses.JsonShapeSummarizer;
+import com.iunera.druidmcpserver.usage.responses.ProjectsFields;
+import com.iunera.druidmcpserver.usage.responses.ResponseShape;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import org.springframework.ai.mcp.annotation.McpTool;
@@ -39,22 +43,39 @@ public class SegmentTools {
      * Get segments (list all, filter by datasource/id, get metadata/details)
      */
     @McpTool(
-            description = "Fetch segments for all or specific datasources, or get details for a single segment. Parameters: [datasource] (String, optional), [segmentId] (String, optional), [detailed] (Boolean, optional), [metadataOnly] (Boolean, optional) to restrict retrieval to core segment metadata.",
+            description = "Fetch segments for all or specific datasources, or get details for a single segment. Parameters: [datasource] (String, optional), [segmentId] (String, optional), [detailed] (Boolean, optional), [metadataOnly] (Boolean, optional) to restrict retrieval to core segment metadata. Use [summarize] (Boolean, optional) to get counts, distinct values, min/max and examples per field instead of the full list. Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
+    @ProjectsFields
     public String getSegments(
             @McpToolParam(description = "Name of the datasource (optional)", required = false) String datasource,
             @McpToolParam(description = "ID of the specific segment (optional)", required = false) String segmentId,
             @McpToolParam(description = "Whether to include full segment details/metadata (optional)", required = false) Boolean detailed,
-            @McpToolParam(description = "Whether to only fetch segment metadata from system tables (optional)", required = false) Boolean metadataOnly
+            @McpToolParam(description = "Whether to only fetch segment metadata from system tables (optional)", required = false) Boolean metadataOnly,
+            @McpToolParam(description = JsonShapeSummarizer.SUMMARIZE_DESCRIPTION, required = false) Boolean summarize,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         try {
+            // Segment lists can be long, so fields and summaries are applied while they are read
+            ResponseShape shape = ResponseShape.of(fields, summarize);
             if (segmentId != null && !segmentId.trim().isEmpty()) {
                 if (datasource == null || datasource.trim().isEmpty()) {
                     return "Error: [datasource] parameter is required when [segmentId] is specified";
                 }
                 JsonNode result = segmentRepository.getSegmentDetails(datasource, segmentId);
-                return objectMapper.writeValueAsString(result);
+                String json = objectMapper.writeValueAsString(result);
+                return shape != null ? shape.apply(objectMapper, json) : json;
+            }
+
+            if (shape != null) {
+                boolean hasDatasource = datasource != null && !datasource.trim().isEmpty();
+                if (metadataOnly != null && metadataOnly) {
+                    return segmentRepository.getSegmentMetadata(hasDatasource ? datasource : null, shape);
+                }
+                if (hasDatasource) {
+                    return segmentRepository.getSegmentsForDatasource(datasource, detailed != null && detailed, shape);
+                }
+                return segmentRepository.getAllSegments(shape);
             }
 
             if (metadataOnly != null && metadataOnly) {
@@ -90,11 +111,12 @@ public class SegmentTools {
      * Get segment load queue status
      */
     @McpTool(
-            description = "Get the load queue status showing segments currently being loaded. Parameters: [serverName] (String, optional) to filter by a specific server.",
+            description = "Get the load queue status showing segments currently being loaded. Parameters: [serverName] (String, optional) to filter by a specific server. Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
     public String getSegmentLoadQueue(
-            @McpToolParam(description = "Name of the server to get load queue for (optional)", required = false) String serverName
+            @McpToolParam(description = "Name of the server to get load queue for (optional)", required = false) String serverName,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         try {
             if (serverName != null && !serverName.trim().isEmpty()) {
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.filter;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import org.reactivestreams.Publisher;
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.ai.mcp.annotation.spring.SyncMcpAnnotationProviders;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registers the blocking tools on an async MCP server (the webflux build). The annotation scanner
+ * of an async server only picks up tools that return reactive types, so every other tool is
+ * wrapped into an async specification that calls it on Reactor's bounded elastic scheduler,
+ * which runs on virtual threads. Tools with an async variant (the SQL and multi-stage query
+ * tools) have no blocking bean in this mode.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+public class BlockingToolSpecificationsConfig {
+
+    static final String BEAN_NAME = "blockingToolSpecs";
+    private static final String APPLICATION_PACKAGE = "com.iunera.druidmcpserver.";
+
+    @Bean(BEAN_NAME)
+    public List<McpServerFeatures.AsyncToolSpecification> blockingToolSpecs(ConfigurableListableBeanFactory beanFactory) {
+        List<Object> toolBeans = new ArrayList<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            // Beans whose tools are all hidden by druid.mcp.tools.enabled stay lazy and uncreated
+            if (beanFactory.getBeanDefinition(beanName).isLazyInit()) {
+                continue;
+            }
+            Class<?> beanType = beanFactory.getType(beanName, false);
+            if (beanType != null && beanType.getName().startsWith(APPLICATION_PACKAGE)
+                    && hasBlockingTools(ClassUtils.getUserClass(beanType))) {
+                toolBeans.add(beanFactory.getBean(beanName));
+            }
+        }
+        return SyncMcpAnnotationProviders.toolSpecifications(toolBeans).stream()
+                .map(BlockingToolSpecificationsConfig::toAsync)
+                .toList();
+    }
+
+    static boolean hasBlockingTools(Class<?> beanClass) {
+        boolean[] found = {false};
+        ReflectionUtils.doWithMethods(beanClass,
+                method -> found[0] |= !Publisher.class.isAssignableFrom(method.getReturnType()),
+                method -> method.isAnnotationPresent(McpTool.class));
+        return found[0];
+    }
+
+    static McpServerFeatures.AsyncToolSpecification toAsync(McpServerFeatures.SyncToolSpecification sync) {
+        return McpServerFeatures.AsyncToolSpecification.builder()
+                .tool(sync.tool())
+                .callHandler((exchange, request) -> Mono
+                        .fromCallable(() -> sync.callHandler().apply(new McpSyncServerExchange(exchange), request))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Marks tool beans lazy when none of their tools is in {@code druid.mcp.tools.enabled}. Such
+ * beans are then only created if another bean needs them, so a narrow whitelist also saves the
+ * startup time and memory of the tools it hides. Beans that also provide resources, prompts or
+ * other MCP features stay eager.
+ */
+@Component
+public class LazyToolBeanFactoryPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final Logger log = LoggerFactory.getLogger(LazyToolBeanFactoryPostProcessor.class);
+    private static final String MCP_ANNOTATION_PACKAGE = McpTool.class.getPackageName();
+    private static final String APPLICATION_PACKAGE = "com.iunera.druidmcpserver.";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        // McpToolProperties is not bound yet while bean definitions are post-processed
+        Set<String> enabled = Set.copyOf(Binder.get(environment)
+                .bind("druid.mcp.tools.enabled", Bindable.listOf(String.class))
+                .orElse(List.of()));
+        if (enabled.isEmpty()) {
+            return;
+        }
+
+        List<String> lazyBeans = new ArrayList<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            // Only the application's own beans declare tools, other classes are not introspected
+            String className = definition.getBeanClassName();
+            if (definition.isLazyInit() || !definition.isSingleton() || className == null || !className.startsWith(APPLICATION_PACKAGE)) {
+                continue;
+            }
+            Class<?> beanClass = ClassUtils.resolveClassName(className, beanFactory.getBeanClassLoader());
+            if (isHiddenToolBean(beanClass, enabled)) {
+                definition.setLazyInit(true);
+                lazyBeans.add(beanName);
+            }
+        }
+        if (!lazyBeans.isEmpty()) {
+            log.info("Initializing {} tool beans without enabled tools lazily: {}", lazyBeans.size(), lazyBeans);
+        }
+    }
+
+    /**
+     * Whether the class declares tools, none of them enabled, and no other MCP features
+     */
+    static boolean isHiddenToolBean(Class<?> beanClass, Set<String> enabled) {
+        boolean[] hasTools = {false};
+        boolean[] keep = {false};
+        ReflectionUtils.doWithMethods(beanClass, method -> {
+            McpTool mcpTool = method.getAnnotation(McpTool.class);
+            if (mcpTool != null) {
+                hasTools[0] = true;
+                String toolName = !mcpTool.name().isEmpty() ? mcpTool.name() : method.getName();
+                keep[0] |= enabled.contains(toolName);
+                return;
+            }
+            for (Annotation annotation : method.getAnnotations()) {
+                keep[0] |= annotation.annotationType().getPackageName().equals(MCP_ANNOTATION_PACKAGE);
+            }
+        }, ReflectionUtils.USER_DECLARED_METHODS);
+        return hasTools[0] && !keep[0];
+    }
+}
@@ -16,18 +16,21 @@
 
 package com.iunera.druidmcpserver.filter;
 
+import io.modelcontextprotocol.server.McpServerFeatures;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Component
+@ImportRuntimeHints(McpToolFilterRuntimeHints.class)
 public class McpToolFilterPostProcessor implements BeanPostProcessor {
 
     private static final Logger log = LoggerFactory.getLogger(McpToolFilterPostProcessor.class);
@@ -39,7 +42,7 @@ public class McpToolFilterPostProcessor implements BeanPostProcessor {
 
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
-        if ("toolSpecs".equals(beanName) && bean instanceof List<?> list) {
+        if (("toolSpecs".equals(beanName) || BlockingToolSpecificationsConfig.BEAN_NAME.equals(beanName)) && bean instanceof List<?> list) {
             if (properties.getEnabled() == null || properties.getEnabled().isEmpty()) {
                 return bean;
             }
@@ -50,7 +53,7 @@ public class McpToolFilterPostProcessor implements BeanPostProcessor {
                     filtered.add(obj);
                 }
             }
-            log.info("McpToolFilterPostProcessor filtered toolSpecs from {} to {}", list.size(), filtered.size());
+            log.info("McpToolFilterPostProcessor filtered {} from {} to {}", beanName, list.size(), filtered.size());
             return filtered;
         }
         if ("syncTools".equals(beanName) && bean instanceof List<?> list) {
@@ -79,7 +82,14 @@ public class McpToolFilterPostProcessor implements BeanPostProcessor {
         return bean;
     }
 
-    private String getToolName(Object spec) {
+    String getToolName(Object spec) {
+        if (spec instanceof McpServerFeatures.SyncToolSpecification sync) {
+            return sync.tool().name();
+        }
+        if (spec instanceof McpServerFeatures.AsyncToolSpecification async) {
+            return async.tool().name();
+        }
+        // Other specification types, reachable in native images via McpToolFilterRuntimeHints
         try {
             Object tool = spec.getClass().getMethod("tool").invoke(spec);
             return (String) tool.getClass().getMethod("name").invoke(tool);
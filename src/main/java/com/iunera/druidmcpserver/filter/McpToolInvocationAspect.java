@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.filter;
+
+import com.iunera.druidmcpserver.usage.metrics.MetricsService;
+import com.iunera.druidmcpserver.usage.metrics.ToolMetrics;
+import jakarta.annotation.PostConstruct;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * One around-advice for every tool call that enforces the per-datasource tool limits and reports
+ * the call to the {@link MetricsService} (when {@code druid.mcp.metrics.enabled}). All per-method
+ * work is precomputed in {@link ToolInvocationDescriptors}; the arguments are only read for tools
+ * that have a datasource parameter and a limit that excludes them. Calls of async tools are
+ * reported when their result is emitted.
+ */
+@Aspect
+@Component
+public class McpToolInvocationAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(McpToolInvocationAspect.class);
+
+    private final ToolInvocationDescriptors descriptors;
+    private final MetricsService metricsService;
+    private final boolean metricsEnabled;
+
+    public McpToolInvocationAspect(ToolInvocationDescriptors descriptors,
+                                   MetricsService metricsService,
+                                   @Value("${druid.mcp.metrics.enabled:true}") boolean metricsEnabled) {
+        this.descriptors = descriptors;
+        this.metricsService = metricsService;
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    @Around("@annotation(org.springframework.ai.mcp.annotation.McpTool)")
+    public Object invokeTool(ProceedingJoinPoint joinPoint) throws Throwable {
+        ToolInvocationDescriptor descriptor = descriptors.get(((MethodSignature) joinPoint.getSignature()).getMethod());
+        if (!metricsEnabled) {
+            checkDatasourceLimits(descriptor, joinPoint);
+            return joinPoint.proceed();
+        }
+
+        long executionTimestamp = System.currentTimeMillis();
+        try {
+            checkDatasourceLimits(descriptor, joinPoint);
+            Object result = joinPoint.proceed();
+            if (result instanceof Mono<?> mono) {
+                return mono
+                        .doOnSuccess(value -> metricsService.sendMetric(descriptor.toolName(), ToolMetrics.ToolStatus.SUCCESS,
+                                System.currentTimeMillis() - executionTimestamp, executionTimestamp))
+                        .doOnError(e -> metricsService.sendMetric(descriptor.toolName(), ToolMetrics.ToolStatus.ERROR,
+                                System.currentTimeMillis() - executionTimestamp, executionTimestamp));
+            }
+            metricsService.sendMetric(descriptor.toolName(), ToolMetrics.ToolStatus.SUCCESS,
+                    System.currentTimeMillis() - executionTimestamp, executionTimestamp);
+            return result;
+        } catch (Throwable throwable) {
+            metricsService.sendMetric(descriptor.toolName(), ToolMetrics.ToolStatus.ERROR,
+                    System.currentTimeMillis() - executionTimestamp, executionTimestamp);
+            throw throwable;
+        }
+    }
+
+    private static void checkDatasourceLimits(ToolInvocationDescriptor descriptor, ProceedingJoinPoint joinPoint) {
+        if (!descriptor.isDatasourceLimited()) {
+            return;
+        }
+        Object datasource = joinPoint.getArgs()[descriptor.datasourceParameterIndex()];
+        if (datasource instanceof String datasourceName && descriptor.deniedDatasources().contains(datasourceName)) {
+            throw new IllegalArgumentException(String.format(
+                    "Tool '%s' is not enabled for datasource '%s' by configuration limits.",
+                    descriptor.toolName(), datasourceName));
+        }
+    }
+
+    @PostConstruct
+    void logStatus() {
+        if (metricsEnabled) {
+            log.info("MCP Metrics enabled (druid.mcp.metrics.enabled=true)");
+        }
+    }
+}
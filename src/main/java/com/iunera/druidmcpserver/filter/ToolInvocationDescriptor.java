@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.filter;
+
+import com.iunera.druidmcpserver.usage.responses.ProjectsFields;
+import org.springframework.ai.mcp.annotation.McpTool;
+
+import java.util.Set;
+
+/**
+ * Invocation metadata of one {@link McpTool} method, computed once so that the tool advice does
+ * no reflection or string matching per call.
+ *
+ * @param toolName                 the tool name, from the annotation or the method name
+ * @param mcpTool                  the tool annotation
+ * @param datasourceParameterIndex index of the {@code datasource} / {@code datasourceName}
+ *                                 String parameter, or -1
+ * @param deniedDatasources        datasources whose limits do not enable this tool
+ * @param fieldsParameterIndex     index of the {@code fields} String parameter, or -1
+ * @param projectsFields           whether the tool applies {@code fields} itself ({@link ProjectsFields})
+ */
+public record ToolInvocationDescriptor(String toolName, McpTool mcpTool, int datasourceParameterIndex,
+                                       Set<String> deniedDatasources, int fieldsParameterIndex,
+                                       boolean projectsFields) {
+
+    /**
+     * Whether calls may have to be checked against the datasource limits at all
+     */
+    public boolean isDatasourceLimited() {
+        return datasourceParameterIndex >= 0 && !deniedDatasources.isEmpty();
+    }
+
+    /**
+     * Whether the response has to be projected by the tool advice
+     */
+    public boolean isProjectedByAdvice() {
+        return fieldsParameterIndex >= 0 && !projectsFields;
+    }
+}
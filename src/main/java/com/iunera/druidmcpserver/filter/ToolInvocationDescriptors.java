@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.filter;
+
+import com.iunera.druidmcpserver.usage.responses.ProjectsFields;
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ToolInvocationDescriptor}s of all tool methods, built once all singletons exist. Tool
+ * beans that are created later (lazy ones) get their descriptors on their first call.
+ */
+@Component
+public class ToolInvocationDescriptors implements SmartInitializingSingleton, BeanFactoryAware {
+
+    private static final String APPLICATION_PACKAGE = "com.iunera.druidmcpserver.";
+    private static final String FIELDS_PARAMETER = "fields";
+
+    private final McpToolProperties properties;
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<Method, ToolInvocationDescriptor> descriptors = new ConcurrentHashMap<>();
+    private ListableBeanFactory beanFactory;
+
+    public ToolInvocationDescriptors(McpToolProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        if (beanFactory instanceof ListableBeanFactory listableBeanFactory) {
+            this.beanFactory = listableBeanFactory;
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (beanFactory == null) {
+            return;
+        }
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            Class<?> beanType = beanFactory.getType(beanName, false);
+            if (beanType != null && beanType.getName().startsWith(APPLICATION_PACKAGE)) {
+                ReflectionUtils.doWithMethods(ClassUtils.getUserClass(beanType), this::get,
+                        method -> method.isAnnotationPresent(McpTool.class));
+            }
+        }
+    }
+
+    /**
+     * Descriptor of a tool method; a map lookup once the method is known
+     */
+    public ToolInvocationDescriptor get(Method method) {
+        ToolInvocationDescriptor descriptor = descriptors.get(method);
+        return descriptor != null ? descriptor : descriptors.computeIfAbsent(method, this::describe);
+    }
+
+    int size() {
+        return descriptors.size();
+    }
+
+    private ToolInvocationDescriptor describe(Method method) {
+        McpTool mcpTool = method.getAnnotation(McpTool.class);
+        String toolName = mcpTool != null && !mcpTool.name().isEmpty() ? mcpTool.name() : method.getName();
+
+        int datasourceParameterIndex = -1;
+        int fieldsParameterIndex = -1;
+        String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
+        if (parameterNames != null) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for (int i = 0; i < parameterNames.length; i++) {
+                if (datasourceParameterIndex < 0 && parameterTypes[i] == String.class
+                        && ("datasourceName".equalsIgnoreCase(parameterNames[i]) || "datasource".equalsIgnoreCase(parameterNames[i]))) {
+                    datasourceParameterIndex = i;
+                } else if (FIELDS_PARAMETER.equals(parameterNames[i]) && parameterTypes[i] == String.class) {
+                    fieldsParameterIndex = i;
+                }
+            }
+        }
+
+        // Datasources with a whitelist that does not contain this tool (exact match only)
+        Set<String> deniedDatasources = new HashSet<>();
+        if (properties.getDatasourceLimits() != null) {
+            properties.getDatasourceLimits().forEach((datasource, limits) -> {
+                if (limits != null && (limits.getEnabled() == null || !limits.getEnabled().contains(toolName))) {
+                    deniedDatasources.add(datasource);
+                }
+            });
+        }
+        return new ToolInvocationDescriptor(toolName, mcpTool, datasourceParameterIndex, Set.copyOf(deniedDatasources),
+                fieldsParameterIndex, method.isAnnotationPresent(ProjectsFields.class));
+    }
+}
@@ -16,7 +16,9 @@
 
 package com.iunera.druidmcpserver.ingestion.supervisors;
 
+import com.iunera.druidmcpserver.usage.responses.ResponseShape;
 import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.client.RestClient;
@@ -26,9 +28,12 @@ import org.springframework.web.client.RestClientException;
 public class SupervisorsRepository {
 
     private final RestClient druidRouterRestClient;
+    private final ObjectMapper objectMapper;
 
-    public SupervisorsRepository(@Qualifier("druidRouterRestClient") RestClient druidRouterRestClient) {
+    public SupervisorsRepository(@Qualifier("druidRouterRestClient") RestClient druidRouterRestClient,
+                 ObjectMapper objectMapper) {
         this.druidRouterRestClient = druidRouterRestClient;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -42,6 +47,24 @@ public class SupervisorsRepository {
                 .body(JsonNode.class);
     }
 
+    /**
+     * List all supervisors, projected or summarized while the response is read
+     */
+    public String getAllSupervisors(ResponseShape shape) throws RestClientException {
+        return shape.read(objectMapper, druidRouterRestClient
+                .get()
+                .uri("/druid/indexer/v1/supervisor"));
+    }
+
+    /**
+     * Get supervisor status by ID, projected or summarized while the response is read
+     */
+    public String getSupervisorStatus(String supervisorId, ResponseShape shape) throws RestClientException {
+        return shape.read(objectMapper, druidRouterRestClient
+                .get()
+                .uri("/druid/indexer/v1/supervisor/{supervisorId}/status", supervisorId));
+    }
+
     /**
      * Get supervisor status by ID
      */
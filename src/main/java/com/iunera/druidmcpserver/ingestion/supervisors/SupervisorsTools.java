@@ -16,6 +16,10 @@
 
 package com.iunera.druidmcpserver.ingestion.supervisors;
 
+import com.iunera.druidmcpserver.usage.responses.JsonProjection;
+import com.iunera.druidmcpserver.usage.responses.ProjectsFields;
+import com.iunera.druidmcpserver.usage.responses.ResponseShape;
+import com.iunera.druidmcpserver.usage.responses.JsonShapeSummarizer;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import org.springframework.ai.mcp.annotation.McpTool;
@@ -38,17 +42,27 @@ public class SupervisorsTools {
      * Get supervisors (list all or get status of specific)
      */
     @McpTool(
-            description = "List all supervisors or query details of a specific supervisor. Parameters: [supervisorId] (String, optional) to get status details for a single supervisor.",
+            description = "List all supervisors or query details of a specific supervisor. Parameters: [supervisorId] (String, optional) to get status details for a single supervisor. Use [summarize] (Boolean, optional) to get counts, distinct values, min/max and examples per field instead of the full list. Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
+    @ProjectsFields
     public String getSupervisors(
-            @McpToolParam(description = "ID of the supervisor (optional)", required = false) String supervisorId
+            @McpToolParam(description = "ID of the supervisor (optional)", required = false) String supervisorId,
+            @McpToolParam(description = JsonShapeSummarizer.SUMMARIZE_DESCRIPTION, required = false) Boolean summarize,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         try {
+            ResponseShape shape = ResponseShape.of(fields, summarize);
             if (supervisorId != null && !supervisorId.trim().isEmpty()) {
+                if (shape != null) {
+                    return supervisorsRepository.getSupervisorStatus(supervisorId, shape);
+                }
                 JsonNode result = supervisorsRepository.getSupervisorStatus(supervisorId);
                 return objectMapper.writeValueAsString(result);
             }
+            if (shape != null) {
+                return supervisorsRepository.getAllSupervisors(shape);
+            }
             JsonNode result = supervisorsRepository.getAllSupervisors();
             return objectMapper.writeValueAsString(result);
         } catch (RestClientException e) {
@@ -16,7 +16,10 @@
 
 package com.iunera.druidmcpserver.ingestion.tasks;
 
+import com.iunera.druidmcpserver.usage.responses.JsonProjection;
+import com.iunera.druidmcpserver.usage.responses.ResponseShape;
 import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.client.RestClient;
@@ -26,9 +29,12 @@ import org.springframework.web.client.RestClientException;
 public class TasksRepository {
 
     private final RestClient druidRouterRestClient;
+    private final ObjectMapper objectMapper;
 
-    public TasksRepository(@Qualifier("druidRouterRestClient") RestClient druidRouterRestClient) {
+    public TasksRepository(@Qualifier("druidRouterRestClient") RestClient druidRouterRestClient,
+                 ObjectMapper objectMapper) {
         this.druidRouterRestClient = druidRouterRestClient;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -53,6 +59,15 @@ public class TasksRepository {
                 .body(JsonNode.class);
     }
 
+    /**
+     * Get task details, projected while the response is read
+     */
+    public String getTaskDetails(String taskId, JsonProjection projection) throws RestClientException {
+        return projection.read(objectMapper, druidRouterRestClient
+                .get()
+                .uri("/druid/indexer/v1/task/{taskId}", taskId));
+    }
+
     /**
      * Get task ingestion spec
      */
@@ -111,44 +126,61 @@ public class TasksRepository {
      * List all running tasks
      */
     public JsonNode getRunningTasks() throws RestClientException {
-        return druidRouterRestClient
-                .get()
-                .uri("/druid/indexer/v1/runningTasks")
-                .retrieve()
-                .body(JsonNode.class);
+        return taskList("runningTasks").retrieve().body(JsonNode.class);
+    }
+
+    /**
+     * List all running tasks, projected or summarized while the response is read
+     */
+    public String getRunningTasks(ResponseShape shape) throws RestClientException {
+        return shape.read(objectMapper, taskList("runningTasks"));
     }
 
     /**
      * List all pending tasks
      */
     public JsonNode getPendingTasks() throws RestClientException {
-        return druidRouterRestClient
-                .get()
-                .uri("/druid/indexer/v1/pendingTasks")
-                .retrieve()
-                .body(JsonNode.class);
+        return taskList("pendingTasks").retrieve().body(JsonNode.class);
+    }
+
+    /**
+     * List all pending tasks, projected or summarized while the response is read
+     */
+    public String getPendingTasks(ResponseShape shape) throws RestClientException {
+        return shape.read(objectMapper, taskList("pendingTasks"));
     }
 
     /**
      * List all waiting tasks
      */
     public JsonNode getWaitingTasks() throws RestClientException {
-        return druidRouterRestClient
-                .get()
-                .uri("/druid/indexer/v1/waitingTasks")
-                .retrieve()
-                .body(JsonNode.class);
+        return taskList("waitingTasks").retrieve().body(JsonNode.class);
+    }
+
+    /**
+     * List all waiting tasks, projected or summarized while the response is read
+     */
+    public String getWaitingTasks(ResponseShape shape) throws RestClientException {
+        return shape.read(objectMapper, taskList("waitingTasks"));
     }
 
     /**
      * List all complete tasks
      */
     public JsonNode getCompleteTasks() throws RestClientException {
+        return taskList("completeTasks").retrieve().body(JsonNode.class);
+    }
+
+    /**
+     * List all complete tasks, projected or summarized while the response is read
+     */
+    public String getCompleteTasks(ResponseShape shape) throws RestClientException {
+        return shape.read(objectMapper, taskList("completeTasks"));
+    }
+
+    private RestClient.RequestHeadersSpec<?> taskList(String list) {
         return druidRouterRestClient
                 .get()
-                .uri("/druid/indexer/v1/completeTasks")
-                .retrieve()
-                .body(JsonNode.class);
+                .uri("/druid/indexer/v1/" + list);
     }
-
 }
@@ -16,6 +16,10 @@
 
 package com.iunera.druidmcpserver.ingestion.tasks;
 
+import com.iunera.druidmcpserver.usage.responses.JsonProjection;
+import com.iunera.druidmcpserver.usage.responses.ProjectsFields;
+import com.iunera.druidmcpserver.usage.responses.ResponseShape;
+import com.iunera.druidmcpserver.usage.responses.JsonShapeSummarizer;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
 import org.springframework.ai.mcp.annotation.McpTool;
@@ -38,26 +42,34 @@ public class TasksTools {
      * Get tasks listing
      */
     @McpTool(
-            description = "List ingestion tasks matching specific states. Parameters: [state] (Enum: RUNNING, PENDING, WAITING, COMPLETED, optional).",
+            description = "List ingestion tasks matching specific states. Parameters: [state] (Enum: RUNNING, PENDING, WAITING, COMPLETED, optional). Use [summarize] (Boolean, optional) to get counts, distinct values, min/max and examples per field instead of the full list. Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
+    @ProjectsFields
     public String getTasks(
-            @McpToolParam(description = "Task state to list: RUNNING, PENDING, WAITING, COMPLETED (optional)", required = false) String state
+            @McpToolParam(description = "Task state to list: RUNNING, PENDING, WAITING, COMPLETED (optional)", required = false) String state,
+            @McpToolParam(description = JsonShapeSummarizer.SUMMARIZE_DESCRIPTION, required = false) Boolean summarize,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         try {
+            // Task lists can be long, so fields and summaries are applied while they are read
+            ResponseShape shape = ResponseShape.of(fields, summarize);
             if (state == null || state.trim().isEmpty()) {
+                if (shape != null) {
+                    return tasksRepository.getRunningTasks(shape);
+                }
                 JsonNode result = tasksRepository.getRunningTasks();
                 return objectMapper.writeValueAsString(result);
             }
             switch (state.toUpperCase()) {
                 case "RUNNING":
-                    return objectMapper.writeValueAsString(tasksRepository.getRunningTasks());
+                    return shape != null ? tasksRepository.getRunningTasks(shape) : objectMapper.writeValueAsString(tasksRepository.getRunningTasks());
                 case "PENDING":
-                    return objectMapper.writeValueAsString(tasksRepository.getPendingTasks());
+                    return shape != null ? tasksRepository.getPendingTasks(shape) : objectMapper.writeValueAsString(tasksRepository.getPendingTasks());
                 case "WAITING":
-                    return objectMapper.writeValueAsString(tasksRepository.getWaitingTasks());
+                    return shape != null ? tasksRepository.getWaitingTasks(shape) : objectMapper.writeValueAsString(tasksRepository.getWaitingTasks());
                 case "COMPLETED":
-                    return objectMapper.writeValueAsString(tasksRepository.getCompleteTasks());
+                    return shape != null ? tasksRepository.getCompleteTasks(shape) : objectMapper.writeValueAsString(tasksRepository.getCompleteTasks());
                 default:
                     return String.format("Error: Unsupported state '%s'. Supported: RUNNING, PENDING, WAITING, COMPLETED", state);
             }
@@ -72,13 +84,15 @@ public class TasksTools {
      * Get detailed task information
      */
     @McpTool(
-            description = "Fetch detailed information, specifications, execution reports, or execution logs for a task. Parameters: [taskId] (String, required), [aspect] (Enum: STATUS, RAW_DETAILS, SPEC, REPORTS, LOG, required), and [logOffset] (Long, optional) to begin reading task logs from a specific byte offset.",
+            description = "Fetch detailed information, specifications, execution reports, or execution logs for a task. Parameters: [taskId] (String, required), [aspect] (Enum: STATUS, RAW_DETAILS, SPEC, REPORTS, LOG, required), and [logOffset] (Long, optional) to begin reading task logs from a specific byte offset. Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
+    @ProjectsFields
     public String getTaskDetails(
             @McpToolParam(description = "ID of the task (required)", required = true) String taskId,
             @McpToolParam(description = "Aspect to retrieve: STATUS, RAW_DETAILS, SPEC, REPORTS, LOG (required)", required = true) String aspect,
-            @McpToolParam(description = "Byte offset to start reading task logs (optional, used with aspect=LOG)", required = false) Long logOffset
+            @McpToolParam(description = "Byte offset to start reading task logs (optional, used with aspect=LOG)", required = false) Long logOffset,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         try {
             if (taskId == null || taskId.trim().isEmpty()) {
@@ -87,16 +101,21 @@ public class TasksTools {
             if (aspect == null || aspect.trim().isEmpty()) {
                 return "Error: [aspect] parameter is required";
             }
+            JsonProjection projection = JsonProjection.parse(fields);
             switch (aspect.toUpperCase()) {
                 case "STATUS":
-                    return objectMapper.writeValueAsString(tasksRepository.getTaskStatus(taskId));
+                    return project(projection, objectMapper.writeValueAsString(tasksRepository.getTaskStatus(taskId)));
                 case "RAW_DETAILS":
+                    if (projection != null) {
+                        // Task payloads can be large, so they are projected while they are read
+                        return tasksRepository.getTaskDetails(taskId, projection);
+                    }
                     return objectMapper.writeValueAsString(tasksRepository.getTaskDetails(taskId));
                 case "SPEC":
                     JsonNode spec = tasksRepository.getTaskIngestionSpec(taskId);
-                    return spec != null ? objectMapper.writeValueAsString(spec) : String.format("No ingestion spec found for task: %s", taskId);
+                    return spec != null ? project(projection, objectMapper.writeValueAsString(spec)) : String.format("No ingestion spec found for task: %s", taskId);
                 case "REPORTS":
-                    return objectMapper.writeValueAsString(tasksRepository.getTaskReports(taskId));
+                    return project(projection, objectMapper.writeValueAsString(tasksRepository.getTaskReports(taskId)));
                 case "LOG":
                     if (logOffset != null) {
                         return tasksRepository.getTaskLog(taskId, logOffset);
@@ -131,4 +150,8 @@ public class TasksTools {
             return String.format("Failed to shut down task: %s", e.getMessage());
         }
     }
+
+    private String project(JsonProjection projection, String json) {
+        return projection != null ? projection.apply(objectMapper, json) : json;
+    }
 }
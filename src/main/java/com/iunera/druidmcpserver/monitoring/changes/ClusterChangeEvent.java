@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.monitoring.changes;
+
+import java.util.Set;
+
+/**
+ * Change in the cluster metadata detected by {@link ClusterChangePoller}, published as an
+ * application event. Caches subscribe with {@code @EventListener} to the changes they depend on.
+ */
+public sealed interface ClusterChangeEvent {
+
+    /**
+     * Published segments were added, dropped, compacted or replaced for these datasources,
+     * including datasources that appeared or disappeared
+     */
+    record SegmentsChanged(Set<String> datasources) implements ClusterChangeEvent {
+    }
+
+    record RetentionRulesChanged() implements ClusterChangeEvent {
+    }
+
+    record LookupsChanged() implements ClusterChangeEvent {
+    }
+
+    record SupervisorsChanged() implements ClusterChangeEvent {
+    }
+}
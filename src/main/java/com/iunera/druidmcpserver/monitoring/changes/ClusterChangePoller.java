@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.monitoring.changes;
+
+import com.iunera.druidmcpserver.datamanagement.lookup.LookupRepository;
+import com.iunera.druidmcpserver.datamanagement.query.QueryRepository;
+import com.iunera.druidmcpserver.datamanagement.retention.RetentionRulesRepository;
+import com.iunera.druidmcpserver.ingestion.supervisors.SupervisorsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Polls cheap fingerprints of the cluster metadata and publishes a {@link ClusterChangeEvent}
+ * when one of them changed: segment count and newest segment version per datasource, the latest
+ * retention rule audit entry, the lookup versions and the supervisor ids. The first poll only
+ * records the fingerprints. A fingerprint that cannot be fetched keeps its previous value, so an
+ * unreachable cluster does not produce events.
+ */
+@Component
+@ConditionalOnProperty(prefix = "druid.change-detection", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ClusterChangePoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterChangePoller.class);
+
+    static final String SEGMENTS_QUERY = "SELECT \"datasource\", COUNT(*) AS \"segments\", MAX(\"version\") AS \"max_version\" " +
+            "FROM sys.segments WHERE \"is_published\" = 1 AND \"is_overshadowed\" = 0 GROUP BY \"datasource\"";
+
+    private final QueryRepository queryRepository;
+    private final RetentionRulesRepository retentionRulesRepository;
+    private final LookupRepository lookupRepository;
+    private final SupervisorsRepository supervisorsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    private Map<String, String> segmentFingerprints;
+    private String rulesFingerprint;
+    private String lookupsFingerprint;
+    private String supervisorsFingerprint;
+
+    public ClusterChangePoller(QueryRepository queryRepository,
+                               RetentionRulesRepository retentionRulesRepository,
+                               LookupRepository lookupRepository,
+                               SupervisorsRepository supervisorsRepository,
+                               ApplicationEventPublisher eventPublisher) {
+        this.queryRepository = queryRepository;
+        this.retentionRulesRepository = retentionRulesRepository;
+        this.lookupRepository = lookupRepository;
+        this.supervisorsRepository = supervisorsRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${druid.change-detection.interval-ms:15000}")
+    public void poll() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            pollSegments();
+            pollRetentionRules();
+            pollLookups();
+            pollSupervisors();
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    private void pollSegments() {
+        Map<String, String> current;
+        try {
+            current = segmentFingerprints(queryRepository.executeSqlQuery(SEGMENTS_QUERY));
+        } catch (Exception e) {
+            logger.debug("Could not poll segment changes: {}", e.getMessage());
+            return;
+        }
+        Map<String, String> previous = segmentFingerprints;
+        segmentFingerprints = current;
+        if (previous == null) {
+            return;
+        }
+        Set<String> changed = new TreeSet<>();
+        Set<String> datasources = new HashSet<>(previous.keySet());
+        datasources.addAll(current.keySet());
+        for (String datasource : datasources) {
+            if (!String.valueOf(previous.get(datasource)).equals(String.valueOf(current.get(datasource)))) {
+                changed.add(datasource);
+            }
+        }
+        if (!changed.isEmpty()) {
+            publish(new ClusterChangeEvent.SegmentsChanged(Set.copyOf(changed)));
+        }
+    }
+
+    private void pollRetentionRules() {
+        String current;
+        try {
+            current = String.valueOf(retentionRulesRepository.getLatestRetentionRuleHistory(1));
+        } catch (Exception e) {
+            logger.debug("Could not poll retention rule changes: {}", e.getMessage());
+            return;
+        }
+        String previous = rulesFingerprint;
+        rulesFingerprint = current;
+        if (previous != null && !previous.equals(current)) {
+            publish(new ClusterChangeEvent.RetentionRulesChanged());
+        }
+    }
+
+    private void pollLookups() {
+        String current;
+        try {
+            current = lookupVersions(lookupRepository.getAllLookups());
+        } catch (Exception e) {
+            logger.debug("Could not poll lookup changes: {}", e.getMessage());
+            return;
+        }
+        String previous = lookupsFingerprint;
+        lookupsFingerprint = current;
+        if (previous != null && !previous.equals(current)) {
+            publish(new ClusterChangeEvent.LookupsChanged());
+        }
+    }
+
+    private void pollSupervisors() {
+        String current;
+        try {
+            current = supervisorIds(supervisorsRepository.getAllSupervisors());
+        } catch (Exception e) {
+            logger.debug("Could not poll supervisor changes: {}", e.getMessage());
+            return;
+        }
+        String previous = supervisorsFingerprint;
+        supervisorsFingerprint = current;
+        if (previous != null && !previous.equals(current)) {
+            publish(new ClusterChangeEvent.SupervisorsChanged());
+        }
+    }
+
+    private void publish(ClusterChangeEvent event) {
+        logger.info("Detected cluster change: {}", event);
+        eventPublisher.publishEvent(event);
+    }
+
+    static Map<String, String> segmentFingerprints(JsonNode rows) {
+        Map<String, String> fingerprints = new HashMap<>();
+        if (rows != null && rows.isArray()) {
+            for (JsonNode row : rows) {
+                fingerprints.put(row.path("datasource").asText(),
+                        row.path("segments").asLong() + "@" + row.path("max_version").asText());
+            }
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Tier, name and version of every lookup, sorted; the lookup specs themselves are ignored
+     */
+    static String lookupVersions(JsonNode lookups) {
+        List<String> versions = new ArrayList<>();
+        if (lookups != null && lookups.isObject()) {
+            for (Map.Entry<String, JsonNode> tier : lookups.properties()) {
+                for (Map.Entry<String, JsonNode> lookup : tier.getValue().properties()) {
+                    versions.add(tier.getKey() + "/" + lookup.getKey() + "@" + lookup.getValue().path("version").asText());
+                }
+            }
+        }
+        versions.sort(null);
+        return String.join(",", versions);
+    }
+
+    static String supervisorIds(JsonNode supervisors) {
+        Set<String> ids = new TreeSet<>();
+        if (supervisors != null && supervisors.isArray()) {
+            supervisors.forEach(id -> ids.add(id.asText()));
+        }
+        return String.join(",", ids);
+    }
+}
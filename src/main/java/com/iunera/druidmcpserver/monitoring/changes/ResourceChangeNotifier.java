@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.monitoring.changes;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import io.modelcontextprotocol.spec.McpSchema.ReadResourceResult;
+import io.modelcontextprotocol.spec.McpSchema.ResourceContents;
+import io.modelcontextprotocol.spec.McpSchema.ResourcesUpdatedNotification;
+import io.modelcontextprotocol.spec.McpSchema.TextResourceContents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Sends {@code notifications/resources/updated} to the sessions subscribed to a resource when its
+ * content has changed. Every read resource is watched together with a hash of its content, up to
+ * {@code max-watched} resources, and {@link ResourceSubscriptionConfig} records the
+ * {@code resources/subscribe} and {@code resources/unsubscribe} requests per session. When
+ * {@link ClusterChangePoller} reports a change, only the watched resources that depend on it and
+ * have a subscriber are read again, and the subscribers of those whose hash differs are notified.
+ * All affected resources are re-read concurrently, so identical catalog fetches behind them are
+ * coalesced into one Druid call. A periodic resync covers changes the poller does not fingerprint;
+ * like the poller, it only runs with {@code druid.change-detection.enabled}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "druid.mcp.resource-subscriptions", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResourceChangeNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceChangeNotifier.class);
+
+    private static final Set<String> SEGMENT_SCHEMES = Set.of("datasource", "datasource-details", "segment", "segment-details");
+    private static final Set<String> LOOKUP_SCHEMES = Set.of("lookup", "lookup-details");
+
+    /**
+     * Delivers a notification to a single MCP session
+     */
+    @FunctionalInterface
+    public interface SessionNotifier {
+        void notify(String sessionId, ResourcesUpdatedNotification notification);
+    }
+
+    private record Watched(String uri, Callable<ReadResourceResult> reader, String hash) {
+    }
+
+    private final DruidProperties.Mcp.ResourceSubscriptions config;
+    private final boolean changeDetectionEnabled;
+    private final ObjectProvider<SessionNotifier> sessionNotifier;
+    private final LinkedHashMap<String, Watched> watched = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong rereads = new AtomicLong();
+    private final AtomicLong notifications = new AtomicLong();
+
+    public ResourceChangeNotifier(DruidProperties druidProperties, ObjectProvider<SessionNotifier> sessionNotifier) {
+        this.config = druidProperties.getMcp().getResourceSubscriptions();
+        this.changeDetectionEnabled = druidProperties.getChangeDetection().isEnabled();
+        this.sessionNotifier = sessionNotifier;
+    }
+
+    /**
+     * Starts or refreshes watching a resource that was just read
+     */
+    public void watch(Callable<ReadResourceResult> reader, ReadResourceResult result) {
+        String uri = uriOf(result);
+        if (uri == null || isError(result)) {
+            return;
+        }
+        synchronized (watched) {
+            watched.put(uri, new Watched(uri, reader, hash(result)));
+            while (watched.size() > Math.max(1, config.getMaxWatched())) {
+                watched.pollFirstEntry();
+            }
+        }
+    }
+
+    public void subscribe(String sessionId, String uri) {
+        subscribers.computeIfAbsent(uri, key -> ConcurrentHashMap.newKeySet()).add(sessionId);
+    }
+
+    public void unsubscribe(String sessionId, String uri) {
+        subscribers.computeIfPresent(uri, (key, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    /**
+     * Drops all subscriptions of a session that is gone
+     */
+    public void sessionClosed(String sessionId) {
+        subscribers.keySet().forEach(uri -> unsubscribe(sessionId, uri));
+    }
+
+    @EventListener
+    public void onSegmentsChanged(ClusterChangeEvent.SegmentsChanged event) {
+        refresh(uri -> SEGMENT_SCHEMES.contains(scheme(uri)) && dependsOnDatasource(uri, event.datasources()));
+    }
+
+    @EventListener
+    public void onLookupsChanged(ClusterChangeEvent.LookupsChanged event) {
+        refresh(uri -> LOOKUP_SCHEMES.contains(scheme(uri)));
+    }
+
+    @Scheduled(fixedDelayString = "${druid.mcp.resource-subscriptions.resync-interval-ms:300000}",
+            initialDelayString = "${druid.mcp.resource-subscriptions.resync-interval-ms:300000}")
+    public void resync() {
+        if (changeDetectionEnabled) {
+            refresh(uri -> true);
+        }
+    }
+
+    void refresh(Predicate<String> affected) {
+        List<Watched> candidates = new ArrayList<>();
+        synchronized (watched) {
+            watched.values().stream()
+                    .filter(entry -> subscribers.containsKey(entry.uri()) && affected.test(entry.uri()))
+                    .forEach(candidates::add);
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        List<Future<ReadResourceResult>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            candidates.forEach(entry -> results.add(executor.submit(entry.reader())));
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            Watched entry = candidates.get(i);
+            rereads.incrementAndGet();
+            ReadResourceResult result;
+            try {
+                result = results.get(i).get();
+            } catch (Exception e) {
+                logger.debug("Could not re-read resource {}: {}", entry.uri(), e.getMessage());
+                continue;
+            }
+            if (isError(result)) {
+                continue;
+            }
+            String hash = hash(result);
+            if (hash.equals(entry.hash())) {
+                continue;
+            }
+            synchronized (watched) {
+                watched.computeIfPresent(entry.uri(), (uri, current) -> new Watched(uri, current.reader(), hash));
+            }
+            sendUpdated(entry.uri());
+        }
+    }
+
+    private void sendUpdated(String uri) {
+        SessionNotifier notifier = sessionNotifier.getIfAvailable();
+        if (notifier == null) {
+            return;
+        }
+        ResourcesUpdatedNotification notification = new ResourcesUpdatedNotification(uri);
+        for (String sessionId : subscribers.getOrDefault(uri, Set.of())) {
+            try {
+                notifier.notify(sessionId, notification);
+                notifications.incrementAndGet();
+                logger.debug("Sent resource update notification for {} to session {}", uri, sessionId);
+            } catch (Exception e) {
+                logger.debug("Could not notify session {} of {}, dropping its subscriptions: {}", sessionId, uri, e.getMessage());
+                sessionClosed(sessionId);
+            }
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (watched) {
+            stats.put("watchedResources", watched.size());
+        }
+        stats.put("subscribedResources", subscribers.size());
+        stats.put("rereads", rereads.get());
+        stats.put("notificationsSent", notifications.get());
+        return stats;
+    }
+
+    static String scheme(String uri) {
+        int separator = uri.indexOf("://");
+        return separator < 0 ? "" : uri.substring(0, separator);
+    }
+
+    /**
+     * Datasource resources are named after the datasource, segment ids start with it
+     */
+    static boolean dependsOnDatasource(String uri, Set<String> datasources) {
+        String name = uri.substring(uri.indexOf("://") + 3);
+        if (scheme(uri).startsWith("datasource")) {
+            return datasources.contains(name);
+        }
+        return datasources.stream().anyMatch(datasource -> name.startsWith(datasource + "_"));
+    }
+
+    private static String uriOf(ReadResourceResult result) {
+        if (result == null || result.contents() == null || result.contents().isEmpty()) {
+            return null;
+        }
+        return result.contents().getFirst().uri();
+    }
+
+    /**
+     * Resources report Druid failures as plain text content; these are transient and not a change
+     */
+    private static boolean isError(ReadResourceResult result) {
+        if (result == null || result.contents() == null) {
+            return true;
+        }
+        for (ResourceContents contents : result.contents()) {
+            if (contents instanceof TextResourceContents text && "text/plain".equals(text.mimeType())
+                    && (text.text().startsWith("Error ") || text.text().startsWith("Failed "))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String hash(ReadResourceResult result) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (ResourceContents contents : result.contents()) {
+                digest.update(String.valueOf(contents.mimeType()).getBytes(StandardCharsets.UTF_8));
+                if (contents instanceof TextResourceContents text) {
+                    digest.update(text.text().getBytes(StandardCharsets.UTF_8));
+                } else {
+                    digest.update(contents.toString().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.monitoring.changes;
+
+import io.modelcontextprotocol.json.McpJsonMapper;
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpRequestHandler;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerTransportProviderBase;
+import org.springframework.ai.mcp.customizer.McpAsyncServerCustomizer;
+import org.springframework.ai.mcp.customizer.McpSyncServerCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Wires {@link ResourceChangeNotifier} into the MCP server: {@code resources/subscribe} and
+ * {@code resources/unsubscribe} requests are recorded per session, the server advertises the
+ * {@code subscribe} capability for resources, and update notifications are sent through the
+ * transport to the subscribed session only instead of being broadcast to every client.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "druid.mcp.resource-subscriptions", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResourceSubscriptionConfig {
+
+    @Bean
+    @ConditionalOnBean(McpServerTransportProviderBase.class)
+    public ResourceChangeNotifier.SessionNotifier resourceUpdateSessionNotifier(McpServerTransportProviderBase transportProvider) {
+        return (sessionId, notification) -> transportProvider
+                .notifyClient(sessionId, McpSchema.METHOD_NOTIFICATION_RESOURCES_UPDATED, notification)
+                .block();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
+    public McpSyncServerCustomizer resourceSubscriptionSyncCustomizer(ResourceChangeNotifier notifier, McpJsonMapper jsonMapper) {
+        return spec -> spec
+                .resourceSubscriptions(true)
+                .requestHandler(McpSchema.METHOD_RESOURCES_SUBSCRIBE, subscribeHandler(notifier, jsonMapper))
+                .requestHandler(McpSchema.METHOD_RESOURCES_UNSUBSCRIBE, unsubscribeHandler(notifier, jsonMapper));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+    public McpAsyncServerCustomizer resourceSubscriptionAsyncCustomizer(ResourceChangeNotifier notifier, McpJsonMapper jsonMapper) {
+        return spec -> spec
+                .resourceSubscriptions(true)
+                .requestHandler(McpSchema.METHOD_RESOURCES_SUBSCRIBE, subscribeHandler(notifier, jsonMapper))
+                .requestHandler(McpSchema.METHOD_RESOURCES_UNSUBSCRIBE, unsubscribeHandler(notifier, jsonMapper));
+    }
+
+    static McpRequestHandler<Object> subscribeHandler(ResourceChangeNotifier notifier, McpJsonMapper jsonMapper) {
+        return (McpAsyncServerExchange exchange, Object params) -> Mono.fromCallable(() -> {
+            McpSchema.SubscribeRequest request = jsonMapper.convertValue(params, McpSchema.SubscribeRequest.class);
+            notifier.subscribe(exchange.sessionId(), request.uri());
+            return Map.of();
+        });
+    }
+
+    static McpRequestHandler<Object> unsubscribeHandler(ResourceChangeNotifier notifier, McpJsonMapper jsonMapper) {
+        return (McpAsyncServerExchange exchange, Object params) -> Mono.fromCallable(() -> {
+            McpSchema.UnsubscribeRequest request = jsonMapper.convertValue(params, McpSchema.UnsubscribeRequest.class);
+            notifier.unsubscribe(exchange.sessionId(), request.uri());
+            return Map.of();
+        });
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.monitoring.changes;
+
+import io.modelcontextprotocol.spec.McpSchema.ReadResourceResult;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Registers every resource read with {@link ResourceChangeNotifier}. The re-read invokes the
+ * resource method on the target bean directly, so it does not pass through this aspect again.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "druid.mcp.resource-subscriptions", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResourceWatchAspect {
+
+    private final ResourceChangeNotifier notifier;
+
+    public ResourceWatchAspect(ResourceChangeNotifier notifier) {
+        this.notifier = notifier;
+    }
+
+    @Around("@annotation(org.springframework.ai.mcp.annotation.McpResource)")
+    public Object watchResource(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (result instanceof ReadResourceResult readResult) {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            Object target = joinPoint.getTarget();
+            Object[] args = joinPoint.getArgs().clone();
+            notifier.watch(() -> {
+                try {
+                    return (ReadResourceResult) method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }, readResult);
+        }
+        return result;
+    }
+}
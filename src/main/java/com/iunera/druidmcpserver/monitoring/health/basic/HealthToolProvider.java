@@ -18,16 +18,32 @@ package com.iunera.druidmcpserver.monitoring.health.basic;
 
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
+import com.iunera.druidmcpserver.config.http.AdaptiveConcurrencyLimiter;
+import com.iunera.druidmcpserver.config.http.CircuitBreaker;
+import com.iunera.druidmcpserver.config.http.CircuitBreakerRegistry;
+import com.iunera.druidmcpserver.config.http.ConcurrencyLimiterRegistry;
+import com.iunera.druidmcpserver.config.http.ConditionalRequestCache;
+import com.iunera.druidmcpserver.config.http.EndpointPool;
+import com.iunera.druidmcpserver.config.http.RequestCoalescer;
+import com.iunera.druidmcpserver.config.http.RetryPolicy;
+import com.iunera.druidmcpserver.config.http.ServiceEndpointRegistry;
 import com.iunera.druidmcpserver.datamanagement.datasource.DatasourceRepository;
 import com.iunera.druidmcpserver.datamanagement.segments.SegmentRepository;
 import com.iunera.druidmcpserver.monitoring.health.repository.ClusterRepository;
 import com.iunera.druidmcpserver.monitoring.health.repository.HealthStatusRepository;
 import com.iunera.druidmcpserver.monitoring.health.repository.ServerRepository;
+import com.iunera.druidmcpserver.usage.concurrency.ToolBulkhead;
+import com.iunera.druidmcpserver.usage.concurrency.ToolBulkheadRegistry;
+import com.iunera.druidmcpserver.usage.responses.JsonProjection;
 import org.springframework.ai.mcp.annotation.McpTool;
 import org.springframework.ai.mcp.annotation.McpToolParam;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Basic Health Tool Provider for Druid MCP Server
  * Provides fundamental health check tools for monitoring Druid cluster status
@@ -40,6 +56,14 @@ public class HealthToolProvider {
     private final ClusterRepository clusterRepository;
     private final SegmentRepository segmentRepository;
     private final DatasourceRepository datasourceRepository;
+    private final List<EndpointPool> endpointPools;
+    private final ServiceEndpointRegistry serviceEndpointRegistry;
+    private final ConcurrencyLimiterRegistry concurrencyLimiterRegistry;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RequestCoalescer requestCoalescer;
+    private final ConditionalRequestCache conditionalRequestCache;
+    private final ToolBulkheadRegistry toolBulkheadRegistry;
     private final ObjectMapper objectMapper;
 
     public HealthToolProvider(HealthStatusRepository healthStatusRepository,
@@ -47,12 +71,28 @@ public class HealthToolProvider {
                               ClusterRepository clusterRepository,
                               SegmentRepository segmentRepository,
                               DatasourceRepository datasourceRepository,
+                              List<EndpointPool> endpointPools,
+                              ServiceEndpointRegistry serviceEndpointRegistry,
+                              ConcurrencyLimiterRegistry concurrencyLimiterRegistry,
+                              RetryPolicy retryPolicy,
+                              CircuitBreakerRegistry circuitBreakerRegistry,
+                              RequestCoalescer requestCoalescer,
+                              ConditionalRequestCache conditionalRequestCache,
+                              ToolBulkheadRegistry toolBulkheadRegistry,
                               ObjectMapper objectMapper) {
         this.healthStatusRepository = healthStatusRepository;
         this.serverRepository = serverRepository;
         this.clusterRepository = clusterRepository;
         this.segmentRepository = segmentRepository;
         this.datasourceRepository = datasourceRepository;
+        this.endpointPools = endpointPools;
+        this.serviceEndpointRegistry = serviceEndpointRegistry;
+        this.concurrencyLimiterRegistry = concurrencyLimiterRegistry;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.requestCoalescer = requestCoalescer;
+        this.conditionalRequestCache = conditionalRequestCache;
+        this.toolBulkheadRegistry = toolBulkheadRegistry;
         this.objectMapper = objectMapper;
     }
 
@@ -60,11 +100,12 @@ public class HealthToolProvider {
      * Get cluster status metrics or metadata
      */
     @McpTool(
-            description = "Check overall health or fetch specific metadata/properties from coordinators or routers. Parameters: [aspect] (Enum: OVERALL, COORDINATOR, ROUTER, LEADER, METADATA, PROPERTIES, SELF_DISCOVERY_COORDINATOR, SELF_DISCOVERY_ROUTER, optional).",
+            description = "Check overall health or fetch specific metadata/properties from coordinators or routers. Parameters: [aspect] (Enum: OVERALL, COORDINATOR, ROUTER, LEADER, METADATA, PROPERTIES, SELF_DISCOVERY_COORDINATOR, SELF_DISCOVERY_ROUTER, ENDPOINTS, BULKHEADS, RETRIES, CIRCUIT_BREAKERS, COALESCING, CONDITIONAL_REQUESTS, TOOL_CONCURRENCY, optional). ENDPOINTS reports the per-endpoint health, load and latency of the router endpoints and of directly routed services. BULKHEADS reports the adaptive concurrency limit, queue depth and rejections per Druid service class. RETRIES reports retry counts and the remaining retry budget. CIRCUIT_BREAKERS reports the circuit state, recent failures and fast-failed calls per Druid service class and endpoint. COALESCING reports how many Druid calls were saved by sharing identical in-flight reads. CONDITIONAL_REQUESTS reports cached coordinator metadata validators and the bytes saved by 304 Not Modified answers. TOOL_CONCURRENCY reports the concurrency cap, running and queued invocations and rejections per MCP tool. Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
     public String getClusterStatus(
-            @McpToolParam(description = "Aspect to retrieve: OVERALL, COORDINATOR, ROUTER, LEADER, METADATA, PROPERTIES, SELF_DISCOVERY_COORDINATOR, SELF_DISCOVERY_ROUTER (optional, defaults to OVERALL)", required = false) String aspect
+            @McpToolParam(description = "Aspect to retrieve: OVERALL, COORDINATOR, ROUTER, LEADER, METADATA, PROPERTIES, SELF_DISCOVERY_COORDINATOR, SELF_DISCOVERY_ROUTER, ENDPOINTS, BULKHEADS, RETRIES, CIRCUIT_BREAKERS, COALESCING, CONDITIONAL_REQUESTS, TOOL_CONCURRENCY (optional, defaults to OVERALL)", required = false) String aspect,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         String queryAspect = aspect == null ? "OVERALL" : aspect.toUpperCase();
         try {
@@ -77,6 +118,29 @@ public class HealthToolProvider {
                     return healthStatusRepository.getCoordinatorSelfDiscovered().toString();
                 case "SELF_DISCOVERY_ROUTER":
                     return healthStatusRepository.getRouterSelfDiscovered().toString();
+                case "ENDPOINTS":
+                    List<Map<String, Object>> pools = new ArrayList<>();
+                    endpointPools.forEach(pool -> pools.add(pool.toMap()));
+                    serviceEndpointRegistry.getPools().forEach(pool -> pools.add(pool.toMap()));
+                    return objectMapper.writeValueAsString(pools);
+                case "BULKHEADS":
+                    return objectMapper.writeValueAsString(concurrencyLimiterRegistry.getLimiters().stream()
+                            .map(AdaptiveConcurrencyLimiter::toMap)
+                            .toList());
+                case "RETRIES":
+                    return objectMapper.writeValueAsString(retryPolicy.toMap());
+                case "CIRCUIT_BREAKERS":
+                    return objectMapper.writeValueAsString(circuitBreakerRegistry.getBreakers().stream()
+                            .map(CircuitBreaker::toMap)
+                            .toList());
+                case "COALESCING":
+                    return objectMapper.writeValueAsString(requestCoalescer.toMap());
+                case "CONDITIONAL_REQUESTS":
+                    return objectMapper.writeValueAsString(conditionalRequestCache.toMap());
+                case "TOOL_CONCURRENCY":
+                    return objectMapper.writeValueAsString(toolBulkheadRegistry.getBulkheads().stream()
+                            .map(ToolBulkhead::toMap)
+                            .toList());
                 case "LEADER":
                     return clusterRepository.getLeaderInfo().toString();
                 case "METADATA":
@@ -128,6 +192,14 @@ public class HealthToolProvider {
                     } catch (RestClientException e) {
                         healthReport.put("segment_count_error", e.getMessage());
                     }
+                    var circuitBreakers = objectMapper.createObjectNode();
+                    circuitBreakerRegistry.getBreakers().stream()
+                            .filter(breaker -> breaker.getState() != CircuitBreaker.State.CLOSED)
+                            .forEach(breaker -> circuitBreakers.put(
+                                    breaker.getServiceClass().name() + "@" + breaker.getBaseUrl(), breaker.getState().name()));
+                    if (!circuitBreakers.isEmpty()) {
+                        healthReport.set("open_circuit_breakers", circuitBreakers);
+                    }
                     return healthReport.toString();
             }
         } catch (RestClientException e) {
@@ -141,12 +213,13 @@ public class HealthToolProvider {
      * Get status of nodes / servers
      */
     @McpTool(
-            description = "List registered servers, their detailed status, or single node status. Parameters: [serverName] (String, optional), and [detailed] (Boolean, optional) to include complete node metadata.",
+            description = "List registered servers, their detailed status, or single node status. Parameters: [serverName] (String, optional), and [detailed] (Boolean, optional) to include complete node metadata. Use [fields] (String, optional) to return only the listed fields.",
             annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
     )
     public String getNodesStatus(
             @McpToolParam(description = "Name of the server to filter by (optional, use 'broker' to get broker status)", required = false) String serverName,
-            @McpToolParam(description = "Whether to retrieve full node metadata details (optional)", required = false) Boolean detailed
+            @McpToolParam(description = "Whether to retrieve full node metadata details (optional)", required = false) Boolean detailed,
+            @McpToolParam(description = JsonProjection.FIELDS_DESCRIPTION, required = false) String fields
     ) {
         try {
             if (serverName != null && !serverName.trim().isEmpty()) {
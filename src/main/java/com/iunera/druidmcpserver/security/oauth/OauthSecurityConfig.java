@@ -17,6 +17,7 @@
 package com.iunera.druidmcpserver.security.oauth;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -32,6 +33,7 @@ import org.springframework.security.web.SecurityFilterChain;
  */
 @Configuration
 @Profile("http")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @ConditionalOnProperty(prefix = "druid.mcp.security.oauth2", name = "enabled", havingValue = "true", matchIfMissing = true)
 @EnableWebSecurity
 public class OauthSecurityConfig {
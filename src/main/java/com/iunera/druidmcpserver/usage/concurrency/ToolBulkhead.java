@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.concurrency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed concurrency cap for one MCP tool. Invocations above the cap wait in a bounded queue for
+ * at most the queue timeout, so a burst of a heavy tool cannot take every request thread and
+ * Druid connection away from cheap tools.
+ */
+public class ToolBulkhead {
+
+    private final String toolName;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotAvailable = lock.newCondition();
+    private int inFlight;
+    private int queued;
+    private long acquired;
+    private long rejected;
+    private long timedOut;
+
+    public ToolBulkhead(String toolName, int maxConcurrent, int maxQueue, long queueTimeoutMs) {
+        this.toolName = toolName;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, queueTimeoutMs));
+    }
+
+    /**
+     * Takes a slot, waiting in the queue when the cap is reached. Every successful call must be
+     * followed by exactly one {@link #release()}.
+     */
+    public void acquire() throws ToolBusyException {
+        lock.lock();
+        try {
+            if (inFlight >= maxConcurrent) {
+                if (queued >= maxQueue) {
+                    rejected++;
+                    throw new ToolBusyException(String.format(
+                            "Too many concurrent %s calls: %d running, %d queued. Try again later.",
+                            toolName, inFlight, queued));
+                }
+                queued++;
+                try {
+                    long remaining = queueTimeoutNanos;
+                    while (inFlight >= maxConcurrent) {
+                        if (remaining <= 0) {
+                            timedOut++;
+                            throw new ToolBusyException(String.format(
+                                    "Timed out after %d ms waiting for one of %d %s slots. Try again later.",
+                                    TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos), maxConcurrent, toolName));
+                        }
+                        remaining = slotAvailable.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ToolBusyException("Interrupted while waiting for a " + toolName + " slot");
+                } finally {
+                    queued--;
+                }
+            }
+            inFlight++;
+            acquired++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            slotAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getToolName() {
+        return toolName;
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("tool", toolName);
+            stats.put("maxConcurrent", maxConcurrent);
+            stats.put("inFlight", inFlight);
+            stats.put("queueDepth", queued);
+            stats.put("maxQueue", maxQueue);
+            stats.put("acquired", acquired);
+            stats.put("rejected", rejected);
+            stats.put("queueTimeouts", timedOut);
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
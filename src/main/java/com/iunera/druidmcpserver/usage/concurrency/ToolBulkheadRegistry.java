@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.concurrency;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link ToolBulkhead} per MCP tool, created on the first invocation. The in-flight and
+ * queued counts are published as {@code mcp.tool.in.flight} and {@code mcp.tool.queued} gauges
+ * tagged with the tool name.
+ */
+@Component
+public class ToolBulkheadRegistry {
+
+    private final DruidProperties.Mcp.ToolConcurrency toolConcurrency;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, ToolBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public ToolBulkheadRegistry(DruidProperties druidProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.toolConcurrency = druidProperties.getMcp().getToolConcurrency();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ToolBulkhead get(String toolName) {
+        ToolBulkhead bulkhead = bulkheads.get(toolName);
+        return bulkhead != null ? bulkhead : bulkheads.computeIfAbsent(toolName, this::create);
+    }
+
+    public List<ToolBulkhead> getBulkheads() {
+        List<ToolBulkhead> sorted = new ArrayList<>(bulkheads.values());
+        sorted.sort(Comparator.comparing(ToolBulkhead::getToolName));
+        return sorted;
+    }
+
+    private ToolBulkhead create(String toolName) {
+        DruidProperties.Mcp.ToolLimit limit = toolConcurrency.getTools().get(toolName);
+        ToolBulkhead bulkhead = new ToolBulkhead(toolName,
+                limit != null && limit.getMaxConcurrent() != null ? limit.getMaxConcurrent() : toolConcurrency.getMaxConcurrent(),
+                limit != null && limit.getMaxQueue() != null ? limit.getMaxQueue() : toolConcurrency.getMaxQueue(),
+                limit != null && limit.getQueueTimeoutMs() != null ? limit.getQueueTimeoutMs() : toolConcurrency.getQueueTimeoutMs());
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("mcp.tool.in.flight", bulkhead, ToolBulkhead::getInFlight)
+                    .description("Tool invocations currently running")
+                    .tag("tool", toolName)
+                    .register(registry);
+            Gauge.builder("mcp.tool.queued", bulkhead, ToolBulkhead::getQueued)
+                    .description("Tool invocations waiting for a slot")
+                    .tag("tool", toolName)
+                    .register(registry);
+        });
+        return bulkhead;
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.concurrency;
+
+/**
+ * Thrown when a tool invocation could not get a slot in its {@link ToolBulkhead}, either because
+ * the queue is full or because it waited longer than the queue timeout. The tool did not run.
+ */
+public class ToolBusyException extends Exception {
+
+    public ToolBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.concurrency;
+
+import com.iunera.druidmcpserver.filter.ToolInvocationDescriptors;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs every tool invocation inside the {@link ToolBulkhead} of its tool. It sits inside the
+ * response post-processing aspects, so only the tool itself holds a slot. A rejected invocation
+ * returns an error message like any other failing tool. An async tool holds its slot until its
+ * result is emitted; waiting for the slot happens on the bounded elastic scheduler, never on the
+ * event loop.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(prefix = "druid.mcp.tool-concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ToolConcurrencyAspect {
+
+    private final ToolBulkheadRegistry toolBulkheadRegistry;
+    private final ToolInvocationDescriptors descriptors;
+
+    public ToolConcurrencyAspect(ToolBulkheadRegistry toolBulkheadRegistry, ToolInvocationDescriptors descriptors) {
+        this.toolBulkheadRegistry = toolBulkheadRegistry;
+        this.descriptors = descriptors;
+    }
+
+    @Around("@annotation(org.springframework.ai.mcp.annotation.McpTool)")
+    public Object limitConcurrency(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ToolBulkhead bulkhead = toolBulkheadRegistry.get(descriptors.get(method).toolName());
+        if (Mono.class.isAssignableFrom(method.getReturnType())) {
+            return limitConcurrency(bulkhead, (Mono<?>) joinPoint.proceed());
+        }
+        try {
+            bulkhead.acquire();
+        } catch (ToolBusyException e) {
+            if (method.getReturnType() == String.class) {
+                return "Error: " + e.getMessage();
+            }
+            throw e;
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * The slot is a resource of {@link Mono#usingWhen}, so it is released exactly once whether
+     * the invocation completes, fails or is cancelled. A slot acquired after the subscriber
+     * cancelled is discarded by the acquiring callable and released by the discard hook.
+     */
+    static Mono<Object> limitConcurrency(ToolBulkhead bulkhead, Mono<?> invocation) {
+        return Mono.<Object, Slot>usingWhen(
+                        Mono.fromCallable(() -> Slot.acquire(bulkhead))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .doOnDiscard(Slot.class, Slot::release),
+                        slot -> invocation,
+                        Slot::releasing,
+                        (slot, error) -> slot.releasing(),
+                        Slot::releasing)
+                .onErrorResume(ToolBusyException.class, e -> Mono.just("Error: " + e.getMessage()));
+    }
+
+    private static final class Slot {
+
+        private final ToolBulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot(ToolBulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        static Slot acquire(ToolBulkhead bulkhead) throws ToolBusyException {
+            bulkhead.acquire();
+            return new Slot(bulkhead);
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+
+        Mono<Void> releasing() {
+            return Mono.fromRunnable(this::release);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.responses;
+
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import tools.jackson.core.JacksonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads Druid responses as a stream, for shaping that should not hold the whole document
+ */
+final class DruidResponses {
+
+    private static final int ERROR_BODY_LIMIT = 4096;
+
+    @FunctionalInterface
+    interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+
+    private DruidResponses() {
+    }
+
+    /**
+     * Sends the request and hands the body to the reader. Error responses are reported as a
+     * {@link RestClientException} like a retrieved body would be.
+     */
+    static <T> T read(RestClient.RequestHeadersSpec<?> request, BodyReader<T> reader) throws RestClientException {
+        return request.exchange((clientRequest, response) -> {
+            if (response.getStatusCode().isError()) {
+                throw new RestClientException(String.format("%s: %s", response.getStatusCode(),
+                        new String(response.getBody().readNBytes(ERROR_BODY_LIMIT), StandardCharsets.UTF_8)));
+            }
+            try {
+                return reader.read(response.getBody());
+            } catch (JacksonException e) {
+                throw new RestClientException("Invalid JSON response: " + e.getOriginalMessage(), e);
+            }
+        }, true);
+    }
+}
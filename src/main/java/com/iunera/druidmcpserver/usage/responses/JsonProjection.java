@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.responses;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Projection of a JSON response to a set of field paths. Paths are dotted ({@code status.state})
+ * or JSON pointers ({@code /status/state}), {@code *} matches any property or array index. When
+ * the document is an array, the paths apply to each element, and elements without any of the
+ * fields stay as empty objects so that positions are kept. The document is filtered token by
+ * token while it is parsed, so excluded subtrees are skipped without being materialised.
+ * Repositories apply it directly to the Druid response stream through {@link #read} or a
+ * {@link ResponseShape}; tools that do so are marked with {@link ProjectsFields}.
+ */
+public final class JsonProjection {
+
+    public static final String FIELDS_DESCRIPTION = "Comma-separated fields to return instead of the whole document, as dotted paths or JSON pointers, e.g. 'id,status.state' or '/spec/dataSchema/dataSource'. Applied to each element of a list; * matches any key (optional)";
+
+    private static final class PathNode {
+        private final Map<String, PathNode> children = new HashMap<>();
+        private boolean terminal;
+    }
+
+    private final PathNode root;
+
+    private JsonProjection(PathNode root) {
+        this.root = root;
+    }
+
+    /**
+     * Parses a comma-separated list of paths, returns null if there are none
+     */
+    public static JsonProjection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        PathNode root = new PathNode();
+        boolean any = false;
+        for (String field : fields.split(",")) {
+            String path = field.trim();
+            String[] segments = path.startsWith("/") ? path.substring(1).split("/") : path.split("\\.");
+            PathNode node = root;
+            for (String segment : segments) {
+                if (segment.isEmpty()) {
+                    continue;
+                }
+                String name = path.startsWith("/") ? segment.replace("~1", "/").replace("~0", "~") : segment;
+                node = node.children.computeIfAbsent(name, key -> new PathNode());
+            }
+            if (node != root) {
+                node.terminal = true;
+                any = true;
+            }
+        }
+        return any ? new JsonProjection(root) : null;
+    }
+
+    /**
+     * Applies the projection; text that is not a JSON object or array is returned unchanged
+     */
+    public String apply(ObjectMapper objectMapper, String json) {
+        if (json == null || !startsWithContainer(json)) {
+            return json;
+        }
+        StringWriter output = new StringWriter(Math.min(json.length(), 8192));
+        try (JsonParser parser = objectMapper.createParser(json);
+             JsonGenerator generator = objectMapper.createGenerator(output)) {
+            project(parser, generator);
+        } catch (JacksonException e) {
+            return json;
+        }
+        return output.toString();
+    }
+
+    /**
+     * Applies the projection while the document is read from the stream, so a large response is
+     * never held in full. Returns an empty string for an empty stream.
+     */
+    public String apply(ObjectMapper objectMapper, InputStream json) {
+        StringWriter output = new StringWriter(8192);
+        try (JsonParser parser = objectMapper.createParser(json);
+             JsonGenerator generator = objectMapper.createGenerator(output)) {
+            project(parser, generator);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Sends the request and projects the Druid response while it is parsed. Error responses
+     * are reported as a {@link RestClientException} like a retrieved body would be.
+     */
+    public String read(ObjectMapper objectMapper, RestClient.RequestHeadersSpec<?> request) throws RestClientException {
+        return DruidResponses.read(request, body -> apply(objectMapper, body));
+    }
+
+    private void project(JsonParser parser, JsonGenerator generator) {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return;
+        }
+        if (token == JsonToken.START_ARRAY) {
+            generator.writeStartArray();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                copy(parser, generator, root);
+            }
+            generator.writeEndArray();
+        } else {
+            copy(parser, generator, root);
+        }
+    }
+
+    /**
+     * Writes the projection of the object or array at the current token, other values unchanged
+     */
+    private static void copy(JsonParser parser, JsonGenerator generator, PathNode node) {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            generator.writeStartObject();
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                PathNode child = child(node, name);
+                if (child != null && (child.terminal || parser.currentToken().isStructStart())) {
+                    generator.writeName(name);
+                    copyChild(parser, generator, child);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            generator.writeEndObject();
+        } else if (token == JsonToken.START_ARRAY) {
+            generator.writeStartArray();
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                PathNode child = child(node, String.valueOf(index++));
+                if (child != null && (child.terminal || parser.currentToken().isStructStart())) {
+                    copyChild(parser, generator, child);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            generator.writeEndArray();
+        } else {
+            generator.copyCurrentEvent(parser);
+        }
+    }
+
+    private static void copyChild(JsonParser parser, JsonGenerator generator, PathNode child) {
+        if (child.terminal) {
+            generator.copyCurrentStructure(parser);
+        } else {
+            copy(parser, generator, child);
+        }
+    }
+
+    private static PathNode child(PathNode node, String name) {
+        PathNode child = node.children.get(name);
+        return child != null ? child : node.children.get("*");
+    }
+
+    private static boolean startsWithContainer(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c == '{' || c == '[';
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.responses;
+
+import com.iunera.druidmcpserver.filter.ToolInvocationDescriptor;
+import com.iunera.druidmcpserver.filter.ToolInvocationDescriptors;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Applies the {@code fields} argument of read tools as a {@link JsonProjection} of their
+ * response. It runs inside {@link ResponseSizeAspect}, so the size limit counts projected bytes.
+ * Tools marked with {@link ProjectsFields} already project while reading and are left alone; the
+ * parameter index and the marker come from the {@link ToolInvocationDescriptor} of the tool.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class JsonProjectionAspect {
+
+    private final ObjectMapper objectMapper;
+    private final ToolInvocationDescriptors descriptors;
+
+    public JsonProjectionAspect(ObjectMapper objectMapper, ToolInvocationDescriptors descriptors) {
+        this.objectMapper = objectMapper;
+        this.descriptors = descriptors;
+    }
+
+    @Around("@annotation(org.springframework.ai.mcp.annotation.McpTool)")
+    public Object projectFields(ProceedingJoinPoint joinPoint) throws Throwable {
+        ToolInvocationDescriptor descriptor = descriptors.get(((MethodSignature) joinPoint.getSignature()).getMethod());
+        if (!descriptor.isProjectedByAdvice()) {
+            return joinPoint.proceed();
+        }
+        Object fields = joinPoint.getArgs()[descriptor.fieldsParameterIndex()];
+
+        Object result = joinPoint.proceed();
+        JsonProjection projection = fields instanceof String value ? JsonProjection.parse(value) : null;
+        if (projection == null || !(result instanceof String response)) {
+            return result;
+        }
+        return projection.apply(objectMapper, response);
+    }
+}
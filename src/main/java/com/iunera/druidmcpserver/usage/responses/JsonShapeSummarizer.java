@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.responses;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Summarizes the shape of a JSON array response in one streaming pass: the number of rows and,
+ * per field, how often it is present or null, its types, min/max (numbers and strings, so ISO
+ * timestamps too), the mean of numbers, a distinct count and a few example values. Nested
+ * objects are flattened to dotted field names. Memory is bounded per field: distinct values are
+ * counted exactly up to {@value #MAX_EXACT_VALUES} values and estimated with HyperLogLog above,
+ * and examples are a reservoir sample.
+ */
+public final class JsonShapeSummarizer {
+
+    public static final String SUMMARIZE_DESCRIPTION = "Whether to return a summary of the list instead of its elements: row count and per-field counts, types, min/max, distinct counts, value breakdowns and examples (optional)";
+
+    static final int MAX_FIELDS = 100;
+    static final int MAX_EXACT_VALUES = 20;
+    static final int EXAMPLES = 5;
+    private static final int MAX_DEPTH = 3;
+    private static final int MAX_TEXT_LENGTH = 200;
+    private static final String VALUE_FIELD = "value";
+
+    private JsonShapeSummarizer() {
+    }
+
+    /**
+     * Returns the summary, or null if the response is not a JSON array
+     */
+    public static Map<String, Object> summarize(ObjectMapper objectMapper, String json) {
+        if (json == null || !json.stripLeading().startsWith("[")) {
+            return null;
+        }
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            return summarize(parser, new SplittableRandom(json.length()));
+        } catch (JacksonException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Summarizes a JSON array while it is read from the stream and returns the summary as JSON,
+     * so the array is never held in memory. Any other document is returned unchanged.
+     */
+    public static String summarize(ObjectMapper objectMapper, InputStream json) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(json, 1);
+        int first;
+        do {
+            first = input.read();
+        } while (first != -1 && Character.isWhitespace(first));
+        if (first == -1) {
+            return "";
+        }
+        input.unread(first);
+        if (first != '[') {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            return objectMapper.writeValueAsString(summarize(parser, new SplittableRandom(0)));
+        }
+    }
+
+    private static Map<String, Object> summarize(JsonParser parser, SplittableRandom random) {
+        Map<String, FieldStats> fields = new LinkedHashMap<>();
+        boolean[] fieldsTruncated = {false};
+        long rows = 0;
+
+        parser.nextToken();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            rows++;
+            if (token == JsonToken.START_OBJECT) {
+                summarizeObject(parser, "", 1, fields, random, fieldsTruncated);
+            } else {
+                FieldStats stats = stats(fields, VALUE_FIELD, fieldsTruncated);
+                if (stats != null) {
+                    stats.add(parser, random);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        Map<String, Object> fieldSummaries = new LinkedHashMap<>();
+        for (Map.Entry<String, FieldStats> field : fields.entrySet()) {
+            fieldSummaries.put(field.getKey(), field.getValue().toMap(rows));
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("summary", true);
+        summary.put("rows", rows);
+        summary.put("fields", fieldSummaries);
+        if (fieldsTruncated[0]) {
+            summary.put("fieldsTruncated", true);
+        }
+        return summary;
+    }
+
+    private static void summarizeObject(JsonParser parser, String prefix, int depth, Map<String, FieldStats> fields,
+                                        SplittableRandom random, boolean[] fieldsTruncated) {
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            String name = prefix + parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT && depth < MAX_DEPTH) {
+                summarizeObject(parser, name + ".", depth + 1, fields, random, fieldsTruncated);
+                continue;
+            }
+            FieldStats stats = stats(fields, name, fieldsTruncated);
+            if (stats != null) {
+                stats.add(parser, random);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static FieldStats stats(Map<String, FieldStats> fields, String name, boolean[] fieldsTruncated) {
+        FieldStats stats = fields.get(name);
+        if (stats == null) {
+            if (fields.size() >= MAX_FIELDS) {
+                fieldsTruncated[0] = true;
+                return null;
+            }
+            stats = new FieldStats();
+            fields.put(name, stats);
+        }
+        return stats;
+    }
+
+    private static final class FieldStats {
+
+        private long present;
+        private long nulls;
+        private long seen;
+        private final Set<String> types = new LinkedHashSet<>();
+        private long numbers;
+        private double numberSum;
+        private double numberMin = Double.POSITIVE_INFINITY;
+        private double numberMax = Double.NEGATIVE_INFINITY;
+        private boolean integral = true;
+        private String stringMin;
+        private String stringMax;
+        private Map<String, Long> exactValues = new LinkedHashMap<>();
+        private HyperLogLog distinct;
+        private final List<Object> examples = new ArrayList<>(EXAMPLES);
+
+        /**
+         * Consumes the value at the current token, skipping arrays and deeper objects
+         */
+        void add(JsonParser parser, SplittableRandom random) {
+            present++;
+            JsonToken token = parser.currentToken();
+            Object example;
+            String key;
+            switch (token) {
+                case VALUE_NULL -> {
+                    nulls++;
+                    return;
+                }
+                case START_ARRAY, START_OBJECT -> {
+                    types.add(token == JsonToken.START_ARRAY ? "array" : "object");
+                    parser.skipChildren();
+                    return;
+                }
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+                    types.add("number");
+                    double value = parser.getDoubleValue();
+                    integral &= token == JsonToken.VALUE_NUMBER_INT;
+                    numbers++;
+                    numberSum += value;
+                    numberMin = Math.min(numberMin, value);
+                    numberMax = Math.max(numberMax, value);
+                    key = parser.getText();
+                    example = token == JsonToken.VALUE_NUMBER_INT ? (Object) parser.getLongValue() : (Object) value;
+                }
+                case VALUE_TRUE, VALUE_FALSE -> {
+                    types.add("boolean");
+                    key = parser.getText();
+                    example = token == JsonToken.VALUE_TRUE;
+                }
+                default -> {
+                    types.add("string");
+                    String value = truncate(parser.getText());
+                    if (stringMin == null || value.compareTo(stringMin) < 0) {
+                        stringMin = value;
+                    }
+                    if (stringMax == null || value.compareTo(stringMax) > 0) {
+                        stringMax = value;
+                    }
+                    key = value;
+                    example = value;
+                }
+            }
+            countDistinct(key);
+            sample(example, random);
+        }
+
+        private void countDistinct(String key) {
+            if (exactValues != null) {
+                Long count = exactValues.get(key);
+                if (count != null || exactValues.size() < MAX_EXACT_VALUES) {
+                    exactValues.put(key, count == null ? 1 : count + 1);
+                    return;
+                }
+                // Too many distinct values for a breakdown, continue with an estimate
+                distinct = new HyperLogLog();
+                exactValues.keySet().forEach(distinct::add);
+                exactValues = null;
+            }
+            distinct.add(key);
+        }
+
+        /**
+         * Reservoir sampling (algorithm R) over the non-null scalar values
+         */
+        private void sample(Object example, SplittableRandom random) {
+            seen++;
+            if (examples.size() < EXAMPLES) {
+                examples.add(example);
+            } else {
+                long slot = random.nextLong(seen);
+                if (slot < EXAMPLES) {
+                    examples.set((int) slot, example);
+                }
+            }
+        }
+
+        Map<String, Object> toMap(long rows) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("present", present);
+            if (present < rows) {
+                summary.put("missing", rows - present);
+            }
+            if (nulls > 0) {
+                summary.put("nulls", nulls);
+            }
+            summary.put("types", List.copyOf(types));
+            if (numbers > 0) {
+                summary.put("min", integral ? (Object) (long) numberMin : (Object) numberMin);
+                summary.put("max", integral ? (Object) (long) numberMax : (Object) numberMax);
+                summary.put("mean", numberSum / numbers);
+            } else if (stringMin != null) {
+                summary.put("min", stringMin);
+                summary.put("max", stringMax);
+            }
+            if (seen > 0) {
+                if (exactValues != null) {
+                    summary.put("distinct", (long) exactValues.size());
+                    summary.put("values", exactValues);
+                } else {
+                    summary.put("distinct", distinct.estimate());
+                    summary.put("distinctApproximate", true);
+                    summary.put("examples", examples);
+                }
+            }
+            return summary;
+        }
+
+        private static String truncate(String text) {
+            return text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) + "..." : text;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.responses;
+
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.ai.mcp.annotation.McpToolParam;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ResponseContinuationTools {
+
+    private final ResponseGovernor responseGovernor;
+
+    public ResponseContinuationTools(ResponseGovernor responseGovernor) {
+        this.responseGovernor = responseGovernor;
+    }
+
+    /**
+     * Read the next slice of a response that exceeded the size limit
+     */
+    @McpTool(
+            description = "Fetch the next slice of a tool response that was truncated because it exceeded the response size limit. Parameters: continuationToken (String) from the truncated response. Concatenate the content of all slices to get the full response.",
+            annotations = @McpTool.McpAnnotations(readOnlyHint = true, idempotentHint = true, destructiveHint = false)
+    )
+    public String fetchResponseContinuation(
+            @McpToolParam(description = "The continuationToken of the previous slice") String continuationToken
+    ) {
+        try {
+            return responseGovernor.next(continuationToken);
+        } catch (IllegalArgumentException e) {
+            return String.format("Error: %s", e.getMessage());
+        } catch (Exception e) {
+            return String.format("Failed to fetch response continuation: %s", e.getMessage());
+        }
+    }
+}
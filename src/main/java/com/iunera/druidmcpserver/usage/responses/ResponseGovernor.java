@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.responses;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps tool responses within {@code druid.mcp.response-limit.max-bytes}. A larger response is
+ * held in memory and only its first slice is returned, together with a continuation token for
+ * the next slice. Held responses are bounded by {@code max-held-bytes} (least recently used
+ * first) and expire after {@code held-ttl-ms}.
+ */
+@Component
+public class ResponseGovernor {
+
+    private record Held(String toolName, String content, long bytes, long createdAt) {
+    }
+
+    private final DruidProperties.Mcp.ResponseLimit config;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Held> held = new LinkedHashMap<>(16, 0.75f, true);
+    private long heldBytes;
+    private final AtomicLong truncatedResponses = new AtomicLong();
+    private final AtomicLong slicesServed = new AtomicLong();
+
+    public ResponseGovernor(DruidProperties druidProperties, ObjectMapper objectMapper) {
+        this(druidProperties, objectMapper, System::currentTimeMillis);
+    }
+
+    ResponseGovernor(DruidProperties druidProperties, ObjectMapper objectMapper, LongSupplier clock) {
+        this.config = druidProperties.getMcp().getResponseLimit();
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the response unchanged if it fits the byte budget, otherwise its first slice
+     */
+    public String limit(String toolName, String response) {
+        int maxBytes = Math.max(1024, config.getMaxBytes());
+        // Every char takes at most 3 UTF-8 bytes, so only count bytes when it could matter
+        if (response == null || (long) response.length() * 3 <= maxBytes) {
+            return response;
+        }
+        long bytes = utf8Length(response, 0, response.length());
+        if (bytes <= maxBytes) {
+            return response;
+        }
+
+        truncatedResponses.incrementAndGet();
+        String id = bytes <= config.getMaxHeldBytes() ? hold(toolName, response, bytes) : null;
+        return slice(id, toolName, response, bytes, 0, 0, maxBytes);
+    }
+
+    /**
+     * Returns the slice of a held response that the continuation token points to
+     */
+    public String next(String continuationToken) {
+        String[] parts = continuationToken == null ? new String[0] : continuationToken.trim().split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid continuation token '" + continuationToken + "'");
+        }
+        int charOffset;
+        long byteOffset;
+        try {
+            charOffset = Integer.parseInt(parts[1]);
+            byteOffset = Long.parseLong(parts[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid continuation token '" + continuationToken + "'");
+        }
+
+        Held response;
+        synchronized (held) {
+            expire();
+            response = held.get(parts[0]);
+        }
+        if (response == null) {
+            throw new IllegalArgumentException("The response for continuation token '" + continuationToken
+                    + "' has expired or was evicted, call the tool again");
+        }
+        if (charOffset < 0 || charOffset > response.content().length()) {
+            throw new IllegalArgumentException("Invalid continuation token '" + continuationToken + "'");
+        }
+        slicesServed.incrementAndGet();
+        return slice(parts[0], response.toolName(), response.content(), response.bytes(), charOffset, byteOffset,
+                Math.max(1024, config.getMaxBytes()));
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (held) {
+            stats.put("heldResponses", held.size());
+            stats.put("heldBytes", heldBytes);
+        }
+        stats.put("truncatedResponses", truncatedResponses.get());
+        stats.put("slicesServed", slicesServed.get());
+        return stats;
+    }
+
+    private String slice(String id, String toolName, String content, long totalBytes, int start, long byteOffset, int maxBytes) {
+        // The slice is embedded as a JSON string, so the budget is what the envelope leaves over,
+        // measured with the widest values its fields can take
+        long overhead = utf8Length(objectMapper.writeValueAsString(
+                envelope(id, toolName, totalBytes, byteOffset, totalBytes, totalBytes, content.length(), maxBytes, "")));
+        int end = sliceEnd(content, start, Math.max(1, maxBytes - overhead));
+        long sliceBytes = utf8Length(content, start, end);
+        return objectMapper.writeValueAsString(envelope(id, toolName, totalBytes, byteOffset, sliceBytes,
+                totalBytes - byteOffset - sliceBytes, end < content.length() ? end : -1, maxBytes, content.substring(start, end)));
+    }
+
+    /**
+     * @param next char offset of the next slice, or -1 for the last slice
+     */
+    private static Map<String, Object> envelope(String id, String toolName, long totalBytes, long byteOffset, long sliceBytes,
+                                                long remainingBytes, int next, int maxBytes, String content) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("truncated", true);
+        envelope.put("tool", toolName);
+        envelope.put("totalBytes", totalBytes);
+        envelope.put("offsetBytes", byteOffset);
+        envelope.put("sliceBytes", sliceBytes);
+        envelope.put("remainingBytes", remainingBytes);
+        if (next >= 0) {
+            if (id != null) {
+                envelope.put("continuationToken", id + ":" + next + ":" + (byteOffset + sliceBytes));
+                envelope.put("message", String.format("The response of %d bytes exceeds the limit of %d bytes. "
+                        + "Call fetchResponseContinuation with the continuationToken for the next slice and concatenate the content.", totalBytes, maxBytes));
+            } else {
+                envelope.put("message", String.format("The response of %d bytes exceeds the limit of %d bytes and is too large to be held "
+                        + "for continuation. Narrow the request, e.g. by datasource, state or limit.", totalBytes, maxBytes));
+            }
+        }
+        envelope.put("content", content);
+        return envelope;
+    }
+
+    private String hold(String toolName, String content, long bytes) {
+        byte[] random = new byte[12];
+        ThreadLocalRandom.current().nextBytes(random);
+        String id = HexFormat.of().formatHex(random);
+
+        synchronized (held) {
+            expire();
+            held.put(id, new Held(toolName, content, bytes, clock.getAsLong()));
+            heldBytes += bytes;
+            Iterator<Held> eldest = held.values().iterator();
+            while (heldBytes > config.getMaxHeldBytes() && eldest.hasNext()) {
+                heldBytes -= eldest.next().bytes();
+                eldest.remove();
+            }
+        }
+        return id;
+    }
+
+    private void expire() {
+        long oldest = clock.getAsLong() - config.getHeldTtlMs();
+        Iterator<Held> iterator = held.values().iterator();
+        while (iterator.hasNext()) {
+            Held response = iterator.next();
+            if (response.createdAt() <= oldest) {
+                heldBytes -= response.bytes();
+                iterator.remove();
+            }
+        }
+    }
+
+    static long utf8Length(String text) {
+        return utf8Length(text, 0, text.length());
+    }
+
+    static long utf8Length(String text, int start, int end) {
+        long bytes = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * End index of the longest slice from start that fits maxBytes once written as a JSON string,
+     * never splitting a surrogate pair
+     */
+    static int sliceEnd(String text, int start, long maxBytes) {
+        long bytes = 0;
+        int i = start;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            boolean pair = Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1));
+            int length = c < 0x80 ? escapedLength(c) : c < 0x800 ? 2 : pair ? 4 : 3;
+            if (bytes + length > maxBytes && i > start) {
+                break;
+            }
+            bytes += length;
+            i += pair ? 2 : 1;
+        }
+        return i;
+    }
+
+    /**
+     * Bytes of an ASCII char in a JSON string: quote, backslash and control chars are escaped
+     */
+    static int escapedLength(char c) {
+        if (c == '"' || c == '\\' || c == '\b' || c == '\t' || c == '\n' || c == '\f' || c == '\r') {
+            return 2;
+        }
+        return c < 0x20 ? 6 : 1;
+    }
+}
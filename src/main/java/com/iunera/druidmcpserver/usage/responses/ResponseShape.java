@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.responses;
+
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+
+/**
+ * The {@code fields} and {@code summarize} arguments of a read tool, applied by the tool itself so
+ * that a Druid list response is projected and summarized while it is streamed instead of being
+ * parsed into a tree, serialized and parsed again by the aspects. Tools using it are marked with
+ * {@link ProjectsFields}; {@code summarize} is only offered by tools using it.
+ */
+public record ResponseShape(JsonProjection projection, boolean summarize) {
+
+    /**
+     * Returns null when neither fields nor a summary were requested
+     */
+    public static ResponseShape of(String fields, Boolean summarize) {
+        JsonProjection projection = JsonProjection.parse(fields);
+        boolean summary = Boolean.TRUE.equals(summarize);
+        return projection != null || summary ? new ResponseShape(projection, summary) : null;
+    }
+
+    /**
+     * Applies the shape to a response that is already held in memory
+     */
+    public String apply(ObjectMapper objectMapper, String json) {
+        return summarized(objectMapper, projection != null ? projection.apply(objectMapper, json) : json);
+    }
+
+    /**
+     * Sends the request and shapes the Druid response while it is read
+     */
+    public String read(ObjectMapper objectMapper, RestClient.RequestHeadersSpec<?> request) throws RestClientException {
+        if (!summarize) {
+            return projection.read(objectMapper, request);
+        }
+        return DruidResponses.read(request, body -> projection != null
+                ? summarized(objectMapper, projection.apply(objectMapper, body))
+                : JsonShapeSummarizer.summarize(objectMapper, body));
+    }
+
+    private String summarized(ObjectMapper objectMapper, String json) {
+        if (!summarize) {
+            return json;
+        }
+        Map<String, Object> summary = JsonShapeSummarizer.summarize(objectMapper, json);
+        return summary != null ? objectMapper.writeValueAsString(summary) : json;
+    }
+}
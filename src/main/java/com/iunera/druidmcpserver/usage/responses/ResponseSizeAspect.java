@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.responses;
+
+import com.iunera.druidmcpserver.filter.ToolInvocationDescriptors;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies the {@link ResponseGovernor} byte budget to every tool response. It runs outermost, so
+ * it sees the final response after all other tool aspects. The response of an async tool is
+ * limited once it is emitted.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "druid.mcp.response-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseSizeAspect {
+
+    private final ResponseGovernor responseGovernor;
+    private final ToolInvocationDescriptors descriptors;
+
+    public ResponseSizeAspect(ResponseGovernor responseGovernor, ToolInvocationDescriptors descriptors) {
+        this.responseGovernor = responseGovernor;
+        this.descriptors = descriptors;
+    }
+
+    @Around("@annotation(org.springframework.ai.mcp.annotation.McpTool)")
+    public Object limitResponseSize(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        // Continuation slices are already sized to the budget
+        if (!(result instanceof String || result instanceof Mono<?>) || signature.getDeclaringType() == ResponseContinuationTools.class) {
+            return result;
+        }
+
+        String toolName = descriptors.get(signature.getMethod()).toolName();
+        if (result instanceof Mono<?> mono) {
+            return mono.map(value -> value instanceof String response ? responseGovernor.limit(toolName, response) : value);
+        }
+        return responseGovernor.limit(toolName, (String) result);
+    }
+}
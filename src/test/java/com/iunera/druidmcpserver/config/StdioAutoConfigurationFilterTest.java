@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StdioAutoConfigurationFilterTest {
+
+    private static final String[] AUTO_CONFIGURATIONS = {
+            "org.springframework.boot.security.autoconfigure.SecurityAutoConfiguration",
+            "org.springframework.boot.webmvc.autoconfigure.WebMvcAutoConfiguration",
+            "org.springframework.boot.tomcat.autoconfigure.TomcatServletWebServerAutoConfiguration",
+            "org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration",
+            "org.springframework.ai.mcp.server.autoconfigure.McpServerStdioAutoConfiguration",
+            null
+    };
+
+    private static boolean[] match(MockEnvironment environment) {
+        StdioAutoConfigurationFilter filter = new StdioAutoConfigurationFilter();
+        filter.setEnvironment(environment);
+        return filter.match(AUTO_CONFIGURATIONS, null);
+    }
+
+    @Test
+    void testSkipsServerInfrastructureWithoutWebServer() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.main.web-application-type", "none");
+
+        // Act
+        boolean[] matches = match(environment);
+
+        // Assert
+        assertArrayEquals(new boolean[]{false, false, false, true, true, true}, matches);
+    }
+
+    @Test
+    void testKeepsEverythingWithWebServer() {
+        // Act
+        boolean[] unset = match(new MockEnvironment());
+        boolean[] servlet = match(new MockEnvironment().withProperty("spring.main.web-application-type", "servlet"));
+
+        // Assert
+        assertArrayEquals(new boolean[]{true, true, true, true, true, true}, unset);
+        assertArrayEquals(unset, servlet);
+    }
+}
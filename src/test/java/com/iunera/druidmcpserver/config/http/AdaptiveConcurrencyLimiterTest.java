@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testQueuedRequestGetsReleasedSlot() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ServiceClass.BROKER_SQL, 1, 1, 1, 10, 5000);
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        for (int i = 0; i < 100 && !Integer.valueOf(1).equals(limiter.toMap().get("queueDepth")); i++) {
+            Thread.sleep(10);
+        }
+
+        // Act
+        first.release(false);
+
+        // Assert
+        assertNotNull(waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.toMap().get("queueDepth"));
+        assertEquals(2L, limiter.toMap().get("acquired"));
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFullOrTimedOut() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ServiceClass.COORDINATOR_METADATA, 1, 1, 1, 0, 50);
+        limiter.acquire();
+
+        // Act & Assert: no queue at all
+        BulkheadFullException rejected = assertThrows(BulkheadFullException.class, limiter::acquire);
+        assertTrue(rejected.getMessage().contains("coordinator metadata"));
+
+        // Act & Assert: queue but nothing is released in time
+        AdaptiveConcurrencyLimiter queueing = new AdaptiveConcurrencyLimiter(ServiceClass.OVERLORD_TASKS, 1, 1, 1, 5, 50);
+        queueing.acquire();
+        assertThrows(BulkheadFullException.class, queueing::acquire);
+        assertEquals(1L, queueing.toMap().get("queueTimeouts"));
+        assertEquals(1L, limiter.toMap().get("rejected"));
+    }
+
+    @Test
+    void testLimitGrowsWhileLatencyIsFlatAndShrinksWhenItRises() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ServiceClass.BROKER_SQL, 10, 2, 100, 0, 0);
+
+        // Act: fully utilised with a stable 10 ms latency
+        for (int round = 0; round < 20; round++) {
+            runRound(limiter, 10 * MS);
+        }
+        int grown = limiter.getLimit();
+
+        // Act: latency suddenly climbs to 100 ms
+        runRound(limiter, 100 * MS);
+        int shrunk = limiter.getLimit();
+
+        // Assert
+        assertTrue(grown > 10, "limit should grow, was " + grown);
+        assertTrue(shrunk < grown, "limit should shrink, was " + shrunk);
+    }
+
+    @Test
+    void testOverloadBacksOffAndIdleSamplesKeepTheLimit() throws Exception {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(ServiceClass.BASIC_SECURITY, 20, 2, 64, 0, 0);
+
+        // Act: a single request at a time says nothing about capacity
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire().release(MS, false);
+        }
+        int idle = limiter.getLimit();
+        limiter.acquire().release(MS, true);
+
+        // Assert
+        assertEquals(20, idle);
+        assertEquals(18, limiter.getLimit());
+        assertEquals(1L, limiter.toMap().get("overloadResponses"));
+    }
+
+    private static void runRound(AdaptiveConcurrencyLimiter limiter, long rttNanos) throws Exception {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        int slots = limiter.getLimit();
+        for (int i = 0; i < slots; i++) {
+            permits.add(limiter.acquire());
+        }
+        for (AdaptiveConcurrencyLimiter.Permit permit : permits) {
+            permit.release(rttNanos, false);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CircuitBreakerInterceptorTest {
+
+    private final ClientHttpRequestExecution execution = Mockito.mock(ClientHttpRequestExecution.class);
+    private final ClientHttpRequestFactory requestFactory = Mockito.mock(ClientHttpRequestFactory.class);
+    private final AtomicLong clock = new AtomicLong();
+    private DruidProperties.CircuitBreaker config;
+    private CircuitBreakerRegistry registry;
+    private CircuitBreakerInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        config = new DruidProperties().getCircuitBreaker();
+        config.setFailureThreshold(3);
+        config.setSlidingWindowSize(10);
+        config.setMinimumCalls(4);
+        // Long enough that the scheduled probes never run during a test, they are triggered directly
+        config.setOpenDurationMs(60000);
+        registry = new CircuitBreakerRegistry(config, clock::get);
+        interceptor = new CircuitBreakerInterceptor(registry, requestFactory, headers -> headers.add("Authorization", "Basic test"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    private static HttpRequest request(String path) {
+        HttpRequest request = Mockito.mock(HttpRequest.class);
+        when(request.getMethod()).thenReturn(HttpMethod.GET);
+        when(request.getURI()).thenReturn(URI.create("http://router:8888" + path));
+        return request;
+    }
+
+    private static ClientHttpResponse response(HttpStatus status) throws Exception {
+        ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(status);
+        return response;
+    }
+
+    private CircuitBreaker breaker() {
+        return registry.getBreakers().getFirst();
+    }
+
+    @Test
+    void testOpensAfterConsecutiveFailuresAndFailsFast() throws Exception {
+        // Arrange
+        when(execution.execute(any(), any())).thenReturn(response(HttpStatus.SERVICE_UNAVAILABLE));
+        HttpRequest request = request("/druid/coordinator/v1/datasources");
+        for (int i = 0; i < 3; i++) {
+            interceptor.intercept(request, new byte[0], execution);
+        }
+
+        // Act
+        CircuitBreakerOpenException exception = assertThrows(CircuitBreakerOpenException.class,
+                () -> interceptor.intercept(request, new byte[0], execution));
+
+        // Assert
+        verify(execution, times(3)).execute(any(), any());
+        assertEquals(CircuitBreaker.State.OPEN, breaker().getState());
+        assertTrue(exception.getMessage().contains("coordinator metadata"), exception.getMessage());
+        assertTrue(exception.getMessage().contains("HTTP 503"), exception.getMessage());
+        assertEquals(1L, breaker().toMap().get("rejectedFastFail"));
+    }
+
+    @Test
+    void testOpensOnFailureRate() throws Exception {
+        // Arrange
+        ClientHttpResponse ok = response(HttpStatus.OK);
+        HttpRequest request = request("/druid/v2/sql");
+        when(execution.execute(any(), any()))
+                .thenReturn(ok)
+                .thenThrow(new ConnectException("refused"))
+                .thenReturn(ok)
+                .thenThrow(new ConnectException("refused"));
+
+        // Act
+        interceptor.intercept(request, new byte[0], execution);
+        assertThrows(ConnectException.class, () -> interceptor.intercept(request, new byte[0], execution));
+        interceptor.intercept(request, new byte[0], execution);
+        assertThrows(ConnectException.class, () -> interceptor.intercept(request, new byte[0], execution));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker().getState());
+        assertEquals(ServiceClass.BROKER_SQL, breaker().getServiceClass());
+    }
+
+    @Test
+    void testSuccessfulProbeClosesCircuit() throws Exception {
+        // Arrange
+        when(execution.execute(any(), any())).thenThrow(new ConnectException("refused"));
+        HttpRequest request = request("/druid/indexer/v1/tasks");
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ConnectException.class, () -> interceptor.intercept(request, new byte[0], execution));
+        }
+        ClientHttpRequest probe = Mockito.mock(ClientHttpRequest.class);
+        HttpHeaders probeHeaders = new HttpHeaders();
+        when(probe.getHeaders()).thenReturn(probeHeaders);
+        ClientHttpResponse healthy = response(HttpStatus.OK);
+        when(probe.execute()).thenReturn(healthy);
+        when(requestFactory.createRequest(eq(URI.create("http://router:8888/druid/indexer/v1/leader")), eq(HttpMethod.GET)))
+                .thenReturn(probe);
+
+        // Act
+        registry.probe(breaker());
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker().getState());
+        assertEquals("Basic test", probeHeaders.getFirst("Authorization"));
+        verify(healthy).close();
+        assertEquals(1L, breaker().toMap().get("probes"));
+    }
+
+    @Test
+    void testFailedProbeKeepsCircuitOpen() throws Exception {
+        // Arrange
+        when(execution.execute(any(), any())).thenReturn(response(HttpStatus.BAD_GATEWAY));
+        HttpRequest request = request("/druid/coordinator/v1/metadata/datasources");
+        for (int i = 0; i < 3; i++) {
+            interceptor.intercept(request, new byte[0], execution);
+        }
+        when(requestFactory.createRequest(any(), any())).thenThrow(new ConnectException("still down"));
+
+        // Act
+        registry.probe(breaker());
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker().getState());
+        assertEquals(2L, breaker().toMap().get("timesOpened"));
+        assertTrue(((String) breaker().toMap().get("lastFailure")).contains("still down"));
+    }
+
+    @Test
+    void testSuccessResetsConsecutiveFailuresAndOtherPathsPassThrough() throws Exception {
+        // Arrange
+        config.setMinimumCalls(10);
+        ClientHttpResponse unavailable = response(HttpStatus.SERVICE_UNAVAILABLE);
+        ClientHttpResponse ok = response(HttpStatus.OK);
+        when(execution.execute(any(), any())).thenReturn(unavailable, unavailable, ok, unavailable, unavailable);
+        HttpRequest request = request("/druid-ext/basic-security/authentication/db/basic/users");
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            interceptor.intercept(request, new byte[0], execution);
+        }
+        interceptor.intercept(request("/status/health"), new byte[0], execution);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker().getState());
+        assertEquals(1, registry.getBreakers().size());
+        verify(requestFactory, never()).createRequest(any(), any());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import com.iunera.druidmcpserver.config.DruidRestClientConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class ClusterDiscoveryServiceTest {
+
+    private static final String ROUTER = "http://router:8888";
+    private static final String COORDINATOR_LEADER = "http://coordinator-1:8081";
+    private static final String OVERLORD_LEADER = "http://overlord-1:8090";
+    private static final String SERVERS = "[{\"host\": \"broker-1\", \"plaintext_port\": 8082, \"tls_port\": -1}]";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Per router path: the response status and body
+    private final Map<String, Map.Entry<HttpStatus, String>> responses = new ConcurrentHashMap<>();
+    private ServiceEndpointRegistry registry;
+    private ClusterDiscoveryService discoveryService;
+
+    private final ClientHttpRequestFactory requestFactory = (uri, method) -> {
+        ClientHttpRequest request = Mockito.mock(ClientHttpRequest.class);
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+        when(request.getBody()).thenReturn(new ByteArrayOutputStream());
+        when(request.execute()).thenAnswer(invocation -> {
+            Map.Entry<HttpStatus, String> answer = responses.getOrDefault(uri.getPath(), Map.entry(HttpStatus.NOT_FOUND, ""));
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(uri.getPath().equals("/druid/v2/sql") ? MediaType.APPLICATION_JSON : MediaType.TEXT_PLAIN);
+            ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+            when(response.getStatusCode()).thenReturn(answer.getKey());
+            when(response.getStatusText()).thenReturn(answer.getKey().getReasonPhrase());
+            when(response.getHeaders()).thenReturn(headers);
+            when(response.getBody()).thenReturn(new ByteArrayInputStream(answer.getValue().getBytes(StandardCharsets.UTF_8)));
+            return response;
+        });
+        return request;
+    };
+
+    @BeforeEach
+    void setUp() {
+        DruidProperties druidProperties = new DruidProperties();
+        registry = new ServiceEndpointRegistry(druidProperties);
+        DruidRestClientConfig restClientConfig = Mockito.mock(DruidRestClientConfig.class);
+        when(restClientConfig.createRestClient(any(EndpointPool.class), any()))
+                .thenReturn(RestClient.builder().baseUrl(ROUTER).requestFactory(requestFactory).build());
+        EndpointPool routerPool = new EndpointPool("router", List.of(ROUTER), EndpointPool.SelectionStrategy.LEAST_OUTSTANDING, 3, 30000, 0);
+        discoveryService = new ClusterDiscoveryService(registry, druidProperties, restClientConfig, routerPool);
+        discoveryService.registerInvalidationListener();
+        responses.put("/druid/coordinator/v1/leader", Map.entry(HttpStatus.OK, COORDINATOR_LEADER + "\n"));
+        responses.put("/druid/indexer/v1/leader", Map.entry(HttpStatus.OK, OVERLORD_LEADER));
+        responses.put("/druid/v2/sql", Map.entry(HttpStatus.OK, SERVERS));
+    }
+
+    private static List<String> urls(EndpointPool pool) {
+        return pool.getEndpoints().stream().map(Endpoint::getBaseUrl).toList();
+    }
+
+    @Test
+    void testRefreshPublishesLeadersAndBrokers() {
+        // Act
+        discoveryService.refresh();
+
+        // Assert
+        assertEquals(List.of(COORDINATOR_LEADER), urls(registry.route(DruidService.COORDINATOR)));
+        assertEquals(List.of(OVERLORD_LEADER), urls(registry.route(DruidService.OVERLORD)));
+        assertEquals(List.of("http://broker-1:8082"), urls(registry.route(DruidService.BROKER)));
+    }
+
+    @Test
+    void testRefreshFollowsLeaderChange() {
+        // Arrange
+        discoveryService.refresh();
+        EndpointPool brokers = registry.route(DruidService.BROKER);
+        responses.put("/druid/coordinator/v1/leader", Map.entry(HttpStatus.OK, "http://coordinator-2:8081"));
+
+        // Act
+        discoveryService.refresh();
+
+        // Assert: unchanged services keep their pool and statistics
+        assertEquals(List.of("http://coordinator-2:8081"), urls(registry.route(DruidService.COORDINATOR)));
+        assertSame(brokers, registry.route(DruidService.BROKER));
+    }
+
+    @Test
+    void testFailedDiscoveryFallsBackToRouter() {
+        // Arrange
+        discoveryService.refresh();
+        responses.put("/druid/indexer/v1/leader", Map.entry(HttpStatus.INTERNAL_SERVER_ERROR, "leader election in progress"));
+        responses.put("/druid/v2/sql", Map.entry(HttpStatus.SERVICE_UNAVAILABLE, ""));
+
+        // Act
+        discoveryService.refresh();
+
+        // Assert: no direct pool means requests go through the router
+        assertNotNull(registry.route(DruidService.COORDINATOR));
+        assertNull(registry.route(DruidService.OVERLORD));
+        assertNull(registry.route(DruidService.BROKER));
+    }
+
+    @Test
+    void testInvalidationTriggersRediscovery() throws Exception {
+        // Arrange
+        discoveryService.refresh();
+        responses.put("/druid/coordinator/v1/leader", Map.entry(HttpStatus.OK, "http://coordinator-2:8081"));
+
+        // Act
+        registry.invalidate(DruidService.COORDINATOR);
+
+        // Assert: the refresh runs asynchronously
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.route(DruidService.COORDINATOR) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of("http://coordinator-2:8081"), urls(registry.route(DruidService.COORDINATOR)));
+    }
+
+    @Test
+    void testBrokerUrlsFromSysServers() throws Exception {
+        // Arrange
+        String servers = """
+                [
+                  {"host": "broker-1", "plaintext_port": 8082, "tls_port": 8282},
+                  {"host": "broker-2", "plaintext_port": -1, "tls_port": 8282},
+                  {"host": "", "plaintext_port": 8082, "tls_port": -1}
+                ]
+                """;
+
+        // Act & Assert
+        assertEquals(List.of("http://broker-1:8082"), ClusterDiscoveryService.brokerUrls(objectMapper.readTree(servers), false));
+        assertEquals(List.of("https://broker-1:8282", "https://broker-2:8282"), ClusterDiscoveryService.brokerUrls(objectMapper.readTree(servers), true));
+        assertTrue(ClusterDiscoveryService.brokerUrls(null, false).isEmpty());
+    }
+}
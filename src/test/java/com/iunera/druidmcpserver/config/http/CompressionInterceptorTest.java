@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class CompressionInterceptorTest {
+
+    private final CompressionInterceptor interceptor = new CompressionInterceptor();
+
+    private static HttpRequest request() {
+        HttpRequest request = Mockito.mock(HttpRequest.class);
+        HttpHeaders headers = new HttpHeaders();
+        when(request.getMethod()).thenReturn(HttpMethod.GET);
+        when(request.getURI()).thenReturn(URI.create("http://router:8888/druid/coordinator/v1/rules"));
+        when(request.getHeaders()).thenReturn(headers);
+        return request;
+    }
+
+    private static ClientHttpResponse response(HttpStatus status, byte[] body, HttpHeaders headers) throws Exception {
+        ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(status);
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream(body));
+        return response;
+    }
+
+    private static byte[] gzip(String content) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void testRequestsAndDecompressesGzip() throws Exception {
+        // Arrange
+        HttpRequest request = request();
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        headers.add(HttpHeaders.CONTENT_LENGTH, "42");
+        ClientHttpResponse compressed = response(HttpStatus.OK, gzip("{\"_default\":[]}"), headers);
+
+        // Act
+        ClientHttpResponse result = interceptor.intercept(request, new byte[0], (r, b) -> compressed);
+
+        // Assert
+        assertEquals("gzip", request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+        assertEquals("{\"_default\":[]}", new String(result.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        assertNull(result.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(result.getHeaders().getFirst(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    void testPassesThroughUncompressedAndEmptyBodies() throws Exception {
+        // Arrange
+        ClientHttpResponse plain = response(HttpStatus.OK, "[]".getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+        HttpHeaders encoded = new HttpHeaders();
+        encoded.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        ClientHttpResponse notModified = response(HttpStatus.NOT_MODIFIED, new byte[0], encoded);
+
+        // Act
+        ClientHttpResponse plainResult = interceptor.intercept(request(), new byte[0], (r, b) -> plain);
+        ClientHttpResponse emptyResult = interceptor.intercept(request(), new byte[0], (r, b) -> notModified);
+
+        // Assert
+        assertSame(plain, plainResult);
+        assertEquals(0, emptyResult.getBody().readAllBytes().length);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConditionalRequestInterceptorTest {
+
+    private static final String DATASOURCES = "/druid/coordinator/v1/datasources?full";
+
+    private final ClientHttpRequestExecution execution = Mockito.mock(ClientHttpRequestExecution.class);
+    private DruidProperties.ConditionalRequests config;
+    private ConditionalRequestCache cache;
+    private ConditionalRequestInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        DruidProperties druidProperties = new DruidProperties();
+        config = druidProperties.getConditionalRequests();
+        cache = new ConditionalRequestCache(druidProperties);
+        interceptor = new ConditionalRequestInterceptor(cache, config);
+    }
+
+    private static HttpRequest request(HttpMethod method, String path) {
+        HttpRequest request = Mockito.mock(HttpRequest.class);
+        HttpHeaders headers = new HttpHeaders();
+        when(request.getMethod()).thenReturn(method);
+        when(request.getURI()).thenReturn(URI.create("http://router:8888" + path));
+        when(request.getHeaders()).thenReturn(headers);
+        return request;
+    }
+
+    private static ClientHttpResponse response(HttpStatus status, String body, String... headerPairs) throws Exception {
+        ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+        HttpHeaders headers = new HttpHeaders();
+        for (int i = 0; i < headerPairs.length; i += 2) {
+            headers.add(headerPairs[i], headerPairs[i + 1]);
+        }
+        when(response.getStatusCode()).thenReturn(status);
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        return response;
+    }
+
+    private static String read(ClientHttpResponse response) throws Exception {
+        return new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testNotModifiedIsServedFromCachedResponse() throws Exception {
+        // Arrange
+        ClientHttpResponse notModified = response(HttpStatus.NOT_MODIFIED, "");
+        when(execution.execute(any(), any()))
+                .thenReturn(response(HttpStatus.OK, "[{\"name\":\"wikipedia\"}]", HttpHeaders.ETAG, "\"v1\""))
+                .thenReturn(notModified);
+        interceptor.intercept(request(HttpMethod.GET, DATASOURCES), new byte[0], execution).close();
+        HttpRequest revalidation = request(HttpMethod.GET, DATASOURCES);
+
+        // Act
+        ClientHttpResponse result = interceptor.intercept(revalidation, new byte[0], execution);
+
+        // Assert
+        assertEquals("\"v1\"", revalidation.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals("[{\"name\":\"wikipedia\"}]", read(result));
+        verify(notModified).close();
+        assertEquals(1L, cache.toMap().get("notModified"));
+        assertEquals(22L, cache.toMap().get("bytesSaved"));
+    }
+
+    @Test
+    void testUsesLastModifiedAndReplacesChangedResponses() throws Exception {
+        // Arrange
+        when(execution.execute(any(), any()))
+                .thenReturn(response(HttpStatus.OK, "{\"v\":1}", HttpHeaders.LAST_MODIFIED, "Mon, 12 Oct 2026 10:00:00 GMT"))
+                .thenReturn(response(HttpStatus.OK, "{\"v\":2}", HttpHeaders.LAST_MODIFIED, "Tue, 13 Oct 2026 10:00:00 GMT"))
+                .thenReturn(response(HttpStatus.NOT_MODIFIED, ""));
+        String path = "/druid/coordinator/v1/rules";
+        interceptor.intercept(request(HttpMethod.GET, path), new byte[0], execution).close();
+        HttpRequest second = request(HttpMethod.GET, path);
+
+        // Act
+        ClientHttpResponse changed = interceptor.intercept(second, new byte[0], execution);
+        ClientHttpResponse unchanged = interceptor.intercept(request(HttpMethod.GET, path), new byte[0], execution);
+
+        // Assert
+        assertEquals("Mon, 12 Oct 2026 10:00:00 GMT", second.getHeaders().getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+        assertEquals("{\"v\":2}", read(changed));
+        assertEquals("{\"v\":2}", read(unchanged));
+        assertEquals(1, cache.toMap().get("entries"));
+    }
+
+    @Test
+    void testSkipsResponsesWithoutValidatorsAndOtherServices() throws Exception {
+        // Arrange
+        ClientHttpResponse withoutValidators = response(HttpStatus.OK, "[]");
+        ClientHttpResponse broker = response(HttpStatus.OK, "[]", HttpHeaders.ETAG, "\"b\"");
+        when(execution.execute(any(), any())).thenReturn(withoutValidators, broker);
+
+        // Act
+        ClientHttpResponse first = interceptor.intercept(request(HttpMethod.GET, DATASOURCES), new byte[0], execution);
+        ClientHttpResponse second = interceptor.intercept(request(HttpMethod.GET, "/druid/v2/datasources"), new byte[0], execution);
+
+        // Assert
+        assertSame(withoutValidators, first);
+        assertSame(broker, second);
+        assertEquals(0, cache.toMap().get("entries"));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedAndStreamsLargeResponses() throws Exception {
+        // Arrange
+        config.setMaxEntries(2);
+        config.setMaxEntryBytes(8);
+        when(execution.execute(any(), any()))
+                .thenReturn(response(HttpStatus.OK, "[1]", HttpHeaders.ETAG, "\"a\""))
+                .thenReturn(response(HttpStatus.OK, "[2]", HttpHeaders.ETAG, "\"b\""))
+                .thenReturn(response(HttpStatus.OK, "[3]", HttpHeaders.ETAG, "\"c\""))
+                .thenReturn(response(HttpStatus.OK, "[1,2,3,4,5]", HttpHeaders.ETAG, "\"d\""));
+
+        // Act
+        interceptor.intercept(request(HttpMethod.GET, "/druid/coordinator/v1/a"), new byte[0], execution).close();
+        interceptor.intercept(request(HttpMethod.GET, "/druid/coordinator/v1/b"), new byte[0], execution).close();
+        interceptor.intercept(request(HttpMethod.GET, "/druid/coordinator/v1/c"), new byte[0], execution).close();
+        ClientHttpResponse large = interceptor.intercept(request(HttpMethod.GET, "/druid/coordinator/v1/d"), new byte[0], execution);
+
+        // Assert
+        assertEquals("[1,2,3,4,5]", read(large));
+        assertEquals(2, cache.toMap().get("entries"));
+        assertEquals(6L, cache.toMap().get("bytes"));
+    }
+
+    @Test
+    void testCoordinatorWritesClearTheCache() throws Exception {
+        // Arrange
+        when(execution.execute(any(), any()))
+                .thenReturn(response(HttpStatus.OK, "[]", HttpHeaders.ETAG, "\"v1\""))
+                .thenReturn(response(HttpStatus.BAD_REQUEST, ""))
+                .thenReturn(response(HttpStatus.OK, ""));
+        interceptor.intercept(request(HttpMethod.GET, "/druid/coordinator/v1/rules/wikipedia"), new byte[0], execution).close();
+
+        // Act & Assert: failed writes keep the validators
+        interceptor.intercept(request(HttpMethod.POST, "/druid/coordinator/v1/rules/wikipedia"), "[]".getBytes(), execution);
+        assertEquals(1, cache.toMap().get("entries"));
+        interceptor.intercept(request(HttpMethod.POST, "/druid/coordinator/v1/rules/wikipedia"), "[]".getBytes(), execution);
+        assertEquals(0, cache.toMap().get("entries"));
+        assertEquals(0L, cache.toMap().get("bytes"));
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointPoolTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private EndpointPool pool(EndpointPool.SelectionStrategy strategy) {
+        return new EndpointPool("router", List.of("http://router-1:8888", "http://router-2:8888/"),
+                strategy, 2, 1000, 500, clock::get);
+    }
+
+    @Test
+    void testLeastOutstandingPrefersIdleEndpoint() {
+        // Arrange
+        EndpointPool pool = pool(EndpointPool.SelectionStrategy.LEAST_OUTSTANDING);
+        Endpoint busy = pool.getEndpoints().get(0);
+        busy.begin();
+
+        // Act
+        Endpoint selected = pool.select(Set.of());
+
+        // Assert
+        assertEquals("http://router-2:8888", selected.getBaseUrl());
+        assertSame(busy, pool.select(Set.of(selected)));
+        assertNull(pool.select(Set.copyOf(pool.getEndpoints())));
+    }
+
+    @Test
+    void testEwmaPrefersFasterEndpoint() {
+        // Arrange
+        EndpointPool pool = pool(EndpointPool.SelectionStrategy.EWMA);
+        Endpoint slow = pool.getEndpoints().get(0);
+        Endpoint fast = pool.getEndpoints().get(1);
+        pool.recordSuccess(slow, TimeUnit.MILLISECONDS.toNanos(200));
+        pool.recordSuccess(fast, TimeUnit.MILLISECONDS.toNanos(20));
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertSame(fast, pool.select(Set.of()));
+        }
+    }
+
+    @Test
+    void testEjectsFailingEndpointAndRetriesPassively() {
+        // Arrange
+        EndpointPool pool = pool(EndpointPool.SelectionStrategy.LEAST_OUTSTANDING);
+        Endpoint failing = pool.getEndpoints().get(0);
+        Endpoint healthy = pool.getEndpoints().get(1);
+
+        // Act
+        pool.recordFailure(failing);
+        pool.recordFailure(failing);
+
+        // Assert
+        for (int i = 0; i < 10; i++) {
+            assertSame(healthy, pool.select(Set.of()));
+        }
+        // Ejected endpoints are still used when nothing else is left
+        assertSame(failing, pool.select(Set.of(healthy)));
+        assertEquals("EJECTED", endpointStats(pool, 0).get("state"));
+
+        // After the ejection period a single failed probe ejects again
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals("PROBING", endpointStats(pool, 0).get("state"));
+        pool.recordFailure(failing);
+        assertEquals("EJECTED", endpointStats(pool, 0).get("state"));
+        assertEquals(2L, endpointStats(pool, 0).get("ejections"));
+
+        // A successful probe restores the endpoint
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        pool.recordSuccess(failing, 1000);
+        assertEquals("HEALTHY", endpointStats(pool, 0).get("state"));
+    }
+
+    @Test
+    void testRewritesUrisOfPoolMembers() {
+        // Arrange
+        EndpointPool pool = pool(EndpointPool.SelectionStrategy.LEAST_OUTSTANDING);
+
+        // Act & Assert
+        assertEquals(URI.create("http://router-2:8888/druid/v2/sql?x=1"),
+                pool.rewrite(URI.create("http://router-1:8888/druid/v2/sql?x=1"), pool.getEndpoints().get(1)));
+        assertNull(pool.rewrite(URI.create("http://other:8888/status"), pool.getEndpoints().get(1)));
+        assertThrows(IllegalArgumentException.class, () -> EndpointPool.SelectionStrategy.of("random"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> endpointStats(EndpointPool pool, int index) {
+        return ((List<Map<String, Object>>) pool.toMap().get("endpoints")).get(index);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBalancingExchangeFilterTest {
+
+    private static final String ROUTER_1 = "http://router-1:8888";
+    private static final String ROUTER_2 = "http://router-2:8888";
+
+    // Per router: a response status
+    private final Map<String, HttpStatus> behaviour = new ConcurrentHashMap<>();
+    private final List<String> attempts = new CopyOnWriteArrayList<>();
+    private volatile Exception firstAttemptFailure;
+    private final EndpointPool pool = new EndpointPool("router", List.of(ROUTER_1, ROUTER_2),
+            EndpointPool.SelectionStrategy.LEAST_OUTSTANDING, 3, 30000, 0);
+    private final LoadBalancingExchangeFilter filter = new LoadBalancingExchangeFilter(pool);
+
+    private final ExchangeFunction exchange = request -> {
+        URI uri = request.url();
+        String router = uri.getScheme() + "://" + uri.getAuthority();
+        attempts.add(router);
+        if (attempts.size() == 1 && firstAttemptFailure != null) {
+            return Mono.error(new WebClientRequestException(firstAttemptFailure, request.method(), uri, new HttpHeaders()));
+        }
+        return Mono.just(ClientResponse.create(behaviour.getOrDefault(router, HttpStatus.OK)).build());
+    };
+
+    private static ClientRequest request(HttpMethod method) {
+        return ClientRequest.create(method, URI.create(ROUTER_1 + "/druid/v2/sql")).build();
+    }
+
+    @Test
+    void testRefusedConnectionFailsOverForAnyMethod() {
+        // Arrange
+        firstAttemptFailure = new ConnectException("refused");
+
+        // Act
+        ClientResponse response = filter.filter(request(HttpMethod.POST), exchange).block();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.statusCode());
+        assertEquals(2, attempts.size());
+        assertNotEquals(attempts.get(0), attempts.get(1));
+    }
+
+    @Test
+    void testPostIsNotRepeatedAfterTimeout() {
+        // Arrange
+        firstAttemptFailure = new SocketTimeoutException("timeout");
+
+        // Act & Assert
+        assertThrows(WebClientRequestException.class, () -> filter.filter(request(HttpMethod.POST), exchange).block());
+        assertEquals(1, attempts.size());
+    }
+
+    @Test
+    void testGetFailsOverOnServerError() {
+        // Arrange
+        behaviour.put(ROUTER_1, HttpStatus.SERVICE_UNAVAILABLE);
+        behaviour.put(ROUTER_2, HttpStatus.SERVICE_UNAVAILABLE);
+
+        // Act
+        ClientResponse response = filter.filter(request(HttpMethod.GET), exchange).block();
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.statusCode());
+        assertEquals(List.of(ROUTER_1, ROUTER_2), attempts.stream().sorted().toList());
+        pool.getEndpoints().forEach(endpoint -> assertEquals(0, endpoint.getOutstanding()));
+    }
+
+    @Test
+    void testLeavesUrlsOutsideThePoolAlone() {
+        // Act
+        filter.filter(ClientRequest.create(HttpMethod.GET, URI.create("http://coordinator:8081/status")).build(), exchange).block();
+
+        // Assert
+        assertEquals(List.of("http://coordinator:8081"), attempts);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoadBalancingInterceptorTest {
+
+    private static final String ROUTER_1 = "http://router-1:8888";
+    private static final String ROUTER_2 = "http://router-2:8888";
+
+    // Per router: a response status, or an exception to throw
+    private final Map<String, Object> behaviour = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+    private final AtomicInteger totalAttempts = new AtomicInteger();
+    private volatile long firstAttemptDelayMs;
+    private final ClientHttpRequestExecution execution = Mockito.mock(ClientHttpRequestExecution.class);
+
+    private final ClientHttpRequestFactory requestFactory = (uri, method) -> {
+        String router = uri.getScheme() + "://" + uri.getAuthority();
+        ClientHttpRequest request = Mockito.mock(ClientHttpRequest.class);
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+        when(request.getBody()).thenReturn(new ByteArrayOutputStream());
+        when(request.execute()).thenAnswer(invocation -> {
+            attempts.computeIfAbsent(router, key -> new AtomicInteger()).incrementAndGet();
+            if (totalAttempts.incrementAndGet() == 1 && firstAttemptDelayMs > 0) {
+                Thread.sleep(firstAttemptDelayMs);
+            }
+            Object action = behaviour.get(router);
+            if (action instanceof IOException e) {
+                throw e;
+            }
+            ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+            when(response.getStatusCode()).thenReturn((HttpStatus) action);
+            return response;
+        });
+        return request;
+    };
+
+    private LoadBalancingInterceptor interceptor(long hedgeDelayMs) {
+        EndpointPool pool = new EndpointPool("router", List.of(ROUTER_1, ROUTER_2),
+                EndpointPool.SelectionStrategy.LEAST_OUTSTANDING, 3, 30000, hedgeDelayMs);
+        return new LoadBalancingInterceptor(pool, requestFactory);
+    }
+
+    private static HttpRequest request(HttpMethod method, String uri) {
+        HttpRequest request = Mockito.mock(HttpRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getURI()).thenReturn(URI.create(uri));
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+        return request;
+    }
+
+    private int attemptsOn(String router) {
+        return attempts.getOrDefault(router, new AtomicInteger()).get();
+    }
+
+    @Test
+    void testGetFailsOverToHealthyEndpoint() throws Exception {
+        // Arrange
+        behaviour.put(ROUTER_1, new SocketTimeoutException("read timed out"));
+        behaviour.put(ROUTER_2, HttpStatus.OK);
+        LoadBalancingInterceptor interceptor = interceptor(0);
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(HttpStatus.OK, interceptor.intercept(request(HttpMethod.GET, ROUTER_1 + "/status"), new byte[0], execution).getStatusCode());
+        }
+        // router-1 is ejected after three failures and not tried again
+        assertTrue(attemptsOn(ROUTER_1) <= 3);
+        assertEquals(5, attemptsOn(ROUTER_2));
+        verify(execution, never()).execute(any(), any());
+    }
+
+    @Test
+    void testGetReturnsLastServerErrorWhenAllEndpointsFail() throws Exception {
+        // Arrange
+        behaviour.put(ROUTER_1, HttpStatus.SERVICE_UNAVAILABLE);
+        behaviour.put(ROUTER_2, HttpStatus.SERVICE_UNAVAILABLE);
+
+        // Act
+        ClientHttpResponse response = interceptor(0).intercept(request(HttpMethod.GET, ROUTER_1 + "/status"), new byte[0], execution);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(2, totalAttempts.get());
+    }
+
+    @Test
+    void testPostOnlyFailsOverWhenConnectionIsRefused() throws Exception {
+        // Arrange
+        behaviour.put(ROUTER_1, new ConnectException("refused"));
+        behaviour.put(ROUTER_2, new ConnectException("refused"));
+        LoadBalancingInterceptor interceptor = interceptor(0);
+
+        // Act & Assert
+        assertThrows(ConnectException.class, () -> interceptor.intercept(request(HttpMethod.POST, ROUTER_1 + "/druid/v2/sql"), "{}".getBytes(), execution));
+        assertEquals(2, totalAttempts.get());
+
+        // Arrange
+        totalAttempts.set(0);
+        behaviour.put(ROUTER_1, new SocketTimeoutException("read timed out"));
+        behaviour.put(ROUTER_2, new SocketTimeoutException("read timed out"));
+
+        // Act & Assert: a POST that may have reached Druid is not repeated
+        assertThrows(SocketTimeoutException.class, () -> interceptor.intercept(request(HttpMethod.POST, ROUTER_1 + "/druid/v2/sql"), "{}".getBytes(), execution));
+        assertEquals(1, totalAttempts.get());
+    }
+
+    @Test
+    void testSlowGetIsHedgedToSecondEndpoint() throws Exception {
+        // Arrange
+        behaviour.put(ROUTER_1, HttpStatus.OK);
+        behaviour.put(ROUTER_2, HttpStatus.OK);
+        firstAttemptDelayMs = 2000;
+        long start = System.nanoTime();
+
+        // Act
+        ClientHttpResponse response = interceptor(50).intercept(request(HttpMethod.GET, ROUTER_1 + "/status"), new byte[0], execution);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, attemptsOn(ROUTER_1));
+        assertEquals(1, attemptsOn(ROUTER_2));
+        assertTrue(System.nanoTime() - start < 1_500_000_000L, "Hedged request should not wait for the slow endpoint");
+    }
+
+    @Test
+    void testRequestIsOutstandingUntilResponseIsClosed() throws Exception {
+        // Arrange
+        behaviour.put(ROUTER_1, HttpStatus.OK);
+        behaviour.put(ROUTER_2, HttpStatus.OK);
+        EndpointPool pool = new EndpointPool("router", List.of(ROUTER_1, ROUTER_2),
+                EndpointPool.SelectionStrategy.LEAST_OUTSTANDING, 3, 30000, 0);
+        LoadBalancingInterceptor interceptor = new LoadBalancingInterceptor(pool, requestFactory);
+
+        // Act
+        ClientHttpResponse first = interceptor.intercept(request(HttpMethod.GET, ROUTER_1 + "/status"), new byte[0], execution);
+        ClientHttpResponse second = interceptor.intercept(request(HttpMethod.GET, ROUTER_1 + "/status"), new byte[0], execution);
+
+        // Assert: the endpoint still streaming the first body is not chosen again
+        assertEquals(1, attemptsOn(ROUTER_1));
+        assertEquals(1, attemptsOn(ROUTER_2));
+        assertEquals(2, pool.getEndpoints().stream().mapToInt(Endpoint::getOutstanding).sum());
+
+        first.close();
+        first.close();
+        second.close();
+        assertEquals(0, pool.getEndpoints().stream().mapToInt(Endpoint::getOutstanding).sum());
+    }
+
+    @Test
+    void testForeignUrisBypassThePool() throws Exception {
+        // Arrange
+        HttpRequest request = request(HttpMethod.GET, "http://elsewhere:8081/status");
+        ClientHttpResponse delegated = Mockito.mock(ClientHttpResponse.class);
+        when(execution.execute(any(), any())).thenReturn(delegated);
+
+        // Act & Assert
+        assertSame(delegated, interceptor(0).intercept(request, new byte[0], execution));
+        assertEquals(0, totalAttempts.get());
+    }
+
+    @Test
+    void testCircuitBreakersAreKeptPerEndpoint() throws Exception {
+        // Arrange
+        behaviour.put(ROUTER_1, HttpStatus.SERVICE_UNAVAILABLE);
+        behaviour.put(ROUTER_2, HttpStatus.OK);
+        DruidProperties.CircuitBreaker config = new DruidProperties().getCircuitBreaker();
+        config.setFailureThreshold(3);
+        config.setOpenDurationMs(60000);
+        CircuitBreakerRegistry registry = new CircuitBreakerRegistry(config, System::nanoTime);
+        EndpointPool pool = new EndpointPool("router", List.of(ROUTER_1, ROUTER_2),
+                EndpointPool.SelectionStrategy.LEAST_OUTSTANDING, 100, 30000, 0);
+        LoadBalancingInterceptor interceptor = new LoadBalancingInterceptor(pool, requestFactory,
+                List.of(new CircuitBreakerInterceptor(registry, requestFactory, headers -> {
+                })));
+
+        try {
+            // Act
+            int unavailable = 0;
+            for (int i = 0; i < 10; i++) {
+                ClientHttpResponse response = interceptor.intercept(request(HttpMethod.POST, ROUTER_1 + "/druid/v2/sql"), "{}".getBytes(), execution);
+                if (response.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
+                    unavailable++;
+                }
+            }
+
+            // Assert: once router-1's circuit is open, even POSTs fail over to router-2
+            assertEquals(3, unavailable);
+            assertEquals(3, attemptsOn(ROUTER_1));
+            assertEquals(7, attemptsOn(ROUTER_2));
+            Map<String, CircuitBreaker.State> states = new ConcurrentHashMap<>();
+            registry.getBreakers().forEach(breaker -> states.put(breaker.getBaseUrl(), breaker.getState()));
+            assertEquals(Map.of(ROUTER_1, CircuitBreaker.State.OPEN, ROUTER_2, CircuitBreaker.State.CLOSED), states);
+        } finally {
+            registry.shutdown();
+        }
+    }
+}
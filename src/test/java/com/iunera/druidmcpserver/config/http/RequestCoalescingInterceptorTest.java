@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class RequestCoalescingInterceptorTest {
+
+    private DruidProperties druidProperties;
+    private RequestCoalescer coalescer;
+    private RequestCoalescingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        druidProperties = new DruidProperties();
+        coalescer = new RequestCoalescer(druidProperties);
+        interceptor = new RequestCoalescingInterceptor(coalescer);
+    }
+
+    private static HttpRequest request(HttpMethod method, String path, Map<String, Object> attributes) {
+        HttpRequest request = Mockito.mock(HttpRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getURI()).thenReturn(URI.create("http://router:8888" + path));
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+        when(request.getAttributes()).thenReturn(attributes);
+        return request;
+    }
+
+    private static ClientHttpResponse response(String body) throws IOException {
+        ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(response.getHeaders()).thenReturn(new HttpHeaders());
+        when(response.getBody()).thenAnswer(invocation -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        return response;
+    }
+
+    /**
+     * Execution that blocks until released, so that the other callers find the request in flight
+     */
+    private static ClientHttpRequestExecution blockingExecution(AtomicInteger calls, CountDownLatch release, Object result) {
+        return (request, body) -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (result instanceof IOException e) {
+                throw e;
+            }
+            return (ClientHttpResponse) result;
+        };
+    }
+
+    private List<CompletableFuture<Object>> callConcurrently(int callers, HttpRequest request, byte[] body,
+                                                            ClientHttpRequestExecution execution) throws Exception {
+        List<CompletableFuture<Object>> results = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            results.add(result);
+            threads.add(Thread.ofVirtual().start(() -> {
+                try (ClientHttpResponse response = interceptor.intercept(request, body, execution)) {
+                    result.complete(new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    result.complete(e);
+                }
+            }));
+        }
+        // Wait until all callers are either executing or waiting for the shared call
+        for (int i = 0; i < 500 && threads.stream().anyMatch(thread -> thread.getState() != Thread.State.WAITING
+                && thread.getState() != Thread.State.TIMED_WAITING); i++) {
+            Thread.sleep(10);
+        }
+        return results;
+    }
+
+    @Test
+    void testIdenticalConcurrentReadsShareOneCall() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ClientHttpRequestExecution execution = blockingExecution(calls, release, response("[\"wikipedia\"]"));
+        HttpRequest request = request(HttpMethod.GET, "/druid/coordinator/v1/datasources", new HashMap<>());
+
+        // Act
+        List<CompletableFuture<Object>> results = callConcurrently(5, request, new byte[0], execution);
+        release.countDown();
+
+        // Assert
+        for (CompletableFuture<Object> result : results) {
+            assertEquals("[\"wikipedia\"]", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(4L, coalescer.toMap().get("callsSaved"));
+        assertEquals(0, coalescer.toMap().get("inFlight"));
+    }
+
+    @Test
+    void testWaitingCallersGetTheSameError() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ConnectException failure = new ConnectException("refused");
+        HttpRequest request = request(HttpMethod.POST, "/druid/v2/sql", new HashMap<>());
+
+        // Act
+        List<CompletableFuture<Object>> results = callConcurrently(3, request, "{\"query\":\"SELECT 1\"}".getBytes(),
+                blockingExecution(calls, release, failure));
+        release.countDown();
+
+        // Assert
+        for (CompletableFuture<Object> result : results) {
+            assertSame(failure, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testDoesNotCoalesceWritesStreamsOrCompletedCalls() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        ClientHttpRequestExecution execution = (request, body) -> {
+            calls.incrementAndGet();
+            return response("{}");
+        };
+        HttpRequest read = request(HttpMethod.GET, "/druid/coordinator/v1/servers", new HashMap<>());
+
+        // Act
+        interceptor.intercept(read, new byte[0], execution).close();
+        interceptor.intercept(read, new byte[0], execution).close();
+        interceptor.intercept(request(HttpMethod.POST, "/druid/indexer/v1/task", new HashMap<>()), new byte[0], execution).close();
+        interceptor.intercept(request(HttpMethod.POST, "/druid/v2/sql", Map.of(RequestCoalescingInterceptor.SKIP_ATTRIBUTE, true)),
+                new byte[0], execution).close();
+
+        // Assert
+        assertEquals(4, calls.get());
+        assertEquals(2L, coalescer.toMap().get("executed"));
+        assertEquals(0L, coalescer.toMap().get("callsSaved"));
+    }
+
+    @Test
+    void testLargeResponsesAreStreamedAndNotShared() throws Exception {
+        // Arrange
+        druidProperties.getCoalescing().setMaxBufferBytes(4);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ClientHttpRequestExecution execution = blockingExecution(calls, release, response("[1,2,3,4]"));
+        HttpRequest request = request(HttpMethod.GET, "/druid/coordinator/v1/metadata/segments", new HashMap<>());
+
+        // Act
+        List<CompletableFuture<Object>> results = callConcurrently(2, request, new byte[0], execution);
+        release.countDown();
+
+        // Assert
+        for (CompletableFuture<Object> result : results) {
+            assertEquals("[1,2,3,4]", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, calls.get());
+        assertEquals(1L, coalescer.toMap().get("tooLargeToShare"));
+    }
+}
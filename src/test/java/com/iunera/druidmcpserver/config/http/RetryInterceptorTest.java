@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetryInterceptorTest {
+
+    private final ClientHttpRequestExecution execution = Mockito.mock(ClientHttpRequestExecution.class);
+    private DruidProperties.Retry config;
+    private RetryPolicy policy;
+    private RetryInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        DruidProperties druidProperties = new DruidProperties();
+        config = druidProperties.getRetry();
+        config.setInitialBackoffMs(1);
+        config.setMaxBackoffMs(5);
+        policy = new RetryPolicy(druidProperties);
+        interceptor = new RetryInterceptor(policy);
+    }
+
+    private static HttpRequest request(HttpMethod method, String path) {
+        HttpRequest request = Mockito.mock(HttpRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getURI()).thenReturn(URI.create("http://router:8888" + path));
+        return request;
+    }
+
+    private static ClientHttpResponse response(HttpStatus status, String body, String retryAfter) throws Exception {
+        ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+        HttpHeaders headers = new HttpHeaders();
+        if (retryAfter != null) {
+            headers.add(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        when(response.getStatusCode()).thenReturn(status);
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        return response;
+    }
+
+    @Test
+    void testRetriesTransientBrokerErrors() throws Exception {
+        // Arrange
+        ClientHttpResponse unavailable = response(HttpStatus.SERVICE_UNAVAILABLE, "", null);
+        ClientHttpResponse ok = response(HttpStatus.OK, "[]", null);
+        when(execution.execute(any(), any())).thenReturn(unavailable, ok);
+
+        // Act
+        ClientHttpResponse result = interceptor.intercept(request(HttpMethod.POST, "/druid/v2/sql"), "{}".getBytes(), execution);
+
+        // Assert
+        assertSame(ok, result);
+        verify(unavailable).close();
+        Map<String, Object> stats = policy.toMap();
+        assertEquals(1L, stats.get("retries"));
+        assertEquals(1L, stats.get("recoveredByRetry"));
+        assertEquals(Map.of("503", 1L), stats.get("retriesByCause"));
+    }
+
+    @Test
+    void testRetriesCapacityExceededButReturnsOtherServerErrors() throws Exception {
+        // Arrange
+        ClientHttpResponse capacity = response(HttpStatus.INTERNAL_SERVER_ERROR,
+                "{\"errorClass\": \"org.apache.druid.query.QueryCapacityExceededException\"}", null);
+        ClientHttpResponse failure = response(HttpStatus.INTERNAL_SERVER_ERROR, "{\"error\": \"Unknown exception\"}", null);
+        when(execution.execute(any(), any())).thenReturn(capacity, failure);
+
+        // Act
+        ClientHttpResponse result = interceptor.intercept(request(HttpMethod.GET, "/druid/coordinator/v1/datasources"), new byte[0], execution);
+
+        // Assert: the body of the returned error is still readable
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, result.getStatusCode());
+        assertEquals("{\"error\": \"Unknown exception\"}", new String(result.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        verify(execution, times(2)).execute(any(), any());
+    }
+
+    @Test
+    void testDoesNotRetryWrites() throws Exception {
+        // Arrange
+        ClientHttpResponse unavailable = response(HttpStatus.SERVICE_UNAVAILABLE, "", null);
+        when(execution.execute(any(), any())).thenReturn(unavailable);
+
+        // Act
+        interceptor.intercept(request(HttpMethod.POST, "/druid/v2/sql/task"), "{}".getBytes(), execution);
+        interceptor.intercept(request(HttpMethod.DELETE, "/druid/coordinator/v1/datasources/wikipedia"), new byte[0], execution);
+
+        // Assert
+        verify(execution, times(2)).execute(any(), any());
+        assertEquals(0L, policy.toMap().get("retries"));
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttemptsOnIoErrors() throws Exception {
+        // Arrange
+        when(execution.execute(any(), any())).thenThrow(new SocketTimeoutException("read timed out"));
+
+        // Act & Assert
+        assertThrows(SocketTimeoutException.class,
+                () -> interceptor.intercept(request(HttpMethod.GET, "/druid/indexer/v1/tasks"), new byte[0], execution));
+        verify(execution, times(3)).execute(any(), any());
+        assertEquals(1L, policy.toMap().get("attemptsExhausted"));
+    }
+
+    @Test
+    void testRetryBudgetAndRetryAfterLimitRetries() throws Exception {
+        // Arrange
+        DruidProperties noBudget = new DruidProperties();
+        noBudget.getRetry().setBudgetRatio(0);
+        noBudget.getRetry().setMinRetriesPerSecond(0);
+        RetryPolicy exhaustedPolicy = new RetryPolicy(noBudget);
+        ClientHttpResponse unavailable = response(HttpStatus.SERVICE_UNAVAILABLE, "", null);
+        ClientHttpResponse tooLate = response(HttpStatus.TOO_MANY_REQUESTS, "", "60");
+        when(execution.execute(any(), any())).thenReturn(unavailable, tooLate);
+
+        // Act & Assert: no budget left
+        assertSame(unavailable, new RetryInterceptor(exhaustedPolicy).intercept(request(HttpMethod.GET, "/status"), new byte[0], execution));
+        assertEquals(1L, exhaustedPolicy.toMap().get("deniedByBudget"));
+
+        // Act & Assert: the server asks to come back later than we are willing to wait
+        assertSame(tooLate, interceptor.intercept(request(HttpMethod.GET, "/status"), new byte[0], execution));
+        assertEquals(0L, policy.toMap().get("retries"));
+    }
+
+    @Test
+    void testParsesRetryAfter() {
+        String inTenSeconds = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(10));
+
+        assertEquals(2000, RetryInterceptor.parseRetryAfterMs("2"));
+        assertTrue(RetryInterceptor.parseRetryAfterMs(inTenSeconds) > 8000);
+        assertEquals(-1, RetryInterceptor.parseRetryAfterMs("soon"));
+        assertEquals(-1, RetryInterceptor.parseRetryAfterMs(null));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.config.http;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ServiceRoutingInterceptorTest {
+
+    private static final String ROUTER = "http://router:8888";
+    private static final String COORDINATOR = "http://coordinator-1:8081";
+    private static final String BROKER = "http://broker-1:8082";
+
+    // Per direct endpoint: a response status, or an exception to throw
+    private final Map<String, Object> behaviour = new ConcurrentHashMap<>();
+    private final List<URI> directRequests = new CopyOnWriteArrayList<>();
+    private final ClientHttpRequestExecution execution = Mockito.mock(ClientHttpRequestExecution.class);
+    private final ClientHttpResponse routerResponse = Mockito.mock(ClientHttpResponse.class);
+    private ServiceEndpointRegistry registry;
+    private ServiceRoutingInterceptor interceptor;
+
+    private final ClientHttpRequestFactory requestFactory = (uri, method) -> {
+        ClientHttpRequest request = Mockito.mock(ClientHttpRequest.class);
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+        when(request.getBody()).thenReturn(new ByteArrayOutputStream());
+        when(request.execute()).thenAnswer(invocation -> {
+            directRequests.add(uri);
+            Object action = behaviour.get(uri.getScheme() + "://" + uri.getAuthority());
+            if (action instanceof IOException e) {
+                throw e;
+            }
+            ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+            when(response.getStatusCode()).thenReturn((HttpStatus) action);
+            return response;
+        });
+        return request;
+    };
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DruidProperties druidProperties = new DruidProperties();
+        druidProperties.getRouter().setHedgeDelayMs(0);
+        registry = new ServiceEndpointRegistry(druidProperties);
+        registry.update(DruidService.COORDINATOR, List.of(COORDINATOR));
+        registry.update(DruidService.BROKER, List.of(BROKER));
+        interceptor = new ServiceRoutingInterceptor(registry, requestFactory);
+        when(routerResponse.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(execution.execute(any(), any())).thenReturn(routerResponse);
+    }
+
+    private static HttpRequest request(HttpMethod method, String path) {
+        HttpRequest request = Mockito.mock(HttpRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getURI()).thenReturn(URI.create(ROUTER + path));
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+        return request;
+    }
+
+    @Test
+    void testRoutesOwnedPathsDirectly() throws Exception {
+        // Arrange
+        behaviour.put(COORDINATOR, HttpStatus.OK);
+
+        // Act
+        ClientHttpResponse response = interceptor.intercept(request(HttpMethod.GET, "/druid/coordinator/v1/datasources?full"), new byte[0], execution);
+
+        // Assert
+        assertNotSame(routerResponse, response);
+        assertEquals(List.of(URI.create(COORDINATOR + "/druid/coordinator/v1/datasources?full")), directRequests);
+        verify(execution, never()).execute(any(), any());
+    }
+
+    @Test
+    void testUnknownServicesGoThroughTheRouter() throws Exception {
+        // Act & Assert: no overlord was discovered, /status is router-only
+        assertSame(routerResponse, interceptor.intercept(request(HttpMethod.GET, "/druid/indexer/v1/tasks"), new byte[0], execution));
+        assertSame(routerResponse, interceptor.intercept(request(HttpMethod.GET, "/status/health"), new byte[0], execution));
+        assertTrue(directRequests.isEmpty());
+    }
+
+    @Test
+    void testFormerLeaderRedirectFallsBackAndInvalidates() throws Exception {
+        // Arrange
+        behaviour.put(COORDINATOR, HttpStatus.TEMPORARY_REDIRECT);
+        Runnable rediscovery = Mockito.mock(Runnable.class);
+        registry.setInvalidationListener(rediscovery);
+
+        // Act
+        ClientHttpResponse response = interceptor.intercept(request(HttpMethod.POST, "/druid/coordinator/v1/config"), "{}".getBytes(), execution);
+
+        // Assert
+        assertSame(routerResponse, response);
+        assertNull(registry.route(DruidService.COORDINATOR));
+        verify(rediscovery).run();
+    }
+
+    @Test
+    void testPostFallsBackOnlyWhenNotSent() throws Exception {
+        // Arrange
+        behaviour.put(BROKER, new ConnectException("refused"));
+
+        // Act & Assert
+        assertSame(routerResponse, interceptor.intercept(request(HttpMethod.POST, "/druid/v2/sql"), "{}".getBytes(), execution));
+
+        // Arrange
+        behaviour.put(BROKER, new SocketTimeoutException("read timed out"));
+
+        // Act & Assert: the broker may already be executing the query
+        assertThrows(SocketTimeoutException.class,
+                () -> interceptor.intercept(request(HttpMethod.POST, "/druid/v2/sql"), "{}".getBytes(), execution));
+    }
+
+    @Test
+    void testServiceForPath() {
+        assertEquals(DruidService.BROKER, DruidService.forPath("/druid/v2"));
+        assertEquals(DruidService.BROKER, DruidService.forPath("/druid/v2/sql/statements/q1"));
+        assertEquals(DruidService.OVERLORD, DruidService.forPath("/druid/indexer/v1/supervisor"));
+        assertEquals(DruidService.COORDINATOR, DruidService.forPath("/druid-ext/basic-security/authentication/db/basic/users"));
+        assertNull(DruidService.forPath("/druid/v2x"));
+        assertNull(DruidService.forPath("/status"));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.catalog;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import com.iunera.druidmcpserver.monitoring.changes.ClusterChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceCatalogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger datasourceLoads = new AtomicInteger();
+    private final AtomicInteger lookupLoads = new AtomicInteger();
+    private DruidProperties druidProperties;
+    private ResourceCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        druidProperties = new DruidProperties();
+        catalog = new ResourceCatalog(druidProperties, now::get,
+                () -> {
+                    datasourceLoads.incrementAndGet();
+                    return ResourceCatalog.datasources(objectMapper.readTree(
+                            "[{\"TABLE_NAME\": \"wikipedia\"}, {\"TABLE_NAME\": \"koalas\"}, {\"TABLE_NAME\": \"edits\"}]"));
+                },
+                () -> ResourceCatalog.segments(objectMapper.readTree(
+                        "[{\"segment_id\": \"wikipedia_2024_v1\", \"datasource\": \"wikipedia\"}]")),
+                () -> {
+                    lookupLoads.incrementAndGet();
+                    return ResourceCatalog.lookups(objectMapper.readTree(
+                            "{\"__default\": {\"country\": {\"version\": \"v1\"}, \"city\": {\"version\": \"v2\"}}, \"hot\": {\"country\": {\"version\": \"v3\"}}}"));
+                });
+    }
+
+    @Test
+    void testReadsByKeyFromOneLoad() {
+        // Act
+        JsonNode wikipedia = catalog.getDatasource("wikipedia").orElseThrow();
+        boolean missing = catalog.getDatasource("missing").isPresent();
+        JsonNode hotCountry = catalog.getLookup("hot", "country").orElseThrow();
+
+        // Assert
+        assertEquals("wikipedia", wikipedia.get("TABLE_NAME").asText());
+        assertFalse(missing);
+        assertEquals("v3", hotCountry.get("version").asText());
+        assertEquals("wikipedia", catalog.getSegment("wikipedia_2024_v1").orElseThrow().get("datasource").asText());
+        assertEquals(1, datasourceLoads.get());
+    }
+
+    @Test
+    void testPaginatesInSortedOrderWithCursor() {
+        // Arrange
+        List<String> keys = new ArrayList<>();
+
+        // Act
+        ResourceCatalog.Page first = catalog.list(ResourceCatalog.Kind.DATASOURCE, null, 2);
+        keys.addAll(first.keys());
+        ResourceCatalog.Page second = catalog.list(ResourceCatalog.Kind.DATASOURCE, first.nextCursor(), 2);
+        keys.addAll(second.keys());
+
+        // Assert
+        assertEquals(List.of("edits", "koalas", "wikipedia"), keys);
+        assertEquals(3, first.total());
+        assertNotNull(first.nextCursor());
+        assertNull(second.nextCursor());
+        assertEquals(List.of("__default/city", "__default/country"),
+                catalog.list(ResourceCatalog.Kind.LOOKUP, null, 2).keys());
+    }
+
+    @Test
+    void testCursorSurvivesRemovedKey() {
+        // Arrange
+        String cursor = ResourceCatalog.encodeCursor("f");
+
+        // Act
+        ResourceCatalog.Page page = catalog.list(ResourceCatalog.Kind.DATASOURCE, cursor, 10);
+
+        // Assert
+        assertEquals(List.of("koalas", "wikipedia"), page.keys());
+        assertThrows(IllegalArgumentException.class, () -> catalog.list(ResourceCatalog.Kind.DATASOURCE, "not base64!", 10));
+    }
+
+    @Test
+    void testReloadsOnChangeEventOrMaxAge() {
+        // Arrange
+        catalog.getDatasource("wikipedia");
+        catalog.getLookup("hot", "country");
+
+        // Act
+        catalog.onSegmentsChanged(new ClusterChangeEvent.SegmentsChanged(Set.of("wikipedia")));
+        catalog.getDatasource("wikipedia");
+        catalog.getLookup("hot", "country");
+        now.addAndGet(druidProperties.getMcp().getResourceCatalog().getMaxAgeMs());
+        catalog.getLookup("hot", "country");
+
+        // Assert
+        assertEquals(2, datasourceLoads.get());
+        assertEquals(2, lookupLoads.get());
+        assertEquals(Map.of("datasource", 3, "segment", 0, "lookup", 3), catalog.toMap());
+    }
+}
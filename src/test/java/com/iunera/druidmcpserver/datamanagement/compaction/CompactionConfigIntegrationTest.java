@@ -54,7 +54,7 @@ class CompactionConfigIntegrationTest {
         assertNotNull(compactionConfigTools);
 
         // Test that the tool provider handles connection errors gracefully
-        String result = compactionConfigTools.getCompactionConfig(null, null);
+        String result = compactionConfigTools.getCompactionConfig(null, null, null);
         assertNotNull(result);
         System.out.println("[DEBUG_LOG] Compaction config tool provider result: " + result);
 
@@ -68,7 +68,7 @@ class CompactionConfigIntegrationTest {
         System.out.println("[DEBUG_LOG] Testing compaction config for specific datasource");
         String testDatasource = "test-datasource";
 
-        String result = compactionConfigTools.getCompactionConfig(testDatasource, null);
+        String result = compactionConfigTools.getCompactionConfig(testDatasource, null, null);
         assertNotNull(result);
         System.out.println("[DEBUG_LOG] Compaction config for datasource result: " + result);
 
@@ -111,7 +111,7 @@ class CompactionConfigIntegrationTest {
         System.out.println("[DEBUG_LOG] Testing compaction config history functionality");
         String testDatasource = "test-datasource";
 
-        String result = compactionConfigTools.getCompactionConfig(testDatasource, true);
+        String result = compactionConfigTools.getCompactionConfig(testDatasource, true, null);
         assertNotNull(result);
         System.out.println("[DEBUG_LOG] Compaction config history result: " + result);
 
@@ -124,7 +124,7 @@ class CompactionConfigIntegrationTest {
     void testCompactionStatus() {
         System.out.println("[DEBUG_LOG] Testing compaction status functionality");
 
-        String result = compactionConfigTools.getCompactionStatus(null);
+        String result = compactionConfigTools.getCompactionStatus(null, null);
         assertNotNull(result);
         System.out.println("[DEBUG_LOG] Compaction status result: " + result);
 
@@ -138,7 +138,7 @@ class CompactionConfigIntegrationTest {
         System.out.println("[DEBUG_LOG] Testing compaction status for specific datasource");
         String testDatasource = "test-datasource";
 
-        String result = compactionConfigTools.getCompactionStatus(testDatasource);
+        String result = compactionConfigTools.getCompactionStatus(testDatasource, null);
         assertNotNull(result);
         System.out.println("[DEBUG_LOG] Compaction status for datasource result: " + result);
 
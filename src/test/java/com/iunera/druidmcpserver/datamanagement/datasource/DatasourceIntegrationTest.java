@@ -86,7 +86,7 @@ class DatasourceIntegrationTest {
 
     @Test
     void testQueryServiceMethodsExist() {
-        String result = queryTools.queryDruidSql("SELECT 1");
+        String result = queryTools.queryDruidSql("SELECT 1", null, null);
         assertNotNull(result, "queryDruidSql should return a non-null result");
         assertFalse(result.trim().isEmpty(), "queryDruidSql should return a non-empty result");
 
@@ -104,7 +104,7 @@ class DatasourceIntegrationTest {
         String testDatasourceName = "test-datasource";
         ReadResourceRequest datasourceRequest = new ReadResourceRequest("datasource://" + testDatasourceName);
         ReadResourceResult datasourceResult = datasourceResourceProvider.getDatasource(datasourceRequest, testDatasourceName);
-        String queryResult = queryTools.queryDruidSql("SELECT 1");
+        String queryResult = queryTools.queryDruidSql("SELECT 1", null, null);
 
 
         assertNotNull(datasourceResult);
@@ -121,7 +121,7 @@ class DatasourceIntegrationTest {
     @Test
     void testDatasourceToolMethod() {
         // Test the new @Tool method for listing datasources
-        String toolResult = datasourceTools.getDatasources(null, null);
+        String toolResult = datasourceTools.getDatasources(null, null, null, null);
         assertNotNull(toolResult, "getDatasources tool method should return a non-null result");
         assertFalse(toolResult.trim().isEmpty(), "getDatasources tool method should return a non-empty result");
 
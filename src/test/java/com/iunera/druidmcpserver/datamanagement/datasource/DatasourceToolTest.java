@@ -39,7 +39,7 @@ class DatasourceToolTest {
     void testListDatasourcesReturnsOnlyNames() {
         System.out.println("[DEBUG_LOG] Testing listDatasources - should return only datasource names");
 
-        String result = datasourceTools.getDatasources(null, null);
+        String result = datasourceTools.getDatasources(null, null, null, null);
         assertNotNull(result, "listDatasources should return a non-null result");
         assertFalse(result.trim().isEmpty(), "listDatasources should return a non-empty result");
 
@@ -62,7 +62,7 @@ class DatasourceToolTest {
     void testShowDatasourceReturnsDetailedInfo() {
         System.out.println("[DEBUG_LOG] Testing showDatasource - should return detailed information");
 
-        String result = datasourceTools.getDatasources("test_datasource", null);
+        String result = datasourceTools.getDatasources("test_datasource", null, null, null);
         assertNotNull(result, "showDatasource should return a non-null result");
         assertFalse(result.trim().isEmpty(), "showDatasource should return a non-empty result");
 
@@ -84,7 +84,7 @@ class DatasourceToolTest {
     void testShowDatasourceWithNonExistentDatasource() {
         System.out.println("[DEBUG_LOG] Testing showDatasource with non-existent datasource");
 
-        String result = datasourceTools.getDatasources("definitely_does_not_exist_datasource_12345", null);
+        String result = datasourceTools.getDatasources("definitely_does_not_exist_datasource_12345", null, null, null);
         assertNotNull(result, "showDatasource should return a non-null result even for non-existent datasource");
         assertFalse(result.trim().isEmpty(), "showDatasource should return a non-empty result");
 
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.export;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import com.iunera.druidmcpserver.datamanagement.query.QueryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+class ResultExportServiceTest {
+
+    private static final String ARRAY_LINES = """
+            ["channel","page","added"]
+            ["#en.wikipedia","Main_Page",10]
+            ["#de.wikipedia","Hauptseite, \\"Portal\\"",null]
+
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private DruidProperties druidProperties;
+    private QueryRepository queryRepository;
+    private ResultExportService service;
+
+    @BeforeEach
+    void setUp() {
+        druidProperties = new DruidProperties();
+        druidProperties.getMcp().getExport().setDirectory(tempDir.toString());
+        queryRepository = Mockito.mock(QueryRepository.class);
+        service = new ResultExportService(queryRepository, druidProperties, new ObjectMapper());
+        service.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testWritesCsvWithHeaderLine() throws Exception {
+        // Arrange
+        ExportJob job = new ExportJob("export-1", "sql", service.resolveTarget("edits", ExportFormat.CSV), ExportFormat.CSV);
+
+        // Act
+        service.writeRows(job, stream(ARRAY_LINES), null);
+
+        // Assert
+        assertEquals(tempDir.resolve("edits.csv"), job.getFile());
+        assertEquals("""
+                channel,page,added
+                #en.wikipedia,Main_Page,10
+                #de.wikipedia,"Hauptseite, ""Portal\""",
+                """, Files.readString(job.getFile()));
+        assertEquals(2, job.getRowsWritten());
+        assertFalse(Files.exists(tempDir.resolve("edits.csv.part")));
+    }
+
+    @Test
+    void testWritesNdjsonWithKnownColumns() throws Exception {
+        // Arrange
+        ExportJob job = new ExportJob("export-2", "statement:q1", service.resolveTarget("edits.ndjson", ExportFormat.NDJSON), ExportFormat.NDJSON);
+
+        // Act
+        service.writeRows(job, stream("[\"#en.wikipedia\",10]\n[\"#de.wikipedia\",{\"a\":1}]\n\n"), List.of("channel", "added"));
+
+        // Assert
+        assertEquals("""
+                {"channel":"#en.wikipedia","added":10}
+                {"channel":"#de.wikipedia","added":{"a":1}}
+                """, Files.readString(job.getFile()));
+    }
+
+    @Test
+    void testCountsEncodedBytes() throws Exception {
+        // Arrange
+        String lines = "[\"Zürich\",\"\uD83D\uDE00\"]\n";
+        ExportJob job = new ExportJob("export-3", "sql", service.resolveTarget("bytes", ExportFormat.NDJSON), ExportFormat.NDJSON);
+
+        // Act
+        service.writeRows(job, stream(lines), List.of("city", "emoji"));
+
+        // Assert
+        assertEquals(lines.getBytes(StandardCharsets.UTF_8).length, job.getBytesRead());
+        assertEquals(lines.getBytes(StandardCharsets.UTF_8).length - 1, ResultExportService.utf8Length(lines.trim()));
+    }
+
+    @Test
+    void testExportSqlQueryRunsInBackground() throws Exception {
+        // Arrange
+        when(queryRepository.streamSqlQuery(anyString(), any(), any())).thenAnswer(invocation ->
+                invocation.<QueryRepository.ResultStreamConsumer<?>>getArgument(2).consume(stream(ARRAY_LINES)));
+
+        // Act
+        ExportJob job = service.exportSqlQuery("SELECT * FROM wikipedia", List.of(), "background", ExportFormat.CSV);
+        for (int i = 0; i < 100 && job.getState() == ExportJob.State.RUNNING; i++) {
+            Thread.sleep(20);
+        }
+
+        // Assert
+        assertEquals(ExportJob.State.SUCCEEDED, job.getState());
+        assertEquals(2L, job.toMap().get("rowsWritten"));
+        assertTrue(service.getJob(job.getId()).isPresent());
+        assertTrue(Files.exists(tempDir.resolve("background.csv")));
+    }
+
+    @Test
+    void testFailedExportRemovesPartialFile() throws Exception {
+        // Arrange
+        when(queryRepository.streamSqlQuery(anyString(), any(), any())).thenAnswer(invocation ->
+                invocation.<QueryRepository.ResultStreamConsumer<?>>getArgument(2).consume(stream("[\"a\"]\n[1]\nnot json\n")));
+
+        // Act
+        ExportJob job = service.exportSqlQuery("SELECT a FROM t", List.of(), "broken", ExportFormat.CSV);
+        for (int i = 0; i < 100 && job.getState() == ExportJob.State.RUNNING; i++) {
+            Thread.sleep(20);
+        }
+
+        // Assert
+        assertEquals(ExportJob.State.FAILED, job.getState());
+        assertFalse(Files.exists(tempDir.resolve("broken.csv")));
+        assertFalse(Files.exists(tempDir.resolve("broken.csv.part")));
+    }
+
+    @Test
+    void testEvictsFinishedJobsAboveCapAndAfterTtl() throws Exception {
+        // Arrange
+        druidProperties.getMcp().getExport().setMaxFinishedJobs(2);
+        when(queryRepository.streamSqlQuery(anyString(), any(), any())).thenAnswer(invocation ->
+                invocation.<QueryRepository.ResultStreamConsumer<?>>getArgument(2).consume(stream(ARRAY_LINES)));
+        List<ExportJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ExportJob job = service.exportSqlQuery("SELECT * FROM wikipedia", List.of(), "capped-" + i, ExportFormat.CSV);
+            awaitFinished(job);
+            jobs.add(job);
+            Thread.sleep(5);
+        }
+
+        // Act
+        List<ExportJob> capped = service.listJobs();
+        druidProperties.getMcp().getExport().setFinishedJobTtlMs(0);
+        Thread.sleep(5);
+        List<ExportJob> expired = service.listJobs();
+
+        // Assert
+        assertEquals(2, capped.size());
+        assertTrue(service.getJob(jobs.get(0).getId()).isEmpty());
+        assertTrue(capped.containsAll(jobs.subList(1, 3)));
+        assertTrue(expired.isEmpty());
+        assertTrue(Files.exists(tempDir.resolve("capped-0.csv")));
+    }
+
+    @Test
+    void testRejectsUnsafeOrExistingFileNames() throws Exception {
+        Files.writeString(tempDir.resolve("existing.csv"), "x");
+
+        assertThrows(IllegalArgumentException.class, () -> service.resolveTarget("../escape", ExportFormat.CSV));
+        assertThrows(IllegalArgumentException.class, () -> service.resolveTarget("sub/file", ExportFormat.CSV));
+        assertThrows(IllegalArgumentException.class, () -> service.resolveTarget("existing", ExportFormat.CSV));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.of("parquet"));
+    }
+
+    private static void awaitFinished(ExportJob job) throws InterruptedException {
+        for (int i = 0; i < 100 && job.getState() == ExportJob.State.RUNNING; i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class DruidMetadataLoaderTest {
+
+    private static final String COLUMNS = """
+            [{"TABLE_NAME": "wikipedia", "COLUMN_NAME": "page", "DATA_TYPE": "VARCHAR"},
+             {"TABLE_NAME": "wikipedia", "COLUMN_NAME": "user", "DATA_TYPE": "VARCHAR"}]
+            """;
+
+    private static final String COLUMN_COUNTS = """
+            [{"TABLE_NAME": "wikipedia", "COLUMN_COUNT": 2}]
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicInteger countQueries = new AtomicInteger();
+    private HttpStatus status = HttpStatus.OK;
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager("druidMetadata");
+    private DruidProperties druidProperties;
+    private SchemaSnapshotStore schemaSnapshotStore;
+
+    private final ClientHttpRequestFactory requestFactory = (uri, method) -> {
+        ClientHttpRequest request = Mockito.mock(ClientHttpRequest.class);
+        ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+        when(request.getBody()).thenReturn(requestBody);
+        when(request.execute()).thenAnswer(invocation -> {
+            boolean countQuery = requestBody.toString(StandardCharsets.UTF_8).contains("COUNT(*)");
+            (countQuery ? countQueries : queries).incrementAndGet();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            ClientHttpResponse response = Mockito.mock(ClientHttpResponse.class);
+            when(response.getStatusCode()).thenReturn(status);
+            when(response.getStatusText()).thenReturn(status.getReasonPhrase());
+            when(response.getHeaders()).thenReturn(headers);
+            when(response.getBody()).thenReturn(new ByteArrayInputStream(
+                    (countQuery ? COLUMN_COUNTS : COLUMNS).getBytes(StandardCharsets.UTF_8)));
+            return response;
+        });
+        return request;
+    };
+
+    @BeforeEach
+    void setUp() {
+        druidProperties = new DruidProperties();
+        druidProperties.getMcp().getSqlSyntaxCorrection().setSnapshotEnabled(true);
+        druidProperties.getMcp().getSqlSyntaxCorrection().setSnapshotPath(tempDir.resolve("schema-snapshot.bin").toString());
+        schemaSnapshotStore = new SchemaSnapshotStore(druidProperties);
+    }
+
+    private DruidMetadataLoader loader() {
+        RestClient restClient = RestClient.builder().baseUrl("http://router:8888").requestFactory(requestFactory).build();
+        return new DruidMetadataLoader(restClient, schemaSnapshotStore, cacheManager, druidProperties);
+    }
+
+    @Test
+    void testRevalidatedSchemaIsNotOverwrittenBySnapshot() throws Exception {
+        // Arrange
+        schemaSnapshotStore.save(Map.of("wikipedia", Set.of("page")), "outdated");
+        DruidMetadataLoader loader = loader();
+        Map<String, Set<String>> fresh = Map.of("wikipedia", Set.of("page", "user"));
+
+        // Act
+        Map<String, Set<String>> first = loader.fetchSchemaMetadata();
+        Cache cache = cacheManager.getCache("druidMetadata");
+        for (int i = 0; i < 100 && !fresh.equals(cache.get(SimpleKey.EMPTY, Map.class)); i++) {
+            Thread.sleep(20);
+        }
+
+        // Assert
+        assertEquals(Map.of("wikipedia", Set.of("page")), first);
+        assertEquals(fresh, cache.get(SimpleKey.EMPTY, Map.class));
+        assertEquals(fresh, loader.fetchSchemaMetadata());
+        assertEquals(1, countQueries.get());
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void testSkipsColumnScanWhenColumnCountsMatch() {
+        // Arrange
+        DruidMetadataLoader loader = loader();
+
+        // Act
+        loader.revalidateSnapshot(Map.of("wikipedia", Set.of("page", "user")));
+
+        // Assert
+        assertEquals(1, countQueries.get());
+        assertEquals(0, queries.get());
+        assertNull(cacheManager.getCache("druidMetadata").get(SimpleKey.EMPTY));
+    }
+
+    @Test
+    void testKeepsSnapshotWhenRevalidationFails() {
+        // Arrange
+        status = HttpStatus.SERVICE_UNAVAILABLE;
+        DruidMetadataLoader loader = loader();
+
+        // Act
+        loader.revalidateSnapshot(Map.of("wikipedia", Set.of("page")));
+
+        // Assert
+        assertEquals(1, countQueries.get());
+        assertEquals(0, queries.get());
+        assertNull(cacheManager.getCache("druidMetadata").get(SimpleKey.EMPTY));
+    }
+
+    @Test
+    void testLoadsSchemaWithoutSnapshotOnce() {
+        // Arrange
+        DruidMetadataLoader loader = loader();
+
+        // Act
+        Map<String, Set<String>> first = loader.fetchSchemaMetadata();
+        Map<String, Set<String>> second = loader.fetchSchemaMetadata();
+
+        // Assert
+        assertEquals(Map.of("wikipedia", Set.of("page", "user")), first);
+        assertSame(first, second);
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void testWarmupCanBeDisabled() {
+        // Arrange
+        druidProperties.getMcp().getSqlSyntaxCorrection().setWarmupEnabled(false);
+        DruidMetadataLoader loader = loader();
+
+        // Act
+        loader.warmupCache();
+
+        // Assert
+        assertEquals(0, queries.get());
+        assertNull(cacheManager.getCache("druidMetadata").get(SimpleKey.EMPTY));
+    }
+
+    @Test
+    void testWarmupLoadsSchema() {
+        // Act
+        loader().warmupCache();
+
+        // Assert
+        assertEquals(1, queries.get());
+        assertNotNull(cacheManager.getCache("druidMetadata").get(SimpleKey.EMPTY));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeQueryTemplateServiceTest {
+
+    private DruidProperties druidProperties;
+    private NativeQueryTemplateService service;
+
+    @BeforeEach
+    void setUp() {
+        druidProperties = new DruidProperties();
+        service = new NativeQueryTemplateService(druidProperties, new ObjectMapper());
+    }
+
+    @Test
+    void testBuiltInTemplatesAvailable() {
+        assertTrue(service.getTemplates().keySet().containsAll(List.of("timeseries", "topN", "groupBy")));
+    }
+
+    @Test
+    void testTypedParameterBinding() {
+        // Act
+        Map<String, Object> query = service.bindTemplate("topN", Map.of(
+                "datasource", "wikipedia",
+                "interval", "2025-01-01/2025-01-02",
+                "dimension", "page",
+                "threshold", 5));
+
+        // Assert
+        assertEquals("topN", query.get("queryType"));
+        assertEquals("wikipedia", query.get("dataSource"));
+        assertEquals(List.of("2025-01-01/2025-01-02"), query.get("intervals"));
+        assertEquals(5, query.get("threshold"));
+        assertEquals("count", query.get("metric"));
+
+        // Optional filter without default value is dropped
+        assertFalse(query.containsKey("filter"));
+    }
+
+    @Test
+    void testDefaultsAndObjectParameters() {
+        // Act
+        Map<String, Object> query = service.bindTemplate("groupBy", Map.of(
+                "datasource", "wikipedia",
+                "interval", "2025-01-01/2025-01-02",
+                "dimensions", List.of("page", "user"),
+                "filter", Map.of("type", "equals", "column", "channel", "matchValueType", "STRING", "matchValue", "#en.wikipedia")));
+
+        // Assert
+        assertEquals(List.of("page", "user"), query.get("dimensions"));
+        assertEquals("all", query.get("granularity"));
+        assertEquals(Map.of("type", "equals", "column", "channel", "matchValueType", "STRING", "matchValue", "#en.wikipedia"), query.get("filter"));
+        assertEquals(100, ((Map<?, ?>) query.get("limitSpec")).get("limit"));
+    }
+
+    @Test
+    void testConfiguredTemplateWithEmbeddedPlaceholders() {
+        // Arrange
+        druidProperties.getMcp().getNativeQuery().getTemplates().put("errorsPerHour",
+                "{\"queryType\": \"timeseries\", \"dataSource\": \"{{datasource}}\", \"intervals\": [\"{{start}}/{{end}}\"], \"granularity\": \"hour\"}");
+
+        // Act
+        Map<String, Object> query = service.bindTemplate("errorsPerHour", Map.of(
+                "datasource", "logs", "start", "2025-01-01", "end", "2025-01-02"));
+
+        // Assert
+        assertEquals(List.of("2025-01-01/2025-01-02"), query.get("intervals"));
+    }
+
+    @Test
+    void testMissingParameterAndUnknownTemplate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.bindTemplate("topN", Map.of("datasource", "wikipedia")));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.bindTemplate("doesNotExist", Map.of()));
+    }
+}
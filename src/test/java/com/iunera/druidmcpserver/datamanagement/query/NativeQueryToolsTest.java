@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NativeQueryToolsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private DruidProperties druidProperties;
+    private QueryRepository queryRepository;
+    private NativeQueryTools tools;
+
+    @BeforeEach
+    void setUp() {
+        druidProperties = new DruidProperties();
+        queryRepository = Mockito.mock(QueryRepository.class);
+        tools = new NativeQueryTools(queryRepository, new NativeQueryTemplateService(druidProperties, objectMapper), objectMapper);
+    }
+
+    @Test
+    void testBoundTemplateMustQueryRequestedDatasource() {
+        // Arrange
+        druidProperties.getMcp().getNativeQuery().getTemplates().put("fixed",
+                "{\"queryType\": \"timeBoundary\", \"dataSource\": \"restricted\"}");
+        druidProperties.getMcp().getNativeQuery().getTemplates().put("injectable",
+                "{\"queryType\": \"timeBoundary\", \"dataSource\": \"{{source:wikipedia}}\"}");
+
+        // Act
+        String fixed = tools.queryDruidNative("wikipedia", "fixed", null, null);
+        String injected = tools.queryDruidNative("wikipedia", "injectable", "{\"source\": \"restricted\"}", null);
+
+        // Assert
+        assertEquals("Error: dataSource 'restricted' of the native query does not match [datasource] 'wikipedia'", fixed);
+        assertEquals("Error: dataSource 'restricted' of the native query does not match [datasource] 'wikipedia'", injected);
+        verify(queryRepository, never()).executeNativeQuery(any());
+    }
+
+    @Test
+    void testTemplateWithoutDataSourceGetsRequestedDatasource() {
+        // Arrange
+        druidProperties.getMcp().getNativeQuery().getTemplates().put("boundary", "{\"queryType\": \"timeBoundary\"}");
+        when(queryRepository.executeNativeQuery(any())).thenReturn(objectMapper.readTree("[]"));
+
+        // Act
+        String result = tools.queryDruidNative("wikipedia", "boundary", null, null);
+
+        // Assert
+        assertEquals("[]", result);
+        verify(queryRepository).executeNativeQuery(Map.of("queryType", "timeBoundary", "dataSource", "wikipedia"));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+class ReactiveQueryToolsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testCorrectsSyntaxOffTheSubscribingThread() {
+        // Arrange
+        AtomicReference<Thread> correctionThread = new AtomicReference<>();
+        SqlSyntaxCorrectionService correctionService = Mockito.mock(SqlSyntaxCorrectionService.class);
+        when(correctionService.correctQuerySyntax(anyString())).thenAnswer(invocation -> {
+            correctionThread.set(Thread.currentThread());
+            return "SELECT 1";
+        });
+        ReactiveQueryRepository repository = Mockito.mock(ReactiveQueryRepository.class);
+        when(repository.executeSqlQuery(anyString(), any())).thenReturn(Mono.just(objectMapper.readTree("[{\"EXPR$0\": 1}]")));
+        ReactiveQueryTools tools = new ReactiveQueryTools(repository, correctionService, objectMapper);
+
+        // Act
+        Mono<String> result = tools.queryDruidSql("select 1", false, null);
+        Thread caller = Thread.currentThread();
+
+        // Assert
+        assertNull(correctionThread.get());
+        assertEquals("[{\"EXPR$0\":1}]", result.block(Duration.ofSeconds(5)));
+        assertNotSame(caller, correctionThread.get());
+        Mockito.verify(repository).executeSqlQuery("SELECT 1", List.of());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaSnapshotStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DruidProperties druidProperties;
+    private SchemaSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        druidProperties = new DruidProperties();
+        druidProperties.getMcp().getSqlSyntaxCorrection().setSnapshotEnabled(true);
+        druidProperties.getMcp().getSqlSyntaxCorrection().setSnapshotPath(tempDir.resolve("schema-snapshot.bin").toString());
+        store = new SchemaSnapshotStore(druidProperties);
+    }
+
+    @Test
+    void testRoundTrip() {
+        // Arrange
+        Map<String, Set<String>> tables = Map.of(
+                "wikipedia", Set.of("__time", "page", "user"),
+                "kttm", Set.of("__time", "session"));
+
+        // Act
+        store.save(tables, "signature");
+        Optional<SchemaSnapshotStore.SchemaSnapshot> snapshot = store.load();
+
+        // Assert
+        assertTrue(snapshot.isPresent());
+        assertEquals(tables, snapshot.get().tables());
+        assertEquals("signature", snapshot.get().signature());
+    }
+
+    @Test
+    void testSignatureCoversColumnNamesAndTypes() {
+        // Arrange
+        Map<String, Map<String, String>> schema = Map.of(
+                "wikipedia", Map.of("__time", "TIMESTAMP", "page", "VARCHAR"),
+                "kttm", Map.of("__time", "TIMESTAMP"));
+        String signature = SchemaSnapshotStore.signature(schema);
+
+        // Act & Assert
+        assertEquals(signature, SchemaSnapshotStore.signature(new TreeMap<>(schema)));
+        assertNotEquals(signature, SchemaSnapshotStore.signature(Map.of(
+                "wikipedia", Map.of("__time", "TIMESTAMP", "title", "VARCHAR"),
+                "kttm", Map.of("__time", "TIMESTAMP"))));
+        assertNotEquals(signature, SchemaSnapshotStore.signature(Map.of(
+                "wikipedia", Map.of("__time", "TIMESTAMP", "page", "BIGINT"),
+                "kttm", Map.of("__time", "TIMESTAMP"))));
+    }
+
+    @Test
+    void testIgnoresSnapshotFromDifferentRouter() {
+        // Arrange
+        store.save(Map.of("wikipedia", Set.of("__time")), "signature");
+        druidProperties.getRouter().setUrl("http://other-router:8888");
+
+        // Act & Assert
+        assertTrue(store.load().isEmpty());
+    }
+
+    @Test
+    void testIgnoresCorruptSnapshot() throws Exception {
+        // Arrange
+        Files.write(tempDir.resolve("schema-snapshot.bin"), new byte[]{0x44, 0x4D, 0x53, 0x53, 0, 0, 0, 1, 0x7F});
+
+        // Act & Assert
+        assertTrue(store.load().isEmpty());
+    }
+
+    @Test
+    void testDisabledStoreDoesNotWrite() {
+        // Arrange
+        druidProperties.getMcp().getSqlSyntaxCorrection().setSnapshotEnabled(false);
+
+        // Act
+        store.save(Map.of("wikipedia", Set.of("__time")), "signature");
+
+        // Assert
+        assertFalse(Files.exists(tempDir.resolve("schema-snapshot.bin")));
+        assertTrue(store.load().isEmpty());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.query;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlParameterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testInfersTypesFromPlainValues() {
+        // Act
+        List<SqlParameter> parameters = SqlParameter.fromJson(objectMapper.readTree("[\"wikipedia\", 10, 0.5, true]"));
+
+        // Assert
+        assertEquals(List.of(
+                new SqlParameter("VARCHAR", "wikipedia"),
+                new SqlParameter("BIGINT", 10L),
+                new SqlParameter("DOUBLE", 0.5),
+                new SqlParameter("BOOLEAN", true)), parameters);
+    }
+
+    @Test
+    void testTypedParameters() {
+        // Act
+        List<SqlParameter> parameters = SqlParameter.fromJson(objectMapper.readTree(
+                "[{\"type\": \"TIMESTAMP\", \"value\": \"2025-01-01 00:00:00\"}, {\"type\": \"BIGINT\", \"value\": 5}]"));
+
+        // Assert
+        assertEquals(List.of(
+                new SqlParameter("TIMESTAMP", "2025-01-01 00:00:00"),
+                new SqlParameter("BIGINT", 5L)), parameters);
+    }
+
+    @Test
+    void testRejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> SqlParameter.fromJson(objectMapper.readTree("{\"value\": 1}")));
+        assertThrows(IllegalArgumentException.class, () -> SqlParameter.fromJson(objectMapper.readTree("[{\"value\": 1}]")));
+        assertThrows(IllegalArgumentException.class, () -> SqlParameter.fromJson(objectMapper.readTree("[null]")));
+    }
+
+    @Test
+    void testSerializesAsDruidParameter() {
+        // Act
+        String json = objectMapper.writeValueAsString(List.of(SqlParameter.varchar("wikipedia")));
+
+        // Assert
+        assertEquals("[{\"type\":\"VARCHAR\",\"value\":\"wikipedia\"}]", json);
+    }
+}
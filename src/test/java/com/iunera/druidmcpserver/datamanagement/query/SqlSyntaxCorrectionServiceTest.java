@@ -126,4 +126,59 @@ class SqlSyntaxCorrectionServiceTest {
         assertEquals("SELECT \"city\" FROM \"potsdam-v8\" -- select city here", 
                 service.correctQuerySyntax("SELECT city FROM potsdam-v8 -- select city here"));
     }
+
+    @Test
+    void testApproximateCountDistinctRewrite() {
+        // Arrange
+        when(metadataLoader.fetchSketchColumns()).thenReturn(Collections.emptyMap());
+
+        // Act & Assert
+        assertEquals("SELECT APPROX_COUNT_DISTINCT_DS_HLL(\"user\") FROM \"wikipedia\"",
+                service.rewriteApproximate("SELECT COUNT(DISTINCT \"user\") FROM \"wikipedia\""));
+
+        // Multi-column distinct counts have no sketch equivalent and stay exact
+        assertEquals("SELECT COUNT(DISTINCT a, b) FROM t",
+                service.rewriteApproximate("SELECT COUNT(DISTINCT a, b) FROM t"));
+
+        // Literals should be untouched
+        assertEquals("SELECT APPROX_COUNT_DISTINCT_DS_HLL(a) FROM t WHERE b = 'COUNT(DISTINCT c)'",
+                service.rewriteApproximate("SELECT COUNT(DISTINCT a) FROM t WHERE b = 'COUNT(DISTINCT c)'"));
+    }
+
+    @Test
+    void testApproximatePercentileRewrite() {
+        // Arrange
+        when(metadataLoader.fetchSketchColumns()).thenReturn(Collections.emptyMap());
+
+        // Act & Assert
+        assertEquals("SELECT APPROX_QUANTILE_DS(\"added\", 0.95) FROM \"wikipedia\"",
+                service.rewriteApproximate("SELECT PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY \"added\") FROM \"wikipedia\""));
+        assertEquals("SELECT APPROX_QUANTILE_DS(added, 0.5) FROM t",
+                service.rewriteApproximate("SELECT APPROX_QUANTILE(added, 0.5, 50) FROM t"));
+
+        // Descending orderings invert the fraction and stay untouched
+        assertEquals("SELECT PERCENTILE_DISC(0.5) WITHIN GROUP (ORDER BY added DESC) FROM t",
+                service.rewriteApproximate("SELECT PERCENTILE_DISC(0.5) WITHIN GROUP (ORDER BY added DESC) FROM t"));
+    }
+
+    @Test
+    void testApproximateRewriteUsesSketchColumns() {
+        // Arrange
+        Map<String, Map<String, String>> sketchColumns = new HashMap<>();
+        sketchColumns.put("wikipedia", Map.of(
+                "user_hll", "COMPLEX<HLLSketch>",
+                "page_theta", "COMPLEX<thetaSketch>",
+                "delta_quantiles", "COMPLEX<quantilesDoublesSketch>"));
+        when(metadataLoader.fetchSketchColumns()).thenReturn(sketchColumns);
+
+        // Act & Assert
+        assertEquals("SELECT APPROX_COUNT_DISTINCT_DS_HLL(\"user_hll\"), APPROX_COUNT_DISTINCT_DS_THETA(\"page_theta\") FROM \"wikipedia\"",
+                service.rewriteApproximate("SELECT COUNT(DISTINCT \"user\"), COUNT(DISTINCT page) FROM \"wikipedia\""));
+        assertEquals("SELECT APPROX_QUANTILE_DS(\"delta_quantiles\", 0.99) FROM wikipedia",
+                service.rewriteApproximate("SELECT PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY delta) FROM wikipedia"));
+
+        // Sketch columns of datasources not referenced by the query are ignored
+        assertEquals("SELECT APPROX_COUNT_DISTINCT_DS_HLL(\"user\") FROM \"other\"",
+                service.rewriteApproximate("SELECT COUNT(DISTINCT \"user\") FROM \"other\""));
+    }
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.results;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private DruidProperties druidProperties;
+    private ResultStore resultStore;
+
+    @BeforeEach
+    void setUp() {
+        druidProperties = new DruidProperties();
+        druidProperties.getMcp().getResultStore().setDirectory(tempDir.toString());
+        resultStore = new ResultStore(druidProperties, objectMapper);
+        resultStore.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        resultStore.clear();
+    }
+
+    @Test
+    void testStoresTypedColumns() throws Exception {
+        // Arrange
+        String rows = """
+                [
+                  {"page": "Main_Page", "edits": 10, "ratio": 0.5, "tags": ["a", "b"]},
+                  {"page": "Druid", "edits": 3, "ratio": 1},
+                  {"page": "Main_Page", "edits": null, "ratio": 0.25, "tags": ["c"]}
+                ]
+                """;
+
+        // Act
+        StoredResult result = resultStore.storeObjectRows("key", objectMapper.readTree(rows));
+
+        // Assert
+        assertEquals(3, result.getRowCount());
+        assertEquals(List.of("page", "edits", "ratio", "tags"), result.getColumnNames());
+        assertEquals(StoredResult.ColumnType.STRING, result.getColumnType(0));
+        assertEquals(StoredResult.ColumnType.LONG, result.getColumnType(1));
+        assertEquals(StoredResult.ColumnType.DOUBLE, result.getColumnType(2));
+        assertEquals(StoredResult.ColumnType.JSON, result.getColumnType(3));
+
+        assertEquals("Main_Page", result.getValue(0, 2));
+        assertEquals(result.getDictionaryId(0, 0), result.getDictionaryId(0, 2));
+        assertEquals(2, result.getDictionarySize(0));
+        assertEquals("Druid", result.getDictionaryEntry(0, 1));
+        assertEquals(10L, result.getValue(1, 0));
+        assertNull(result.getValue(1, 2));
+        assertEquals(1.0, result.getValue(2, 1));
+        assertEquals("[\"a\",\"b\"]", result.getValue(3, 0));
+        assertNull(result.getValue(3, 1));
+        assertTrue(Files.exists(result.getPath()));
+    }
+
+    @Test
+    void testStoresArrayRows() throws Exception {
+        // Act
+        StoredResult result = resultStore.storeArrayRows("msq",
+                List.of("channel", "count"),
+                objectMapper.readTree("[[\"#en.wikipedia\", 42], [\"#de.wikipedia\", 7]]"));
+
+        // Assert
+        assertEquals(2, result.getRowCount());
+        assertEquals("#de.wikipedia", result.getValue(0, 1));
+        assertEquals(42L, result.getValue(1, 0));
+    }
+
+    @Test
+    void testStoresStreamedArrayLines() throws Exception {
+        // Arrange
+        String body = """
+                ["channel","added","meta"]
+                ["#en.wikipedia",10,{"a":1}]
+                ["#de.wikipedia",null,"plain \\"text\\""]
+
+                """;
+
+        // Act
+        StoredResult result = resultStore.storeArrayLines("lines", new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, result.getRowCount());
+        assertEquals(List.of("channel", "added", "meta"), result.getColumnNames());
+        assertEquals(StoredResult.ColumnType.LONG, result.getColumnType(1));
+        assertNull(result.getValue(1, 1));
+        assertEquals(StoredResult.ColumnType.JSON, result.getColumnType(2));
+        assertEquals("{\"a\":1}", result.getValue(2, 0));
+        assertEquals("\"plain \\\"text\\\"\"", result.getValue(2, 1));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of(result.getPath()), files.toList());
+        }
+    }
+
+    @Test
+    void testStoresStatementPagesWithGivenColumns() throws Exception {
+        // Arrange
+        String body = """
+                ["#en.wikipedia",10]
+                ["#de.wikipedia",3]
+
+                """;
+
+        // Act
+        StoredResult result = resultStore.storeArrayLines("statement", List.of("channel", "added"),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, result.getRowCount());
+        assertEquals(List.of("channel", "added"), result.getColumnNames());
+        assertEquals("#de.wikipedia", result.getValue(0, 1));
+        assertEquals(10L, result.getValue(1, 0));
+    }
+
+    @Test
+    void testStoresEntryPerRowBeyondDictionaryBound() throws Exception {
+        // Arrange
+        Path path = tempDir.resolve("bounded.dres");
+        String[] pages = {"Main_Page", "Druid", "Main_Page", null, "Druid"};
+        try (StoredResultWriter writer = new StoredResultWriter(path, List.of("page"), Long.MAX_VALUE, 128)) {
+            for (String page : pages) {
+                writer.addRow(objectMapper.createArrayNode().add(page));
+            }
+            writer.finish();
+        }
+
+        // Act
+        try (StoredResult result = StoredResult.open("bounded", "key", path)) {
+            ColumnVector vector = ColumnVector.load(result, 0);
+
+            // Assert
+            assertEquals(pages.length, result.getDictionarySize(0));
+            for (int row = 0; row < pages.length; row++) {
+                assertEquals(pages[row], result.getValue(0, row));
+            }
+            assertEquals(vector.ids[0], vector.ids[2]);
+            assertEquals(vector.ids[1], vector.ids[4]);
+            assertNotEquals(vector.ids[0], vector.ids[1]);
+            assertEquals(0, vector.compare(0, 2));
+        }
+    }
+
+    @Test
+    void testRemovedResultIsUnmapped() throws Exception {
+        // Arrange
+        StoredResult result = resultStore.storeObjectRows("key", objectMapper.readTree("[{\"a\": 1}]"));
+
+        // Act
+        resultStore.remove(result.getHandle());
+
+        // Assert
+        assertFalse(Files.exists(result.getPath()));
+        assertThrows(IllegalStateException.class, () -> result.getLong(0, 0));
+    }
+
+    @Test
+    void testFindByQueryKeyReplacesPreviousResult() throws Exception {
+        // Arrange
+        StoredResult first = resultStore.storeObjectRows("key", objectMapper.readTree("[{\"a\": 1}]"));
+
+        // Act
+        StoredResult second = resultStore.storeObjectRows("key", objectMapper.readTree("[{\"a\": 2}]"));
+
+        // Assert
+        assertEquals(second.getHandle(), resultStore.findByQueryKey("key").orElseThrow().getHandle());
+        assertTrue(resultStore.get(first.getHandle()).isEmpty());
+        assertFalse(Files.exists(first.getPath()));
+        assertEquals(second.getSizeBytes(), resultStore.getTotalBytes());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedBySize() throws Exception {
+        // Arrange
+        StoredResult first = resultStore.storeObjectRows("first", objectMapper.readTree("[{\"a\": 1}]"));
+        StoredResult second = resultStore.storeObjectRows("second", objectMapper.readTree("[{\"a\": 2}]"));
+        druidProperties.getMcp().getResultStore().setMaxBytes(first.getSizeBytes() + second.getSizeBytes());
+
+        // Touch the first result so that the second one is least recently used
+        resultStore.get(first.getHandle());
+
+        // Act
+        StoredResult third = resultStore.storeObjectRows("third", objectMapper.readTree("[{\"a\": 3}]"));
+
+        // Assert
+        assertTrue(resultStore.get(first.getHandle()).isPresent());
+        assertTrue(resultStore.get(second.getHandle()).isEmpty());
+        assertTrue(resultStore.get(third.getHandle()).isPresent());
+        assertFalse(Files.exists(second.getPath()));
+    }
+
+    @Test
+    void testRejectsResultLargerThanLimit() {
+        // Arrange
+        druidProperties.getMcp().getResultStore().setMaxBytes(16);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> resultStore.storeObjectRows("key", objectMapper.readTree("[{\"a\": \"value\"}]")));
+        assertTrue(resultStore.list().isEmpty());
+    }
+
+    @Test
+    void testQueryKeyDependsOnAllParts() {
+        assertEquals(ResultStore.queryKey("sql", "SELECT 1", null), ResultStore.queryKey("sql", "SELECT 1", null));
+        assertNotEquals(ResultStore.queryKey("sql", "SELECT 1", null), ResultStore.queryKey("sql", "SELECT 1", "[1]"));
+    }
+}
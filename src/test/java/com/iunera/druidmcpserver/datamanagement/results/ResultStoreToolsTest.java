@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.results;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import com.iunera.druidmcpserver.datamanagement.query.QueryRepository;
+import com.iunera.druidmcpserver.datamanagement.query.SqlSyntaxCorrectionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResultStoreToolsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final QueryRepository queryRepository = Mockito.mock(QueryRepository.class);
+    private ResultStore resultStore;
+    private ResultStoreTools tools;
+
+    @BeforeEach
+    void setUp() {
+        DruidProperties druidProperties = new DruidProperties();
+        druidProperties.getMcp().getResultStore().setDirectory(tempDir.toString());
+        resultStore = new ResultStore(druidProperties, objectMapper);
+        resultStore.initialize();
+        SqlSyntaxCorrectionService correctionService = Mockito.mock(SqlSyntaxCorrectionService.class);
+        when(correctionService.correctQuerySyntax(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        tools = new ResultStoreTools(resultStore, new ResultWorkspace(), queryRepository, correctionService, objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        resultStore.clear();
+    }
+
+    @Test
+    void testReusesResultForDifferentlyFormattedParameters() throws Exception {
+        // Arrange
+        when(queryRepository.streamSqlQuery(anyString(), any(), any())).thenAnswer(invocation ->
+                invocation.<QueryRepository.ResultStreamConsumer<?>>getArgument(2).consume(body("[\"channel\"]\n[\"#en.wikipedia\"]\n")));
+
+        // Act
+        JsonNode first = objectMapper.readTree(tools.storeQueryResult("SELECT channel FROM wikipedia WHERE added > ?", "[10]", null));
+        JsonNode second = objectMapper.readTree(tools.storeQueryResult("SELECT channel FROM wikipedia WHERE added > ?", " [ 10 ] ", null));
+        JsonNode typed = objectMapper.readTree(tools.storeQueryResult("SELECT channel FROM wikipedia WHERE added > ?",
+                "[{\"value\": 10, \"type\": \"BIGINT\"}]", null));
+
+        // Assert
+        assertFalse(first.path("cached").asBoolean());
+        assertTrue(second.path("cached").asBoolean());
+        assertTrue(typed.path("cached").asBoolean());
+        assertEquals(first.path("handle").asText(), typed.path("handle").asText());
+        verify(queryRepository, times(1)).streamSqlQuery(anyString(), any(), any());
+    }
+
+    @Test
+    void testStoresAllStatementResultsOfMultiStageQuery() throws Exception {
+        // Arrange
+        when(queryRepository.getSqlStatement("query-1")).thenReturn(objectMapper.readTree("""
+                {"queryId": "query-1", "state": "SUCCESS", "schema": [{"name": "channel"}, {"name": "added"}]}
+                """));
+        when(queryRepository.streamSqlStatementResults(eq("query-1"), any())).thenAnswer(invocation ->
+                invocation.<QueryRepository.ResultStreamConsumer<?>>getArgument(1).consume(
+                        body("[\"#en.wikipedia\",10]\n[\"#de.wikipedia\",3]\n[\"#fr.wikipedia\",1]\n\n")));
+
+        // Act
+        JsonNode response = objectMapper.readTree(tools.storeMultiStageQueryResult("query-1"));
+
+        // Assert
+        assertEquals(3, response.path("rowCount").asInt());
+        assertEquals("channel", response.path("columns").get(0).path("name").asText());
+    }
+
+    @Test
+    void testRejectsUnfinishedMultiStageQuery() {
+        // Arrange
+        when(queryRepository.getSqlStatement("query-2")).thenReturn(objectMapper.readTree("{\"state\": \"RUNNING\"}"));
+
+        // Act
+        String response = tools.storeMultiStageQueryResult("query-2");
+
+        // Assert
+        assertTrue(response.startsWith("Error: Query 'query-2' has no results to store (state: RUNNING)"));
+        verify(queryRepository, times(0)).streamSqlStatementResults(anyString(), any());
+    }
+
+    private static ByteArrayInputStream body(String lines) {
+        return new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.datamanagement.results;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultWorkspaceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResultWorkspace workspace = new ResultWorkspace();
+    private ResultStore resultStore;
+    private StoredResult edits;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DruidProperties druidProperties = new DruidProperties();
+        druidProperties.getMcp().getResultStore().setDirectory(tempDir.toString());
+        resultStore = new ResultStore(druidProperties, objectMapper);
+        resultStore.initialize();
+
+        edits = resultStore.storeObjectRows("edits", objectMapper.readTree("""
+                [
+                  {"channel": "#en.wikipedia", "page": "Main_Page", "added": 10, "delta": 1.5},
+                  {"channel": "#de.wikipedia", "page": "Hauptseite", "added": 4, "delta": -2.0},
+                  {"channel": "#en.wikipedia", "page": "Druid", "added": 7, "delta": 0.5},
+                  {"channel": "#fr.wikipedia", "page": "Accueil", "added": null, "delta": 3.0},
+                  {"channel": "#en.wikipedia", "page": "Main_Page", "added": 1, "delta": null}
+                ]
+                """));
+    }
+
+    @AfterEach
+    void tearDown() {
+        resultStore.clear();
+    }
+
+    @Test
+    void testFilterAndSort() {
+        // Arrange
+        WorkspaceQuery query = new WorkspaceQuery(
+                WorkspaceQuery.parseFilters(objectMapper.readTree("[{\"column\": \"channel\", \"op\": \"=\", \"value\": \"#en.wikipedia\"}, {\"column\": \"added\", \"op\": \">\", \"value\": 1}]")),
+                List.of(), List.of(), WorkspaceQuery.parseOrderBy("added desc"), 100);
+
+        // Act
+        ResultWorkspace.WorkspaceResult result = workspace.execute(edits, query);
+
+        // Assert
+        assertEquals(2, result.matchedRows());
+        assertEquals(List.of("channel", "page", "added", "delta"), result.columns());
+        assertEquals("Main_Page", result.rows().get(0)[1]);
+        assertEquals(7L, result.rows().get(1)[2]);
+    }
+
+    @Test
+    void testSortedSelectionKeepsTopRowsOnly() {
+        // Arrange
+        WorkspaceQuery query = new WorkspaceQuery(List.of(), List.of(), List.of(),
+                WorkspaceQuery.parseOrderBy("delta desc"), 2);
+
+        // Act
+        ResultWorkspace.WorkspaceResult result = workspace.execute(edits, query);
+
+        // Assert
+        assertEquals(5, result.matchedRows());
+        assertEquals(2, result.rows().size());
+        assertEquals("Accueil", result.rows().get(0)[1]);
+        assertEquals("Main_Page", result.rows().get(1)[1]);
+        assertEquals(List.of(StoredResult.ColumnType.STRING, StoredResult.ColumnType.STRING,
+                StoredResult.ColumnType.LONG, StoredResult.ColumnType.DOUBLE), result.types());
+    }
+
+    @Test
+    void testTopNMatchesFullSort() {
+        // Arrange
+        Random random = new Random(42);
+        int[] keys = random.ints(1000, 0, 50).toArray();
+        int[] rows = IntStream.range(0, keys.length).filter(row -> row % 3 != 0).toArray();
+        ResultWorkspace.RowComparator comparator = (a, b) -> {
+            int comparison = Integer.compare(keys[b], keys[a]);
+            return comparison != 0 ? comparison : Integer.compare(a, b);
+        };
+
+        // Act
+        int[] top = ResultWorkspace.topN(rows, 25, comparator);
+
+        // Assert
+        int[] expected = Arrays.stream(rows).boxed().sorted(comparator::compare).limit(25).mapToInt(Integer::intValue).toArray();
+        assertArrayEquals(expected, top);
+        assertEquals(0, ResultWorkspace.topN(rows, 0, comparator).length);
+    }
+
+    @Test
+    void testGroupByWithAggregationsAndTopN() {
+        // Arrange
+        WorkspaceQuery query = new WorkspaceQuery(List.of(),
+                List.of("channel"),
+                WorkspaceQuery.parseAggregations("count(*), sum(added) as added, avg(delta), max(added)"),
+                WorkspaceQuery.parseOrderBy("count desc, channel"),
+                2);
+
+        // Act
+        ResultWorkspace.WorkspaceResult result = workspace.execute(edits, query);
+
+        // Assert
+        assertEquals(List.of("channel", "count", "added", "avg_delta", "max_added"), result.columns());
+        assertEquals(2, result.rows().size());
+        assertArrayEquals(new Object[]{"#en.wikipedia", 3L, 18L, 1.0, 10L}, result.rows().get(0));
+        assertArrayEquals(new Object[]{"#de.wikipedia", 1L, 4L, -2.0, 4L}, result.rows().get(1));
+    }
+
+    @Test
+    void testDictionaryFilters() {
+        // Arrange
+        WorkspaceQuery query = new WorkspaceQuery(
+                WorkspaceQuery.parseFilters(objectMapper.readTree("[{\"column\": \"channel\", \"op\": \"in\", \"value\": [\"#de.wikipedia\", \"#fr.wikipedia\"]}, {\"column\": \"page\", \"op\": \"contains\", \"value\": \"e\"}]")),
+                List.of(), WorkspaceQuery.parseAggregations("count(*), count(added)"), List.of(), 100);
+
+        // Act
+        ResultWorkspace.WorkspaceResult result = workspace.execute(edits, query);
+
+        // Assert
+        assertArrayEquals(new Object[]{2L, 1L}, result.rows().get(0));
+    }
+
+    @Test
+    void testGlobalAggregationWithoutMatches() {
+        // Arrange
+        WorkspaceQuery query = new WorkspaceQuery(
+                WorkspaceQuery.parseFilters(objectMapper.readTree("[{\"column\": \"added\", \"op\": \"isNull\"}, {\"column\": \"delta\", \"op\": \"<\", \"value\": 0}]")),
+                List.of(), WorkspaceQuery.parseAggregations("count(*), sum(added)"), List.of(), 100);
+
+        // Act
+        ResultWorkspace.WorkspaceResult result = workspace.execute(edits, query);
+
+        // Assert
+        assertEquals(0, result.matchedRows());
+        assertArrayEquals(new Object[]{0L, null}, result.rows().get(0));
+    }
+
+    @Test
+    void testParallelGroupByOverManyRows() throws Exception {
+        // Arrange
+        StringBuilder rows = new StringBuilder("[");
+        for (int i = 0; i < 50000; i++) {
+            rows.append(i == 0 ? "" : ",").append("{\"bucket\": ").append(i % 7).append(", \"value\": ").append(i).append("}");
+        }
+        StoredResult large = resultStore.storeObjectRows("large", objectMapper.readTree(rows.append("]").toString()));
+        WorkspaceQuery query = new WorkspaceQuery(List.of(), List.of("bucket"),
+                WorkspaceQuery.parseAggregations("count(*), sum(value)"), WorkspaceQuery.parseOrderBy("bucket"), 100);
+
+        // Act
+        ResultWorkspace.WorkspaceResult result = workspace.execute(large, query);
+
+        // Assert
+        assertEquals(7, result.rows().size());
+        long totalCount = 0;
+        long totalSum = 0;
+        for (Object[] row : result.rows()) {
+            totalCount += (Long) row[1];
+            totalSum += (Long) row[2];
+        }
+        assertEquals(50000L, totalCount);
+        assertEquals(49999L * 50000L / 2, totalSum);
+        assertEquals(0L, result.rows().get(0)[0]);
+    }
+
+    @Test
+    void testRejectsInvalidRequests() {
+        assertThrows(IllegalArgumentException.class, () -> workspace.execute(edits,
+                new WorkspaceQuery(List.of(), List.of("missing"), List.of(), List.of(), 100)));
+        assertThrows(IllegalArgumentException.class, () -> workspace.execute(edits,
+                new WorkspaceQuery(List.of(), List.of(), WorkspaceQuery.parseAggregations("sum(page)"), List.of(), 100)));
+        assertThrows(IllegalArgumentException.class, () -> WorkspaceQuery.parseAggregations("median(added)"));
+    }
+}
@@ -54,7 +54,7 @@ class RetentionRulesIntegrationTest {
         assertNotNull(retentionRulesTools);
 
         // Test that the tool provider handles connection errors gracefully
-        String result = retentionRulesTools.getRetentionRules(null, null);
+        String result = retentionRulesTools.getRetentionRules(null, null, null);
         assertNotNull(result);
         System.out.println("[DEBUG_LOG] Retention rules tool provider result: " + result);
 
@@ -68,7 +68,7 @@ class RetentionRulesIntegrationTest {
         System.out.println("[DEBUG_LOG] Testing retention rules for specific datasource");
         String testDatasource = "test-datasource";
 
-        String result = retentionRulesTools.getRetentionRules(testDatasource, null);
+        String result = retentionRulesTools.getRetentionRules(testDatasource, null, null);
         assertNotNull(result);
         System.out.println("[DEBUG_LOG] Retention rules for datasource result: " + result);
 
@@ -97,7 +97,7 @@ class RetentionRulesIntegrationTest {
         System.out.println("[DEBUG_LOG] Testing retention rules history functionality");
         String testDatasource = "test-datasource";
 
-        String result = retentionRulesTools.getRetentionRules(testDatasource, true);
+        String result = retentionRulesTools.getRetentionRules(testDatasource, true, null);
         assertNotNull(result);
         System.out.println("[DEBUG_LOG] Retention rules history result: " + result);
 
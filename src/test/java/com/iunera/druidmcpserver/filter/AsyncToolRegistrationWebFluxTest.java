@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.filter;
+
+import com.iunera.druidmcpserver.datamanagement.query.MsqQueryTools;
+import com.iunera.druidmcpserver.datamanagement.query.QueryTools;
+import com.iunera.druidmcpserver.datamanagement.query.ReactiveMsqQueryTools;
+import com.iunera.druidmcpserver.datamanagement.query.ReactiveQueryTools;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AsyncToolRegistrationWebFluxTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    @Qualifier(BlockingToolSpecificationsConfig.BEAN_NAME)
+    private List<McpServerFeatures.AsyncToolSpecification> blockingToolSpecs;
+
+    @Test
+    void testQueryToolsAreAsyncInTheWebFluxBuild() {
+        // Assert
+        assertEquals(1, applicationContext.getBeanNamesForType(ReactiveQueryTools.class).length);
+        assertEquals(1, applicationContext.getBeanNamesForType(ReactiveMsqQueryTools.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(QueryTools.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(MsqQueryTools.class).length);
+    }
+
+    @Test
+    void testBlockingToolsAreRegisteredAsAsyncTools() {
+        // Act
+        List<String> names = blockingToolSpecs.stream().map(spec -> spec.tool().name()).toList();
+
+        // Assert
+        assertTrue(names.contains("getTasks"), names.toString());
+        assertFalse(names.contains("queryDruidSql"), names.toString());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.filter;
+
+import com.iunera.druidmcpserver.datamanagement.query.QueryTools;
+import com.iunera.druidmcpserver.datamanagement.query.ReactiveQueryTools;
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockingToolSpecificationsConfigTest {
+
+    @Test
+    void testDetectsBlockingTools() {
+        // Act & Assert
+        assertTrue(BlockingToolSpecificationsConfig.hasBlockingTools(QueryTools.class));
+        assertFalse(BlockingToolSpecificationsConfig.hasBlockingTools(ReactiveQueryTools.class));
+        assertFalse(BlockingToolSpecificationsConfig.hasBlockingTools(String.class));
+    }
+
+    @Test
+    void testRunsBlockingToolOffTheCallingThread() {
+        // Arrange
+        AtomicReference<Thread> toolThread = new AtomicReference<>();
+        McpSchema.CallToolResult expected = McpSchema.CallToolResult.builder().addTextContent("[]").build();
+        McpServerFeatures.SyncToolSpecification sync = McpServerFeatures.SyncToolSpecification.builder()
+                .tool(McpSchema.Tool.builder().name("getTasks").build())
+                .callHandler((exchange, request) -> {
+                    toolThread.set(Thread.currentThread());
+                    return expected;
+                })
+                .build();
+
+        // Act
+        McpServerFeatures.AsyncToolSpecification async = BlockingToolSpecificationsConfig.toAsync(sync);
+        McpSchema.CallToolResult result = async.callHandler()
+                .apply(Mockito.mock(McpAsyncServerExchange.class), new McpSchema.CallToolRequest("getTasks", Map.of()))
+                .block();
+
+        // Assert
+        assertEquals("getTasks", async.tool().name());
+        assertSame(expected, result);
+        assertNotSame(Thread.currentThread(), toolThread.get());
+    }
+}
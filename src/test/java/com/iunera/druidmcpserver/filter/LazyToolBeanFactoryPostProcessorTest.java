@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.mcp.annotation.McpResource;
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyToolBeanFactoryPostProcessorTest {
+
+    static class TaskTools {
+        @McpTool(description = "List tasks")
+        public String getTasks() {
+            return "[]";
+        }
+    }
+
+    static class LookupTools {
+        @McpTool(name = "getLookups", description = "List lookups")
+        public String lookups() {
+            return "{}";
+        }
+    }
+
+    static class LookupResources {
+        @McpTool(description = "Delete a lookup")
+        public String deleteLookup() {
+            return "ok";
+        }
+
+        @McpResource(uri = "lookup://{name}", name = "Lookup", description = "A lookup")
+        public String lookup(String name) {
+            return name;
+        }
+    }
+
+    static class Helper {
+    }
+
+    @Test
+    void testMarksBeansWithoutEnabledToolsLazy() {
+        // Arrange
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("taskTools", new RootBeanDefinition(TaskTools.class));
+        beanFactory.registerBeanDefinition("lookupTools", new RootBeanDefinition(LookupTools.class));
+        beanFactory.registerBeanDefinition("lookupResources", new RootBeanDefinition(LookupResources.class));
+        beanFactory.registerBeanDefinition("helper", new RootBeanDefinition(Helper.class));
+        LazyToolBeanFactoryPostProcessor postProcessor = new LazyToolBeanFactoryPostProcessor();
+        postProcessor.setEnvironment(new MockEnvironment().withProperty("druid.mcp.tools.enabled", "getTasks"));
+
+        // Act
+        postProcessor.postProcessBeanFactory(beanFactory);
+
+        // Assert
+        assertFalse(beanFactory.getBeanDefinition("taskTools").isLazyInit());
+        assertTrue(beanFactory.getBeanDefinition("lookupTools").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("lookupResources").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("helper").isLazyInit());
+    }
+
+    @Test
+    void testKeepsAllBeansEagerWithoutWhitelist() {
+        // Arrange
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("lookupTools", new RootBeanDefinition(LookupTools.class));
+        LazyToolBeanFactoryPostProcessor postProcessor = new LazyToolBeanFactoryPostProcessor();
+        postProcessor.setEnvironment(new MockEnvironment());
+
+        // Act
+        postProcessor.postProcessBeanFactory(beanFactory);
+
+        // Assert
+        assertFalse(beanFactory.getBeanDefinition("lookupTools").isLazyInit());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.filter;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class McpToolFilterPostProcessorTest {
+
+    record Tool(String name) {
+    }
+
+    record ToolSpecification(Tool tool) {
+    }
+
+    @Test
+    void testFiltersToolSpecsByName() {
+        // Arrange
+        McpToolProperties properties = new McpToolProperties();
+        properties.setEnabled(List.of("getTasks"));
+        McpToolFilterPostProcessor postProcessor = new McpToolFilterPostProcessor(properties);
+        List<ToolSpecification> specs = List.of(
+                new ToolSpecification(new Tool("getTasks")),
+                new ToolSpecification(new Tool("killTask")));
+
+        // Act
+        Object filtered = postProcessor.postProcessAfterInitialization(specs, "toolSpecs");
+
+        // Assert
+        assertEquals(List.of(specs.get(0)), filtered);
+        assertNull(postProcessor.getToolName("not a tool specification"));
+    }
+
+    @Test
+    void testFiltersBlockingToolSpecsOfAsyncServerByName() {
+        // Arrange
+        McpToolProperties properties = new McpToolProperties();
+        properties.setEnabled(List.of("getTasks"));
+        McpToolFilterPostProcessor postProcessor = new McpToolFilterPostProcessor(properties);
+        List<ToolSpecification> specs = List.of(
+                new ToolSpecification(new Tool("killTask")),
+                new ToolSpecification(new Tool("getTasks")));
+
+        // Act
+        Object filtered = postProcessor.postProcessAfterInitialization(specs, BlockingToolSpecificationsConfig.BEAN_NAME);
+
+        // Assert
+        assertEquals(List.of(specs.get(1)), filtered);
+    }
+
+    @Test
+    void testRegistersReflectionHintsForToolSpecifications() {
+        // Arrange
+        RuntimeHints hints = new RuntimeHints();
+
+        // Act
+        new McpToolFilterRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Assert
+        assertNotNull(hints.reflection().getTypeHint(McpServerFeatures.SyncToolSpecification.class));
+        assertNotNull(hints.reflection().getTypeHint(McpSchema.Tool.class));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.filter;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import com.iunera.druidmcpserver.usage.concurrency.ToolBulkheadRegistry;
+import com.iunera.druidmcpserver.usage.concurrency.ToolConcurrencyAspect;
+import com.iunera.druidmcpserver.usage.responses.JsonProjectionAspect;
+import com.iunera.druidmcpserver.usage.responses.ResponseGovernor;
+import com.iunera.druidmcpserver.usage.responses.ResponseSizeAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.mcp.annotation.McpTool;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link McpToolInvocationAspect} on a tool call: a direct call, a call through a
+ * proxy without advice, and calls through the tool advice for a tool without datasource
+ * parameter and for one checked against datasource limits. The chain benchmarks call through
+ * all tool aspects as they are ordered in the application (response size, summary, projection,
+ * concurrency, invocation), for a tool without and one with {@code fields} and
+ * {@code summarize} parameters. Metrics reporting is disabled, it would measure the metrics
+ * endpoint instead of the advice.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.iunera.druidmcpserver.filter.McpToolInvocationAspectBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class McpToolInvocationAspectBenchmark {
+
+    public static class SegmentTools {
+        @McpTool(name = "getSegments", description = "List segments")
+        public String getSegments(String datasource, Boolean detailed) {
+            return datasource;
+        }
+
+        @McpTool(name = "getClusterStatus", description = "Cluster status")
+        public String getClusterStatus(String aspect) {
+            return aspect;
+        }
+
+        @McpTool(name = "getTasks", description = "List tasks")
+        public String getTasks(String datasource, String fields, Boolean summarize) {
+            return "[]";
+        }
+    }
+
+    private SegmentTools direct;
+    private SegmentTools unadvised;
+    private SegmentTools advised;
+    private SegmentTools chained;
+
+    @Setup
+    public void setUp() {
+        McpToolProperties properties = new McpToolProperties();
+        McpToolProperties.DatasourceLimitProperties limits = new McpToolProperties.DatasourceLimitProperties();
+        limits.setEnabled(List.of("getDatasources"));
+        properties.getDatasourceLimits().put("restricted", limits);
+
+        direct = new SegmentTools();
+        unadvised = new AspectJProxyFactory(new SegmentTools()).getProxy();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SegmentTools());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new McpToolInvocationAspect(new ToolInvocationDescriptors(properties), null, false));
+        advised = factory.getProxy();
+
+        DruidProperties druidProperties = new DruidProperties();
+        ObjectMapper objectMapper = new ObjectMapper();
+        ToolInvocationDescriptors descriptors = new ToolInvocationDescriptors(properties);
+        AspectJProxyFactory chain = new AspectJProxyFactory(new SegmentTools());
+        chain.setProxyTargetClass(true);
+        chain.addAspect(new ResponseSizeAspect(new ResponseGovernor(druidProperties, objectMapper), descriptors));
+        chain.addAspect(new JsonProjectionAspect(objectMapper, descriptors));
+        chain.addAspect(new ToolConcurrencyAspect(new ToolBulkheadRegistry(druidProperties,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class)), descriptors));
+        chain.addAspect(new McpToolInvocationAspect(descriptors, null, false));
+        chained = chain.getProxy();
+    }
+
+    @Benchmark
+    public String directCall() {
+        return direct.getSegments("wikipedia", Boolean.FALSE);
+    }
+
+    @Benchmark
+    public String proxyWithoutAdvice() {
+        return unadvised.getSegments("wikipedia", Boolean.FALSE);
+    }
+
+    @Benchmark
+    public String adviceWithoutDatasourceParameter() {
+        return advised.getClusterStatus("OVERALL");
+    }
+
+    @Benchmark
+    public String adviceWithDatasourceLimits() {
+        return advised.getSegments("wikipedia", Boolean.FALSE);
+    }
+
+    @Benchmark
+    public String adviceChainWithoutResponseParameters() {
+        return chained.getClusterStatus("OVERALL");
+    }
+
+    @Benchmark
+    public String adviceChainWithResponseParameters() {
+        return chained.getTasks("wikipedia", null, Boolean.FALSE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(McpToolInvocationAspectBenchmark.class.getSimpleName()).build()).run();
+    }
+}
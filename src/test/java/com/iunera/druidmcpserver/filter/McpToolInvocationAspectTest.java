@@ -29,12 +29,12 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
-@Import(McpDatasourceAspectTest.TestToolComponent.class)
+@Import(McpToolInvocationAspectTest.TestToolComponent.class)
 @TestPropertySource(properties = {
         "druid.mcp.tools.datasource-limits.wikipedia.enabled=testShowDatasourceDetails",
         "druid.mcp.tools.datasource-limits.restricted_ds.enabled=none"
 })
-class McpDatasourceAspectTest {
+class McpToolInvocationAspectTest {
 
     @Autowired
     private TestToolComponent testComponent;
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.filter;
+
+import com.iunera.druidmcpserver.usage.responses.ProjectsFields;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.mcp.annotation.McpTool;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolInvocationDescriptorsTest {
+
+    static class Tools {
+        @McpTool(name = "getSegments", description = "List segments")
+        public String segments(String datasource, Boolean detailed) {
+            return datasource;
+        }
+
+        @McpTool(description = "Show datasource details")
+        public String showDatasourceDetails(Integer limit, String datasourceName) {
+            return datasourceName;
+        }
+
+        @McpTool(description = "List datasources")
+        public String getDatasources(Boolean detailed) {
+            return "[]";
+        }
+
+        @McpTool(description = "List tasks")
+        public String getTasks(String datasource, String fields, Boolean summarize) {
+            return "[]";
+        }
+
+        @ProjectsFields
+        @McpTool(description = "List supervisors")
+        public String getSupervisors(String fields, boolean summarize) {
+            return "[]";
+        }
+    }
+
+    @Test
+    void testDescribesToolMethodsOnce() throws Exception {
+        // Arrange
+        McpToolProperties properties = new McpToolProperties();
+        properties.getDatasourceLimits().put("wikipedia", limits("getSegments"));
+        properties.getDatasourceLimits().put("restricted", limits());
+        ToolInvocationDescriptors descriptors = new ToolInvocationDescriptors(properties);
+        Method segments = Tools.class.getMethod("segments", String.class, Boolean.class);
+
+        // Act
+        ToolInvocationDescriptor descriptor = descriptors.get(segments);
+
+        // Assert
+        assertSame(descriptor, descriptors.get(segments));
+        assertEquals(1, descriptors.size());
+        assertEquals("getSegments", descriptor.toolName());
+        assertEquals(0, descriptor.datasourceParameterIndex());
+        assertEquals(Set.of("restricted"), descriptor.deniedDatasources());
+        assertTrue(descriptor.isDatasourceLimited());
+    }
+
+    @Test
+    void testFindsDatasourceParameterAndDefaultsToolName() throws Exception {
+        // Arrange
+        McpToolProperties properties = new McpToolProperties();
+        properties.getDatasourceLimits().put("wikipedia", limits("getSegments"));
+        ToolInvocationDescriptors descriptors = new ToolInvocationDescriptors(properties);
+
+        // Act
+        ToolInvocationDescriptor details = descriptors.get(Tools.class.getMethod("showDatasourceDetails", Integer.class, String.class));
+        ToolInvocationDescriptor list = descriptors.get(Tools.class.getMethod("getDatasources", Boolean.class));
+
+        // Assert
+        assertEquals("showDatasourceDetails", details.toolName());
+        assertEquals(1, details.datasourceParameterIndex());
+        assertEquals(Set.of("wikipedia"), details.deniedDatasources());
+        assertEquals(-1, list.datasourceParameterIndex());
+        assertFalse(list.isDatasourceLimited());
+    }
+
+    @Test
+    void testFindsResponseParametersAndMarkers() throws Exception {
+        // Arrange
+        ToolInvocationDescriptors descriptors = new ToolInvocationDescriptors(new McpToolProperties());
+
+        // Act
+        ToolInvocationDescriptor tasks = descriptors.get(Tools.class.getMethod("getTasks", String.class, String.class, Boolean.class));
+        ToolInvocationDescriptor supervisors = descriptors.get(Tools.class.getMethod("getSupervisors", String.class, boolean.class));
+        ToolInvocationDescriptor list = descriptors.get(Tools.class.getMethod("getDatasources", Boolean.class));
+
+        // Assert
+        assertEquals(0, tasks.datasourceParameterIndex());
+        assertEquals(1, tasks.fieldsParameterIndex());
+        assertTrue(tasks.isProjectedByAdvice());
+        assertEquals(0, supervisors.fieldsParameterIndex());
+        assertTrue(supervisors.projectsFields());
+        assertFalse(supervisors.isProjectedByAdvice());
+        assertEquals(-1, list.fieldsParameterIndex());
+        assertFalse(list.isProjectedByAdvice());
+    }
+
+    private static McpToolProperties.DatasourceLimitProperties limits(String... tools) {
+        McpToolProperties.DatasourceLimitProperties limits = new McpToolProperties.DatasourceLimitProperties();
+        limits.setEnabled(List.of(tools));
+        return limits;
+    }
+}
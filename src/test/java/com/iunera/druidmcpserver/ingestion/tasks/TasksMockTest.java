@@ -58,23 +58,23 @@ class TasksMockTest {
     void testListTasksWithMockData() {
         System.out.println("[DEBUG_LOG] Testing task listing with mock data");
 
-        String runningTasks = tasksTools.getTasks("RUNNING");
+        String runningTasks = tasksTools.getTasks("RUNNING", null, null);
         assertNotNull(runningTasks);
         assertTrue(runningTasks.contains("sample-task-1"));
         assertTrue(runningTasks.contains("index_parallel"));
         System.out.println("[DEBUG_LOG] Running tasks result: " + runningTasks);
 
-        String pendingTasks = tasksTools.getTasks("PENDING");
+        String pendingTasks = tasksTools.getTasks("PENDING", null, null);
         assertNotNull(pendingTasks);
         assertTrue(pendingTasks.equals("[]")); // Empty array for pending tasks
         System.out.println("[DEBUG_LOG] Pending tasks result: " + pendingTasks);
 
-        String waitingTasks = tasksTools.getTasks("WAITING");
+        String waitingTasks = tasksTools.getTasks("WAITING", null, null);
         assertNotNull(waitingTasks);
         assertTrue(waitingTasks.equals("[]")); // Empty array for waiting tasks
         System.out.println("[DEBUG_LOG] Waiting tasks result: " + waitingTasks);
 
-        String completedTasks = tasksTools.getTasks("COMPLETED");
+        String completedTasks = tasksTools.getTasks("COMPLETED", null, null);
         assertNotNull(completedTasks);
         assertTrue(completedTasks.contains("sample-task-1"));
         System.out.println("[DEBUG_LOG] Completed tasks result: " + completedTasks);
@@ -89,41 +89,41 @@ class TasksMockTest {
         String taskId = "sample-task-1";
 
         // Test getting task details
-        String taskDetails = tasksTools.getTaskDetails(taskId, "RAW_DETAILS", null);
+        String taskDetails = tasksTools.getTaskDetails(taskId, "RAW_DETAILS", null, null);
         assertNotNull(taskDetails);
         assertTrue(taskDetails.contains(taskId));
         assertTrue(taskDetails.contains("index_parallel"));
         System.out.println("[DEBUG_LOG] Task details result: " + taskDetails);
 
         // Test getting task status
-        String taskStatus = tasksTools.getTaskDetails(taskId, "STATUS", null);
+        String taskStatus = tasksTools.getTaskDetails(taskId, "STATUS", null, null);
         assertNotNull(taskStatus);
         assertTrue(taskStatus.contains(taskId));
         assertTrue(taskStatus.contains("RUNNING"));
         System.out.println("[DEBUG_LOG] Task status result: " + taskStatus);
 
         // Test getting task ingestion spec
-        String ingestionSpec = tasksTools.getTaskDetails(taskId, "SPEC", null);
+        String ingestionSpec = tasksTools.getTaskDetails(taskId, "SPEC", null, null);
         assertNotNull(ingestionSpec);
         assertTrue(ingestionSpec.contains("index_parallel"));
         assertTrue(ingestionSpec.contains("ioConfig"));
         System.out.println("[DEBUG_LOG] Ingestion spec result: " + ingestionSpec);
 
         // Test getting task reports
-        String taskReports = tasksTools.getTaskDetails(taskId, "REPORTS", null);
+        String taskReports = tasksTools.getTaskDetails(taskId, "REPORTS", null, null);
         assertNotNull(taskReports);
         assertTrue(taskReports.contains("ingestionStatsAndErrors"));
         assertTrue(taskReports.contains("processed"));
         System.out.println("[DEBUG_LOG] Task reports result: " + taskReports);
 
         // Test getting task log
-        String taskLog = tasksTools.getTaskDetails(taskId, "LOG", null);
+        String taskLog = tasksTools.getTaskDetails(taskId, "LOG", null, null);
         assertNotNull(taskLog);
         assertTrue(taskLog.contains("Sample task log output"));
         System.out.println("[DEBUG_LOG] Task log result: " + taskLog);
 
         // Test getting task log with offset
-        String taskLogWithOffset = tasksTools.getTaskDetails(taskId, "LOG", 100L);
+        String taskLogWithOffset = tasksTools.getTaskDetails(taskId, "LOG", 100L, null);
         assertNotNull(taskLogWithOffset);
         assertTrue(taskLogWithOffset.contains("Sample task log output from offset"));
         System.out.println("[DEBUG_LOG] Task log with offset result: " + taskLogWithOffset);
@@ -145,23 +145,23 @@ class TasksMockTest {
         String taskId = "sample-task-1";
 
         // Test that all operations return valid JSON (not error messages)
-        String runningTasks = tasksTools.getTasks("RUNNING");
+        String runningTasks = tasksTools.getTasks("RUNNING", null, null);
         assertTrue(runningTasks.startsWith("[") || runningTasks.startsWith("{"));
         assertFalse(runningTasks.startsWith("Error"));
 
-        String taskDetails = tasksTools.getTaskDetails(taskId, "RAW_DETAILS", null);
+        String taskDetails = tasksTools.getTaskDetails(taskId, "RAW_DETAILS", null, null);
         assertTrue(taskDetails.startsWith("{"));
         assertFalse(taskDetails.startsWith("Error"));
 
-        String taskStatus = tasksTools.getTaskDetails(taskId, "STATUS", null);
+        String taskStatus = tasksTools.getTaskDetails(taskId, "STATUS", null, null);
         assertTrue(taskStatus.startsWith("{"));
         assertFalse(taskStatus.startsWith("Error"));
 
-        String ingestionSpec = tasksTools.getTaskDetails(taskId, "SPEC", null);
+        String ingestionSpec = tasksTools.getTaskDetails(taskId, "SPEC", null, null);
         assertTrue(ingestionSpec.startsWith("{"));
         assertFalse(ingestionSpec.startsWith("Error"));
 
-        String taskReports = tasksTools.getTaskDetails(taskId, "REPORTS", null);
+        String taskReports = tasksTools.getTaskDetails(taskId, "REPORTS", null, null);
         assertTrue(taskReports.startsWith("{"));
         assertFalse(taskReports.startsWith("Error"));
 
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.monitoring.changes;
+
+import com.iunera.druidmcpserver.datamanagement.lookup.LookupRepository;
+import com.iunera.druidmcpserver.datamanagement.query.QueryRepository;
+import com.iunera.druidmcpserver.datamanagement.retention.RetentionRulesRepository;
+import com.iunera.druidmcpserver.ingestion.supervisors.SupervisorsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.client.RestClientException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+class ClusterChangePollerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final QueryRepository queryRepository = Mockito.mock(QueryRepository.class);
+    private final RetentionRulesRepository retentionRulesRepository = Mockito.mock(RetentionRulesRepository.class);
+    private final LookupRepository lookupRepository = Mockito.mock(LookupRepository.class);
+    private final SupervisorsRepository supervisorsRepository = Mockito.mock(SupervisorsRepository.class);
+    private final List<Object> events = new ArrayList<>();
+    private ClusterChangePoller poller;
+
+    @BeforeEach
+    void setUp() {
+        poller = new ClusterChangePoller(queryRepository, retentionRulesRepository, lookupRepository,
+                supervisorsRepository, events::add);
+        when(retentionRulesRepository.getLatestRetentionRuleHistory(anyInt())).thenReturn(json("[]"));
+        when(lookupRepository.getAllLookups()).thenReturn(json("{}"));
+        when(supervisorsRepository.getAllSupervisors()).thenReturn(json("[]"));
+    }
+
+    private JsonNode json(String content) {
+        return objectMapper.readTree(content);
+    }
+
+    @Test
+    void testFirstPollOnlyRecordsFingerprints() {
+        // Arrange
+        when(queryRepository.executeSqlQuery(ClusterChangePoller.SEGMENTS_QUERY))
+                .thenReturn(json("[{\"datasource\":\"wikipedia\",\"segments\":10,\"max_version\":\"2026-10-01\"}]"));
+
+        // Act
+        poller.poll();
+        poller.poll();
+
+        // Assert
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testPublishesChangedDatasources() {
+        // Arrange
+        when(queryRepository.executeSqlQuery(ClusterChangePoller.SEGMENTS_QUERY))
+                .thenReturn(json("""
+                        [{"datasource":"wikipedia","segments":10,"max_version":"2026-10-01"},
+                         {"datasource":"koalas","segments":3,"max_version":"2026-09-01"},
+                         {"datasource":"dropped","segments":1,"max_version":"2026-01-01"}]
+                        """))
+                .thenReturn(json("""
+                        [{"datasource":"wikipedia","segments":10,"max_version":"2026-10-02"},
+                         {"datasource":"koalas","segments":3,"max_version":"2026-09-01"},
+                         {"datasource":"new","segments":1,"max_version":"2026-10-02"}]
+                        """));
+        poller.poll();
+
+        // Act
+        poller.poll();
+
+        // Assert
+        assertEquals(List.of(new ClusterChangeEvent.SegmentsChanged(Set.of("wikipedia", "new", "dropped"))), events);
+    }
+
+    @Test
+    void testPublishesRuleLookupAndSupervisorChanges() {
+        // Arrange
+        when(queryRepository.executeSqlQuery(ClusterChangePoller.SEGMENTS_QUERY)).thenReturn(json("[]"));
+        when(retentionRulesRepository.getLatestRetentionRuleHistory(anyInt()))
+                .thenReturn(json("[{\"key\":\"wikipedia\",\"auditTime\":\"2026-10-01T00:00:00Z\"}]"))
+                .thenReturn(json("[{\"key\":\"wikipedia\",\"auditTime\":\"2026-10-18T00:00:00Z\"}]"));
+        when(lookupRepository.getAllLookups())
+                .thenReturn(json("{\"__default\":{\"country\":{\"version\":\"v1\",\"lookupExtractorFactory\":{}}}}"))
+                .thenReturn(json("{\"__default\":{\"country\":{\"version\":\"v2\",\"lookupExtractorFactory\":{}}}}"));
+        when(supervisorsRepository.getAllSupervisors())
+                .thenReturn(json("[\"wikipedia\"]"))
+                .thenReturn(json("[\"wikipedia\",\"koalas\"]"));
+        poller.poll();
+
+        // Act
+        poller.poll();
+
+        // Assert
+        assertEquals(List.of(new ClusterChangeEvent.RetentionRulesChanged(),
+                new ClusterChangeEvent.LookupsChanged(),
+                new ClusterChangeEvent.SupervisorsChanged()), events);
+    }
+
+    @Test
+    void testUnreachableClusterKeepsPreviousFingerprints() {
+        // Arrange
+        when(queryRepository.executeSqlQuery(ClusterChangePoller.SEGMENTS_QUERY))
+                .thenReturn(json("[{\"datasource\":\"wikipedia\",\"segments\":10,\"max_version\":\"v1\"}]"))
+                .thenThrow(new RestClientException("Connection refused"))
+                .thenReturn(json("[{\"datasource\":\"wikipedia\",\"segments\":10,\"max_version\":\"v1\"}]"));
+
+        // Act
+        poller.poll();
+        poller.poll();
+        poller.poll();
+
+        // Assert
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void testLookupFingerprintIgnoresOrderAndSpecs() {
+        assertEquals(ClusterChangePoller.lookupVersions(json("{\"a\":{\"x\":{\"version\":\"1\"},\"y\":{\"version\":\"2\"}}}")),
+                ClusterChangePoller.lookupVersions(json("{\"a\":{\"y\":{\"version\":\"2\",\"extra\":1},\"x\":{\"version\":\"1\"}}}")));
+        assertEquals("a,b", ClusterChangePoller.supervisorIds(json("[\"b\",\"a\"]")));
+    }
+}
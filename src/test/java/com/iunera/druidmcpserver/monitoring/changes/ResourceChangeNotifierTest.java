@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.monitoring.changes;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import io.modelcontextprotocol.spec.McpSchema.ReadResourceResult;
+import io.modelcontextprotocol.spec.McpSchema.ResourcesUpdatedNotification;
+import io.modelcontextprotocol.spec.McpSchema.TextResourceContents;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResourceChangeNotifierTest {
+
+    private DruidProperties druidProperties;
+    private ResourceChangeNotifier.SessionNotifier sessionNotifier;
+    private ResourceChangeNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        druidProperties = new DruidProperties();
+        sessionNotifier = Mockito.mock(ResourceChangeNotifier.SessionNotifier.class);
+        notifier = newNotifier();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResourceChangeNotifier newNotifier() {
+        ObjectProvider<ResourceChangeNotifier.SessionNotifier> provider = Mockito.mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(sessionNotifier);
+        return new ResourceChangeNotifier(druidProperties, provider);
+    }
+
+    @Test
+    void testNotifiesOnlyAffectedResourcesWhoseContentChanged() {
+        // Arrange
+        AtomicReference<String> wikipedia = new AtomicReference<>("{\"segments\":1}");
+        notifier.watch(() -> result("datasource://wikipedia", wikipedia.get()), result("datasource://wikipedia", wikipedia.get()));
+        notifier.watch(() -> result("datasource://koalas", "changed"), result("datasource://koalas", "{}"));
+        notifier.watch(() -> result("segment://wikipedia_2024-01-01T00:00:00.000Z_2024-01-02T00:00:00.000Z_v1", "same"),
+                result("segment://wikipedia_2024-01-01T00:00:00.000Z_2024-01-02T00:00:00.000Z_v1", "same"));
+        notifier.subscribe("session-1", "datasource://wikipedia");
+        notifier.subscribe("session-1", "datasource://koalas");
+        notifier.subscribe("session-1", "segment://wikipedia_2024-01-01T00:00:00.000Z_2024-01-02T00:00:00.000Z_v1");
+        wikipedia.set("{\"segments\":2}");
+
+        // Act
+        notifier.onSegmentsChanged(new ClusterChangeEvent.SegmentsChanged(Set.of("wikipedia")));
+        notifier.onSegmentsChanged(new ClusterChangeEvent.SegmentsChanged(Set.of("wikipedia")));
+
+        // Assert
+        verify(sessionNotifier, times(1)).notify("session-1", new ResourcesUpdatedNotification("datasource://wikipedia"));
+        verify(sessionNotifier, times(1)).notify(anyString(), any());
+        assertEquals(1L, notifier.toMap().get("notificationsSent"));
+        assertEquals(4L, notifier.toMap().get("rereads"));
+    }
+
+    @Test
+    void testIgnoresTransientErrorsAndUnrelatedEvents() {
+        // Arrange
+        notifier.watch(() -> result("lookup://country", "text/plain", "Error retrieving lookup: connection refused"),
+                result("lookup://country", "{\"DE\":\"Germany\"}"));
+        notifier.watch(() -> result("datasource://wikipedia", "changed"), result("datasource://wikipedia", "{}"));
+        notifier.subscribe("session-1", "lookup://country");
+        notifier.subscribe("session-1", "datasource://wikipedia");
+
+        // Act
+        notifier.onLookupsChanged(new ClusterChangeEvent.LookupsChanged());
+        notifier.onSegmentsChanged(new ClusterChangeEvent.SegmentsChanged(Set.of("other")));
+
+        // Assert
+        verify(sessionNotifier, never()).notify(anyString(), any());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyReadResources() {
+        // Arrange
+        druidProperties.getMcp().getResourceSubscriptions().setMaxWatched(2);
+
+        // Act
+        notifier.watch(() -> result("lookup://a", "2"), result("lookup://a", "1"));
+        notifier.watch(() -> result("lookup://b", "2"), result("lookup://b", "1"));
+        notifier.watch(() -> result("lookup://c", "2"), result("lookup://c", "1"));
+        List.of("lookup://a", "lookup://b", "lookup://c").forEach(uri -> notifier.subscribe("session-1", uri));
+        notifier.resync();
+
+        // Assert
+        assertEquals(2, notifier.toMap().get("watchedResources"));
+        verify(sessionNotifier, never()).notify("session-1", new ResourcesUpdatedNotification("lookup://a"));
+        verify(sessionNotifier).notify("session-1", new ResourcesUpdatedNotification("lookup://c"));
+    }
+
+    @Test
+    void testNotifiesOnlySubscribedSessions() {
+        // Arrange
+        notifier.watch(() -> result("lookup://country", "2"), result("lookup://country", "1"));
+        notifier.watch(() -> result("lookup://city", "2"), result("lookup://city", "1"));
+        notifier.subscribe("session-1", "lookup://country");
+        notifier.subscribe("session-2", "lookup://country");
+        notifier.unsubscribe("session-2", "lookup://country");
+
+        // Act
+        notifier.onLookupsChanged(new ClusterChangeEvent.LookupsChanged());
+
+        // Assert
+        verify(sessionNotifier).notify("session-1", new ResourcesUpdatedNotification("lookup://country"));
+        verify(sessionNotifier, never()).notify(eq("session-2"), any());
+        verify(sessionNotifier, never()).notify(anyString(), eq(new ResourcesUpdatedNotification("lookup://city")));
+        assertEquals(1L, notifier.toMap().get("rereads"));
+    }
+
+    @Test
+    void testDropsSubscriptionsOfUnreachableSessions() {
+        // Arrange
+        AtomicReference<String> country = new AtomicReference<>("2");
+        notifier.watch(() -> result("lookup://country", country.get()), result("lookup://country", "1"));
+        notifier.subscribe("session-1", "lookup://country");
+        doThrow(new IllegalStateException("Session closed")).when(sessionNotifier).notify(eq("session-1"), any());
+
+        // Act
+        notifier.onLookupsChanged(new ClusterChangeEvent.LookupsChanged());
+        country.set("3");
+        notifier.onLookupsChanged(new ClusterChangeEvent.LookupsChanged());
+
+        // Assert
+        verify(sessionNotifier, times(1)).notify(anyString(), any());
+        assertEquals(0, notifier.toMap().get("subscribedResources"));
+        assertEquals(1L, notifier.toMap().get("rereads"));
+    }
+
+    @Test
+    void testResyncIsDisabledWithoutChangeDetection() {
+        // Arrange
+        druidProperties.getChangeDetection().setEnabled(false);
+        notifier = newNotifier();
+        notifier.watch(() -> result("lookup://country", "2"), result("lookup://country", "1"));
+        notifier.subscribe("session-1", "lookup://country");
+
+        // Act
+        notifier.resync();
+
+        // Assert
+        assertEquals(0L, notifier.toMap().get("rereads"));
+        verify(sessionNotifier, never()).notify(anyString(), any());
+    }
+
+    @Test
+    void testDependsOnDatasource() {
+        assertTrue(ResourceChangeNotifier.dependsOnDatasource("datasource-details://wikipedia", Set.of("wikipedia")));
+        assertFalse(ResourceChangeNotifier.dependsOnDatasource("datasource://wikipedia_edits", Set.of("wikipedia")));
+        assertTrue(ResourceChangeNotifier.dependsOnDatasource("segment-details://wikipedia_2024_v1", Set.of("wikipedia")));
+        assertFalse(ResourceChangeNotifier.dependsOnDatasource("segment://koalas_2024_v1", Set.of("wikipedia")));
+    }
+
+    private static ReadResourceResult result(String uri, String text) {
+        return result(uri, "application/json", text);
+    }
+
+    private static ReadResourceResult result(String uri, String mimeType, String text) {
+        return new ReadResourceResult(List.of(new TextResourceContents(uri, mimeType, text)));
+    }
+}
@@ -90,7 +90,7 @@ class HealthIntegrationTest {
         System.out.println("[DEBUG_LOG] Testing HealthToolProvider basic functionality");
 
         try {
-            String result = healthToolProvider.getClusterStatus(null);
+            String result = healthToolProvider.getClusterStatus(null, null);
             assertNotNull(result, "getClusterStatus should return a non-null result");
             assertInstanceOf(String.class, result, "getClusterStatus should return a String");
             System.out.println("[DEBUG_LOG] getClusterStatus result: " + result.substring(0, Math.min(100, result.length())));
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.security.oauth;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("http")
+@TestPropertySource(properties = {
+        "druid.mcp.security.oauth2.enabled=true",
+        // Tokens are issued externally in the WebFlux build; the key set is only fetched for a token
+        "spring.security.oauth2.resourceserver.jwt.jwk-set-uri=http://localhost:9000/oauth2/jwks"
+})
+class ReactiveOauthSecurityWebFluxTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToApplicationContext(applicationContext).build();
+    }
+
+    @Test
+    void shouldRegisterResourceServerSecurityWebFilterChainWhenEnabled() {
+        assertThat(applicationContext.containsBean("resourceServerSecurityWebFilterChain")).isTrue();
+        assertThat(applicationContext.containsBean("permitAllSecurityWebFilterChain")).isFalse();
+        assertThat(applicationContext.containsBean("authorizationServerSecurityFilterChain")).isFalse();
+    }
+
+    @Test
+    void unauthorizedWhenAccessingEndpointWithoutToken() {
+        webTestClient.get().uri("/test")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
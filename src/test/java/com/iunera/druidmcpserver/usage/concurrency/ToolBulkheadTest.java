@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.concurrency;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolBulkheadTest {
+
+    @Test
+    void testQueuedInvocationRunsWhenSlotIsReleased() throws Exception {
+        // Arrange
+        ToolBulkhead bulkhead = new ToolBulkhead("diagnoseCluster", 1, 1, 5000);
+        bulkhead.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try {
+                bulkhead.acquire();
+                acquired.countDown();
+            } catch (ToolBusyException ignored) {
+            }
+        });
+        for (int i = 0; i < 100 && bulkhead.getQueued() == 0; i++) {
+            Thread.sleep(10);
+        }
+
+        // Act
+        assertEquals(1, bulkhead.getQueued());
+        bulkhead.release();
+
+        // Assert
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(1, bulkhead.getInFlight());
+        assertEquals(0, bulkhead.getQueued());
+        assertEquals(2L, bulkhead.toMap().get("acquired"));
+    }
+
+    @Test
+    void testRejectsWhenQueueIsFullOrTimedOut() throws Exception {
+        // Arrange
+        ToolBulkhead noQueue = new ToolBulkhead("getSegments", 1, 0, 5000);
+        ToolBulkhead shortTimeout = new ToolBulkhead("getTasks", 1, 5, 20);
+        noQueue.acquire();
+        shortTimeout.acquire();
+
+        // Act & Assert
+        ToolBusyException full = assertThrows(ToolBusyException.class, noQueue::acquire);
+        assertTrue(full.getMessage().contains("getSegments"));
+        assertThrows(ToolBusyException.class, shortTimeout::acquire);
+        assertEquals(1L, noQueue.toMap().get("rejected"));
+        assertEquals(1L, shortTimeout.toMap().get("queueTimeouts"));
+        assertEquals(1, shortTimeout.getInFlight());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRegistryAppliesPerToolOverrides() {
+        // Arrange
+        DruidProperties druidProperties = new DruidProperties();
+        DruidProperties.Mcp.ToolLimit limit = new DruidProperties.Mcp.ToolLimit();
+        limit.setMaxConcurrent(2);
+        druidProperties.getMcp().getToolConcurrency().getTools().put("diagnoseCluster", limit);
+        ToolBulkheadRegistry registry = new ToolBulkheadRegistry(druidProperties, Mockito.mock(ObjectProvider.class));
+
+        // Act
+        ToolBulkhead heavy = registry.get("diagnoseCluster");
+        ToolBulkhead cheap = registry.get("getLookups");
+
+        // Assert
+        assertSame(heavy, registry.get("diagnoseCluster"));
+        assertEquals(2, heavy.toMap().get("maxConcurrent"));
+        assertEquals(100, heavy.toMap().get("maxQueue"));
+        assertEquals(32, cheap.toMap().get("maxConcurrent"));
+        assertEquals("diagnoseCluster", registry.getBulkheads().get(0).getToolName());
+    }
+}
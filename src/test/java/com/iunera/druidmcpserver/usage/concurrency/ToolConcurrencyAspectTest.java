@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.concurrency;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolConcurrencyAspectTest {
+
+    @Test
+    void testReleasesSlotWhenInvocationCompletesOrFails() {
+        // Arrange
+        ToolBulkhead bulkhead = new ToolBulkhead("queryDruidSql", 1, 0, 5000);
+
+        // Act
+        Object result = ToolConcurrencyAspect.limitConcurrency(bulkhead, Mono.just("rows")).block(Duration.ofSeconds(5));
+        assertThrows(IllegalStateException.class, () -> ToolConcurrencyAspect
+                .limitConcurrency(bulkhead, Mono.error(new IllegalStateException("Broker down"))).block(Duration.ofSeconds(5)));
+
+        // Assert
+        assertEquals("rows", result);
+        assertEquals(0, bulkhead.getInFlight());
+        assertEquals(2L, bulkhead.toMap().get("acquired"));
+    }
+
+    @Test
+    void testReturnsErrorMessageWhenBusy() throws Exception {
+        // Arrange
+        ToolBulkhead bulkhead = new ToolBulkhead("queryDruidSql", 1, 0, 5000);
+        bulkhead.acquire();
+
+        // Act
+        Object result = ToolConcurrencyAspect.limitConcurrency(bulkhead, Mono.just("rows")).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertTrue(((String) result).startsWith("Error: Too many concurrent queryDruidSql calls"));
+        assertEquals(1, bulkhead.getInFlight());
+    }
+
+    @Test
+    void testReleasesSlotWhenCancelledWhileRunning() throws Exception {
+        // Arrange
+        ToolBulkhead bulkhead = new ToolBulkhead("queryDruidSql", 1, 0, 5000);
+        Disposable subscription = ToolConcurrencyAspect.limitConcurrency(bulkhead, Mono.never()).subscribe();
+        awaitInFlight(bulkhead, 1);
+
+        // Act
+        subscription.dispose();
+
+        // Assert
+        awaitInFlight(bulkhead, 0);
+        assertEquals(0, bulkhead.getInFlight());
+    }
+
+    @Test
+    void testReleasesSlotWhenCancelledBeforeInvocationStarts() throws Exception {
+        // Arrange
+        ToolBulkhead bulkhead = new ToolBulkhead("queryDruidSql", 1, 1, 5000);
+        bulkhead.acquire();
+        Disposable subscription = ToolConcurrencyAspect.limitConcurrency(bulkhead, Mono.never()).subscribe();
+        for (int i = 0; i < 100 && bulkhead.getQueued() == 0; i++) {
+            Thread.sleep(10);
+        }
+
+        // Act
+        subscription.dispose();
+        bulkhead.release();
+
+        // Assert
+        awaitInFlight(bulkhead, 0);
+        assertEquals(0, bulkhead.getInFlight());
+        assertEquals(0, bulkhead.getQueued());
+    }
+
+    private static void awaitInFlight(ToolBulkhead bulkhead, int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && (bulkhead.getInFlight() != expected || bulkhead.getQueued() != 0); i++) {
+            Thread.sleep(10);
+        }
+    }
+}
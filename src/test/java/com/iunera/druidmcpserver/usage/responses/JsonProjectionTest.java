@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.responses;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonProjectionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testProjectsEachElementOfList() {
+        // Arrange
+        String tasks = """
+                [{"id": "index_1", "status": {"state": "RUNNING", "duration": 10}, "spec": {"big": [1, 2, 3]}},
+                 {"id": "index_2", "status": {"state": "FAILED", "duration": 5}, "spec": {"big": [4]}},
+                 {"other": true}]
+                """;
+
+        // Act
+        String projected = JsonProjection.parse("id, status.state").apply(objectMapper, tasks);
+
+        // Assert
+        assertEquals("[{\"id\":\"index_1\",\"status\":{\"state\":\"RUNNING\"}},{\"id\":\"index_2\",\"status\":{\"state\":\"FAILED\"}},{}]", projected);
+    }
+
+    @Test
+    void testJsonPointerAndWildcard() {
+        // Arrange
+        String lookups = """
+                {"__default": {"country": {"version": "v1", "lookupExtractorFactory": {"type": "map", "map": {"DE": "Germany"}}}},
+                 "hot": {"city": {"version": "v2", "lookupExtractorFactory": {"type": "cachedNamespace"}}}}
+                """;
+
+        // Act
+        String versions = JsonProjection.parse("*.*.version").apply(objectMapper, lookups);
+        String types = JsonProjection.parse("/__default/country/lookupExtractorFactory/type").apply(objectMapper, lookups);
+
+        // Assert
+        assertEquals("{\"__default\":{\"country\":{\"version\":\"v1\"}},\"hot\":{\"city\":{\"version\":\"v2\"}}}", versions);
+        assertEquals("{\"__default\":{\"country\":{\"lookupExtractorFactory\":{\"type\":\"map\"}}}}", types);
+    }
+
+    @Test
+    void testWholeSubtreeAndArrayIndex() {
+        // Arrange
+        String supervisor = "{\"id\": \"wiki\", \"spec\": {\"ioConfig\": {\"topic\": \"edits\", \"replicas\": 2}, \"tuningConfig\": {}}, \"hosts\": [\"a\", \"b\"]}";
+
+        // Act
+        String projected = JsonProjection.parse("spec.ioConfig,hosts.1,missing.field").apply(objectMapper, supervisor);
+
+        // Assert
+        assertEquals("{\"spec\":{\"ioConfig\":{\"topic\":\"edits\",\"replicas\":2}},\"hosts\":[\"b\"]}", projected);
+    }
+
+    @Test
+    void testLeavesNonJsonAndEmptyFieldsUnchanged() {
+        assertNull(JsonProjection.parse(" , "));
+        assertNull(JsonProjection.parse(null));
+        assertEquals("Error getting tasks: timeout", JsonProjection.parse("id").apply(objectMapper, "Error getting tasks: timeout"));
+        assertEquals("{\"truncated", JsonProjection.parse("id").apply(objectMapper, "{\"truncated"));
+        assertEquals("[]", JsonProjection.parse("id").apply(objectMapper, "[]"));
+    }
+
+    @Test
+    void testProjectsResponseStream() {
+        // Arrange
+        String supervisors = "[{\"id\": \"wiki\", \"spec\": {\"dataSchema\": {\"dataSource\": \"wikipedia\"}, \"ioConfig\": {}}}]";
+        JsonProjection projection = JsonProjection.parse("id,/spec/dataSchema/dataSource");
+
+        // Act
+        String projected = projection.apply(objectMapper, new ByteArrayInputStream(supervisors.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(projection.apply(objectMapper, supervisors), projected);
+        assertEquals("[{\"id\":\"wiki\",\"spec\":{\"dataSchema\":{\"dataSource\":\"wikipedia\"}}}]", projected);
+        assertEquals("", projection.apply(objectMapper, new ByteArrayInputStream(new byte[0])));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.responses;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonShapeSummarizerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSummarizesTaskList() {
+        // Arrange
+        String tasks = """
+                [{"id": "index_1", "statusCode": "SUCCESS", "createdTime": "2024-01-02T00:00:00Z", "duration": 100, "location": {"host": "mm1"}},
+                 {"id": "index_2", "statusCode": "FAILED", "createdTime": "2024-01-01T00:00:00Z", "duration": 300, "location": {"host": null}},
+                 {"id": "index_3", "statusCode": "SUCCESS", "createdTime": "2024-01-03T00:00:00Z", "duration": 200, "errorMsg": "boom"}]
+                """;
+
+        // Act
+        Map<String, Object> summary = JsonShapeSummarizer.summarize(objectMapper, tasks);
+
+        // Assert
+        assertEquals(3L, summary.get("rows"));
+        Map<String, Map<String, Object>> fields = (Map<String, Map<String, Object>>) summary.get("fields");
+        assertEquals(List.of("id", "statusCode", "createdTime", "duration", "location.host", "errorMsg"), List.copyOf(fields.keySet()));
+        assertEquals(Map.of("SUCCESS", 2L, "FAILED", 1L), fields.get("statusCode").get("values"));
+        assertEquals("2024-01-01T00:00:00Z", fields.get("createdTime").get("min"));
+        assertEquals("2024-01-03T00:00:00Z", fields.get("createdTime").get("max"));
+        assertEquals(100L, fields.get("duration").get("min"));
+        assertEquals(300L, fields.get("duration").get("max"));
+        assertEquals(200.0, fields.get("duration").get("mean"));
+        assertEquals(1L, fields.get("location.host").get("nulls"));
+        assertEquals(1L, fields.get("location.host").get("missing"));
+        assertEquals(2L, fields.get("errorMsg").get("missing"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEstimatesHighCardinalityWithBoundedExamples() {
+        // Arrange
+        StringBuilder segments = new StringBuilder("[");
+        for (int i = 0; i < 20000; i++) {
+            segments.append(i == 0 ? "" : ",").append("{\"segment_id\":\"wikipedia_").append(i).append("\",\"size\":").append(i % 1000).append("}");
+        }
+
+        // Act
+        Map<String, Object> summary = JsonShapeSummarizer.summarize(objectMapper, segments.append("]").toString());
+
+        // Assert
+        Map<String, Object> ids = ((Map<String, Map<String, Object>>) summary.get("fields")).get("segment_id");
+        long distinct = (Long) ids.get("distinct");
+        assertTrue(Math.abs(distinct - 20000) < 20000 * 0.05, "estimate " + distinct);
+        assertEquals(true, ids.get("distinctApproximate"));
+        assertEquals(JsonShapeSummarizer.EXAMPLES, ((List<?>) ids.get("examples")).size());
+        assertFalse(ids.containsKey("values"));
+        Map<String, Object> sizes = ((Map<String, Map<String, Object>>) summary.get("fields")).get("size");
+        long sizeDistinct = (Long) sizes.get("distinct");
+        assertTrue(Math.abs(sizeDistinct - 1000) < 1000 * 0.05, "estimate " + sizeDistinct);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSummarizesScalarListsAndIgnoresOtherDocuments() {
+        // Act
+        Map<String, Object> summary = JsonShapeSummarizer.summarize(objectMapper, "[\"supervisor_a\", \"supervisor_b\", \"supervisor_a\"]");
+
+        // Assert
+        Map<String, Object> values = ((Map<String, Map<String, Object>>) summary.get("fields")).get("value");
+        assertEquals(2L, values.get("distinct"));
+        assertNull(JsonShapeSummarizer.summarize(objectMapper, "{\"id\": \"wiki\"}"));
+        assertNull(JsonShapeSummarizer.summarize(objectMapper, "Error getting tasks: timeout"));
+        assertNull(JsonShapeSummarizer.summarize(objectMapper, "[{\"id\": "));
+    }
+
+    @Test
+    void testSummarizesResponseStream() throws Exception {
+        // Arrange
+        String supervisors = "  [{\"id\": \"wiki\", \"state\": \"RUNNING\"}, {\"id\": \"metrics\", \"state\": \"SUSPENDED\"}]";
+
+        // Act
+        String summary = JsonShapeSummarizer.summarize(objectMapper,
+                new ByteArrayInputStream(supervisors.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(objectMapper.writeValueAsString(JsonShapeSummarizer.summarize(objectMapper, supervisors)), summary);
+    }
+
+    @Test
+    void testReturnsNonArrayStreamUnchanged() throws Exception {
+        // Arrange
+        String status = "{\"id\": \"wiki\"}";
+
+        // Act
+        String summary = JsonShapeSummarizer.summarize(objectMapper,
+                new ByteArrayInputStream(status.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(status, summary);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2025 Christian Schmitt, Tim Frey
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.iunera.druidmcpserver.usage.responses;
+
+import com.iunera.druidmcpserver.config.DruidProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseGovernorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong now = new AtomicLong();
+    private DruidProperties druidProperties;
+    private ResponseGovernor governor;
+
+    @BeforeEach
+    void setUp() {
+        druidProperties = new DruidProperties();
+        druidProperties.getMcp().getResponseLimit().setMaxBytes(1024);
+        governor = new ResponseGovernor(druidProperties, objectMapper, now::get);
+    }
+
+    @Test
+    void testSmallResponsePassesUnchanged() {
+        String response = "[{\"task\": \"index_wikipedia\"}]";
+
+        assertSame(response, governor.limit("getTasks", response));
+        assertEquals(0L, governor.toMap().get("truncatedResponses"));
+    }
+
+    @Test
+    void testLargeResponseIsSlicedWithContinuationTokens() {
+        // Arrange
+        String response = tasks(200);
+        StringBuilder reassembled = new StringBuilder();
+
+        // Act
+        String envelope = governor.limit("getTasks", response);
+        JsonNode slice = objectMapper.readTree(envelope);
+        reassembled.append(slice.get("content").asText());
+        while (slice.has("continuationToken")) {
+            // Assert: the whole envelope, escaped slice included, stays within the budget
+            assertTrue(ResponseGovernor.utf8Length(envelope) <= 1024, envelope);
+            envelope = governor.next(slice.get("continuationToken").asText());
+            slice = objectMapper.readTree(envelope);
+            reassembled.append(slice.get("content").asText());
+        }
+
+        // Assert
+        assertTrue(ResponseGovernor.utf8Length(envelope) <= 1024, envelope);
+        assertEquals(response, reassembled.toString());
+        assertEquals(response.length(), slice.get("totalBytes").asLong());
+        assertEquals(0L, slice.get("remainingBytes").asLong());
+        assertEquals("getTasks", slice.get("tool").asText());
+    }
+
+    @Test
+    void testSlicesDoNotSplitMultiByteCharacters() {
+        // Arrange
+        String response = "ä€😀".repeat(300);
+        StringBuilder reassembled = new StringBuilder();
+
+        // Act
+        JsonNode slice = objectMapper.readTree(governor.limit("getLookups", response));
+        reassembled.append(slice.get("content").asText());
+        while (slice.has("continuationToken")) {
+            slice = objectMapper.readTree(governor.next(slice.get("continuationToken").asText()));
+            reassembled.append(slice.get("content").asText());
+        }
+
+        // Assert
+        assertEquals(response, reassembled.toString());
+        assertEquals(300L * (2 + 3 + 4), ResponseGovernor.utf8Length(response, 0, response.length()));
+    }
+
+    @Test
+    void testEscapedLength() {
+        assertEquals(1, ResponseGovernor.escapedLength('a'));
+        assertEquals(2, ResponseGovernor.escapedLength('"'));
+        assertEquals(2, ResponseGovernor.escapedLength('\n'));
+        assertEquals(6, ResponseGovernor.escapedLength('\u0001'));
+        assertEquals(4, ResponseGovernor.sliceEnd("\"a\"\\b", 0, 7));
+    }
+
+    @Test
+    void testHeldResponsesExpireAndAreBounded() {
+        // Arrange
+        druidProperties.getMcp().getResponseLimit().setMaxHeldBytes(20000);
+        String first = objectMapper.readTree(governor.limit("getTasks", tasks(300))).get("continuationToken").asText();
+        String second = objectMapper.readTree(governor.limit("getTasks", tasks(300))).get("continuationToken").asText();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> governor.next(first));
+        assertDoesNotThrow(() -> governor.next(second));
+        now.addAndGet(druidProperties.getMcp().getResponseLimit().getHeldTtlMs());
+        assertThrows(IllegalArgumentException.class, () -> governor.next(second));
+        assertThrows(IllegalArgumentException.class, () -> governor.next("not-a-token"));
+    }
+
+    @Test
+    void testTooLargeToHoldReturnsFirstSliceOnly() {
+        // Arrange
+        druidProperties.getMcp().getResponseLimit().setMaxHeldBytes(4096);
+
+        // Act
+        JsonNode slice = objectMapper.readTree(governor.limit("getSegments", tasks(300)));
+
+        // Assert
+        assertTrue(slice.get("truncated").asBoolean());
+        assertFalse(slice.has("continuationToken"));
+        assertEquals(0, governor.toMap().get("heldResponses"));
+    }
+
+    private static String tasks(int count) {
+        StringBuilder tasks = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            tasks.append(i == 0 ? "" : ",").append("{\"id\":\"index_wikipedia_").append(i).append("\",\"status\":\"SUCCESS\"}");
+        }
+        return tasks.append("]").toString();
+    }
+}